@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.benchmarks;
+
+import com.scottlogic.datahelix.generator.core.config.detail.CombinationStrategyType;
+import com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType;
+import com.scottlogic.datahelix.generator.core.config.detail.MonitorType;
+import com.scottlogic.datahelix.generator.core.config.detail.VisualiserLevel;
+import com.scottlogic.datahelix.generator.core.walker.rowspec.RowSpecCacheBudget;
+import com.scottlogic.datahelix.generator.orchestrator.guice.AllConfigSource;
+import com.scottlogic.datahelix.generator.output.guice.OutputFormat;
+import com.scottlogic.datahelix.generator.output.writer.parquet.ParquetCompression;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.OptionalLong;
+
+/**
+ * Configuration for running the generator over one of the example profiles from a benchmark, quietly and
+ * without writing any files
+ */
+public class BenchmarkConfigSource implements AllConfigSource {
+    private static final String EXAMPLES_DIRECTORY_PROPERTY = "datahelix.examples";
+    private static final String DEFAULT_EXAMPLES_DIRECTORY = "../examples";
+    private static final String PROFILE_FILE_NAME = "profile.json";
+
+    private final File profileFile;
+    private final DataGenerationType generationType;
+    private final CombinationStrategyType combinationStrategyType;
+    private final long maxRows;
+
+    public BenchmarkConfigSource(
+        String example,
+        DataGenerationType generationType,
+        CombinationStrategyType combinationStrategyType,
+        long maxRows) {
+        File examplesDirectory = new File(
+            System.getProperty(EXAMPLES_DIRECTORY_PROPERTY, DEFAULT_EXAMPLES_DIRECTORY));
+
+        this.profileFile = new File(new File(examplesDirectory, example), PROFILE_FILE_NAME);
+        this.generationType = generationType;
+        this.combinationStrategyType = combinationStrategyType;
+        this.maxRows = maxRows;
+    }
+
+    @Override
+    public File getProfileFile() {
+        return profileFile;
+    }
+
+    @Override
+    public String fromFilePath() {
+        return "";
+    }
+
+    @Override
+    public DataGenerationType getGenerationType() {
+        return generationType;
+    }
+
+    @Override
+    public CombinationStrategyType getCombinationStrategyType() {
+        return combinationStrategyType;
+    }
+
+    @Override
+    public long getMaxRows() {
+        return maxRows;
+    }
+
+    @Override
+    public boolean useParallelPartitions() {
+        return false;
+    }
+
+    @Override
+    public OptionalLong getSeed() {
+        return OptionalLong.empty();
+    }
+
+    @Override
+    public int getShardIndex() {
+        return 0;
+    }
+
+    @Override
+    public int getShardCount() {
+        return 1;
+    }
+
+    @Override
+    public int getThreads() {
+        return 1;
+    }
+
+    @Override
+    public int getFormattingThreads() {
+        return 0;
+    }
+
+    @Override
+    public int getOutputBufferBatches() {
+        return 16;
+    }
+
+    @Override
+    public int getParquetRowGroupSize() {
+        return 100_000;
+    }
+
+    @Override
+    public ParquetCompression getParquetCompression() {
+        return ParquetCompression.UNCOMPRESSED;
+    }
+
+    @Override
+    public boolean useUnorderedRows() {
+        return false;
+    }
+
+    @Override
+    public long getRandomRowSpecCacheBytes() {
+        return RowSpecCacheBudget.DEFAULT_BYTES;
+    }
+
+    @Override
+    public MonitorType getMonitorType() {
+        return MonitorType.QUIET;
+    }
+
+    @Override
+    public VisualiserLevel getVisualiserLevel() {
+        return VisualiserLevel.OFF;
+    }
+
+    @Override
+    public Path getVisualiserOutputFolder() {
+        return new File(".").toPath();
+    }
+
+    @Override
+    public OutputFormat getOutputFormat() {
+        return OutputFormat.CSV;
+    }
+
+    @Override
+    public Path getOutputPath() {
+        return null;
+    }
+
+    @Override
+    public boolean overwriteOutputFiles() {
+        return false;
+    }
+
+    @Override
+    public boolean useStdOut() {
+        return false;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.benchmarks;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.scottlogic.datahelix.generator.common.output.GeneratedObject;
+import com.scottlogic.datahelix.generator.core.config.detail.CombinationStrategyType;
+import com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType;
+import com.scottlogic.datahelix.generator.core.generation.DataGenerator;
+import com.scottlogic.datahelix.generator.core.profile.Profile;
+import com.scottlogic.datahelix.generator.orchestrator.guice.AllModule;
+import com.scottlogic.datahelix.generator.output.writer.DataSetWriter;
+import com.scottlogic.datahelix.generator.output.writer.OutputWriterFactory;
+import com.scottlogic.datahelix.generator.profile.reader.ProfileReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rows per second for randomly generating and writing the example profiles as CSV, from reading the
+ * profile onwards, as the generate command does
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EndToEndBenchmark {
+    private static final int ROWS = 1000;
+
+    @Param({
+        "actorNames",
+        "datetimeDynamicFields",
+        "demo",
+        "demoTrades",
+        "inMap",
+        "inSet",
+        "integerRangeWithBlacklist",
+        "realNumberRange",
+        "regex",
+        "userAccount"})
+    public String example;
+
+    private ProfileReader profileReader;
+    private DataGenerator dataGenerator;
+    private OutputWriterFactory writerFactory;
+    private BenchmarkConfigSource configSource;
+
+    @Setup
+    public void setup() {
+        configSource = new BenchmarkConfigSource(example, DataGenerationType.RANDOM, CombinationStrategyType.MINIMAL, ROWS);
+        Injector injector = Guice.createInjector(new AllModule(configSource));
+
+        profileReader = injector.getInstance(ProfileReader.class);
+        dataGenerator = injector.getInstance(DataGenerator.class);
+        writerFactory = injector.getInstance(OutputWriterFactory.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void generateRandomRows() throws IOException {
+        Profile profile = profileReader.read(configSource.getProfileFile());
+
+        try (DataSetWriter writer = writerFactory.createWriter(new DiscardingOutputStream(), profile.getFields())) {
+            Iterator<GeneratedObject> rows = dataGenerator.generateData(profile).iterator();
+            while (rows.hasNext()) {
+                writer.writeRow(rows.next());
+            }
+        }
+    }
+}
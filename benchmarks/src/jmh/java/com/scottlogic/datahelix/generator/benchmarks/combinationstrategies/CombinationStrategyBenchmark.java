@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.benchmarks.combinationstrategies;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.FieldType;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.common.profile.SpecificFieldType;
+import com.scottlogic.datahelix.generator.core.config.detail.CombinationStrategyType;
+import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.CombinationStrategy;
+import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.ExhaustiveCombinationStrategy;
+import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.MinimalCombinationStrategy;
+import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.PinningCombinationStrategy;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Measures combining every row from a number of single-field partitions, each with the same number of values
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CombinationStrategyBenchmark {
+    @Param
+    public CombinationStrategyType combinationStrategy;
+
+    @Param({"2", "3", "4"})
+    public int partitions;
+
+    @Param({"10"})
+    public int valuesPerPartition;
+
+    private CombinationStrategy strategy;
+    private List<List<DataBag>> partitionedDataBags;
+
+    @Setup
+    public void setup() {
+        strategy = createStrategy(combinationStrategy);
+
+        Fields fields = Fields.withOrdinals(IntStream.range(0, partitions)
+            .mapToObj(partition -> new Field(
+                "field" + partition,
+                new SpecificFieldType("integer", FieldType.NUMERIC, null),
+                false,
+                null,
+                false,
+                false,
+                null))
+            .collect(Collectors.toList()));
+
+        partitionedDataBags = new ArrayList<>();
+        for (Field field : fields) {
+            partitionedDataBags.add(IntStream.range(0, valuesPerPartition)
+                .mapToObj(value -> DataBag.of(field, new DataBagValue(value)))
+                .collect(Collectors.toList()));
+        }
+    }
+
+    @Benchmark
+    public void permute(Blackhole blackhole) {
+        Stream<Supplier<Stream<DataBag>>> dataBagSequences = partitionedDataBags.stream()
+            .map(dataBags -> dataBags::stream);
+
+        strategy.permute(dataBagSequences).forEach(blackhole::consume);
+    }
+
+    private static CombinationStrategy createStrategy(CombinationStrategyType type) {
+        switch (type) {
+            case EXHAUSTIVE:
+                return new ExhaustiveCombinationStrategy();
+            case PINNING:
+                return new PinningCombinationStrategy();
+            case MINIMAL:
+                return new MinimalCombinationStrategy();
+            default:
+                throw new UnsupportedOperationException("Combination strategy " + type + " is unsupported.");
+        }
+    }
+}
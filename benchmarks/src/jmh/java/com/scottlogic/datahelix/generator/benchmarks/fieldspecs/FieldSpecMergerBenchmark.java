@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.benchmarks.fieldspecs;
+
+import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpec;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecFactory;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecMerger;
+import com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictions;
+import com.scottlogic.datahelix.generator.core.restrictions.linear.Limit;
+import com.scottlogic.datahelix.generator.core.restrictions.string.StringRestrictionsFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictionsFactory.createNumericRestrictions;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FieldSpecMergerBenchmark {
+    public enum Specs {
+        SETS,
+        SET_AND_RESTRICTIONS,
+        NUMERIC_RESTRICTIONS,
+        STRING_RESTRICTIONS
+    }
+
+    @Param
+    public Specs specs;
+
+    @Param({"1000", "100000"})
+    public int setSize;
+
+    private final FieldSpecMerger merger = new FieldSpecMerger();
+    private FieldSpec left;
+    private FieldSpec right;
+
+    @Setup
+    public void setup() {
+        switch (specs) {
+            case SETS:
+                left = FieldSpecFactory.fromList(DistributedList.uniform(numbers(0, setSize)));
+                right = FieldSpecFactory.fromList(DistributedList.uniform(numbers(setSize / 2, setSize * 3 / 2)));
+                break;
+            case SET_AND_RESTRICTIONS:
+                left = FieldSpecFactory.fromList(DistributedList.uniform(numbers(0, setSize)));
+                right = FieldSpecFactory.fromRestriction(numericRange(setSize / 4, setSize * 3 / 4));
+                break;
+            case NUMERIC_RESTRICTIONS:
+                left = FieldSpecFactory.fromRestriction(numericRange(0, setSize));
+                right = FieldSpecFactory.fromRestriction(numericRange(setSize / 2, setSize * 2));
+                break;
+            case STRING_RESTRICTIONS:
+                left = FieldSpecFactory.fromRestriction(
+                    StringRestrictionsFactory.forStringMatching(Pattern.compile("[a-z]{1,10}"), false));
+                right = FieldSpecFactory.fromRestriction(StringRestrictionsFactory.forMaxLength(5));
+                break;
+        }
+    }
+
+    @Benchmark
+    public Optional<FieldSpec> merge() {
+        return new FieldSpecMerger().merge(left, right, false);
+    }
+
+    @Benchmark
+    public Optional<FieldSpec> mergeMemoised() {
+        return merger.merge(left, right, false);
+    }
+
+    private static List<Object> numbers(int from, int to) {
+        return IntStream.range(from, to)
+            .mapToObj(BigDecimal::valueOf)
+            .collect(Collectors.toList());
+    }
+
+    private static LinearRestrictions<BigDecimal> numericRange(int min, int max) {
+        return createNumericRestrictions(
+            new Limit<>(BigDecimal.valueOf(min), true),
+            new Limit<>(BigDecimal.valueOf(max), false));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.benchmarks.output;
+
+import com.scottlogic.datahelix.generator.benchmarks.DiscardingOutputStream;
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.FieldType;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.common.profile.SpecificFieldType;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
+import com.scottlogic.datahelix.generator.output.guice.OutputFormat;
+import com.scottlogic.datahelix.generator.output.writer.DataSetWriter;
+import com.scottlogic.datahelix.generator.output.writer.OutputWriterFactory;
+import com.scottlogic.datahelix.generator.output.writer.csv.CsvOutputWriterFactory;
+import com.scottlogic.datahelix.generator.output.writer.json.JsonOutputWriterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rows per millisecond written by each output format, for rows with a string, an integer, a decimal
+ * and a datetime field
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DataSetWriterBenchmark {
+    private static final int ROWS = 1000;
+
+    @Param
+    public OutputFormat format;
+
+    private OutputWriterFactory writerFactory;
+    private Fields fields;
+    private List<DataBag> rows;
+
+    @Setup
+    public void setup() {
+        writerFactory = format == OutputFormat.JSON
+            ? new JsonOutputWriterFactory(false)
+            : new CsvOutputWriterFactory();
+
+        Field name = createField("name", "string", FieldType.STRING);
+        Field quantity = createField("quantity", "integer", FieldType.NUMERIC);
+        Field price = createField("price", "decimal", FieldType.NUMERIC);
+        Field tradeTime = createField("tradeTime", "datetime", FieldType.DATETIME);
+        fields = Fields.withOrdinals(Arrays.asList(name, quantity, price, tradeTime));
+
+        OffsetDateTime startTime = OffsetDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        rows = new ArrayList<>();
+        for (int row = 0; row < ROWS; row++) {
+            Map<Field, DataBagValue> values = new HashMap<>();
+            values.put(fields.getByName("name"), new DataBagValue("Customer, \"" + row + "\""));
+            values.put(fields.getByName("quantity"), new DataBagValue(BigDecimal.valueOf(row)));
+            values.put(fields.getByName("price"), new DataBagValue(BigDecimal.valueOf(row * 7919L, 2)));
+            values.put(fields.getByName("tradeTime"), new DataBagValue(startTime.plusSeconds(row * 61L)));
+            rows.add(new DataBag(values));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void writeRows() throws IOException {
+        try (DataSetWriter writer = writerFactory.createWriter(new DiscardingOutputStream(), fields)) {
+            for (DataBag row : rows) {
+                writer.writeRow(row);
+            }
+        }
+    }
+
+    private static Field createField(String name, String type, FieldType fieldType) {
+        return new Field(name, new SpecificFieldType(type, fieldType, null), false, null, false, false, null);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.benchmarks.string;
+
+import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
+import com.scottlogic.datahelix.generator.core.generation.string.AutomatonUtils;
+import com.scottlogic.datahelix.generator.core.generation.string.factorys.RandomStringFactory;
+import com.scottlogic.datahelix.generator.core.utils.JavaUtilRandomNumberGenerator;
+import dk.brics.automaton.Automaton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares creating random strings from compiled transition tables against walking the automaton directly
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RandomStringFactoryBenchmark {
+    @Param({"[a-z]{5,10}", "[A-Z]{2}[0-9]{9}[A-Z0-9]", "[a-zA-Z0-9 ]{0,100}", "(foo|bar|baz)-[0-9]{1,4}"})
+    public String regex;
+
+    private Automaton automaton;
+    private RandomStringFactory compiledFactory;
+    private LegacyRandomStringFactory legacyFactory;
+    private RandomNumberGenerator random;
+
+    @Setup
+    public void setup() {
+        automaton = AutomatonUtils.createAutomaton(regex, true);
+        compiledFactory = new RandomStringFactory(automaton);
+        legacyFactory = new LegacyRandomStringFactory();
+        random = new JavaUtilRandomNumberGenerator(0);
+    }
+
+    @Benchmark
+    public String compiled() {
+        return compiledFactory.createRandomString(random);
+    }
+
+    @Benchmark
+    public String legacy() {
+        return legacyFactory.createRandomString(automaton.getInitialState(), random);
+    }
+
+    @Benchmark
+    public RandomStringFactory compile() {
+        return new RandomStringFactory(automaton);
+    }
+}
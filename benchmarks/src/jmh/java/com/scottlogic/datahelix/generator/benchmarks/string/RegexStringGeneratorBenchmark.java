@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.benchmarks.string;
+
+import com.scottlogic.datahelix.generator.core.generation.string.generators.RegexStringGenerator;
+import com.scottlogic.datahelix.generator.core.utils.JavaUtilRandomNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures strings per millisecond from random and sequential regex generation. Every regex has at least
+ * SEQUENTIAL_STRINGS matching strings
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RegexStringGeneratorBenchmark {
+    private static final int SEQUENTIAL_STRINGS = 1000;
+
+    @Param({"[a-z]{5,10}", "[A-Z]{2}[0-9]{9}[A-Z0-9]", "[a-zA-Z0-9 ]{0,100}", "(foo|bar|baz)-[0-9]{1,4}"})
+    public String regex;
+
+    private RegexStringGenerator generator;
+    private Iterator<String> randomStrings;
+
+    @Setup
+    public void setup() {
+        generator = new RegexStringGenerator(regex, true);
+        randomStrings = generator.generateRandomValues(new JavaUtilRandomNumberGenerator(0)).iterator();
+    }
+
+    @Benchmark
+    public String generateRandomValue() {
+        return randomStrings.next();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEQUENTIAL_STRINGS)
+    public void generateAllValues(Blackhole blackhole) {
+        generator.generateAllValues()
+            .limit(SEQUENTIAL_STRINGS)
+            .forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.benchmarks.walker;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.scottlogic.datahelix.generator.benchmarks.BenchmarkConfigSource;
+import com.scottlogic.datahelix.generator.core.config.detail.CombinationStrategyType;
+import com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType;
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTreeFactory;
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTreeOptimiser;
+import com.scottlogic.datahelix.generator.core.fieldspecs.RowSpec;
+import com.scottlogic.datahelix.generator.core.walker.decisionbased.RandomRowSpecSolver;
+import com.scottlogic.datahelix.generator.core.walker.decisionbased.RowSpecTreeSolver;
+import com.scottlogic.datahelix.generator.orchestrator.guice.AllModule;
+import com.scottlogic.datahelix.generator.profile.reader.ProfileReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures picking a random row spec for each row: re-solving a random path through the tree for every row,
+ * against sampling from the solution graph kept by RandomRowSpecSolver
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RandomRowSpecSolverBenchmark {
+    @Param({"actorNames", "demo", "demoTrades", "userAccount"})
+    public String example;
+
+    private RowSpecTreeSolver rowSpecTreeSolver;
+    private DecisionTree tree;
+    private Iterator<RowSpec> samples;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkConfigSource configSource =
+            new BenchmarkConfigSource(example, DataGenerationType.RANDOM, CombinationStrategyType.MINIMAL, 1);
+        Injector injector = Guice.createInjector(new AllModule(configSource));
+
+        DecisionTree analysedTree = injector.getInstance(DecisionTreeFactory.class)
+            .analyse(injector.getInstance(ProfileReader.class).read(configSource.getProfileFile()));
+
+        tree = injector.getInstance(DecisionTreeOptimiser.class).optimiseTree(analysedTree);
+        rowSpecTreeSolver = injector.getInstance(RowSpecTreeSolver.class);
+        samples = injector.getInstance(RandomRowSpecSolver.class).sampleRowSpecs(tree).iterator();
+    }
+
+    @Benchmark
+    public Optional<RowSpec> resolvePerRow() {
+        return rowSpecTreeSolver.createRowSpecs(tree).findFirst();
+    }
+
+    @Benchmark
+    public RowSpec sampleSolutionGraph() {
+        return samples.next();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.benchmarks.walker;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.scottlogic.datahelix.generator.benchmarks.BenchmarkConfigSource;
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.core.config.detail.CombinationStrategyType;
+import com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType;
+import com.scottlogic.datahelix.generator.core.decisiontree.ConstraintNode;
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTreeFactory;
+import com.scottlogic.datahelix.generator.core.generation.DataGenerator;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
+import com.scottlogic.datahelix.generator.core.profile.Profile;
+import com.scottlogic.datahelix.generator.core.walker.pruner.Merged;
+import com.scottlogic.datahelix.generator.core.walker.pruner.TreePruner;
+import com.scottlogic.datahelix.generator.orchestrator.guice.AllModule;
+import com.scottlogic.datahelix.generator.profile.reader.ProfileReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures pruning the decision tree of an example profile for a value of each of its fields in turn, as the
+ * reductive walker does after fixing a field. The values come from a row generated from the same profile
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TreePrunerBenchmark {
+    @Param({"actorNames", "demo", "demoTrades", "userAccount"})
+    public String example;
+
+    private TreePruner treePruner;
+    private ConstraintNode rootNode;
+    private Field[] fields;
+    private DataBagValue[] values;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkConfigSource configSource =
+            new BenchmarkConfigSource(example, DataGenerationType.RANDOM, CombinationStrategyType.MINIMAL, 1);
+        Injector injector = Guice.createInjector(new AllModule(configSource));
+
+        Profile profile = injector.getInstance(ProfileReader.class).read(configSource.getProfileFile());
+        DecisionTree tree = injector.getInstance(DecisionTreeFactory.class).analyse(profile);
+        DataBag row = (DataBag) injector.getInstance(DataGenerator.class).generateData(profile)
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("No rows generated from " + example));
+
+        treePruner = injector.getInstance(TreePruner.class);
+        rootNode = tree.getRootNode();
+        fields = tree.getFields().asList().toArray(new Field[0]);
+        values = new DataBagValue[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = row.getDataBagValue(fields[i]);
+        }
+    }
+
+    @Benchmark
+    public Merged<ConstraintNode> pruneConstraintNode() {
+        int field = next;
+        next = (next + 1) % fields.length;
+        return treePruner.pruneConstraintNode(rootNode, fields[field], values[field]);
+    }
+}
@@ -16,10 +16,9 @@
 
 package com.scottlogic.datahelix.generator.common.date;
 
-import org.threeten.extra.Temporals;
-
 import java.time.Duration;
 import java.time.Period;
+import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjuster;
 import java.time.temporal.TemporalAmount;
@@ -40,8 +39,10 @@ public class TemporalAdjusterGenerator {
     }
 
     private TemporalAdjuster getWorkingDayAdjusterFunction(int value) {
-        TemporalAdjuster adjuster = value >= 0 ? Temporals.nextWorkingDay() : Temporals.previousWorkingDay();
-        return new RepeatedTemporalAdjuster(adjuster, Math.abs(value));
+        return t -> {
+            long epochDay = t.getLong(ChronoField.EPOCH_DAY);
+            return t.plus(WorkingDayIndex.addWorkingDays(epochDay, value) - epochDay, ChronoUnit.DAYS);
+        };
     }
 
     private TemporalAdjuster getAdjusterFunction(ChronoUnit unit, int value) {
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.common.date;
+
+/**
+ * Numbers the working days (Monday to Friday) consecutively, so moving a date by a number of working days is a
+ * constant time calculation rather than a walk over each day in between.
+ * Working day 0 is Monday 29th December 1969, the Monday of the week containing the epoch.
+ */
+public final class WorkingDayIndex {
+    private static final int WORKING_DAYS_IN_WEEK = 5;
+    private static final int DAYS_IN_WEEK = 7;
+    private static final long EPOCH_DAY_OF_FIRST_MONDAY = -3;
+
+    private WorkingDayIndex() {
+    }
+
+    /**
+     * Moves the given day by a number of working days, in the same way as repeatedly moving to the next (or previous)
+     * working day would. A weekend day moves to the following Monday (or preceding Friday) with the first step.
+     */
+    public static long addWorkingDays(long epochDay, long amount) {
+        if (amount == 0) {
+            return epochDay;
+        }
+        return amount > 0
+            ? toEpochDay(onOrBefore(epochDay) + amount)
+            : toEpochDay(onOrAfter(epochDay) + amount);
+    }
+
+    /**
+     * @return the index of the given day if it is a working day, otherwise the index of the preceding Friday
+     */
+    public static long onOrBefore(long epochDay) {
+        long week = Math.floorDiv(epochDay - EPOCH_DAY_OF_FIRST_MONDAY, DAYS_IN_WEEK);
+        long dayOfWeek = Math.floorMod(epochDay - EPOCH_DAY_OF_FIRST_MONDAY, DAYS_IN_WEEK);
+        return week * WORKING_DAYS_IN_WEEK + Math.min(dayOfWeek, WORKING_DAYS_IN_WEEK - 1);
+    }
+
+    /**
+     * @return the index of the given day if it is a working day, otherwise the index of the following Monday
+     */
+    public static long onOrAfter(long epochDay) {
+        long week = Math.floorDiv(epochDay - EPOCH_DAY_OF_FIRST_MONDAY, DAYS_IN_WEEK);
+        long dayOfWeek = Math.floorMod(epochDay - EPOCH_DAY_OF_FIRST_MONDAY, DAYS_IN_WEEK);
+        return week * WORKING_DAYS_IN_WEEK + Math.min(dayOfWeek, WORKING_DAYS_IN_WEEK);
+    }
+
+    public static long toEpochDay(long workingDay) {
+        long week = Math.floorDiv(workingDay, WORKING_DAYS_IN_WEEK);
+        long dayOfWeek = Math.floorMod(workingDay, WORKING_DAYS_IN_WEEK);
+        return week * DAYS_IN_WEEK + dayOfWeek + EPOCH_DAY_OF_FIRST_MONDAY;
+    }
+}
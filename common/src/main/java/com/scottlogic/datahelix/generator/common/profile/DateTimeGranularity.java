@@ -50,6 +50,14 @@ public class DateTimeGranularity implements Granularity<OffsetDateTime> {
         return new DateTimeGranularity(Enum.valueOf(ChronoUnit.class, workingDay ? "DAYS" : offsetUnitUpperCase), workingDay);
     }
 
+    public ChronoUnit getChronoUnit() {
+        return chronoUnit;
+    }
+
+    public boolean isWorkingDay() {
+        return workingDay;
+    }
+
     @Override
     public Granularity<OffsetDateTime> getFinestGranularity() {
         return DateTimeDefaults.get().granularity();
@@ -133,7 +141,7 @@ public class DateTimeGranularity implements Granularity<OffsetDateTime> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(chronoUnit, workingDay);
+        return Objects.hash(chronoUnit.name(), workingDay);
     }
 
     @Override
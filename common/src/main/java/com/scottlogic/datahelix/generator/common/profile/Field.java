@@ -19,6 +19,11 @@ package com.scottlogic.datahelix.generator.common.profile;
 import java.util.Objects;
 
 public class Field {
+    /**
+     * Ordinal of a field that hasn't been loaded as part of a profile
+     */
+    public static final int NO_ORDINAL = -1;
+
     private final String name;
     private final SpecificFieldType type;
     private final boolean unique;
@@ -26,8 +31,13 @@ public class Field {
     private final boolean internal;
     private final boolean nullable;
     private final String generator;
+    private final int ordinal;
 
     public Field(String name, SpecificFieldType type, boolean unique, String formatting, boolean internal, boolean nullable, String generator) {
+        this(name, type, unique, formatting, internal, nullable, generator, NO_ORDINAL);
+    }
+
+    private Field(String name, SpecificFieldType type, boolean unique, String formatting, boolean internal, boolean nullable, String generator, int ordinal) {
         this.name = name;
         this.type = type;
         this.unique = unique;
@@ -35,6 +45,11 @@ public class Field {
         this.internal = internal;
         this.nullable = nullable;
         this.generator = generator;
+        this.ordinal = ordinal;
+    }
+
+    Field withOrdinal(int ordinal) {
+        return new Field(name, type, unique, formatting, internal, nullable, generator, ordinal);
     }
 
     public FieldType getType() {
@@ -66,6 +81,14 @@ public class Field {
 
     public String getCustomGeneratorName() { return generator; }
 
+    /**
+     * The dense index of this field within its profile, or NO_ORDINAL if the field was created outside of a profile.
+     * The ordinal is not part of the field's identity, it is only used to index values by field.
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
     @Override
     public String toString() {
         return this.getName();
@@ -17,16 +17,51 @@
 package com.scottlogic.datahelix.generator.common.profile;
 
 
-
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 public class Fields implements Iterable<Field> {
     private final List<Field> fields;
+    private final Map<Field, NumericBounds> numericBounds;
 
     public Fields(List<Field> fields) {
+        this(fields, Collections.emptyMap());
+    }
+
+    private Fields(List<Field> fields, Map<Field, NumericBounds> numericBounds) {
         this.fields = fields;
+        this.numericBounds = numericBounds;
+    }
+
+    /**
+     * Creates the fields of a profile, numbering each field with its position so values can be indexed by field
+     */
+    public static Fields withOrdinals(List<Field> fields) {
+        List<Field> orderedFields = new ArrayList<>(fields.size());
+        for (int ordinal = 0; ordinal < fields.size(); ordinal++) {
+            orderedFields.add(fields.get(ordinal).withOrdinal(ordinal));
+        }
+        return new Fields(orderedFields);
+    }
+
+    /**
+     * Gives the same fields, along with the bounds that the values of some of the numeric fields are known to lie
+     * within. The bounds are not part of the fields' identity.
+     */
+    public Fields withNumericBounds(Map<Field, NumericBounds> numericBounds) {
+        return new Fields(fields, numericBounds);
+    }
+
+    /**
+     * The bounds of the field's values, if they were given with {@link #withNumericBounds}
+     */
+    public Optional<NumericBounds> getNumericBounds(Field field) {
+        return Optional.ofNullable(numericBounds.get(field));
     }
 
     public Field getByName(String fieldName) {
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.scottlogic.datahelix.generator.common.profile;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * The inclusive range and granularity every value of a numeric field lies within, so that a writer can size a
+ * column for the field's values before seeing any of them
+ */
+public class NumericBounds {
+    private final BigDecimal min;
+    private final BigDecimal max;
+    private final NumericGranularity granularity;
+
+    public NumericBounds(BigDecimal min, BigDecimal max, NumericGranularity granularity) {
+        this.min = min;
+        this.max = max;
+        this.granularity = granularity;
+    }
+
+    public BigDecimal getMin() {
+        return min;
+    }
+
+    public BigDecimal getMax() {
+        return max;
+    }
+
+    public NumericGranularity getGranularity() {
+        return granularity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NumericBounds that = (NumericBounds) o;
+        return min.compareTo(that.min) == 0
+            && max.compareTo(that.max) == 0
+            && Objects.equals(granularity, that.granularity);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(min.stripTrailingZeros(), max.stripTrailingZeros(), granularity);
+    }
+
+    @Override
+    public String toString() {
+        return "min=" + min + ", max=" + max + " " + granularity;
+    }
+}
@@ -36,6 +36,10 @@ public class NumericGranularity implements Granularity<BigDecimal> {
         this.decimalPlaces = decimalPlaces;
     }
 
+    public int getDecimalPlaces() {
+        return decimalPlaces;
+    }
+
     public static NumericGranularity create(Object granularity)
     {
         BigDecimal asNumber = NumberUtils.coerceToBigDecimal(granularity);
@@ -72,6 +76,9 @@ public class NumericGranularity implements Granularity<BigDecimal> {
 
     @Override
     public BigDecimal getNext(BigDecimal value, int amount) {
+        if (amount == 0) {
+            return value;
+        }
         BigDecimal addAmount = BigDecimal.ONE.scaleByPowerOfTen(decimalPlaces * -1)
             .multiply(BigDecimal.valueOf(amount));
         return value.add(addAmount);
@@ -91,6 +98,9 @@ public class NumericGranularity implements Granularity<BigDecimal> {
     @Override
     public BigDecimal getPrevious(BigDecimal value, int amount) {
         if (isCorrectScale(value)){
+            if (amount == 0) {
+                return value;
+            }
             return value.subtract(BigDecimal.ONE.scaleByPowerOfTen(decimalPlaces * -1)
                 .multiply(BigDecimal.valueOf(amount)));
         }
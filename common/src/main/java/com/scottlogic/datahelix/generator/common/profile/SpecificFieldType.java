@@ -62,8 +62,12 @@ public class SpecificFieldType {
             Objects.equals(fakerMethod, that.fakerMethod);
     }
 
+    /**
+     * The field type is hashed by name, as an enum constant's own hash code differs from one run to the next and
+     * profile trees are held in hash sets whose order decides the order values are drawn in
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(type, fieldType, formatting, fakerMethod);
+        return Objects.hash(type, fieldType.name(), formatting, fakerMethod);
     }
 }
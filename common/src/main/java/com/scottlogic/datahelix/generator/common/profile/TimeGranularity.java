@@ -117,7 +117,7 @@ public class TimeGranularity implements Granularity<LocalTime> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(granularity);
+        return Objects.hash(granularity.name());
     }
 
     @Override
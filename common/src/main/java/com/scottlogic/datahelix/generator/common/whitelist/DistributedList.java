@@ -27,7 +27,13 @@ public class DistributedList<T> {
 
     private final List<WeightedElement<T>> underlyingWeights;
 
-    private final List<WeightedElement<T>> underlyingCumulativeWeights;
+    /**
+     * Alias table (see Vose's alias method) allowing an element to be picked in constant time. An element is picked by
+     * choosing a column uniformly, then taking the column's own element with the given probability or its alias
+     * otherwise.
+     */
+    private final double[] columnProbabilities;
+    private final int[] columnAliases;
 
     public DistributedList(final List<WeightedElement<T>> underlyingWeights) {
         if (underlyingWeights.contains(null)) {
@@ -36,7 +42,9 @@ public class DistributedList<T> {
 
         List<WeightedElement<T>> normalisedWeights = normalise(underlyingWeights);
         this.underlyingWeights = Collections.unmodifiableList(normalisedWeights);
-        this.underlyingCumulativeWeights = cumulative(normalisedWeights);
+        this.columnProbabilities = new double[normalisedWeights.size()];
+        this.columnAliases = new int[normalisedWeights.size()];
+        populateAliasTable(normalisedWeights, columnProbabilities, columnAliases);
     }
 
     private static <T> List<WeightedElement<T>> normalise(final List<WeightedElement<T>> denormalised) {
@@ -61,26 +69,49 @@ public class DistributedList<T> {
                 .collect(Collectors.toList()));
     }
 
-    private static <T> List<WeightedElement<T>> cumulative(List<WeightedElement<T>> nonCumulative) {
-        List<WeightedElement<T>> cumulative = new LinkedList<>();
-        double runningTotal = 0.0D;
-        for (WeightedElement<T> holder : nonCumulative) {
-            runningTotal += holder.weight();
-            cumulative.add(new WeightedElement<>(holder.element(), runningTotal));
+    private static <T> void populateAliasTable(List<WeightedElement<T>> normalisedWeights, double[] probabilities, int[] aliases) {
+        final int size = normalisedWeights.size();
+        final double[] scaledWeights = new double[size];
+        final int[] small = new int[size];
+        final int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int index = 0; index < size; index++) {
+            scaledWeights[index] = normalisedWeights.get(index).weight() * size;
+            if (scaledWeights[index] < 1.0D) {
+                small[smallCount++] = index;
+            } else {
+                large[largeCount++] = index;
+            }
         }
 
-        if (!cumulative.isEmpty()) {
-           replaceLastCumulativeElement(cumulative);
-        }
+        while (smallCount > 0 && largeCount > 0) {
+            final int less = small[--smallCount];
+            final int more = large[--largeCount];
 
-        return new ArrayList<>(cumulative);
-    }
+            probabilities[less] = scaledWeights[less];
+            aliases[less] = more;
+
+            scaledWeights[more] = (scaledWeights[more] + scaledWeights[less]) - 1.0D;
+            if (scaledWeights[more] < 1.0D) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
 
-    private static <T> void replaceLastCumulativeElement(List<WeightedElement<T>> cumulative) {
-        int lastIndex = cumulative.size() - 1;
-        WeightedElement<T> last = cumulative.get(lastIndex);
-        cumulative.remove(lastIndex);
-        cumulative.add(new WeightedElement<>(last.element(), 1.0D));
+        // Anything left over should have a scaled weight of 1, any difference is due to rounding errors
+        while (largeCount > 0) {
+            final int index = large[--largeCount];
+            probabilities[index] = 1.0D;
+            aliases[index] = index;
+        }
+        while (smallCount > 0) {
+            final int index = small[--smallCount];
+            probabilities[index] = 1.0D;
+            aliases[index] = index;
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -93,31 +124,19 @@ public class DistributedList<T> {
     }
 
     public T pickRandomly(RandomNumberGenerator random) {
-        return getElementFromCumulativeDistribution(1.0D - random.nextDouble(0.0D, 1.0D));
-    }
-
-    private T getElementFromCumulativeDistribution(final double value) {
-        List<Double> weights = underlyingCumulativeWeights.stream()
-            .map(WeightedElement::weight)
-            .collect(Collectors.toList());
+        if (underlyingWeights.isEmpty()) {
+            throw new IllegalStateException("Cannot pick an element from an empty DistributedList");
+        }
 
-        final int index = binarySearch(weights, value);
+        final double scaled = random.nextDouble(0.0D, 1.0D) * columnProbabilities.length;
+        final int column = Math.min((int) scaled, columnProbabilities.length - 1);
+        final double withinColumn = scaled - column;
 
-        return underlyingCumulativeWeights.get(index).element();
-    }
+        final int index = withinColumn < columnProbabilities[column]
+            ? column
+            : columnAliases[column];
 
-    private static int binarySearch(List<Double> weights, double target) {
-        final int index = Collections.binarySearch(weights, target, Double::compare);
-
-        // We need to resolve the index.
-        // A positive index represents an exact match
-        // A negative index represents an inexact match
-        // See Collections.binarySearch javadoc for more information
-        if (index < 0) {
-            return (-index) - 1;
-        } else {
-            return index;
-        }
+        return underlyingWeights.get(index).element();
     }
 
     @Override
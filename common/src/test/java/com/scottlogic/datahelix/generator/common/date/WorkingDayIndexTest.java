@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.common.date;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WorkingDayIndexTest {
+    private static final LocalDate FRIDAY = LocalDate.of(2019, 11, 1);
+    private static final LocalDate SATURDAY = FRIDAY.plusDays(1);
+    private static final LocalDate SUNDAY = FRIDAY.plusDays(2);
+    private static final LocalDate MONDAY = FRIDAY.plusDays(3);
+
+    @Test
+    void addWorkingDays_fromFridayByOne_givesMonday() {
+        assertEquals(MONDAY, addWorkingDays(FRIDAY, 1));
+    }
+
+    @Test
+    void addWorkingDays_fromSaturdayByOne_givesMonday() {
+        assertEquals(MONDAY, addWorkingDays(SATURDAY, 1));
+    }
+
+    @Test
+    void addWorkingDays_fromSundayByMinusOne_givesFriday() {
+        assertEquals(FRIDAY, addWorkingDays(SUNDAY, -1));
+    }
+
+    @Test
+    void addWorkingDays_fromMondayByMinusOne_givesFriday() {
+        assertEquals(FRIDAY, addWorkingDays(MONDAY, -1));
+    }
+
+    @Test
+    void addWorkingDays_fromWeekendByZero_givesSameDay() {
+        assertEquals(SATURDAY, addWorkingDays(SATURDAY, 0));
+    }
+
+    @Test
+    void addWorkingDays_byManyWeeks_skipsEveryWeekend() {
+        assertEquals(FRIDAY.plusWeeks(52), addWorkingDays(FRIDAY, 5 * 52));
+        assertEquals(FRIDAY.minusWeeks(52), addWorkingDays(FRIDAY, -5 * 52));
+    }
+
+    @Test
+    void addWorkingDays_beforeTheEpoch_skipsWeekends() {
+        LocalDate friday = LocalDate.of(1969, 12, 26);
+
+        assertEquals(friday.plusDays(3), addWorkingDays(friday, 1));
+        assertEquals(friday, addWorkingDays(friday.plusDays(3), -1));
+    }
+
+    private static LocalDate addWorkingDays(LocalDate date, long amount) {
+        return LocalDate.ofEpochDay(WorkingDayIndex.addWorkingDays(date.toEpochDay(), amount));
+    }
+}
@@ -203,4 +203,41 @@ class FieldsTests
             secondHashCode
         );
     }
+
+    @Test
+    void withOrdinals_fieldsAreNumberedByPosition_ordinalsMatchPositions() {
+        Fields fields = Fields.withOrdinals(
+            Arrays.asList(
+                createField("First Field"),
+                createField("Second Field")
+            )
+        );
+
+        assertEquals(0, fields.getByName("First Field").getOrdinal());
+        assertEquals(1, fields.getByName("Second Field").getOrdinal());
+    }
+
+    @Test
+    void withOrdinals_fieldsAreNumbered_fieldsRemainEqualToUnnumberedFields() {
+        Fields fields = Fields.withOrdinals(
+            Arrays.asList(
+                createField("First Field"),
+                createField("Second Field")
+            )
+        );
+
+        boolean result = fields.equals(
+            new Fields(
+                Arrays.asList(
+                    createField("First Field"),
+                    createField("Second Field")
+                )
+            )
+        );
+
+        assertTrue(
+            "Expected numbering the fields not to change their equality but they were not equal",
+            result
+        );
+    }
 }
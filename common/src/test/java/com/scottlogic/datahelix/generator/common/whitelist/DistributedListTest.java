@@ -21,7 +21,9 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -86,6 +88,34 @@ class DistributedListTest {
         assertEquals(fourthValue, otherFourthValue);
     }
 
+    @Test
+    public void testRandomPickFollowsWeighting() {
+        DistributedList<String> set = new DistributedList<>(Arrays.asList(
+            new WeightedElement<>("first", 1.0D),
+            new WeightedElement<>("second", 2.0D),
+            new WeightedElement<>("third", 3.0D),
+            new WeightedElement<>("fourth", 4.0D)));
+
+        final int samples = 10000;
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < samples; i++) {
+            String value = set.pickRandomly(mockOfRandom((i + 0.5D) / samples));
+            counts.merge(value, 1, Integer::sum);
+        }
+
+        assertEquals(1000, counts.get("first"), 4);
+        assertEquals(2000, counts.get("second"), 4);
+        assertEquals(3000, counts.get("third"), 4);
+        assertEquals(4000, counts.get("fourth"), 4);
+    }
+
+    @Test
+    public void testRandomPickFromEmptyIsRejected() {
+        DistributedList<String> empty = DistributedList.empty();
+
+        assertThrows(IllegalStateException.class, () -> empty.pickRandomly(mockOfRandom(0.5D)));
+    }
+
     private static RandomNumberGenerator mockOfRandom(double value) {
         RandomNumberGenerator generator = mock(RandomNumberGenerator.class);
         when(generator.nextDouble(0.0D, 1.0D)).thenReturn(value);
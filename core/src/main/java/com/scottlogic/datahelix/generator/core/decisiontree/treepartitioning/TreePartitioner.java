@@ -77,25 +77,39 @@ public class TreePartitioner {
             .stream()
             .filter(field -> Objects.isNull(partitions.getPartitionId(field)));
 
+        final Comparator<Field> inProfileOrder = inProfileOrder(decisionTree.getFields());
         return Stream.concat(
             partitions
                 .getPartitions()
                 .stream()
-                .sorted(Comparator.comparingInt(p -> p.id))
                 .map(partition -> new DecisionTree(
                     new ConstraintNodeBuilder()
                         .addAtomicConstraints(partition.getAtomicConstraints())
                         .addRelations(partition.getRelations())
                         .setDecisions(partition.getDecisionNodes())
                         .build(),
-                    new Fields(new ArrayList<>(partition.fields))
+                    new Fields(partition.fields.stream().sorted(inProfileOrder).collect(Collectors.toList()))
                 )),
             unpartitionedFields
                 .map(field -> new DecisionTree(
                     new ConstraintNodeBuilder().build(),
                     new Fields(Collections.singletonList(field))
                 ))
-            );
+            )
+            .sorted(Comparator.comparing(partition -> partition.getFields().asList().get(0), inProfileOrder));
+    }
+
+    /**
+     * Partitions are found by iterating over hash sets of constraints and fields, whose order can change from one run
+     * to the next, so they are put in the order of their first fields in the profile instead. Random generation
+     * draws from a substream per partition, so this keeps seeded values the same in every run.
+     */
+    private static Comparator<Field> inProfileOrder(Fields profileFields) {
+        final Map<Field, Integer> positions = new HashMap<>();
+        for (Field field : profileFields) {
+            positions.putIfAbsent(field, positions.size());
+        }
+        return Comparator.comparingInt(field -> positions.getOrDefault(field, Integer.MAX_VALUE));
     }
 
     static class Partition {
@@ -22,24 +22,59 @@ import com.scottlogic.datahelix.generator.core.restrictions.bool.BooleanRestrict
 import com.scottlogic.datahelix.generator.core.restrictions.string.StringRestrictionsMerger;
 import com.scottlogic.datahelix.generator.core.restrictions.TypedRestrictions;
 import com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictionsMerger;
+import com.scottlogic.datahelix.generator.core.utils.BoundedCache;
 import com.scottlogic.datahelix.generator.common.SetUtils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Returns a FieldSpec that permits only data permitted by all of its inputs
  */
 public class FieldSpecMerger {
+    /**
+     * Sets at least this large are filtered against restrictions in parallel
+     */
+    private static final int PARALLEL_FILTER_THRESHOLD = 10_000;
+    private static final int MERGE_CACHE_SIZE = 10_000;
+
     private final RestrictionsMergeOperation restrictionMergeOperation =
         new RestrictionsMergeOperation(new LinearRestrictionsMerger(), new StringRestrictionsMerger(), new BooleanRestrictionsMerger());
+    private final BoundedCache<MergeKey, Optional<FieldSpec>> mergeCache =
+        new BoundedCache<>("FieldSpec merges", MERGE_CACHE_SIZE);
 
     /**
      * Null parameters are permitted, and are synonymous with an empty FieldSpec
      * <p>
      * Returning an empty Optional conveys that the fields were unmergeable.
+     * <p>
+     * Results are memoised, as the same pairs of FieldSpecs are merged repeatedly while pruning and walking the tree.
+     * Use {@link #mergeUncached} for specs made from generated values, which are rarely merged twice.
      */
     public Optional<FieldSpec> merge(FieldSpec left, FieldSpec right, boolean useFinestGranularityAvailable) {
+        return mergeCache.get(
+            new MergeKey(left, right, useFinestGranularityAvailable),
+            key -> mergeUncached(left, right, useFinestGranularityAvailable));
+    }
+
+    public BoundedCache<?, ?> getMergeCache() {
+        return mergeCache;
+    }
+
+    /**
+     * Merges as {@link #merge} does without memoising the result, for the specs made from each row's values while
+     * generating related fields. Those would hardly ever be looked up again, and would only push the pruning and
+     * reduction merges out of the cache.
+     */
+    public Optional<FieldSpec> mergeUncached(FieldSpec left, FieldSpec right, boolean useFinestGranularityAvailable) {
         if (nullOnly(left) || nullOnly(right)){
             return nullOnlyOrEmpty(bothAreNullable(left, right));
         }
@@ -71,26 +106,42 @@ public class FieldSpecMerger {
         return new WeightedElement<>(left.element(), left.weight() + right.weight());
     }
 
-    //TODO try a performance test with this replaced with combineSetWithRestrictions()
-
+    /**
+     * Intersects the sets with a hash join on the elements: the right set is indexed by element, then the left set
+     * is probed against it in order. Matching elements are kept in left-set order with their weights summed.
+     */
     private Optional<FieldSpec> mergeSets(WhitelistFieldSpec left, WhitelistFieldSpec right) {
-        DistributedList<Object> set = new DistributedList<>(left.getWhitelist().distributedList().stream()
-            .flatMap(leftHolder -> right.getWhitelist().distributedList().stream()
-                .filter(rightHolder -> elementsEqual(leftHolder, rightHolder))
-                .map(rightHolder -> mergeElements(leftHolder, rightHolder)))
-            .distinct()
-            .collect(Collectors.toList()));
+        Map<Object, List<WeightedElement<Object>>> rightByElement = indexByElement(right.getWhitelist());
 
+        Set<WeightedElement<Object>> merged = new LinkedHashSet<>();
+        for (WeightedElement<Object> leftHolder : left.getWhitelist().distributedList()) {
+            List<WeightedElement<Object>> matches = rightByElement.get(leftHolder.element());
+            if (matches != null) {
+                matches.forEach(rightHolder -> merged.add(mergeElements(leftHolder, rightHolder)));
+            }
+        }
+
+        DistributedList<Object> set = new DistributedList<>(new ArrayList<>(merged));
         FieldSpec newFieldSpec = set.isEmpty() ? FieldSpecFactory.nullOnly() : FieldSpecFactory.fromList(set);
         return addNullability(left.isNullable(), right.isNullable(), newFieldSpec);
     }
-    private static <T> boolean elementsEqual(WeightedElement<T> left, WeightedElement<T> right) {
-        return left.element().equals(right.element());
+
+    private static Map<Object, List<WeightedElement<Object>>> indexByElement(DistributedList<Object> whitelist) {
+        Map<Object, List<WeightedElement<Object>>> index = new HashMap<>();
+        for (WeightedElement<Object> holder : whitelist.distributedList()) {
+            index.computeIfAbsent(holder.element(), element -> new ArrayList<>(1)).add(holder);
+        }
+        return index;
     }
 
     private Optional<FieldSpec> combineSetWithRestrictions(WhitelistFieldSpec set, FieldSpec restrictions) {
+        List<WeightedElement<Object>> elements = set.getWhitelist().distributedList();
+        Stream<WeightedElement<Object>> stream = elements.size() >= PARALLEL_FILTER_THRESHOLD
+            ? elements.parallelStream()
+            : elements.stream();
+
         DistributedList<Object> newSet = new DistributedList<>(
-            set.getWhitelist().distributedList().stream()
+            stream
                 .filter(holder -> restrictions.canCombineWithWhitelistValue(holder.element()))
                 .distinct()
                 .collect(Collectors.toList()));
@@ -143,4 +194,33 @@ public class FieldSpecMerger {
     private Optional<FieldSpec> nullOnlyOrEmpty(boolean nullable) {
         return nullable ? Optional.of(FieldSpecFactory.nullOnly()) : Optional.empty();
     }
+
+    private static final class MergeKey {
+        private final FieldSpec left;
+        private final FieldSpec right;
+        private final boolean useFinestGranularityAvailable;
+        private final int hashCode;
+
+        private MergeKey(FieldSpec left, FieldSpec right, boolean useFinestGranularityAvailable) {
+            this.left = left;
+            this.right = right;
+            this.useFinestGranularityAvailable = useFinestGranularityAvailable;
+            this.hashCode = Objects.hash(left, right, useFinestGranularityAvailable);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MergeKey that = (MergeKey) o;
+            return useFinestGranularityAvailable == that.useFinestGranularityAvailable &&
+                Objects.equals(left, that.left) &&
+                Objects.equals(right, that.right);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
@@ -23,6 +23,8 @@ import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
 import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
 import com.scottlogic.datahelix.generator.core.profile.constraints.Constraint;
 
+import java.util.Objects;
+
 public class EqualToRelation implements FieldSpecRelation
 {
     private final Field main;
@@ -65,4 +67,17 @@ public class EqualToRelation implements FieldSpecRelation
     public Constraint negate() {
         return new NotEqualToRelation(main, other);
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EqualToRelation that = (EqualToRelation) o;
+        return Objects.equals(main, that.main) && Objects.equals(other, that.other);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(main, other);
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.fieldspecs.relations;
+
+import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * The values of one key of an inMap file, in file order. Immutable and indexed, so that looking up the value for
+ * a row is constant time however large the file is
+ */
+public final class InMapColumn {
+    /**
+     * Columns at least this long are scanned in parallel
+     */
+    private static final int PARALLEL_SCAN_THRESHOLD = 10_000;
+
+    private final Object[] values;
+
+    private InMapColumn(Object[] values) {
+        this.values = values;
+    }
+
+    public static InMapColumn of(Collection<?> values) {
+        return new InMapColumn(values.toArray());
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the index is not a row of the column
+     */
+    public Object get(int index) {
+        if (index < 0 || index >= values.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + values.length);
+        }
+        return values[index];
+    }
+
+    /**
+     * @return the indexes of the values accepted by the predicate, in ascending order
+     */
+    public IntStream indexesWhere(IntPredicate valueAtIndexAccepted) {
+        IntStream indexes = IntStream.range(0, values.length);
+        if (values.length >= PARALLEL_SCAN_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        return indexes.filter(valueAtIndexAccepted);
+    }
+
+    public List<Object> asList() {
+        return Arrays.asList(values.clone());
+    }
+
+    public DistributedList<Object> toDistributedList() {
+        return DistributedList.uniform(asList());
+    }
+}
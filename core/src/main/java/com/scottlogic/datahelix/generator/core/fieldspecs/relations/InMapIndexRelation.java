@@ -24,31 +24,33 @@ import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
 import com.scottlogic.datahelix.generator.core.profile.constraints.Constraint;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 public class InMapIndexRelation implements FieldSpecRelation
 {
     private final Field main;
     private final Field other;
-    private final DistributedList<Object> underlyingList;
+    private final InMapColumn column;
 
     public InMapIndexRelation(Field main, Field other, DistributedList<Object> underlyingList) {
+        this(main, other, InMapColumn.of(underlyingList.list()));
+    }
+
+    public InMapIndexRelation(Field main, Field other, InMapColumn column) {
         this.main = main;
         this.other = other;
-        this.underlyingList = underlyingList;
+        this.column = column;
     }
 
     @Override
     public FieldSpec createModifierFromOtherFieldSpec(FieldSpec otherFieldSpec) {
-        List<Object> whiteList = new ArrayList<>();
-
-        for (int i = 0; i < underlyingList.list().size(); i++) {
-            Object testingElement = underlyingList.list().get(i);
-            if (otherFieldSpec.canCombineWithWhitelistValue(testingElement)) {
-                whiteList.add(BigDecimal.valueOf(i));
-            }
-        }
+        List<Object> whiteList = column
+            .indexesWhere(index -> otherFieldSpec.canCombineWithWhitelistValue(column.get(index)))
+            .mapToObj(BigDecimal::valueOf)
+            .collect(Collectors.toList());
+
         return FieldSpecFactory.fromList(DistributedList.uniform(whiteList)).withNotNull();
     }
 
@@ -59,7 +61,7 @@ public class InMapIndexRelation implements FieldSpecRelation
 
     @Override
     public FieldSpecRelation inverse() {
-        return new InMapRelation(main, other, underlyingList);
+        return new InMapRelation(main, other, column);
     }
 
     @Override
@@ -73,11 +75,28 @@ public class InMapIndexRelation implements FieldSpecRelation
     }
 
     public DistributedList<Object> getUnderlyingList() {
-        return this.underlyingList;
+        return column.toDistributedList();
+    }
+
+    public InMapColumn getColumn() {
+        return column;
     }
 
     @Override
     public Constraint negate() {
         throw new UnsupportedOperationException("in map relations cannot currently be negated");
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InMapIndexRelation that = (InMapIndexRelation) o;
+        return Objects.equals(main, that.main) && Objects.equals(other, that.other) && column == that.column;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(main, other);
+    }
 }
@@ -24,17 +24,22 @@ import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
 import com.scottlogic.datahelix.generator.core.profile.constraints.Constraint;
 
 import java.math.BigDecimal;
+import java.util.Objects;
 
 public class InMapRelation implements FieldSpecRelation
 {
     private final Field main;
     private final Field other;
-    private final DistributedList<Object> underlyingList;
+    private final InMapColumn column;
 
     public InMapRelation(Field main, Field other, DistributedList<Object> underlyingList) {
+        this(main, other, InMapColumn.of(underlyingList.list()));
+    }
+
+    public InMapRelation(Field main, Field other, InMapColumn column) {
         this.main = main;
         this.other = other;
-        this.underlyingList = underlyingList;
+        this.column = column;
     }
 
     @Override
@@ -46,13 +51,13 @@ public class InMapRelation implements FieldSpecRelation
     public FieldSpec createModifierFromOtherValue(DataBagValue otherFieldGeneratedValue) {
         BigDecimal value = (BigDecimal) otherFieldGeneratedValue.getValue();
 
-        DistributedList<Object> newList = DistributedList.singleton(underlyingList.list().get(value.intValue()));
+        DistributedList<Object> newList = DistributedList.singleton(column.get(value.intValue()));
         return FieldSpecFactory.fromList(newList);
     }
 
     @Override
     public FieldSpecRelation inverse() {
-        return new InMapIndexRelation(other, main, underlyingList);
+        return new InMapIndexRelation(other, main, column);
     }
 
     @Override
@@ -66,11 +71,32 @@ public class InMapRelation implements FieldSpecRelation
     }
 
     public DistributedList<Object> getUnderlyingList() {
-        return this.underlyingList;
+        return column.toDistributedList();
+    }
+
+    public InMapColumn getColumn() {
+        return column;
     }
 
     @Override
     public Constraint negate() {
         throw new UnsupportedOperationException("in map relations cannot currently be negated");
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InMapRelation that = (InMapRelation) o;
+        return Objects.equals(main, that.main) && Objects.equals(other, that.other) && column == that.column;
+    }
+
+    /**
+     * The column can hold a whole column of a file, so it is compared by reference and left out of the hash. Each
+     * column of a file is decoded once and shared, so relations on the same column are still equal
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(main, other);
+    }
 }
@@ -22,6 +22,7 @@ import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
 import com.scottlogic.datahelix.generator.core.profile.constraints.Constraint;
 
 import java.util.Collections;
+import java.util.Objects;
 
 public class NotEqualToRelation implements FieldSpecRelation
 {
@@ -62,4 +63,17 @@ public class NotEqualToRelation implements FieldSpecRelation
     public Constraint negate() {
         return new EqualToRelation(main, other);
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NotEqualToRelation that = (NotEqualToRelation) o;
+        return Objects.equals(main, that.main) && Objects.equals(other, that.other);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(main, other);
+    }
 }
@@ -22,5 +22,6 @@ public interface DataGeneratorMonitor {
     default void generationStarting() {}
     default void rowEmitted(GeneratedObject row) {}
     default void endGeneration() {}
+    default void diagnostic(String message) {}
     void addLineToPrintAtEndOfGeneration(String line);
 }
@@ -18,19 +18,20 @@ package com.scottlogic.datahelix.generator.core.generation;
 
 import com.google.inject.Inject;
 import com.scottlogic.datahelix.generator.common.output.GeneratedObject;
+import com.scottlogic.datahelix.generator.common.profile.Field;
 import com.scottlogic.datahelix.generator.core.config.detail.VisualiserLevel;
 import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
 import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTreeFactory;
 import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTreeOptimiser;
 import com.scottlogic.datahelix.generator.core.decisiontree.treepartitioning.TreePartitioner;
-import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.CombinationStrategy;
-import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
 import com.scottlogic.datahelix.generator.core.generation.visualiser.Visualiser;
 import com.scottlogic.datahelix.generator.core.generation.visualiser.VisualiserFactory;
 import com.scottlogic.datahelix.generator.core.profile.Profile;
 import com.scottlogic.datahelix.generator.core.walker.DecisionTreeWalker;
 
-import java.util.function.Supplier;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class DecisionTreeDataGenerator implements DataGenerator {
@@ -41,9 +42,10 @@ public class DecisionTreeDataGenerator implements DataGenerator {
     private final DecisionTreeFactory decisionTreeGenerator;
     private final TreePartitioner treePartitioner;
     private final DecisionTreeOptimiser treeOptimiser;
-    private final CombinationStrategy partitionCombiner;
+    private final ShardedPartitionCombiner partitionCombiner;
     private final UpfrontTreePruner upfrontTreePruner;
     private final VisualiserFactory visualiserFactory;
+    private final SingleFieldTreeGenerator singleFieldTreeGenerator;
 
     @Inject
     public DecisionTreeDataGenerator(
@@ -52,17 +54,19 @@ public class DecisionTreeDataGenerator implements DataGenerator {
         TreePartitioner treePartitioner,
         DecisionTreeOptimiser optimiser,
         DataGeneratorMonitor monitor,
-        CombinationStrategy combinationStrategy,
+        ShardedPartitionCombiner partitionCombiner,
         UpfrontTreePruner upfrontTreePruner,
-        VisualiserFactory visualiserFactory) {
+        VisualiserFactory visualiserFactory,
+        SingleFieldTreeGenerator singleFieldTreeGenerator) {
         this.decisionTreeGenerator = decisionTreeGenerator;
         this.treePartitioner = treePartitioner;
         this.treeOptimiser = optimiser;
         this.treeWalker = treeWalker;
         this.monitor = monitor;
-        this.partitionCombiner = combinationStrategy;
+        this.partitionCombiner = partitionCombiner;
         this.upfrontTreePruner = upfrontTreePruner;
         this.visualiserFactory = visualiserFactory;
+        this.singleFieldTreeGenerator = singleFieldTreeGenerator;
     }
 
     @Override
@@ -76,16 +80,29 @@ public class DecisionTreeDataGenerator implements DataGenerator {
             return Stream.empty();
         }
 
-        Stream<Supplier<Stream<DataBag>>> partitionedDataBags = treePartitioner
+        List<PartitionDataBags> partitionedDataBags = treePartitioner
             .splitTreeIntoPartitions(decisionTree)
-            .map(treeOptimiser::optimiseTree)
-            .map(tree -> () -> treeWalker.walk(tree));
+            .map(this::generatePartition)
+            .collect(Collectors.toList());
 
         //noinspection RedundantCast
-        return partitionCombiner.permute(partitionedDataBags)
+        return partitionCombiner.combine(partitionedDataBags)
             .map(d-> (GeneratedObject)d);
     }
 
+    private PartitionDataBags generatePartition(DecisionTree partition) {
+        boolean unique = partition.getFields().stream().anyMatch(Field::isUnique);
+        if (singleFieldTreeGenerator.canGenerate(partition)) {
+            return new PartitionDataBags(
+                () -> singleFieldTreeGenerator.generate(partition),
+                singleFieldTreeGenerator.index(partition),
+                unique);
+        }
+
+        DecisionTree optimisedPartition = treeOptimiser.optimiseTree(partition);
+        return new PartitionDataBags(() -> treeWalker.walk(optimisedPartition), Optional.empty(), unique);
+    }
+
     private void visualiseTree(DecisionTree decisionTree, String title) {
         try (Visualiser visualiser = visualiserFactory.create(VisualiserLevel.STANDARD, title)) {
             visualiser.printTree(title, decisionTree);
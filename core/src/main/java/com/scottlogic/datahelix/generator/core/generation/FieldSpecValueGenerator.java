@@ -23,7 +23,6 @@ import com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType;
 import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpec;
 import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
 import com.scottlogic.datahelix.generator.core.generation.fieldvaluesources.FieldValueSource;
-import com.scottlogic.datahelix.generator.core.utils.JavaUtilRandomNumberGenerator;
 
 import java.util.stream.Stream;
 
@@ -32,12 +31,6 @@ public class FieldSpecValueGenerator {
     private final RandomNumberGenerator randomNumberGenerator;
 
     @Inject
-    public FieldSpecValueGenerator(DataGenerationType dataGenerationType,
-                                   JavaUtilRandomNumberGenerator randomNumberGenerator) {
-        this.dataType = dataGenerationType;
-        this.randomNumberGenerator = randomNumberGenerator;
-    }
-
     public FieldSpecValueGenerator(DataGenerationType dataGenerationType,
                                    RandomNumberGenerator randomNumberGenerator) {
         this.dataType = dataGenerationType;
@@ -22,11 +22,21 @@ import com.scottlogic.datahelix.generator.core.config.detail.MonitorType;
 import com.scottlogic.datahelix.generator.core.config.detail.VisualiserLevel;
 
 import java.nio.file.Path;
+import java.util.OptionalLong;
 
 public interface GenerationConfigSource  {
     DataGenerationType getGenerationType();
     CombinationStrategyType getCombinationStrategyType();
     long getMaxRows();
+    boolean useParallelPartitions();
+
+    OptionalLong getSeed();
+    int getShardIndex();
+    int getShardCount();
+
+    int getThreads();
+    boolean useUnorderedRows();
+    long getRandomRowSpecCacheBytes();
 
     MonitorType getMonitorType();
 
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation;
+
+/**
+ * The slice of a run's rows that this process generates, when a run is split across several processes.
+ * Each shard covers a consecutive range of the run's row indices, the ranges differing in length by at most one row.
+ */
+public class GenerationShard {
+    private final int index;
+    private final int count;
+
+    public GenerationShard(int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Shard " + index + " doesn't exist in a run of " + count + " shards");
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    public static GenerationShard wholeRun() {
+        return new GenerationShard(0, 1);
+    }
+
+    public long getFirstRow(long maxRows) {
+        return (maxRows / count) * index + Math.min(index, maxRows % count);
+    }
+
+    public long getRowCount(long maxRows) {
+        return maxRows / count + (index < maxRows % count ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return "shard " + index + " of " + count;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation;
+
+/**
+ * The number of threads random rows are generated on, and whether their rows are written in the order of a
+ * single-threaded run or as soon as each thread has produced them.
+ */
+public class GenerationThreads {
+    private final int count;
+    private final boolean ordered;
+
+    public GenerationThreads(int count, boolean ordered) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Rows can't be generated on " + count + " threads");
+        }
+        this.count = count;
+        this.ordered = ordered;
+    }
+
+    public static GenerationThreads singleThread() {
+        return new GenerationThreads(1, true);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    @Override
+    public String toString() {
+        return count + (ordered ? " ordered" : " unordered") + " threads";
+    }
+}
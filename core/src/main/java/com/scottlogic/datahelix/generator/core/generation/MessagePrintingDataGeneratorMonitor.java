@@ -17,12 +17,25 @@
 package com.scottlogic.datahelix.generator.core.generation;
 
 import com.scottlogic.datahelix.generator.common.output.GeneratedObject;
+import com.scottlogic.datahelix.generator.core.utils.BoundedCache;
 
 import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.List;
 
 public class MessagePrintingDataGeneratorMonitor extends AbstractDataGeneratorMonitor {
+    private final List<BoundedCache<?, ?>> caches;
+
     public MessagePrintingDataGeneratorMonitor(PrintWriter writer) {
+        this(writer, Collections.emptyList());
+    }
+
+    /**
+     * @param caches memo caches whose hit rates are printed when generation ends
+     */
+    public MessagePrintingDataGeneratorMonitor(PrintWriter writer, List<BoundedCache<?, ?>> caches) {
         super(writer);
+        this.caches = caches;
     }
 
     private void println(String message) {
@@ -34,4 +47,15 @@ public class MessagePrintingDataGeneratorMonitor extends AbstractDataGeneratorMo
         println("RowSpec emitted");
     }
 
+    @Override
+    public void diagnostic(String message) {
+        println(message);
+    }
+
+    @Override
+    public void endGeneration() {
+        caches.forEach(cache -> println(cache.toString()));
+        super.endGeneration();
+    }
+
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation;
+
+import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.IndexedDataBags;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static com.scottlogic.datahelix.generator.common.util.FlatMappingSpliterator.flatMap;
+
+/**
+ * The data bags of one partition of the tree, with the means to start them part of the way through
+ */
+class PartitionDataBags {
+    /**
+     * How many blocks' data bags a unique partition holds for blocks generated out of order, enough for the blocks
+     * generated ahead by every thread
+     */
+    private static final int MAX_BUFFERED_BLOCKS = 64;
+
+    private final Supplier<Stream<DataBag>> dataBags;
+    private final Optional<IndexedDataBags> indexedDataBags;
+    private final boolean unique;
+
+    /**
+     * The single stream a unique partition that can't be indexed is read from, how far it has been read, and the
+     * blocks read from it that haven't been taken yet
+     */
+    private final Object sharedStreamLock = new Object();
+    private Stream<DataBag> sharedStream;
+    private Iterator<DataBag> sharedIterator;
+    private long sharedPosition;
+    private final Map<Long, List<DataBag>> bufferedBlocks = new HashMap<>();
+
+    PartitionDataBags(Supplier<Stream<DataBag>> dataBags, Optional<IndexedDataBags> indexedDataBags, boolean unique) {
+        this.dataBags = dataBags;
+        this.indexedDataBags = indexedDataBags;
+        this.unique = unique;
+    }
+
+    Supplier<Stream<DataBag>> getDataBags() {
+        return dataBags;
+    }
+
+    Optional<IndexedDataBags> getIndexedDataBags() {
+        return indexedDataBags;
+    }
+
+    /**
+     * A partition with a unique field moves on by one value every row, so starting at a later row skips as many values
+     * to keep the field unique across every block of the run. Other partitions start from the beginning.
+     * <p>
+     * A unique partition that can't be indexed is read through once, from a single stream shared by the blocks, rather
+     * than skipping every row before each block. Blocks asked for ahead of earlier ones are read and held until the
+     * earlier ones are asked for. Only a block whose rows have already been passed, such as one generated too far out
+     * of order to be held, skips from the start of a stream of its own.
+     *
+     * @param blockRows the number of rows in a block, of which the block takes one data bag each
+     * @param fromFirstRow the partition's data bags from its first row, the same ones every time it is called
+     */
+    Supplier<Stream<DataBag>> getDataBagsForBlock(long firstRow, long blockRows, Supplier<Stream<DataBag>> fromFirstRow) {
+        if (!unique) {
+            return dataBags;
+        }
+
+        if (!indexedDataBags.isPresent()) {
+            return () -> readBlock(firstRow, blockRows, fromFirstRow);
+        }
+
+        if (firstRow == 0) {
+            return dataBags;
+        }
+
+        IndexedDataBags indexed = indexedDataBags.get();
+        return () -> LongStream.range(Math.min(firstRow, indexed.size()), indexed.size())
+            .mapToObj(indexed::get);
+    }
+
+    /**
+     * Closes the shared stream once no more blocks will be read from it
+     */
+    void close() {
+        synchronized (sharedStreamLock) {
+            if (sharedStream != null) {
+                sharedStream.close();
+            }
+            bufferedBlocks.clear();
+        }
+    }
+
+    private Stream<DataBag> readBlock(long firstRow, long blockRows, Supplier<Stream<DataBag>> fromFirstRow) {
+        Optional<List<DataBag>> block = takeBlock(firstRow, blockRows, fromFirstRow);
+        if (!block.isPresent()) {
+            return fromFirstRow.get().skip(firstRow);
+        }
+
+        List<DataBag> dataBags = block.get();
+        if (dataBags.size() < blockRows) {
+            return dataBags.stream();
+        }
+
+        // a block taking more than one data bag a row carries on from a stream of its own
+        return Stream.concat(
+            dataBags.stream(),
+            flatMap(Stream.of(firstRow + blockRows), row -> fromFirstRow.get().skip(row)));
+    }
+
+    /**
+     * @return the data bags of the block, or empty if the shared stream has already passed them
+     */
+    private Optional<List<DataBag>> takeBlock(long firstRow, long blockRows, Supplier<Stream<DataBag>> fromFirstRow) {
+        synchronized (sharedStreamLock) {
+            List<DataBag> buffered = bufferedBlocks.remove(firstRow);
+            if (buffered != null) {
+                return Optional.of(buffered);
+            }
+
+            if (sharedIterator == null) {
+                // the blocks before the first one asked for belong to earlier shards
+                sharedStream = fromFirstRow.get();
+                sharedIterator = sharedStream.iterator();
+                while (sharedPosition < firstRow && sharedIterator.hasNext()) {
+                    sharedIterator.next();
+                    sharedPosition++;
+                }
+            }
+            if (firstRow < sharedPosition) {
+                return Optional.empty();
+            }
+
+            while (sharedPosition < firstRow) {
+                long blockFirstRow = sharedPosition;
+                List<DataBag> skipped = readShared(Math.min(blockRows, firstRow - sharedPosition));
+                if (bufferedBlocks.size() < MAX_BUFFERED_BLOCKS && skipped.size() == blockRows) {
+                    bufferedBlocks.put(blockFirstRow, skipped);
+                }
+                if (!sharedIterator.hasNext()) {
+                    return Optional.of(new ArrayList<>());
+                }
+            }
+            return Optional.of(readShared(blockRows));
+        }
+    }
+
+    private List<DataBag> readShared(long rows) {
+        List<DataBag> dataBags = new ArrayList<>();
+        while (dataBags.size() < rows && sharedIterator.hasNext()) {
+            dataBags.add(sharedIterator.next());
+            sharedPosition++;
+        }
+        return dataBags;
+    }
+}
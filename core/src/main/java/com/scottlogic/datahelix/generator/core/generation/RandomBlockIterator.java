@@ -0,0 +1,216 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation;
+
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Iterates over the rows of consecutive fixed-size blocks that fall between the first and end row, generating each
+ * block in one go.
+ * <p>
+ * With more than one thread, a few blocks per thread are generated ahead on a pool of worker threads. Ordered blocks
+ * are handed out in block order, so the rows are the same as on a single thread, otherwise each block is handed out
+ * as soon as it is finished. Only unordered blocks go through a completion queue, as ordered blocks are taken from
+ * their futures, and a queue nothing takes from would keep every finished block.
+ * </p>
+ * <p>
+ * A block with fewer rows than asked for means the partitions have run out of data, so no blocks are started after it.
+ * </p>
+ */
+class RandomBlockIterator implements Iterator<List<DataBag>>, AutoCloseable {
+    private static final int BLOCKS_AHEAD_PER_THREAD = 2;
+
+    interface BlockGenerator {
+        /**
+         * @return the rows of the block after skipping some from its start, up to the number of rows to keep
+         */
+        List<DataBag> generate(long block, long rowsToSkip, long rowsToKeep);
+    }
+
+    private final BlockGenerator generator;
+    private final long blockRows;
+    private final long firstRow;
+    private final long endRow;
+    private final boolean ordered;
+    private final int blocksAhead;
+    private final ExecutorService executor;
+    private final BlockingQueue<Future<BlockResult>> completedBlocks;
+    private final CompletionService<BlockResult> completionService;
+    private final Deque<Future<BlockResult>> pending = new ArrayDeque<>();
+    private long nextBlock;
+    private long endBlock;
+    private BlockResult ready;
+
+    RandomBlockIterator(BlockGenerator generator, long blockRows, long firstRow, long endRow, GenerationThreads threads) {
+        this.generator = generator;
+        this.blockRows = blockRows;
+        this.firstRow = firstRow;
+        this.endRow = endRow;
+        this.ordered = threads.isOrdered();
+        this.nextBlock = firstRow / blockRows;
+        this.endBlock = firstRow < endRow
+            ? endRow / blockRows + (endRow % blockRows == 0 ? 0 : 1)
+            : nextBlock;
+
+        if (threads.getCount() == 1) {
+            this.blocksAhead = 0;
+            this.executor = null;
+            this.completedBlocks = null;
+            this.completionService = null;
+        } else {
+            this.blocksAhead = threads.getCount() * BLOCKS_AHEAD_PER_THREAD;
+            this.executor = Executors.newFixedThreadPool(threads.getCount(), runnable -> {
+                Thread thread = new Thread(runnable, "random-block-generator");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.completedBlocks = ordered ? null : new LinkedBlockingQueue<>();
+            this.completionService = ordered ? null : new ExecutorCompletionService<>(executor, completedBlocks);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (ready == null) {
+            if (executor == null) {
+                if (nextBlock >= endBlock) {
+                    return false;
+                }
+                ready = generateBlock(nextBlock++);
+            } else {
+                submitBlocks();
+                if (pending.isEmpty()) {
+                    close();
+                    return false;
+                }
+                ready = takeBlock();
+            }
+
+            if (ready.block >= endBlock) {
+                // an unordered block that was already started when an earlier block ran out of data
+                ready = null;
+            } else if (!ready.complete) {
+                endBlock = ready.block + 1;
+                if (ordered) {
+                    cancelPending();
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<DataBag> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        List<DataBag> rows = ready.rows;
+        ready = null;
+        return rows;
+    }
+
+    /**
+     * Stops generating blocks, interrupting any workers still generating them
+     */
+    @Override
+    public void close() {
+        endBlock = nextBlock;
+        cancelPending();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the number of finished blocks waiting in the completion queue
+     */
+    int completedBlocksQueued() {
+        return completedBlocks == null ? 0 : completedBlocks.size();
+    }
+
+    private void cancelPending() {
+        pending.forEach(future -> future.cancel(true));
+        pending.clear();
+    }
+
+    private void submitBlocks() {
+        while (pending.size() < blocksAhead && nextBlock < endBlock) {
+            long block = nextBlock++;
+            pending.add(ordered
+                ? executor.submit(() -> generateBlock(block))
+                : completionService.submit(() -> generateBlock(block)));
+        }
+    }
+
+    private BlockResult takeBlock() {
+        try {
+            Future<BlockResult> future = ordered ? pending.remove() : completionService.take();
+            if (!ordered) {
+                pending.remove(future);
+            }
+            return future.get();
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a block of rows", e);
+        } catch (ExecutionException e) {
+            close();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Failed to generate a block of rows", e.getCause());
+        }
+    }
+
+    private BlockResult generateBlock(long block) {
+        long blockFirstRow = block * blockRows;
+        long start = Math.max(firstRow, blockFirstRow);
+        long end = Math.min(endRow, blockFirstRow + blockRows);
+        List<DataBag> rows = generator.generate(block, start - blockFirstRow, end - start);
+        return new BlockResult(block, rows, rows.size() == end - start);
+    }
+
+    private static final class BlockResult {
+        private final long block;
+        private final List<DataBag> rows;
+        private final boolean complete;
+
+        private BlockResult(long block, List<DataBag> rows, boolean complete) {
+            this.block = block;
+            this.rows = rows;
+            this.complete = complete;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType;
+import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.CombinationStrategy;
+import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.IndexedDataBags;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+import com.scottlogic.datahelix.generator.core.utils.SplittableRandomNumberGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Combines the data bags of each partition into rows, starting from the first row of this process's shard.
+ * <p>
+ * Full sequential rows are the same in every run, so a shard skips the rows before its own, jumping straight to them
+ * where the combination strategy can index the partitions.
+ * </p>
+ * <p>
+ * Random partitions each draw from their own substream of the random number generator, so their values don't depend
+ * on how their draws are interleaved with other partitions'.
+ * </p>
+ * <p>
+ * Seeded random rows, and random rows generated on more than one thread, are generated in fixed-size blocks. Each
+ * partition of a block draws from a substream keyed by the block and the partition, so a row depends only on the seed
+ * and its index however the run is sharded or spread across threads. A shard starts from the block holding its first
+ * row. A partition with a unique field that can't be indexed is the exception: it is read as one stream across the
+ * blocks, from a substream of its own, so that its values are unique across the run.
+ * </p>
+ */
+public class ShardedPartitionCombiner {
+    static final long RANDOM_BLOCK_ROWS = 10_000;
+
+    private final CombinationStrategy combinationStrategy;
+    private final GenerationShard shard;
+    private final long maxRows;
+    private final DataGenerationType dataGenerationType;
+    private final OptionalLong seed;
+    private final SplittableRandomNumberGenerator random;
+    private final GenerationThreads threads;
+
+    @Inject
+    public ShardedPartitionCombiner(
+        CombinationStrategy combinationStrategy,
+        GenerationShard shard,
+        @Named("config:maxRows") long maxRows,
+        DataGenerationType dataGenerationType,
+        @Named("config:seed") OptionalLong seed,
+        SplittableRandomNumberGenerator random,
+        GenerationThreads threads) {
+        this.combinationStrategy = combinationStrategy;
+        this.shard = shard;
+        this.maxRows = maxRows;
+        this.dataGenerationType = dataGenerationType;
+        this.seed = seed;
+        this.random = random;
+        this.threads = threads;
+    }
+
+    Stream<DataBag> combine(List<PartitionDataBags> partitions) {
+        long firstRow = shard.getFirstRow(maxRows);
+        if (dataGenerationType == DataGenerationType.RANDOM && (seed.isPresent() || threads.getCount() > 1)) {
+            return generateRandomBlocks(partitions, firstRow);
+        }
+
+        if (firstRow == 0) {
+            return combinationStrategy.permute(inSubstreams(partitions, PartitionDataBags::getDataBags));
+        }
+
+        return permuteIndexed(partitions, firstRow)
+            .orElseGet(() -> combinationStrategy.permute(inSubstreams(partitions, PartitionDataBags::getDataBags))
+                .skip(firstRow));
+    }
+
+    private Stream<Supplier<Stream<DataBag>>> inSubstreams(
+        List<PartitionDataBags> partitions,
+        Function<PartitionDataBags, Supplier<Stream<DataBag>>> getDataBags) {
+        if (dataGenerationType != DataGenerationType.RANDOM) {
+            return partitions.stream().map(getDataBags);
+        }
+
+        return IntStream.range(0, partitions.size())
+            .mapToObj(index -> {
+                Supplier<Stream<DataBag>> dataBags = getDataBags.apply(partitions.get(index));
+                return () -> random.inSubstream(index, dataBags);
+            });
+    }
+
+    private Optional<Stream<DataBag>> permuteIndexed(List<PartitionDataBags> partitions, long firstRow) {
+        if (!partitions.stream().allMatch(partition -> partition.getIndexedDataBags().isPresent())) {
+            return Optional.empty();
+        }
+
+        List<IndexedDataBags> indexedPartitions = partitions.stream()
+            .map(partition -> partition.getIndexedDataBags().get())
+            .collect(Collectors.toList());
+        return combinationStrategy.permuteFrom(indexedPartitions, firstRow);
+    }
+
+    private Stream<DataBag> generateRandomBlocks(List<PartitionDataBags> partitions, long firstRow) {
+        RandomBlockIterator blocks = new RandomBlockIterator(
+            (block, rowsToSkip, rowsToKeep) -> generateRandomBlock(partitions, block, rowsToSkip, rowsToKeep),
+            RANDOM_BLOCK_ROWS,
+            firstRow,
+            firstRow + shard.getRowCount(maxRows),
+            threads);
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(blocks, Spliterator.ORDERED), false)
+            .onClose(() -> {
+                blocks.close();
+                partitions.forEach(PartitionDataBags::close);
+            })
+            .flatMap(List::stream);
+    }
+
+    /**
+     * @return the key of the substream a partition read across blocks draws from, apart from the keys of blocks
+     */
+    private static long partitionKey(int index) {
+        return -1L - index;
+    }
+
+    /**
+     * Generates a block from the start, so the rows kept are the same whichever row of the block a shard starts from,
+     * and closes the partitions' streams afterwards to stop any work still producing rows for them
+     */
+    private List<DataBag> generateRandomBlock(
+        List<PartitionDataBags> partitions,
+        long block,
+        long rowsToSkip,
+        long rowsToKeep) {
+        long blockFirstRow = block * RANDOM_BLOCK_ROWS;
+        List<Stream<DataBag>> partitionStreams = new ArrayList<>();
+        Stream<Supplier<Stream<DataBag>>> blockPartitions = IntStream.range(0, partitions.size())
+            .mapToObj(index -> {
+                PartitionDataBags partition = partitions.get(index);
+                Supplier<Stream<DataBag>> dataBags = partition.getDataBagsForBlock(
+                    blockFirstRow,
+                    RANDOM_BLOCK_ROWS,
+                    () -> random.inSubstream(partitionKey(index), partition.getDataBags()));
+                long key = block * partitions.size() + index;
+                return () -> {
+                    Stream<DataBag> stream = random.inSubstream(key, dataBags);
+                    partitionStreams.add(stream);
+                    return stream;
+                };
+            });
+
+        try {
+            return combinationStrategy.permute(blockPartitions)
+                .limit(rowsToSkip + rowsToKeep)
+                .skip(rowsToSkip)
+                .collect(Collectors.toList());
+        } finally {
+            partitionStreams.forEach(Stream::close);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation;
+
+import com.google.inject.Inject;
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
+import com.scottlogic.datahelix.generator.core.decisiontree.ConstraintNode;
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpec;
+import com.scottlogic.datahelix.generator.core.fieldspecs.RowSpec;
+import com.scottlogic.datahelix.generator.core.fieldspecs.WhitelistFieldSpec;
+import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.IndexedDataBags;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
+import com.scottlogic.datahelix.generator.core.reducer.ConstraintReducer;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Generates the data bags of a partition holding a single field with no decisions or relations, such as the
+ * partitions created for fields without constraints, without going through the tree walker.
+ * <p>
+ * Such a tree has exactly one row spec, so its values are streamed straight from the field's spec. A field restricted
+ * to a single non-null value is emitted as a constant.
+ */
+public class SingleFieldTreeGenerator {
+    private final ConstraintReducer constraintReducer;
+    private final FieldSpecValueGenerator fieldSpecValueGenerator;
+
+    @Inject
+    public SingleFieldTreeGenerator(ConstraintReducer constraintReducer, FieldSpecValueGenerator fieldSpecValueGenerator) {
+        this.constraintReducer = constraintReducer;
+        this.fieldSpecValueGenerator = fieldSpecValueGenerator;
+    }
+
+    public boolean canGenerate(DecisionTree tree) {
+        ConstraintNode rootNode = tree.getRootNode();
+        return tree.getFields().size() == 1
+            && rootNode.getDecisions().isEmpty()
+            && rootNode.getRelations().isEmpty();
+    }
+
+    public Stream<DataBag> generate(DecisionTree tree) {
+        Field field = tree.getFields().iterator().next();
+        Optional<RowSpec> rowSpec = constraintReducer.reduceConstraintsToRowSpec(tree.getFields(), tree.getRootNode());
+        if (!rowSpec.isPresent()) {
+            return Stream.empty();
+        }
+
+        FieldSpec fieldSpec = rowSpec.get().getSpecForField(field);
+        Optional<Object> constant = getConstant(fieldSpec);
+        if (constant.isPresent()) {
+            DataBag dataBag = DataBag.of(field, new DataBagValue(constant.get()));
+            return fieldSpecValueGenerator.isRandom() && !field.isUnique()
+                ? Stream.generate(() -> dataBag)
+                : Stream.of(dataBag);
+        }
+
+        return fieldSpecValueGenerator.generate(field, fieldSpec)
+            .map(value -> DataBag.of(field, value));
+    }
+
+    /**
+     * @return the data bags of the tree in the order generate produces them when it enumerates every value, or empty
+     * if the field's values can't be counted
+     */
+    public Optional<IndexedDataBags> index(DecisionTree tree) {
+        Field field = tree.getFields().iterator().next();
+        return constraintReducer.reduceConstraintsToRowSpec(tree.getFields(), tree.getRootNode())
+            .flatMap(rowSpec -> IndexedDataBags.fromSource(field, rowSpec.getSpecForField(field).getFieldValueSource()));
+    }
+
+    private static Optional<Object> getConstant(FieldSpec fieldSpec) {
+        if (!(fieldSpec instanceof WhitelistFieldSpec) || fieldSpec.isNullable()) {
+            return Optional.empty();
+        }
+
+        DistributedList<Object> whitelist = ((WhitelistFieldSpec) fieldSpec).getWhitelist();
+        return whitelist.distributedList().size() == 1
+            ? Optional.of(whitelist.distributedList().get(0).element())
+            : Optional.empty();
+    }
+}
@@ -18,9 +18,19 @@ package com.scottlogic.datahelix.generator.core.generation.combinationstrategies
 
 import com.scottlogic.datahelix.generator.core.generation.databags.*;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 public interface CombinationStrategy {
     Stream<DataBag> permute(Stream<Supplier<Stream<DataBag>>> dataBagSequences);
+
+    /**
+     * @return the combinations permute would produce from the one at startIndex onwards, or empty if this strategy
+     * can't find them without producing the ones before it
+     */
+    default Optional<Stream<DataBag>> permuteFrom(List<IndexedDataBags> dataBagSequences, long startIndex) {
+        return Optional.empty();
+    }
 }
@@ -20,6 +20,7 @@ import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
 
 import java.util.*;
 import java.util.function.Supplier;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static com.scottlogic.datahelix.generator.common.util.FlatMappingSpliterator.flatMap;
@@ -30,6 +31,54 @@ public class ExhaustiveCombinationStrategy implements CombinationStrategy {
         return flatten(dataBagSequences.iterator()).get();
     }
 
+    /**
+     * @return the number of combinations of the sequences
+     * @throws ArithmeticException if there are more than a long can count
+     */
+    public long countCombinations(List<IndexedDataBags> dataBagSequences) {
+        long count = 1;
+        for (IndexedDataBags sequence : dataBagSequences) {
+            count = Math.multiplyExact(count, sequence.size());
+        }
+        return count;
+    }
+
+    /**
+     * Reads the combination at an index in the order permute produces them, treating the index as a mixed-radix
+     * number whose digits are positions in each sequence, the last sequence's digit varying fastest
+     */
+    public DataBag nth(List<IndexedDataBags> dataBagSequences, long index) {
+        if (index < 0 || index >= countCombinations(dataBagSequences)) {
+            throw new IndexOutOfBoundsException("No combination at index " + index);
+        }
+
+        DataBag[] bags = new DataBag[dataBagSequences.size()];
+        long remaining = index;
+        for (int sequence = bags.length - 1; sequence >= 0; sequence--) {
+            IndexedDataBags dataBags = dataBagSequences.get(sequence);
+            bags[sequence] = dataBags.get(remaining % dataBags.size());
+            remaining /= dataBags.size();
+        }
+        return DataBag.merge(bags);
+    }
+
+    /**
+     * @return the combinations from the one at startIndex onwards, without producing any before it, or empty if there
+     * are more than a long can count
+     */
+    @Override
+    public Optional<Stream<DataBag>> permuteFrom(List<IndexedDataBags> dataBagSequences, long startIndex) {
+        long count;
+        try {
+            count = countCombinations(dataBagSequences);
+        } catch (ArithmeticException e) {
+            return Optional.empty();
+        }
+
+        return Optional.of(LongStream.range(Math.min(startIndex, count), count)
+            .mapToObj(index -> nth(dataBagSequences, index)));
+    }
+
     public Supplier<Stream<DataBag>> flatten(Iterator<Supplier<Stream<DataBag>>> remainingBags) {
         Supplier<Stream<DataBag>> firstDataBagStream = remainingBags.next();
 
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.combinationstrategies;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
+import com.scottlogic.datahelix.generator.core.generation.fieldvaluesources.FieldValueSource;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * A sequence of data bags of known length that can be read from any position without producing the ones before it
+ */
+public interface IndexedDataBags {
+    long size();
+
+    DataBag get(long index);
+
+    /**
+     * @return the values of the source as data bags for the field, or empty if the source can't count its values
+     */
+    static Optional<IndexedDataBags> fromSource(Field field, FieldValueSource<?> source) {
+        OptionalLong count = source.countAllValues();
+        if (!count.isPresent()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new IndexedDataBags() {
+            @Override
+            public long size() {
+                return count.getAsLong();
+            }
+
+            @Override
+            public DataBag get(long index) {
+                return DataBag.of(field, new DataBagValue(source.nth(index)));
+            }
+        });
+    }
+}
@@ -97,12 +97,13 @@ public class PinningCombinationStrategy implements CombinationStrategy {
             if (this.indexOfSequenceToVary == null) {
                 this.indexOfSequenceToVary = 0;
 
-                return this.tuples.stream()
+                DataBag[] baselines = this.tuples.stream()
                         .map(tuple -> tuple.baseline)
-                    .reduce(DataBag.empty, (db1, db2) -> DataBag.merge(db1, db2));
+                    .toArray(DataBag[]::new);
+                return DataBag.merge(baselines);
             }
 
-            return IntStream.range(0, this.tuples.size())
+            DataBag[] bags = IntStream.range(0, this.tuples.size())
                 .mapToObj(seqIndex -> {
                     SequenceAndBaselineTuple tuple = this.tuples.get(seqIndex);
 
@@ -115,7 +116,8 @@ public class PinningCombinationStrategy implements CombinationStrategy {
                     }
                     return tuple.next();
                 })
-                .reduce(DataBag.empty, (db1, db2) -> DataBag.merge(db1, db2));
+                .toArray(DataBag[]::new);
+            return DataBag.merge(bags);
         }
     }
 }
@@ -19,19 +19,42 @@ package com.scottlogic.datahelix.generator.core.generation.databags;
 import com.scottlogic.datahelix.generator.common.output.GeneratedObject;
 import com.scottlogic.datahelix.generator.common.profile.Field;
 import com.scottlogic.datahelix.generator.common.profile.FieldType;
-import com.scottlogic.datahelix.generator.common.util.FlatMappingSpliterator;
 
 import java.math.BigDecimal;
 import java.util.*;
 
-
+/**
+ * The values generated for a set of fields.
+ * Values are held in slots ordered by field ordinal, so a bag holding every field of a profile is indexed directly by
+ * ordinal. Fields without an ordinal (those not loaded as part of a profile) are found by equality instead.
+ */
 public class DataBag implements GeneratedObject {
-    public static final DataBag empty = new DataBag(new HashMap<>());
+    private static final Comparator<Field> byOrdinal = Comparator.comparingInt(Field::getOrdinal);
+
+    public static final DataBag empty = new DataBag(new Field[0], new DataBagValue[0]);
 
-    private final Map<Field, DataBagValue> fieldToValue;
+    private final Field[] fields;
+    private final DataBagValue[] values;
+    private final boolean unique;
 
     public DataBag(Map<Field, DataBagValue> fieldToValue) {
-        this.fieldToValue = fieldToValue;
+        this.fields = fieldToValue.keySet().toArray(new Field[0]);
+        Arrays.sort(this.fields, byOrdinal);
+        this.values = new DataBagValue[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = fieldToValue.get(fields[i]);
+        }
+        this.unique = anyUnique(fields);
+    }
+
+    private DataBag(Field[] fields, DataBagValue[] values) {
+        this.fields = fields;
+        this.values = values;
+        this.unique = anyUnique(fields);
+    }
+
+    public static DataBag of(Field field, DataBagValue value) {
+        return new DataBag(new Field[]{field}, new DataBagValue[]{value});
     }
 
     @Override
@@ -64,11 +87,45 @@ public class DataBag implements GeneratedObject {
     }
 
     public DataBagValue getDataBagValue(Field field) {
-        if (!fieldToValue.containsKey(field)) {
+        int ordinal = field.getOrdinal();
+        if (ordinal >= 0 && ordinal < fields.length && fields[ordinal] == field) {
+            return values[ordinal];
+        }
+
+        int index = indexOf(field);
+        if (index < 0) {
             throw new IllegalStateException("DataBag has no value stored for " + field);
         }
 
-        return fieldToValue.get(field);
+        return values[index];
+    }
+
+    private int indexOf(Field field) {
+        int ordinal = field.getOrdinal();
+        if (ordinal >= 0) {
+            int low = 0;
+            int high = fields.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int middleOrdinal = fields[middle].getOrdinal();
+                if (middleOrdinal < ordinal) {
+                    low = middle + 1;
+                } else if (middleOrdinal > ordinal) {
+                    high = middle - 1;
+                } else if (fields[middle].equals(field)) {
+                    return middle;
+                } else {
+                    break;
+                }
+            }
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].equals(field)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     @Override
@@ -76,39 +133,106 @@ public class DataBag implements GeneratedObject {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         DataBag generatedObject = (DataBag) o;
-        return Objects.equals(fieldToValue, generatedObject.fieldToValue);
+        if (fields.length != generatedObject.fields.length) return false;
+        for (int i = 0; i < fields.length; i++) {
+            int index = generatedObject.indexOf(fields[i]);
+            if (index < 0 || !Objects.equals(values[i], generatedObject.values[index])) return false;
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(fieldToValue);
+        int hash = 0;
+        for (int i = 0; i < fields.length; i++) {
+            hash += Objects.hashCode(fields[i]) ^ Objects.hashCode(values[i]);
+        }
+        return hash;
     }
 
     public static DataBag merge(DataBag... bags) {
-        Map<Field, DataBagValue> newFieldToValue = new HashMap<>();
+        int size = 0;
+        int maxOrdinal = Field.NO_ORDINAL;
+        for (DataBag bag : bags) {
+            if (bag.fields.length == 0) {
+                continue;
+            }
+            if (bag.fields[0].getOrdinal() < 0) {
+                return mergeByEquality(bags);
+            }
+            size += bag.fields.length;
+            maxOrdinal = Math.max(maxOrdinal, bag.fields[bag.fields.length - 1].getOrdinal());
+        }
+
+        Field[] slotFields = new Field[maxOrdinal + 1];
+        DataBagValue[] slotValues = new DataBagValue[maxOrdinal + 1];
+        for (DataBag bag : bags) {
+            for (int i = 0; i < bag.fields.length; i++) {
+                Field field = bag.fields[i];
+                int ordinal = field.getOrdinal();
+                if (slotFields[ordinal] != null) {
+                    throw overlapping(field);
+                }
+                slotFields[ordinal] = field;
+                slotValues[ordinal] = bag.values[i];
+            }
+        }
 
-        FlatMappingSpliterator.flatMap(Arrays.stream(bags)
-            .map(r -> r.fieldToValue.entrySet().stream()),
-            entrySetStream -> entrySetStream)
-            .forEach(entry -> {
-                if (newFieldToValue.containsKey(entry.getKey()))
-                    throw new IllegalArgumentException("Databags can't be merged because they overlap on field " + entry.getKey().getName());
+        if (size == slotFields.length) {
+            return new DataBag(slotFields, slotValues);
+        }
 
-                newFieldToValue.put(entry.getKey(), entry.getValue());
-            });
+        Field[] newFields = new Field[size];
+        DataBagValue[] newValues = new DataBagValue[size];
+        int index = 0;
+        for (int ordinal = 0; ordinal < slotFields.length; ordinal++) {
+            if (slotFields[ordinal] != null) {
+                newFields[index] = slotFields[ordinal];
+                newValues[index] = slotValues[ordinal];
+                index++;
+            }
+        }
+        return new DataBag(newFields, newValues);
+    }
 
+    private static DataBag mergeByEquality(DataBag... bags) {
+        Map<Field, DataBagValue> newFieldToValue = new HashMap<>();
+        for (DataBag bag : bags) {
+            for (int i = 0; i < bag.fields.length; i++) {
+                if (newFieldToValue.containsKey(bag.fields[i])) {
+                    throw overlapping(bag.fields[i]);
+                }
+                newFieldToValue.put(bag.fields[i], bag.values[i]);
+            }
+        }
         return new DataBag(newFieldToValue);
     }
 
+    private static IllegalArgumentException overlapping(Field field) {
+        return new IllegalArgumentException("Databags can't be merged because they overlap on field " + field.getName());
+    }
+
+    private static boolean anyUnique(Field[] fields) {
+        for (Field field : fields) {
+            if (field.isUnique()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String toString() {
+        StringJoiner fieldToValue = new StringJoiner(", ", "{", "}");
+        for (int i = 0; i < fields.length; i++) {
+            fieldToValue.add(fields[i] + "=" + values[i]);
+        }
         return "DataBag{" +
             "fieldToValue=" + fieldToValue +
             '}';
     }
 
     public boolean isUnique(){
-        return fieldToValue.keySet().stream()
-            .anyMatch(Field::isUnique);
+        return unique;
     }
 }
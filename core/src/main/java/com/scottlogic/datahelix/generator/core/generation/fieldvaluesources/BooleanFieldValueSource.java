@@ -18,6 +18,7 @@ package com.scottlogic.datahelix.generator.core.generation.fieldvaluesources;
 
 import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
 
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -39,6 +40,11 @@ public class BooleanFieldValueSource implements FieldValueSource<Boolean>
         return Stream.generate(() -> randomNumberGenerator.nextInt() % 2 == 0).filter(this::notInBlacklist);
     }
 
+    @Override
+    public OptionalLong countAllValues() {
+        return OptionalLong.of(generateAllValues().count());
+    }
+
     private boolean notInBlacklist(Boolean b) {
         return blacklist.stream().noneMatch(x -> x.equals(b));
     }
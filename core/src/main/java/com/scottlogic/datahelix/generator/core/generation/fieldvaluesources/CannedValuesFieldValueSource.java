@@ -20,6 +20,7 @@ import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
 import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
 
 import java.util.Objects;
+import java.util.OptionalLong;
 import java.util.stream.Stream;
 
 public class CannedValuesFieldValueSource implements FieldValueSource {
@@ -39,6 +40,19 @@ public class CannedValuesFieldValueSource implements FieldValueSource {
         return Stream.generate(() -> pickFromDistribution(randomNumberGenerator));
     }
 
+    @Override
+    public OptionalLong countAllValues() {
+        return OptionalLong.of(allValues.distributedList().size());
+    }
+
+    @Override
+    public Object nth(long index) {
+        if (index < 0 || index >= allValues.distributedList().size()) {
+            throw new IndexOutOfBoundsException("No value at index " + index);
+        }
+        return allValues.distributedList().get((int) index).element();
+    }
+
     private Object pickFromDistribution(RandomNumberGenerator random) {
         return allValues.pickRandomly(random);
     }
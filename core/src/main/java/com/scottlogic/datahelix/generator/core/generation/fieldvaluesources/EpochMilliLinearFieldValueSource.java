@@ -0,0 +1,219 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.fieldvaluesources;
+
+import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
+import com.scottlogic.datahelix.generator.common.date.WorkingDayIndex;
+import com.scottlogic.datahelix.generator.common.profile.DateTimeGranularity;
+import com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictions;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Generates datetimes as epoch milliseconds held in a long, only creating an OffsetDateTime when a value is emitted.
+ * Produces the same values as a LinearFieldValueSource for restrictions it can generate.
+ */
+public class EpochMilliLinearFieldValueSource implements FieldValueSource<OffsetDateTime> {
+    private static final long MILLIS_IN_DAY = 86_400_000L;
+    private static final int NANOS_IN_MILLI = 1_000_000;
+
+    private final LinearRestrictions<OffsetDateTime> restrictions;
+    private final boolean workingDay;
+    private final long stepMillis;
+    private final long min;
+    private final long max;
+    private final LongBlacklist blacklist;
+
+    public EpochMilliLinearFieldValueSource(LinearRestrictions<OffsetDateTime> restrictions, Set<OffsetDateTime> blacklist) {
+        if (!canGenerate(restrictions)) {
+            throw new IllegalArgumentException("Restrictions can't be generated as epoch milliseconds: " + restrictions);
+        }
+
+        DateTimeGranularity granularity = (DateTimeGranularity) restrictions.getGranularity();
+        this.restrictions = restrictions;
+        this.workingDay = granularity.isWorkingDay();
+        this.stepMillis = granularity.getChronoUnit().getDuration().toMillis();
+        this.min = toEpochMilli(restrictions.getMin());
+        this.max = toEpochMilli(restrictions.getMax());
+        this.blacklist = new LongBlacklist(blacklist.stream()
+            .map(granularity::trimToGranularity)
+            .mapToLong(EpochMilliLinearFieldValueSource::toEpochMilli));
+    }
+
+    /**
+     * Whether the restrictions have a datetime granularity of a fixed length (days or shorter, or working days) and
+     * UTC bounds with no more precision than milliseconds
+     */
+    public static boolean canGenerate(LinearRestrictions<OffsetDateTime> restrictions) {
+        if (restrictions.isContradictory() || !(restrictions.getGranularity() instanceof DateTimeGranularity)) {
+            return false;
+        }
+
+        switch (((DateTimeGranularity) restrictions.getGranularity()).getChronoUnit()) {
+            case MILLIS:
+            case SECONDS:
+            case MINUTES:
+            case HOURS:
+            case DAYS:
+                return isWholeMillisInUtc(restrictions.getMin()) && isWholeMillisInUtc(restrictions.getMax());
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public Stream<OffsetDateTime> generateAllValues() {
+        PrimitiveIterator.OfLong iterator = new PrimitiveIterator.OfLong() {
+            private long next = min;
+
+            @Override
+            public boolean hasNext() {
+                return next <= max;
+            }
+
+            @Override
+            public long nextLong() {
+                long current = next;
+                next = getNext(current);
+                return current;
+            }
+        };
+
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+            .filter(this::notInBlacklist)
+            .mapToObj(EpochMilliLinearFieldValueSource::toValue);
+    }
+
+    /**
+     * With a blacklist, values of a fixed-length granularity with an aligned minimum are picked by their index among
+     * the values that aren't blacklisted, so a blacklist covering most of the range doesn't cause repeated rejections
+     */
+    @Override
+    public Stream<OffsetDateTime> generateRandomValues(RandomNumberGenerator randomNumberGenerator) {
+        if (!blacklist.isEmpty() && !workingDay && Math.floorMod(min, stepMillis) == 0) {
+            return generateRandomValuesNotBlacklisted(randomNumberGenerator);
+        }
+
+        long upperExclusive = getNext(max);
+        long trimMillis = workingDay ? MILLIS_IN_DAY : stepMillis;
+        return LongStream.generate(() -> randomNumberGenerator.nextLong(min, upperExclusive))
+            .map(millis -> millis - Math.floorMod(millis, trimMillis))
+            .filter(this::notInBlacklist)
+            .mapToObj(EpochMilliLinearFieldValueSource::toValue);
+    }
+
+    /**
+     * Values of a fixed-length granularity are counted and indexed arithmetically, working days are not
+     */
+    @Override
+    public OptionalLong countAllValues() {
+        if (workingDay) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of((max - min) / stepMillis + 1 - blacklist.toSteps(min, max, stepMillis).size());
+    }
+
+    @Override
+    public OffsetDateTime nth(long index) {
+        if (workingDay) {
+            return FieldValueSource.super.nth(index);
+        }
+        return toValue(min + nthStep(index, blacklist.toSteps(min, max, stepMillis)) * stepMillis);
+    }
+
+    @Override
+    public Stream<OffsetDateTime> skip(long count) {
+        if (workingDay) {
+            return FieldValueSource.super.skip(count);
+        }
+        if (count >= countAllValues().getAsLong()) {
+            return Stream.empty();
+        }
+        LongBlacklist blacklistedSteps = blacklist.toSteps(min, max, stepMillis);
+        return LongStream.rangeClosed(nthStep(count, blacklistedSteps), (max - min) / stepMillis)
+            .filter(step -> !blacklistedSteps.contains(step))
+            .mapToObj(step -> toValue(min + step * stepMillis));
+    }
+
+    private long nthStep(long index, LongBlacklist blacklistedSteps) {
+        if (index < 0 || index >= countAllValues().getAsLong()) {
+            throw new IndexOutOfBoundsException("No value at index " + index);
+        }
+        return blacklistedSteps.nthNotBlacklisted(index);
+    }
+
+    private Stream<OffsetDateTime> generateRandomValuesNotBlacklisted(RandomNumberGenerator randomNumberGenerator) {
+        LongBlacklist blacklistedSteps = blacklist.toSteps(min, max, stepMillis);
+        long allowedCount = (max - min) / stepMillis + 1 - blacklistedSteps.size();
+        if (allowedCount == 0) {
+            return Stream.empty();
+        }
+        return LongStream.generate(() -> randomNumberGenerator.nextLong(0, allowedCount))
+            .map(index -> min + blacklistedSteps.nthNotBlacklisted(index) * stepMillis)
+            .mapToObj(EpochMilliLinearFieldValueSource::toValue);
+    }
+
+    private long getNext(long millis) {
+        if (!workingDay) {
+            return millis + stepMillis;
+        }
+        long epochDay = Math.floorDiv(millis, MILLIS_IN_DAY);
+        return millis + (WorkingDayIndex.addWorkingDays(epochDay, 1) - epochDay) * MILLIS_IN_DAY;
+    }
+
+    private boolean notInBlacklist(long millis) {
+        return !blacklist.contains(millis);
+    }
+
+    private static boolean isWholeMillisInUtc(OffsetDateTime value) {
+        return value.getOffset().equals(ZoneOffset.UTC) && value.getNano() % NANOS_IN_MILLI == 0;
+    }
+
+    private static long toEpochMilli(OffsetDateTime value) {
+        return value.toInstant().toEpochMilli();
+    }
+
+    private static OffsetDateTime toValue(long millis) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        EpochMilliLinearFieldValueSource otherSource = (EpochMilliLinearFieldValueSource) obj;
+        return restrictions.equals(otherSource.restrictions) &&
+            blacklist.equals(otherSource.blacklist);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(restrictions, blacklist);
+    }
+}
@@ -18,11 +18,41 @@ package com.scottlogic.datahelix.generator.core.generation.fieldvaluesources;
 
 import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
 
+import java.util.Iterator;
+import java.util.OptionalLong;
 import java.util.stream.Stream;
 
 public interface FieldValueSource<T> {
     Stream<T> generateAllValues();
 
     Stream<T> generateRandomValues(RandomNumberGenerator randomNumberGenerator);
+
+    /**
+     * @return how many values generateAllValues produces, or empty if they can't be counted without generating them
+     * or there are more than a long can hold
+     */
+    default OptionalLong countAllValues() {
+        return OptionalLong.empty();
+    }
+
+    /**
+     * @return the value generateAllValues produces at the index, found without generating the values before it
+     * where the source can count them
+     * @throws IndexOutOfBoundsException if there are no more than index values
+     */
+    default T nth(long index) {
+        Iterator<T> values = skip(index).iterator();
+        if (!values.hasNext()) {
+            throw new IndexOutOfBoundsException("No value at index " + index);
+        }
+        return values.next();
+    }
+
+    /**
+     * @return the values generateAllValues produces after the first count of them
+     */
+    default Stream<T> skip(long count) {
+        return generateAllValues().skip(count);
+    }
 }
 
@@ -19,6 +19,7 @@ package com.scottlogic.datahelix.generator.core.generation.fieldvaluesources;
 import com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictions;
 import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
 
+import java.math.BigDecimal;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -33,7 +34,7 @@ public class LinearFieldValueSource<T extends Comparable<T>> implements FieldVal
     public LinearFieldValueSource(LinearRestrictions<T> restrictions, Set<T> blacklist) {
         this.restrictions = restrictions;
         this.blacklist = blacklist.stream()
-            .map(i -> restrictions.getGranularity().trimToGranularity(i))
+            .map(i -> canonical(restrictions.getGranularity().trimToGranularity(i)))
             .collect(Collectors.toSet());
     }
 
@@ -53,9 +54,16 @@ public class LinearFieldValueSource<T extends Comparable<T>> implements FieldVal
             .filter(this::notInBlacklist);
     }
 
-    // we call this instead of .contains because .contains doesn't treat 2 and 2.0 as equal
     private boolean notInBlacklist(T t) {
-        return blacklist.stream().noneMatch(x->x.compareTo(t)==0);
+        return blacklist.isEmpty() || !blacklist.contains(canonical(t));
+    }
+
+    // values that compare as equal must hash the same, but BigDecimal's equals doesn't treat 2 and 2.0 as equal
+    @SuppressWarnings("unchecked")
+    private static <T> T canonical(T value) {
+        return value instanceof BigDecimal
+            ? (T) ((BigDecimal) value).stripTrailingZeros()
+            : value;
     }
 
     @Override
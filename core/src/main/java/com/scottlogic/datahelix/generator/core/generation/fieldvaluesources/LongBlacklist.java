@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.fieldvaluesources;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * A blacklist of long values held sorted, so checking a value is a binary search and the values that aren't
+ * blacklisted can be indexed directly rather than found by rejecting blacklisted ones.
+ */
+final class LongBlacklist {
+    private final long[] values;
+
+    LongBlacklist(LongStream values) {
+        this.values = values.sorted().distinct().toArray();
+    }
+
+    boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    int size() {
+        return values.length;
+    }
+
+    boolean contains(long value) {
+        return values.length != 0 && Arrays.binarySearch(values, value) >= 0;
+    }
+
+    /**
+     * @return the blacklisted values that are a whole number of steps from min and no greater than max, as the number
+     * of steps they are from min
+     */
+    LongBlacklist toSteps(long min, long max, long step) {
+        return new LongBlacklist(Arrays.stream(values)
+            .filter(value -> value >= min && value <= max && (value - min) % step == 0)
+            .map(value -> (value - min) / step));
+    }
+
+    /**
+     * Finds the index-th non-negative value that isn't blacklisted, for a blacklist of steps.
+     * The i-th blacklisted value v has v - i values that aren't blacklisted below it, so the result is the index plus
+     * the number of blacklisted values where that count is no more than the index.
+     */
+    long nthNotBlacklisted(long index) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] - middle <= index) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return index + low;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(values, ((LongBlacklist) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+}
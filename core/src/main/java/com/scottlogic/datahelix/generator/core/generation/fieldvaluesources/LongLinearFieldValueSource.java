@@ -0,0 +1,183 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.fieldvaluesources;
+
+import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
+import com.scottlogic.datahelix.generator.common.profile.NumericGranularity;
+import com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictions;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates numeric values as a count of granularity steps held in a long, only creating a BigDecimal when a value is
+ * emitted. Produces the same values as a LinearFieldValueSource for restrictions it can generate.
+ */
+public class LongLinearFieldValueSource implements FieldValueSource<BigDecimal> {
+    private final LinearRestrictions<BigDecimal> restrictions;
+    private final int decimalPlaces;
+    private final int outputScale;
+    private final long min;
+    private final long max;
+    private final LongBlacklist blacklist;
+    private final LongBlacklist blacklistedSteps;
+
+    public LongLinearFieldValueSource(LinearRestrictions<BigDecimal> restrictions, Set<BigDecimal> blacklist) {
+        if (!canGenerate(restrictions)) {
+            throw new IllegalArgumentException("Restrictions can't be generated as long values: " + restrictions);
+        }
+
+        this.restrictions = restrictions;
+        this.decimalPlaces = ((NumericGranularity) restrictions.getGranularity()).getDecimalPlaces();
+        this.outputScale = Math.max(restrictions.getMin().scale(), decimalPlaces);
+        this.min = toSteps(restrictions.getMin(), decimalPlaces).longValue();
+        this.max = toSteps(restrictions.getMax(), decimalPlaces).longValue();
+        this.blacklist = new LongBlacklist(blacklist.stream()
+            .map(value -> toSteps(value.setScale(decimalPlaces, RoundingMode.FLOOR), decimalPlaces))
+            .filter(LongLinearFieldValueSource::fitsInLong)
+            .mapToLong(BigInteger::longValue));
+        this.blacklistedSteps = this.blacklist.toSteps(min, max, 1);
+    }
+
+    /**
+     * Whether the restrictions have a numeric granularity, bounds that are whole steps of that granularity and a
+     * number of steps between them that can be counted in a long
+     */
+    public static boolean canGenerate(LinearRestrictions<BigDecimal> restrictions) {
+        if (restrictions.isContradictory() || !(restrictions.getGranularity() instanceof NumericGranularity)) {
+            return false;
+        }
+
+        NumericGranularity granularity = (NumericGranularity) restrictions.getGranularity();
+        if (!granularity.isCorrectScale(restrictions.getMin()) || !granularity.isCorrectScale(restrictions.getMax())) {
+            return false;
+        }
+
+        BigInteger min = toSteps(restrictions.getMin(), granularity.getDecimalPlaces());
+        BigInteger max = toSteps(restrictions.getMax(), granularity.getDecimalPlaces());
+        return fitsInLong(min) && fitsInLong(max) && max.longValue() < Long.MAX_VALUE;
+    }
+
+    @Override
+    public Stream<BigDecimal> generateAllValues() {
+        return LongStream.rangeClosed(min, max)
+            .filter(this::notInBlacklist)
+            .mapToObj(this::toValue);
+    }
+
+    /**
+     * With a blacklist, values are picked by their index among the values that aren't blacklisted,
+     * so a blacklist covering most of the range doesn't cause repeated rejections
+     */
+    @Override
+    public Stream<BigDecimal> generateRandomValues(RandomNumberGenerator randomNumberGenerator) {
+        long count = max - min + 1;
+        if (blacklist.isEmpty() || count <= 0) {
+            return LongStream.generate(() -> randomNumberGenerator.nextLong(min, max + 1))
+                .filter(this::notInBlacklist)
+                .mapToObj(steps -> BigDecimal.valueOf(steps, decimalPlaces));
+        }
+
+        long allowedCount = count - blacklistedSteps.size();
+        if (allowedCount == 0) {
+            return Stream.empty();
+        }
+        return LongStream.generate(() -> min + blacklistedSteps.nthNotBlacklisted(randomNumberGenerator.nextLong(0, allowedCount)))
+            .mapToObj(steps -> BigDecimal.valueOf(steps, decimalPlaces));
+    }
+
+    /**
+     * Empty if the range holds more values than a long can count
+     */
+    @Override
+    public OptionalLong countAllValues() {
+        long count = max - min + 1;
+        return count > 0
+            ? OptionalLong.of(count - blacklistedSteps.size())
+            : OptionalLong.empty();
+    }
+
+    @Override
+    public BigDecimal nth(long index) {
+        if (!countAllValues().isPresent()) {
+            return FieldValueSource.super.nth(index);
+        }
+        return toValue(nthSteps(index));
+    }
+
+    @Override
+    public Stream<BigDecimal> skip(long count) {
+        OptionalLong allValues = countAllValues();
+        if (!allValues.isPresent()) {
+            return FieldValueSource.super.skip(count);
+        }
+        if (count >= allValues.getAsLong()) {
+            return Stream.empty();
+        }
+        return LongStream.rangeClosed(nthSteps(count), max)
+            .filter(this::notInBlacklist)
+            .mapToObj(this::toValue);
+    }
+
+    private long nthSteps(long index) {
+        if (index < 0 || index >= countAllValues().getAsLong()) {
+            throw new IndexOutOfBoundsException("No value at index " + index);
+        }
+        return min + blacklistedSteps.nthNotBlacklisted(index);
+    }
+
+    private boolean notInBlacklist(long steps) {
+        return !blacklist.contains(steps);
+    }
+
+    // values are emitted with the same scale as stepping up from the minimum with BigDecimals would give them
+    private BigDecimal toValue(long steps) {
+        if (steps == min) {
+            return restrictions.getMin();
+        }
+        return BigDecimal.valueOf(steps, decimalPlaces).setScale(outputScale);
+    }
+
+    private static BigInteger toSteps(BigDecimal value, int decimalPlaces) {
+        return value.setScale(decimalPlaces, RoundingMode.UNNECESSARY).unscaledValue();
+    }
+
+    private static boolean fitsInLong(BigInteger value) {
+        return value.bitLength() < Long.SIZE;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        LongLinearFieldValueSource otherSource = (LongLinearFieldValueSource) obj;
+        return restrictions.equals(otherSource.restrictions) &&
+            blacklist.equals(otherSource.blacklist);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(restrictions, blacklist);
+    }
+}
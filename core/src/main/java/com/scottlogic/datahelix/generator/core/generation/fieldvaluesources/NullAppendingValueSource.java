@@ -42,6 +42,39 @@ public class NullAppendingValueSource<T> implements FieldValueSource<T> {
         return Stream.generate(() -> getNextRandomValue(randomNumberGenerator, randomValues));
     }
 
+    @Override
+    public OptionalLong countAllValues() {
+        OptionalLong underlyingCount = underlyingSource.countAllValues();
+        return underlyingCount.isPresent() && underlyingCount.getAsLong() < Long.MAX_VALUE
+            ? OptionalLong.of(underlyingCount.getAsLong() + 1)
+            : OptionalLong.empty();
+    }
+
+    @Override
+    public T nth(long index) {
+        OptionalLong underlyingCount = underlyingSource.countAllValues();
+        if (underlyingCount.isPresent() && index == underlyingCount.getAsLong()) {
+            return null;
+        }
+        return underlyingCount.isPresent() && index >= 0 && index < underlyingCount.getAsLong()
+            ? underlyingSource.nth(index)
+            : FieldValueSource.super.nth(index);
+    }
+
+    @Override
+    public Stream<T> skip(long count) {
+        OptionalLong underlyingCount = underlyingSource.countAllValues();
+        if (!underlyingCount.isPresent()) {
+            return FieldValueSource.super.skip(count);
+        }
+        if (count > underlyingCount.getAsLong()) {
+            return Stream.empty();
+        }
+        return Stream.concat(
+            underlyingSource.skip(count),
+            nullOnly.stream());
+    }
+
     private T getNextRandomValue(RandomNumberGenerator randomNumberGenerator, Iterator<T> randomValues) {
         if (shouldReturnNull(randomNumberGenerator)){
             return null;
@@ -18,6 +18,7 @@ package com.scottlogic.datahelix.generator.core.generation.fieldvaluesources;
 import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
 
 import java.util.Collections;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -29,6 +30,11 @@ public class NullOnlySource implements FieldValueSource {
         return nullOnly.stream();
     }
 
+    @Override
+    public OptionalLong countAllValues() {
+        return OptionalLong.of(1);
+    }
+
     @Override
     public Stream<Object> generateRandomValues(RandomNumberGenerator randomNumberGenerator) {
         return Stream.generate(() -> null);
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.grouped;
+
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpec;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecMerger;
+import com.scottlogic.datahelix.generator.core.fieldspecs.RestrictionsFieldSpec;
+import com.scottlogic.datahelix.generator.core.fieldspecs.WhitelistFieldSpec;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.AfterRelation;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.BeforeRelation;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.EqualToOffsetRelation;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.EqualToRelation;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.FieldSpecRelation;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.NotEqualToRelation;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
+import com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictions;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Narrows the specs of related fields until every relation between them is consistent with the specs at both ends.
+ * <p>
+ * Each relation is treated as an arc from the field it reads to the field it narrows. An arc is revised by merging
+ * the target's spec with the modifier the relation creates from the source's spec, and when a spec narrows the arcs
+ * reading from it are revised again. For the linear relations this tightens every field's bounds to those its
+ * neighbours allow, so with a chain such as {@code a < b < c} no value of {@code a} is picked that leaves {@code c}
+ * empty. A not-equal relation can only narrow its target once its source is down to a single value.
+ */
+class BoundsPropagator {
+    /**
+     * Caps the work done on cyclic relations, which may otherwise narrow a range one granule at a time
+     */
+    private static final int MAX_REVISIONS_PER_ARC = 64;
+
+    private final FieldSpecMerger fieldSpecMerger;
+
+    BoundsPropagator(FieldSpecMerger fieldSpecMerger) {
+        this.fieldSpecMerger = fieldSpecMerger;
+    }
+
+    static boolean canPropagate(FieldSpecRelation relation) {
+        return relation instanceof AfterRelation
+            || relation instanceof BeforeRelation
+            || relation instanceof EqualToOffsetRelation
+            || relation instanceof EqualToRelation
+            || relation instanceof NotEqualToRelation;
+    }
+
+    /**
+     * @return the narrowed specs, the given array if nothing narrowed, or empty if the relations cannot all be met
+     */
+    Optional<FieldSpec[]> propagate(List<GenerationPlan.Arc> arcs, FieldSpec[] specs) {
+        if (arcs.isEmpty()) {
+            return Optional.of(specs);
+        }
+
+        FieldSpec[] narrowed = specs;
+        Deque<GenerationPlan.Arc> pending = new ArrayDeque<>(arcs);
+        int revisionsRemaining = arcs.size() * MAX_REVISIONS_PER_ARC;
+
+        while (!pending.isEmpty() && revisionsRemaining-- > 0) {
+            GenerationPlan.Arc arc = pending.poll();
+            FieldSpec modifier = createModifier(arc.getRelation(), narrowed[arc.getSource()]);
+            if (modifier == null) {
+                continue;
+            }
+
+            FieldSpec target = narrowed[arc.getTarget()];
+            Optional<FieldSpec> revised = fieldSpecMerger.mergeUncached(target, modifier, true)
+                .flatMap(merged -> fieldSpecMerger.mergeUncached(merged, target, false));
+            if (!revised.isPresent()) {
+                return Optional.empty();
+            }
+            if (revised.get().equals(target)) {
+                continue;
+            }
+
+            if (narrowed == specs) {
+                narrowed = specs.clone();
+            }
+            narrowed[arc.getTarget()] = revised.get();
+            for (GenerationPlan.Arc next : arcs) {
+                if (next.getSource() == arc.getTarget() && !pending.contains(next)) {
+                    pending.add(next);
+                }
+            }
+        }
+        return Optional.of(narrowed);
+    }
+
+    /**
+     * @return the spec the relation allows its main field given the spec of its other field, or null if the
+     * other field's spec says nothing the relation can use
+     */
+    private static FieldSpec createModifier(FieldSpecRelation relation, FieldSpec source) {
+        if (relation instanceof NotEqualToRelation) {
+            if (!(source instanceof WhitelistFieldSpec) || source.isNullable()) {
+                return null;
+            }
+            List<?> values = ((WhitelistFieldSpec) source).getWhitelist().list();
+            return values.size() == 1
+                ? relation.createModifierFromOtherValue(new DataBagValue(values.get(0)))
+                : null;
+        }
+
+        if (!(source instanceof RestrictionsFieldSpec)
+            || !(((RestrictionsFieldSpec) source).getRestrictions() instanceof LinearRestrictions)) {
+            return null;
+        }
+        return relation.createModifierFromOtherFieldSpec(source);
+    }
+}
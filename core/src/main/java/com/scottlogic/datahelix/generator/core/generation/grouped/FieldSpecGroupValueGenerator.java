@@ -27,158 +27,127 @@ import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecMerger;
 import com.scottlogic.datahelix.generator.core.fieldspecs.relations.FieldSpecRelation;
 import com.scottlogic.datahelix.generator.core.generation.FieldSpecValueGenerator;
 import com.scottlogic.datahelix.generator.core.generation.databags.*;
-import com.scottlogic.datahelix.generator.common.SetUtils;
+import com.scottlogic.datahelix.generator.core.utils.BoundedCache;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static com.scottlogic.datahelix.generator.common.util.FlatMappingSpliterator.flatMap;
 
 public class FieldSpecGroupValueGenerator {
+    private static final int PLAN_CACHE_SIZE = 1_000;
+
     private final CombinationStrategyType combinationStrategy;
     private final FieldSpecValueGenerator underlyingGenerator;
-    private final FieldSpecMerger fieldSpecMerger = new FieldSpecMerger();
+    private final FieldSpecMerger fieldSpecMerger;
+    private final BoundsPropagator boundsPropagator;
+    /**
+     * Groups are created afresh for every row, but a plan depends only on the fields and relations of a group, which
+     * the rows of a row spec share, so each plan is compiled once rather than for every row
+     */
+    private final BoundedCache<PlanKey, GenerationPlan> plans = new BoundedCache<>("Generation plans", PLAN_CACHE_SIZE);
 
     @Inject
-    public FieldSpecGroupValueGenerator(FieldSpecValueGenerator underlyingGenerator, CombinationStrategyType combinationStrategy) {
+    public FieldSpecGroupValueGenerator(
+        FieldSpecValueGenerator underlyingGenerator,
+        CombinationStrategyType combinationStrategy,
+        FieldSpecMerger fieldSpecMerger) {
         this.underlyingGenerator = underlyingGenerator;
         this.combinationStrategy = combinationStrategy;
+        this.fieldSpecMerger = fieldSpecMerger;
+        this.boundsPropagator = new BoundsPropagator(fieldSpecMerger);
     }
 
     public Stream<DataBag> generate(FieldSpecGroup group) {
-        Field first = getFirst(group);
-
-        if (group.fieldSpecs().size() == 1) {
-            return underlyingGenerator.generate(first, group.fieldSpecs().get(first))
-                .map(val -> toDataBag(first, val));
-        }
-
-        FieldSpec firstSpec = updateFirstSpecFromRelations(first, group);
-
-        Stream<DataBag> firstDataBagValues = underlyingGenerator.generate(first, firstSpec)
-            .map(value -> toDataBag(first, value));
-
-        return flatMap(
-            firstDataBagValues,
-            dataBag -> generateRemainingData(first, dataBag, removeSpecFromGroup(first, group)));
+        GenerationPlan plan = plans.get(new PlanKey(group), key -> GenerationPlan.compile(group));
+        return generate(plan, 0, plan.getInitialSpecs(group));
     }
 
-    private Field getFirst(FieldSpecGroup keySet) {
-        Stream<FieldSpecRelation> relations = Stream.concat(
-            keySet.relations().stream(),
-            keySet.relations().stream().map(FieldSpecRelation::inverse)
-        );
-        List<Map.Entry<Field, Integer>> list = new ArrayList<>(relations
-            .collect(Collectors.toMap(
-                FieldSpecRelation::other,
-                r -> 1, Integer::sum)).entrySet());
-        list.sort(Comparator.comparing(Map.Entry::getValue, Comparator.reverseOrder()));
-        return list.isEmpty() ? SetUtils.firstIteratorElement(keySet.fieldSpecs().keySet()) : list.get(0).getKey();
-    }
+    private Stream<DataBag> generate(GenerationPlan plan, int position, FieldSpec[] unpropagatedSpecs) {
+        GenerationPlan.Step step = plan.getSteps().get(position);
+        Field field = step.getField();
 
-    private FieldSpec updateFirstSpecFromRelations(Field first, FieldSpecGroup group) {
-        FieldSpec firstFieldSpec = group.fieldSpecs().get(first);
+        Optional<FieldSpec[]> propagatedSpecs = boundsPropagator.propagate(step.getArcs(), unpropagatedSpecs);
+        if (!propagatedSpecs.isPresent()) {
+            return Stream.empty();
+        }
+        FieldSpec[] specs = propagatedSpecs.get();
 
-        FieldSpec updatedFieldSpec = group.relations().stream()
-            .filter(relation -> isRelatedToField(first, relation))
-            .map(relation -> createModifierForField(first, relation, group))
-            .map(Optional::of)
-            .reduce(Optional.of(firstFieldSpec), this::mergeOptionalFieldspecs)
-            .orElseThrow(() ->  new ValidationException("The provided profile is wholly contradictory!"));
+        Stream<DataBag> dataBags = underlyingGenerator.generate(field, applyModifiers(step, position, specs))
+            .map(value -> toDataBag(field, value));
 
-        return applyGranularityToFieldSpec(firstFieldSpec, updatedFieldSpec);
-    }
+        if (position == plan.getSteps().size() - 1) {
+            return dataBags;
+        }
 
-    private Optional<FieldSpec> mergeOptionalFieldspecs(Optional<FieldSpec> left, Optional<FieldSpec> right) {
-        return left.flatMap(
-            (leftFieldSpec) -> fieldSpecMerger.merge(leftFieldSpec, right.get(), true));
+        return flatMap(
+            dataBags,
+            dataBag -> generateRemainingData(plan, position, dataBag, specs));
     }
 
-    private boolean isRelatedToField(Field field, FieldSpecRelation relation) {
-        return relation.main().equals(field) || relation.other().equals(field);
-    }
+    private FieldSpec applyModifiers(GenerationPlan.Step step, int position, FieldSpec[] specs) {
+        if (step.getModifiers().isEmpty()) {
+            return specs[position];
+        }
 
-    private FieldSpec createModifierForField(Field first,
-                                             FieldSpecRelation relation,
-                                             FieldSpecGroup group) {
-        if (!relation.main().equals(first)){
-            relation = relation.inverse();
+        FieldSpec fieldSpec = specs[position];
+        FieldSpec updatedFieldSpec = fieldSpec;
+        for (GenerationPlan.Modifier modifier : step.getModifiers()) {
+            FieldSpec modifierSpec = modifier.getRelation().createModifierFromOtherFieldSpec(specs[modifier.getOther()]);
+            updatedFieldSpec = fieldSpecMerger.mergeUncached(updatedFieldSpec, modifierSpec, true)
+                .orElseThrow(() -> new ValidationException("The provided profile is wholly contradictory!"));
         }
 
-        FieldSpec otherFieldSpec = group.fieldSpecs().get(relation.other());
-        return relation.createModifierFromOtherFieldSpec(otherFieldSpec);
+        return applyGranularityToFieldSpec(fieldSpec, updatedFieldSpec);
     }
 
-    private Stream<DataBag> generateRemainingData(Field generatedField, DataBag dataBag, FieldSpecGroup group) {
-        FieldSpecGroup newGroup = updateRelatedFieldSpecs(generatedField, dataBag.getDataBagValue(generatedField), group);
+    private Stream<DataBag> generateRemainingData(GenerationPlan plan, int position, DataBag dataBag, FieldSpec[] specs) {
+        GenerationPlan.Step step = plan.getSteps().get(position);
+        FieldSpec[] updatedSpecs = applyUpdates(step, dataBag.getDataBagValue(step.getField()), specs);
 
-        Stream<DataBag> dataBagStream = generate(newGroup)
+        Stream<DataBag> dataBagStream = generate(plan, position + 1, updatedSpecs)
             .map(otherData -> DataBag.merge(dataBag, otherData));
 
         return applyCombinationStrategy(dataBagStream);
     }
 
-    private FieldSpecGroup updateRelatedFieldSpecs(Field generatedField, DataBagValue generatedValue, FieldSpecGroup group) {
-        Set<FieldSpecRelation> nonUpdatedRelations = group.relations().stream()
-            .filter(relation -> !isRelatedToField(generatedField, relation))
-            .collect(Collectors.toSet());
-
-        List<FieldSpecRelation> updatableRelations = group.relations().stream()
-            .filter(relation -> isRelatedToField(generatedField, relation))
-            .map(relations -> relations.other().equals(generatedField) ? relations : relations.inverse())
-            .collect(Collectors.toList());
-
-        Map<Field, FieldSpec> fieldUpdates = updatableRelations.stream()
-            .collect(Collectors.toMap(
-                FieldSpecRelation::main,
-                relation -> relation.createModifierFromOtherValue(generatedValue),
-                (l, r) -> fieldSpecMerger.merge(l, r, true)
-                    .orElseThrow(() -> new IllegalStateException("Failed to merge field specs in related fields"))));
-
-        Map<Field, FieldSpec> newFieldSpecsDefaultGranularities = group.fieldSpecs().entrySet().stream()
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                e -> updateSpec(e.getKey(), e.getValue(), fieldUpdates)));
-
-        Map<Field, FieldSpec> newFieldSpecs = applyGranularitiesToFieldSpecs(group.fieldSpecs(), newFieldSpecsDefaultGranularities);
+    private FieldSpec[] applyUpdates(GenerationPlan.Step step, DataBagValue generatedValue, FieldSpec[] specs) {
+        if (step.getUpdates().isEmpty()) {
+            return specs;
+        }
 
-        return new FieldSpecGroup(newFieldSpecs, nonUpdatedRelations);
+        FieldSpec[] updatedSpecs = specs.clone();
+        for (GenerationPlan.Update update : step.getUpdates()) {
+            FieldSpec modifier = null;
+            for (FieldSpecRelation relation : update.getRelations()) {
+                FieldSpec relationModifier = relation.createModifierFromOtherValue(generatedValue);
+                modifier = modifier == null
+                    ? relationModifier
+                    : mergeRelatedFieldSpecs(modifier, relationModifier);
+            }
+
+            FieldSpec previous = specs[update.getTarget()];
+            FieldSpec updated = applyGranularityToFieldSpec(mergeRelatedFieldSpecs(modifier, previous), modifier);
+            updatedSpecs[update.getTarget()] = applyGranularityToFieldSpec(updated, previous);
+        }
+        return updatedSpecs;
     }
 
-    private Map<Field, FieldSpec> applyGranularitiesToFieldSpecs(Map<Field, FieldSpec> original, Map<Field, FieldSpec> withoutGranularities) {
-        return withoutGranularities.entrySet()
-            .stream()
-            .map(entry -> new AbstractMap.SimpleEntry<>(entry.getKey(), applyGranularityToFieldSpec(
-                withoutGranularities.get(entry.getKey()),
-                original.get(entry.getKey()))))
-            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    private FieldSpec mergeRelatedFieldSpecs(FieldSpec left, FieldSpec right) {
+        return fieldSpecMerger.mergeUncached(left, right, true)
+            .orElseThrow(() -> new IllegalStateException("Failed to merge field specs in related fields"));
     }
 
     private FieldSpec applyGranularityToFieldSpec(FieldSpec original, FieldSpec withoutGranularity) {
-        return fieldSpecMerger.merge(
+        return fieldSpecMerger.mergeUncached(
             withoutGranularity,
             original,
             false).get();
     }
 
-    private FieldSpec updateSpec(Field field, FieldSpec previous, Map<Field, FieldSpec> fieldUpdates){
-        if (!fieldUpdates.containsKey(field)){
-            return previous;
-        }
-
-        FieldSpec updatedFieldSpec = fieldSpecMerger.merge(fieldUpdates.get(field), previous, true)
-            .orElseThrow(() ->
-                new IllegalStateException("Failed to merge field specs in related fields"));
-
-        Map<Field, FieldSpec> updatedFieldSpecsNoGranularities = new HashMap<>();
-        updatedFieldSpecsNoGranularities.put(field, updatedFieldSpec);
-
-        Map<Field, FieldSpec> updatedFieldSpecs = applyGranularitiesToFieldSpecs(fieldUpdates, updatedFieldSpecsNoGranularities);
-
-        return updatedFieldSpecs.get(field);
-    }
-
     private Stream<DataBag> applyCombinationStrategy(Stream<DataBag> dataBagStream) {
         switch (combinationStrategy) {
             case EXHAUSTIVE:
@@ -192,14 +161,32 @@ public class FieldSpecGroupValueGenerator {
     }
 
     private DataBag toDataBag(Field field, DataBagValue value) {
-        Map<Field, DataBagValue> map = new HashMap<>();
-        map.put(field, value);
-        return new DataBag(map);
+        return DataBag.of(field, value);
     }
 
-    private FieldSpecGroup removeSpecFromGroup(Field first, FieldSpecGroup group) {
-        HashMap<Field, FieldSpec> newFieldSpecs = new HashMap<>(group.fieldSpecs());
-        newFieldSpecs.remove(first);
-        return new FieldSpecGroup(newFieldSpecs, group.relations());
+    private static final class PlanKey {
+        private final Set<Field> fields;
+        private final Collection<FieldSpecRelation> relations;
+        private final int hashCode;
+
+        private PlanKey(FieldSpecGroup group) {
+            this.fields = group.fieldSpecs().keySet();
+            this.relations = group.relations();
+            this.hashCode = Objects.hash(fields, relations);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PlanKey that = (PlanKey) o;
+            return Objects.equals(fields, that.fields) &&
+                Objects.equals(relations, that.relations);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
     }
 }
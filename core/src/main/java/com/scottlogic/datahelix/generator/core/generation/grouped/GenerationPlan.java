@@ -0,0 +1,281 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.grouped;
+
+import com.scottlogic.datahelix.generator.common.SetUtils;
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpec;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecGroup;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.FieldSpecRelation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The order in which the fields of a group are generated, and how each generated field constrains the rest.
+ * <p>
+ * A group's structure is the same for every value generated from it, so it is worked out once: the fields are put
+ * in order, the field most related to the others first, and each step's relations are oriented towards the field
+ * they modify and indexed by position. Generating a row is then a walk through the steps with an array of specs.
+ * Each step also lists the arcs of the relations between the fields not yet generated, along which
+ * {@link BoundsPropagator} narrows their specs before the step's field is generated.
+ */
+final class GenerationPlan {
+    private final List<Step> steps;
+    private final FieldSpec[] initialSpecs;
+
+    private GenerationPlan(List<Step> steps, FieldSpec[] initialSpecs) {
+        this.steps = steps;
+        this.initialSpecs = initialSpecs;
+    }
+
+    static GenerationPlan compile(FieldSpecGroup group) {
+        Set<Field> remaining = new HashSet<>(group.fieldSpecs().keySet());
+        List<FieldSpecRelation> relations = new ArrayList<>(group.relations());
+        List<Field> order = new ArrayList<>(remaining.size());
+        List<List<FieldSpecRelation>> relationsByStep = new ArrayList<>(remaining.size());
+
+        while (!remaining.isEmpty()) {
+            Field field = mostRelated(relations, remaining);
+            remaining.remove(field);
+
+            List<FieldSpecRelation> fieldRelations = new ArrayList<>();
+            List<FieldSpecRelation> otherRelations = new ArrayList<>();
+            for (FieldSpecRelation relation : relations) {
+                (isRelatedToField(field, relation) ? fieldRelations : otherRelations).add(relation);
+            }
+            order.add(field);
+            relationsByStep.add(fieldRelations);
+            relations = otherRelations;
+        }
+
+        Map<Field, Integer> positions = new HashMap<>();
+        FieldSpec[] initialSpecs = new FieldSpec[order.size()];
+        for (int i = 0; i < order.size(); i++) {
+            positions.put(order.get(i), i);
+            initialSpecs[i] = group.fieldSpecs().get(order.get(i));
+        }
+
+        List<Step> steps = new ArrayList<>(order.size());
+        for (int i = 0; i < order.size(); i++) {
+            steps.add(i == order.size() - 1
+                ? new Step(order.get(i), Collections.emptyList(), Collections.emptyList(), Collections.emptyList())
+                : compileStep(order.get(i), i, relationsByStep.get(i), compileArcs(i, group.relations(), positions), positions));
+        }
+        return new GenerationPlan(steps, initialSpecs);
+    }
+
+    List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return a copy of the group's specs, in step order
+     */
+    FieldSpec[] getInitialSpecs() {
+        return initialSpecs.clone();
+    }
+
+    /**
+     * @return the specs of a group with the same fields and relations as the one the plan was compiled from, in step
+     * order, so the plan can be reused for the groups of every row with that structure
+     */
+    FieldSpec[] getInitialSpecs(FieldSpecGroup group) {
+        FieldSpec[] specs = new FieldSpec[steps.size()];
+        for (int i = 0; i < steps.size(); i++) {
+            specs[i] = group.fieldSpecs().get(steps.get(i).getField());
+        }
+        return specs;
+    }
+
+    /**
+     * @return both directions of each propagatable relation between fields generated at or after the position
+     */
+    private static List<Arc> compileArcs(int position, Collection<FieldSpecRelation> relations, Map<Field, Integer> positions) {
+        List<Arc> arcs = new ArrayList<>();
+        for (FieldSpecRelation relation : relations) {
+            int main = positions.get(relation.main());
+            int other = positions.get(relation.other());
+            if (main == other || Math.min(main, other) < position || !BoundsPropagator.canPropagate(relation)) {
+                continue;
+            }
+            arcs.add(new Arc(relation, main, other));
+            arcs.add(new Arc(relation.inverse(), other, main));
+        }
+        return arcs;
+    }
+
+    private static Step compileStep(Field field,
+                                    int position,
+                                    List<FieldSpecRelation> relations,
+                                    List<Arc> arcs,
+                                    Map<Field, Integer> positions) {
+        List<Modifier> modifiers = new ArrayList<>(relations.size());
+        Map<Integer, List<FieldSpecRelation>> updatesByTarget = new LinkedHashMap<>();
+
+        for (FieldSpecRelation relation : relations) {
+            FieldSpecRelation towardsField = relation.main().equals(field) ? relation : relation.inverse();
+            modifiers.add(new Modifier(towardsField, positions.get(towardsField.other())));
+
+            FieldSpecRelation fromField = relation.other().equals(field) ? relation : relation.inverse();
+            int target = positions.get(fromField.main());
+            if (target > position) {
+                updatesByTarget.computeIfAbsent(target, t -> new ArrayList<>()).add(fromField);
+            }
+        }
+
+        List<Update> updates = new ArrayList<>(updatesByTarget.size());
+        updatesByTarget.forEach((target, targetRelations) -> updates.add(new Update(target, targetRelations)));
+        return new Step(field, modifiers, updates, arcs);
+    }
+
+    /**
+     * @return the field named by the most relations, the first field if there are none
+     */
+    private static Field mostRelated(List<FieldSpecRelation> relations, Set<Field> fields) {
+        Map<Field, Integer> counts = new HashMap<>();
+        for (FieldSpecRelation relation : relations) {
+            counts.merge(relation.main(), 1, Integer::sum);
+            counts.merge(relation.other(), 1, Integer::sum);
+        }
+
+        Field mostRelated = null;
+        int highestCount = 0;
+        for (Map.Entry<Field, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > highestCount) {
+                mostRelated = entry.getKey();
+                highestCount = entry.getValue();
+            }
+        }
+        return mostRelated != null ? mostRelated : SetUtils.firstIteratorElement(fields);
+    }
+
+    private static boolean isRelatedToField(Field field, FieldSpecRelation relation) {
+        return relation.main().equals(field) || relation.other().equals(field);
+    }
+
+    /**
+     * Generates one field. Before generating, the field's spec is narrowed by its modifiers; once a value is
+     * generated, the updates narrow the specs of the fields still to come.
+     */
+    static final class Step {
+        private final Field field;
+        private final List<Modifier> modifiers;
+        private final List<Update> updates;
+        private final List<Arc> arcs;
+
+        private Step(Field field, List<Modifier> modifiers, List<Update> updates, List<Arc> arcs) {
+            this.field = field;
+            this.modifiers = modifiers;
+            this.updates = updates;
+            this.arcs = arcs;
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        List<Modifier> getModifiers() {
+            return modifiers;
+        }
+
+        List<Update> getUpdates() {
+            return updates;
+        }
+
+        List<Arc> getArcs() {
+            return arcs;
+        }
+    }
+
+    /**
+     * A relation whose main field is the step's, to be applied with the current spec of the field at {@code other}
+     */
+    static final class Modifier {
+        private final FieldSpecRelation relation;
+        private final int other;
+
+        private Modifier(FieldSpecRelation relation, int other) {
+            this.relation = relation;
+            this.other = other;
+        }
+
+        FieldSpecRelation getRelation() {
+            return relation;
+        }
+
+        int getOther() {
+            return other;
+        }
+    }
+
+    /**
+     * The relations whose other field is the step's, to be applied with its generated value to the field at
+     * {@code target}
+     */
+    static final class Update {
+        private final int target;
+        private final List<FieldSpecRelation> relations;
+
+        private Update(int target, List<FieldSpecRelation> relations) {
+            this.target = target;
+            this.relations = relations;
+        }
+
+        int getTarget() {
+            return target;
+        }
+
+        List<FieldSpecRelation> getRelations() {
+            return relations;
+        }
+    }
+
+    /**
+     * A relation whose main field is at {@code target}, narrowing it from the spec of the field at {@code source}
+     */
+    static final class Arc {
+        private final FieldSpecRelation relation;
+        private final int target;
+        private final int source;
+
+        private Arc(FieldSpecRelation relation, int target, int source) {
+            this.relation = relation;
+            this.target = target;
+            this.source = source;
+        }
+
+        FieldSpecRelation getRelation() {
+            return relation;
+        }
+
+        int getTarget() {
+            return target;
+        }
+
+        int getSource() {
+            return source;
+        }
+    }
+}
@@ -28,14 +28,26 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 public class RowSpecGrouper {
+    /**
+     * @return the groups in the order of their first fields in the row spec, so that groups drawing random values draw
+     * them in the same order for every row
+     */
     public static Set<FieldSpecGroup> createGroups(RowSpec rowSpec) {
         List<FieldPair> pairs = rowSpec.getRelations().stream()
             .map(relation -> new FieldPair(relation.main(), relation.other()))
             .collect(Collectors.toList());
 
-        return findGroups(rowSpec.getFields().asList(), pairs)
-            .stream().map(fs->createFieldSpecGroups(fs.fields(), rowSpec))
-            .collect(Collectors.toSet());
+        List<Field> fields = rowSpec.getFields().asList();
+        Map<Field, FieldGroup> groupOfField = new HashMap<>();
+        for (FieldGroup group : findGroups(fields, pairs)) {
+            group.fields().forEach(field -> groupOfField.put(field, group));
+        }
+
+        return fields.stream()
+            .map(groupOfField::get)
+            .distinct()
+            .map(fs->createFieldSpecGroups(fs.fields(), rowSpec))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     private static Set<FieldGroup> findGroups(List<Field> fields, List<FieldPair> pairs) {
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.scottlogic.datahelix.generator.core.generation.string;
+
+import com.scottlogic.datahelix.generator.core.utils.BoundedCache;
+import dk.brics.automaton.Automaton;
+
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache of automatons holding at most a fixed number of entries, evicting ones not used recently.
+ * Counts of hits, misses and evictions are kept to show how effective the cache is.
+ * <p>
+ * A cached automaton is shared by every generation thread, so it must never change once it has been cached. Brics
+ * automatons change themselves when first read: a singleton automaton is expanded into states when its initial state
+ * is asked for, and an automaton is minimised the first time its hash code is asked for. Automatons are therefore
+ * made ready to share before they're cached, and anything that needs to change a cached automaton works on a clone.
+ * </p>
+ */
+public class AutomatonCache<K> extends BoundedCache<K, Automaton> {
+    public AutomatonCache(String name, int maximumSize) {
+        super(name, maximumSize);
+    }
+
+    @Override
+    public Automaton get(K key, Function<K, Automaton> createValue) {
+        return super.get(key, createValue.andThen(AutomatonCache::readyToShare));
+    }
+
+    /**
+     * Expands and minimises the automaton, which also works out its hash code, so that reading it afterwards changes
+     * nothing and it can be read by several threads at once
+     */
+    public static Automaton readyToShare(Automaton automaton) {
+        automaton.expandSingleton();
+        automaton.minimize();
+        return automaton;
+    }
+}
@@ -16,54 +16,134 @@
 
 package com.scottlogic.datahelix.generator.core.generation.string.factorys;
 
-import com.scottlogic.datahelix.generator.common.ValidationException;
-import com.scottlogic.datahelix.generator.core.generation.string.StringUtils;
 import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
+import com.scottlogic.datahelix.generator.common.ValidationException;
+import dk.brics.automaton.Automaton;
 import dk.brics.automaton.State;
 import dk.brics.automaton.Transition;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Creates random strings from an automaton, by walking its transitions until reaching a state with no way out
+ * and then picking one of the accept states passed on the way.
+ * <p>
+ * The automaton is compiled once into flat arrays, so creating a string does not sort transitions or allocate
+ * anything per character.
+ * </p>
+ */
 public class RandomStringFactory {
-    public String createRandomString(State state, RandomNumberGenerator random) {
-        List<Integer> validIndices = new LinkedList<>();
+    private static final int NO_SURROGATES = Integer.MAX_VALUE;
+    private static final int INITIAL_ACCEPT_POSITIONS = 16;
+
+    private final int initialState;
+    private final boolean[] accepting;
+
+    /**
+     * The transitions out of state s are those from firstTransition[s] (inclusive) to firstTransition[s + 1] (exclusive)
+     */
+    private final int[] firstTransition;
+    private final int[] transitionMin;
+    private final int[] transitionCharCount;
+    private final int[] transitionSurrogateStart;
+    private final int[] transitionDestination;
+
+    public RandomStringFactory(Automaton automaton) {
+        Map<State, Integer> stateIndices = new HashMap<>();
+        List<State> states = new ArrayList<>();
+        List<List<Transition>> transitionsByState = new ArrayList<>();
+        int transitionCount = 0;
+
+        stateIndices.put(automaton.getInitialState(), 0);
+        states.add(automaton.getInitialState());
+        for (int index = 0; index < states.size(); index++) {
+            List<Transition> transitions = new ArrayList<>();
+            for (Transition transition : states.get(index).getSortedTransitions(false)) {
+                if (countValidChars(transition) == 0) {
+                    continue;
+                }
+
+                if (!stateIndices.containsKey(transition.getDest())) {
+                    stateIndices.put(transition.getDest(), states.size());
+                    states.add(transition.getDest());
+                }
+                transitions.add(transition);
+            }
+            transitionsByState.add(transitions);
+            transitionCount += transitions.size();
+        }
+
+        initialState = 0;
+        accepting = new boolean[states.size()];
+        firstTransition = new int[states.size() + 1];
+        transitionMin = new int[transitionCount];
+        transitionCharCount = new int[transitionCount];
+        transitionSurrogateStart = new int[transitionCount];
+        transitionDestination = new int[transitionCount];
+
+        int transitionIndex = 0;
+        for (int state = 0; state < states.size(); state++) {
+            accepting[state] = states.get(state).isAccept();
+            firstTransition[state] = transitionIndex;
+
+            for (Transition transition : transitionsByState.get(state)) {
+                transitionMin[transitionIndex] = transition.getMin();
+                transitionCharCount[transitionIndex] = countValidChars(transition);
+                transitionSurrogateStart[transitionIndex] = getSurrogateStart(transition);
+                transitionDestination[transitionIndex] = stateIndices.get(transition.getDest());
+                transitionIndex++;
+            }
+        }
+        firstTransition[states.size()] = transitionIndex;
+    }
+
+    public String createRandomString(RandomNumberGenerator random) {
+        int[] acceptPositions = new int[INITIAL_ACCEPT_POSITIONS];
+        int acceptPositionCount = 0;
 
         StringBuilder builder = new StringBuilder();
 
-        if (state.isAccept()) {
-            validIndices.add(0);
+        int state = initialState;
+        if (accepting[state]) {
+            acceptPositions[acceptPositionCount++] = 0;
         }
 
-        for (int i = 1; !finishCreating(state); i++) {
-            List<Transition> transitions = state.getSortedTransitions(false);
-            Transition randomTransition = transitions.get(random.nextInt(transitions.size()));
-            builder.append(getRandomChar(random, randomTransition));
-            state = randomTransition.getDest();
-            if (state.isAccept()) {
-                validIndices.add(i);
+        while (!finishCreating(state)) {
+            int transitions = firstTransition[state + 1] - firstTransition[state];
+            int transition = firstTransition[state] + random.nextInt(transitions);
+            builder.append(getRandomChar(random, transition));
+            state = transitionDestination[transition];
+            if (accepting[state]) {
+                if (acceptPositionCount == acceptPositions.length) {
+                    acceptPositions = Arrays.copyOf(acceptPositions, acceptPositionCount * 2);
+                }
+                acceptPositions[acceptPositionCount++] = builder.length();
             }
         }
 
-        if (validIndices.isEmpty()) {
+        if (acceptPositionCount == 0) {
             throw new ValidationException("No possible states from the current regex");
         }
 
-        int randomIndex = random.nextInt(validIndices.size());
-        return builder.toString().substring(0, validIndices.get(randomIndex));
+        int randomIndex = random.nextInt(acceptPositionCount);
+        return builder.substring(0, acceptPositions[randomIndex]);
     }
 
-    private boolean finishCreating(State state) {
-        return state.getTransitions().isEmpty();
+    private boolean finishCreating(int state) {
+        return firstTransition[state] == firstTransition[state + 1];
     }
 
     /**
      * <p>
-     * We have to surround this functionality in a loop checking for invalid
-     * UTF-8 characters until the automaton library is updated.
+     * Surrogate characters are not valid UTF-8 on their own, so they are left out of the characters a transition
+     * can produce; the remaining characters are picked from uniformly.
      * </p>
      * <p>
-     * FIXME - This check will be removed if/when the dk.brics.automaton
+     * FIXME - This exclusion will be removed if/when the dk.brics.automaton
      * library is fixed to support surrogate pairs,
      * </p>
      * <p>
@@ -75,12 +155,34 @@ public class RandomStringFactory {
      * is updated.
      * </p>
      */
-    private char getRandomChar(RandomNumberGenerator random, Transition randomTransition) {
-        char randomChar;
-        do {
-            int diff = randomTransition.getMax() - randomTransition.getMin() + 1;
-            randomChar = (char) (random.nextInt(diff) + randomTransition.getMin());
-        } while (!StringUtils.isCharValidUtf8(randomChar));
-        return randomChar;
+    private char getRandomChar(RandomNumberGenerator random, int transition) {
+        int randomChar = transitionMin[transition] + random.nextInt(transitionCharCount[transition]);
+        if (randomChar >= transitionSurrogateStart[transition]) {
+            randomChar += Character.MAX_SURROGATE + 1 - transitionSurrogateStart[transition];
+        }
+        return (char) randomChar;
+    }
+
+    private static int countValidChars(Transition transition) {
+        int chars = transition.getMax() - transition.getMin() + 1;
+        int surrogateStart = getSurrogateStart(transition);
+        if (surrogateStart == NO_SURROGATES) {
+            return chars;
+        }
+
+        int surrogateEnd = Math.min(transition.getMax(), Character.MAX_SURROGATE);
+        return chars - (surrogateEnd - surrogateStart + 1);
+    }
+
+    /**
+     * @return the first surrogate character in the range of the transition, or NO_SURROGATES if there isn't one.
+     * Any valid characters above it follow the end of the surrogate block
+     */
+    private static int getSurrogateStart(Transition transition) {
+        if (transition.getMax() < Character.MIN_SURROGATE || transition.getMin() > Character.MAX_SURROGATE) {
+            return NO_SURROGATES;
+        }
+
+        return Math.max(transition.getMin(), Character.MIN_SURROGATE);
     }
 }
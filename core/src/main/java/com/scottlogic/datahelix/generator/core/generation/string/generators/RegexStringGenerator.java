@@ -19,33 +19,67 @@ package com.scottlogic.datahelix.generator.core.generation.string.generators;
 import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
 import com.scottlogic.datahelix.generator.common.profile.FieldType;
 import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecFactory;
+import com.scottlogic.datahelix.generator.core.generation.string.AutomatonCache;
 import com.scottlogic.datahelix.generator.core.generation.string.AutomatonUtils;
 import com.scottlogic.datahelix.generator.core.generation.string.factorys.RandomStringFactory;
+import com.scottlogic.datahelix.generator.core.generation.string.iterators.FiniteStringAutomatonIndex;
 import com.scottlogic.datahelix.generator.core.generation.string.iterators.FiniteStringAutomatonIterator;
 import com.scottlogic.datahelix.generator.core.restrictions.string.StringRestrictions;
 import dk.brics.automaton.Automaton;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public class RegexStringGenerator implements StringGenerator {
+    private static final int AUTOMATON_CACHE_SIZE = 1000;
+
+    /**
+     * Cache of matching regex automatons, keyed on their regex
+     */
+    private static final AutomatonCache<String> matchingRegexAutomatonCache =
+        new AutomatonCache<>("Matching regex automatons", AUTOMATON_CACHE_SIZE);
+
+    /**
+     * Cache of containing regex automatons, keyed on their regex
+     */
+    private static final AutomatonCache<String> containingRegexAutomatonCache =
+        new AutomatonCache<>("Containing regex automatons", AUTOMATON_CACHE_SIZE);
+
     /**
-     * Cache of all matching regex automatons, keyed on their regex
+     * Cache of intersected automatons, keyed on the automatons that were intersected.
+     * Automatons are keyed by identity rather than by pattern, as different automatons can share a representation
      */
-    private static final Map<String, Automaton> matchingRegexAutomatonCache = new HashMap<>();
+    private static final AutomatonCache<AutomatonPair> intersectionAutomatonCache =
+        new AutomatonCache<>("Intersected regex automatons", AUTOMATON_CACHE_SIZE);
 
     /**
-     * Cache of all containing regex automatons, keyed on their regex
+     * Cache of complemented automatons, keyed on the automaton that was complemented and the automaton of all strings
      */
-    private static final Map<String, Automaton> containingRegexAutomatonCache = new HashMap<>();
+    private static final AutomatonCache<AutomatonPair> complementAutomatonCache =
+        new AutomatonCache<>("Complemented regex automatons", AUTOMATON_CACHE_SIZE);
 
     private static final RegexStringGenerator DEFAULT = (RegexStringGenerator) ((StringRestrictions) FieldSpecFactory.fromType(FieldType.STRING).getRestrictions()).createGenerator();
 
-    private Automaton automaton;
+    /**
+     * Shared with other generators and threads through the automaton caches, so only ever read
+     */
+    private final Automaton automaton;
+
+    /**
+     * Compiled from the automaton the first time random values are requested. Generators are shared between
+     * generation threads, which may each compile an equivalent factory the first time, but only see one once it has
+     * been fully built.
+     */
+    private volatile RandomStringFactory randomStringFactory;
 
-    private RandomStringFactory randomStringFactory = new RandomStringFactory();
+    /**
+     * Built from the automaton the first time values are counted or indexed, empty if it isn't finite. Published in
+     * the same way as the random string factory.
+     */
+    private volatile Optional<FiniteStringAutomatonIndex> finiteStringIndex;
     private final RegexPattern regexPattern;
 
     private RegexStringGenerator(Automaton automaton, RegexPattern regexPattern) {
@@ -54,13 +88,21 @@ public class RegexStringGenerator implements StringGenerator {
     }
 
     public RegexStringGenerator(String regexStr, boolean matchFullString) {
-        Map<String, Automaton> cache = matchFullString ? matchingRegexAutomatonCache : containingRegexAutomatonCache;
-        Automaton generatedAutomaton = cache.containsKey(regexStr)
-            ? cache.get(regexStr)
-            : AutomatonUtils.createAutomaton(regexStr, matchFullString, cache);
+        AutomatonCache<String> cache = matchFullString ? matchingRegexAutomatonCache : containingRegexAutomatonCache;
 
         this.regexPattern = new SingleRegexPattern(regexStr, matchFullString);
-        this.automaton = generatedAutomaton;
+        this.automaton = cache.get(regexStr, regex -> AutomatonUtils.createAutomaton(regex, matchFullString));
+    }
+
+    /**
+     * @return the caches of automatons shared by all regex generators, to report how effective they have been
+     */
+    public static List<AutomatonCache<?>> getAutomatonCaches() {
+        return Arrays.asList(
+            matchingRegexAutomatonCache,
+            containingRegexAutomatonCache,
+            intersectionAutomatonCache,
+            complementAutomatonCache);
     }
 
     @Override
@@ -80,7 +122,7 @@ public class RegexStringGenerator implements StringGenerator {
 
     public static RegexStringGenerator createFromBlacklist(Set<String> blacklist) {
         String[] blacklistStrings = blacklist.toArray(new String[0]);
-        Automaton automaton = Automaton.makeStringUnion(blacklistStrings).complement();
+        Automaton automaton = AutomatonCache.readyToShare(Automaton.makeStringUnion(blacklistStrings).complement());
         List<RegexPattern> constraints = blacklist.stream()
             .map(regex -> new SingleRegexPattern(regex, true))
             .collect(Collectors.toList());
@@ -99,8 +141,9 @@ public class RegexStringGenerator implements StringGenerator {
         }
 
         RegexStringGenerator otherRegexGenerator = (RegexStringGenerator) otherGenerator;
-        Automaton b = otherRegexGenerator.automaton;
-        Automaton merged = automaton.intersection(b);
+        Automaton merged = intersectionAutomatonCache.get(
+            new AutomatonPair(automaton, otherRegexGenerator.automaton),
+            pair -> pair.first.intersection(pair.second));
         if (merged.isEmpty()) {
             return new NoStringsStringGenerator("regex combination was contradictory");
         }
@@ -115,9 +158,10 @@ public class RegexStringGenerator implements StringGenerator {
 
     @Override
     public StringGenerator complement() {
-        return new RegexStringGenerator(
-            this.automaton.clone().complement().intersection(DEFAULT.automaton),
-            this.regexPattern.complement());
+        Automaton complemented = complementAutomatonCache.get(
+            new AutomatonPair(automaton, DEFAULT.automaton),
+            pair -> pair.first.clone().complement().intersection(pair.second));
+        return new RegexStringGenerator(complemented, this.regexPattern.complement());
     }
 
     @Override
@@ -128,10 +172,57 @@ public class RegexStringGenerator implements StringGenerator {
 
     @Override
     public Stream<String> generateRandomValues(RandomNumberGenerator randomNumberGenerator) {
-        return Stream.generate(
-            () -> randomStringFactory.createRandomString(
-                automaton.getInitialState(),
-                randomNumberGenerator));
+        RandomStringFactory factory = getRandomStringFactory();
+        return Stream.generate(() -> factory.createRandomString(randomNumberGenerator));
+    }
+
+    /**
+     * Empty if the automaton accepts infinitely many strings, or more than a long can count
+     */
+    @Override
+    public OptionalLong countAllValues() {
+        return getFiniteStringIndex()
+            .map(FiniteStringAutomatonIndex::count)
+            .orElse(OptionalLong.empty());
+    }
+
+    @Override
+    public String nth(long index) {
+        if (!countAllValues().isPresent()) {
+            return StringGenerator.super.nth(index);
+        }
+        return getFiniteStringIndex().get().nth(index);
+    }
+
+    @Override
+    public Stream<String> skip(long count) {
+        OptionalLong allValues = countAllValues();
+        if (!allValues.isPresent()) {
+            return StringGenerator.super.skip(count);
+        }
+        FiniteStringAutomatonIndex index = getFiniteStringIndex().get();
+        return LongStream.range(Math.min(count, allValues.getAsLong()), allValues.getAsLong())
+            .mapToObj(index::nth);
+    }
+
+    private Optional<FiniteStringAutomatonIndex> getFiniteStringIndex() {
+        Optional<FiniteStringAutomatonIndex> index = finiteStringIndex;
+        if (index == null) {
+            index = automaton.isFinite()
+                ? Optional.of(new FiniteStringAutomatonIndex(automaton))
+                : Optional.empty();
+            finiteStringIndex = index;
+        }
+        return index;
+    }
+
+    private RandomStringFactory getRandomStringFactory() {
+        RandomStringFactory factory = randomStringFactory;
+        if (factory == null) {
+            factory = new RandomStringFactory(automaton);
+            randomStringFactory = factory;
+        }
+        return factory;
     }
 
     public boolean validate(String input) {
@@ -153,5 +244,30 @@ public class RegexStringGenerator implements StringGenerator {
     public int hashCode() {
         return Objects.hash(this.automaton, this.getClass());
     }
-}
 
+    /**
+     * A pair of automatons compared by identity, as comparing automatons by equality compares their languages
+     */
+    private static final class AutomatonPair {
+        private final Automaton first;
+        private final Automaton second;
+
+        AutomatonPair(Automaton first, Automaton second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            AutomatonPair that = (AutomatonPair) o;
+            return first == that.first && second == that.second;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(first) + System.identityHashCode(second);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.string.iterators;
+
+import dk.brics.automaton.Automaton;
+import dk.brics.automaton.State;
+import dk.brics.automaton.Transition;
+
+import java.math.BigInteger;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Indexes the strings of a finite automaton in the order a FiniteStringAutomatonIterator produces them, by counting
+ * the strings reachable through each state so the string at an index is found by skipping whole blocks of them.
+ */
+public class FiniteStringAutomatonIndex {
+    private static final BigInteger MAX_COUNT = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private final Automaton automaton;
+    private final Map<State, BigInteger> stringCounts = new IdentityHashMap<>();
+
+    public FiniteStringAutomatonIndex(Automaton automaton) {
+        if (!automaton.isFinite()) {
+            throw new IllegalArgumentException("Only the strings of a finite automaton can be indexed");
+        }
+        this.automaton = automaton;
+        // count every state up front, so the index is only read from afterwards and can be shared between threads
+        countFromRoot();
+    }
+
+    /**
+     * @return the number of strings the automaton accepts, or empty if there are more than a long can count
+     */
+    public OptionalLong count() {
+        BigInteger count = countFromRoot();
+        return count.compareTo(MAX_COUNT) <= 0 ? OptionalLong.of(count.longValue()) : OptionalLong.empty();
+    }
+
+    public String nth(long index) {
+        if (index < 0 || BigInteger.valueOf(index).compareTo(countFromRoot()) >= 0) {
+            throw new IndexOutOfBoundsException("No value at index " + index);
+        }
+
+        StringBuilder builder = new StringBuilder();
+        BigInteger remaining = BigInteger.valueOf(index);
+        State state = automaton.getInitialState();
+        while (true) {
+            if (state != automaton.getInitialState() && state.getTransitions().isEmpty()) {
+                return builder.toString();
+            }
+            if (state.isAccept()) {
+                if (remaining.signum() == 0) {
+                    return builder.toString();
+                }
+                remaining = remaining.subtract(BigInteger.ONE);
+            }
+
+            for (Transition transition : state.getSortedTransitions(true)) {
+                BigInteger perChar = countFrom(transition.getDest());
+                BigInteger block = perChar.multiply(BigInteger.valueOf(countChars(transition)));
+                if (remaining.compareTo(block) < 0) {
+                    BigInteger[] charAndRemainder = remaining.divideAndRemainder(perChar);
+                    builder.append((char) (transition.getMin() + charAndRemainder[0].intValue()));
+                    remaining = charAndRemainder[1];
+                    state = transition.getDest();
+                    break;
+                }
+                remaining = remaining.subtract(block);
+            }
+        }
+    }
+
+    /**
+     * The iterator only produces the empty string from the initial state when it accepts, whereas any other state
+     * with no transitions ends a string whether or not it accepts
+     */
+    private BigInteger countFromRoot() {
+        State initial = automaton.getInitialState();
+        if (initial.getTransitions().isEmpty()) {
+            return initial.isAccept() ? BigInteger.ONE : BigInteger.ZERO;
+        }
+        return countFrom(initial);
+    }
+
+    private BigInteger countFrom(State state) {
+        BigInteger count = stringCounts.get(state);
+        if (count != null) {
+            return count;
+        }
+
+        if (state.getTransitions().isEmpty()) {
+            count = BigInteger.ONE;
+        } else {
+            count = state.isAccept() ? BigInteger.ONE : BigInteger.ZERO;
+            for (Transition transition : state.getTransitions()) {
+                count = count.add(countFrom(transition.getDest()).multiply(BigInteger.valueOf(countChars(transition))));
+            }
+        }
+        stringCounts.put(state, count);
+        return count;
+    }
+
+    private static int countChars(Transition transition) {
+        return transition.getMax() - transition.getMin() + 1;
+    }
+}
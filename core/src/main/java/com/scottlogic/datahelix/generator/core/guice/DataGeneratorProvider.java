@@ -24,22 +24,25 @@ import com.scottlogic.datahelix.generator.core.generation.*;
 public class DataGeneratorProvider implements Provider<DataGenerator> {
     private final DataGenerator coreGenerator;
     private final long maxRows;
+    private final GenerationShard shard;
     private final DataGeneratorMonitor monitor;
 
     @Inject
     public DataGeneratorProvider(
         DecisionTreeDataGenerator coreGenerator,
         @Named("config:maxRows") long maxRows,
+        GenerationShard shard,
         DataGeneratorMonitor monitor) {
         this.coreGenerator = coreGenerator;
         this.maxRows = maxRows;
+        this.shard = shard;
         this.monitor = monitor;
     }
 
     @Override
     public DataGenerator get() {
         return new MonitoringDataGenerator(
-            new LimitingDataGenerator(coreGenerator, maxRows),
+            new LimitingDataGenerator(coreGenerator, shard.getRowCount(maxRows)),
             monitor);
     }
 }
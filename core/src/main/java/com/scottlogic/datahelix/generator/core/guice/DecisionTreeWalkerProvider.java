@@ -20,6 +20,8 @@ import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType;
 import com.scottlogic.datahelix.generator.core.generation.GenerationConfigSource;
+import com.scottlogic.datahelix.generator.core.utils.SplittableRandomNumberGenerator;
+import com.scottlogic.datahelix.generator.core.walker.ConcurrentDecisionTreeWalker;
 import com.scottlogic.datahelix.generator.core.walker.DecisionTreeWalker;
 import com.scottlogic.datahelix.generator.core.walker.rowspec.RandomRowSpecDecisionTreeWalker;
 import com.scottlogic.datahelix.generator.core.walker.rowspec.RowSpecDecisionTreeWalker;
@@ -28,22 +30,28 @@ public class DecisionTreeWalkerProvider implements Provider<DecisionTreeWalker>
     private final RowSpecDecisionTreeWalker rowSpecDecisionTreeWalker;
     private final RandomRowSpecDecisionTreeWalker randomRowSpecDecisionTreeWalker;
     private final GenerationConfigSource configSource;
+    private final SplittableRandomNumberGenerator random;
 
     @Inject
     public DecisionTreeWalkerProvider(
         RowSpecDecisionTreeWalker rowSpecDecisionTreeWalker,
         RandomRowSpecDecisionTreeWalker randomRowSpecDecisionTreeWalker,
-        GenerationConfigSource configSource) {
+        GenerationConfigSource configSource,
+        SplittableRandomNumberGenerator random) {
         this.rowSpecDecisionTreeWalker = rowSpecDecisionTreeWalker;
         this.randomRowSpecDecisionTreeWalker = randomRowSpecDecisionTreeWalker;
         this.configSource = configSource;
+        this.random = random;
     }
 
     @Override
     public DecisionTreeWalker get() {
-        if (configSource.getGenerationType() == DataGenerationType.RANDOM)
-            return randomRowSpecDecisionTreeWalker;
+        DecisionTreeWalker walker = configSource.getGenerationType() == DataGenerationType.RANDOM
+            ? randomRowSpecDecisionTreeWalker
+            : rowSpecDecisionTreeWalker;
 
-        return rowSpecDecisionTreeWalker;
+        return configSource.useParallelPartitions()
+            ? new ConcurrentDecisionTreeWalker(walker, random)
+            : walker;
     }
 }
@@ -19,15 +19,19 @@ package com.scottlogic.datahelix.generator.core.guice;
 import com.google.inject.AbstractModule;
 import com.google.inject.Singleton;
 import com.google.inject.name.Names;
+import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
 import com.scottlogic.datahelix.generator.core.config.detail.CombinationStrategyType;
 import com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecMerger;
 import com.scottlogic.datahelix.generator.core.generation.*;
 import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.CombinationStrategy;
-import com.scottlogic.datahelix.generator.core.utils.JavaUtilRandomNumberGenerator;
+import com.scottlogic.datahelix.generator.core.reducer.ConstraintReducer;
+import com.scottlogic.datahelix.generator.core.utils.SplittableRandomNumberGenerator;
 import com.scottlogic.datahelix.generator.core.walker.DecisionTreeWalker;
 import com.scottlogic.datahelix.generator.core.walker.decisionbased.OptionPicker;
 
 import java.time.OffsetDateTime;
+import java.util.OptionalLong;
 
 /**
  * Class to define default bindings for Guice injection. Utilises the generation config source to determine which
@@ -63,10 +67,24 @@ public class GeneratorModule extends AbstractModule {
         bind(DataGeneratorMonitor.class).to(AbstractDataGeneratorMonitor.class);
         bind(DataGenerator.class).toProvider(DataGeneratorProvider.class);
 
-        bind(JavaUtilRandomNumberGenerator.class)
-            .toInstance(new JavaUtilRandomNumberGenerator(OffsetDateTime.now().getNano()));
-        bind(int.class)
-            .annotatedWith(Names.named("config:internalRandomRowSpecStorage"))
-            .toInstance(256);
+        // Share the memo caches of merged and reduced field specs across the run
+        bind(FieldSpecMerger.class).in(Singleton.class);
+        bind(ConstraintReducer.class).in(Singleton.class);
+
+        OptionalLong seed = generationConfigSource.getSeed();
+        bind(OptionalLong.class)
+            .annotatedWith(Names.named("config:seed"))
+            .toInstance(seed);
+        SplittableRandomNumberGenerator random = new SplittableRandomNumberGenerator(
+            seed.orElse(OffsetDateTime.now().getNano()));
+        bind(SplittableRandomNumberGenerator.class).toInstance(random);
+        bind(RandomNumberGenerator.class).toInstance(random);
+        bind(GenerationShard.class)
+            .toInstance(new GenerationShard(generationConfigSource.getShardIndex(), generationConfigSource.getShardCount()));
+        bind(GenerationThreads.class)
+            .toInstance(new GenerationThreads(generationConfigSource.getThreads(), !generationConfigSource.useUnorderedRows()));
+        bind(long.class)
+            .annotatedWith(Names.named("config:randomRowSpecCacheBytes"))
+            .toInstance(generationConfigSource.getRandomRowSpecCacheBytes());
     }
 }
@@ -18,16 +18,26 @@ package com.scottlogic.datahelix.generator.core.guice;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecMerger;
 import com.scottlogic.datahelix.generator.core.generation.*;
+import com.scottlogic.datahelix.generator.core.generation.string.generators.RegexStringGenerator;
+import com.scottlogic.datahelix.generator.core.reducer.ConstraintReducer;
+import com.scottlogic.datahelix.generator.core.utils.BoundedCache;
 
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
 
 public class MonitorProvider implements Provider<AbstractDataGeneratorMonitor>  {
     private GenerationConfigSource commandLine;
+    private final FieldSpecMerger fieldSpecMerger;
+    private final ConstraintReducer constraintReducer;
 
     @Inject
-    MonitorProvider(GenerationConfigSource commandLine) {
+    MonitorProvider(GenerationConfigSource commandLine, FieldSpecMerger fieldSpecMerger, ConstraintReducer constraintReducer) {
         this.commandLine = commandLine;
+        this.fieldSpecMerger = fieldSpecMerger;
+        this.constraintReducer = constraintReducer;
     }
 
     @Override
@@ -35,7 +45,8 @@ public class MonitorProvider implements Provider<AbstractDataGeneratorMonitor>
         switch (commandLine.getMonitorType()) {
             case VERBOSE:
                 return new MessagePrintingDataGeneratorMonitor(
-                    new PrintWriter(System.err, true));
+                    new PrintWriter(System.err, true),
+                    getCaches());
 
             case QUIET:
                 return new NoopDataGeneratorMonitor();
@@ -45,4 +56,12 @@ public class MonitorProvider implements Provider<AbstractDataGeneratorMonitor>
                     new PrintWriter(System.err, true));
         }
     }
+
+    private List<BoundedCache<?, ?>> getCaches() {
+        List<BoundedCache<?, ?>> caches = new ArrayList<>();
+        caches.add(fieldSpecMerger.getMergeCache());
+        caches.add(constraintReducer.getReductionCache());
+        caches.addAll(RegexStringGenerator.getAutomatonCaches());
+        return caches;
+    }
 }
@@ -24,6 +24,7 @@ import com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestric
 import com.scottlogic.datahelix.generator.core.utils.GeneratorDefaults;
 
 import java.time.LocalTime;
+import java.util.Objects;
 
 public class BeforeConstantTimeConstraint implements AtomicConstraint {
     public final Field field;
@@ -54,4 +55,22 @@ public class BeforeConstantTimeConstraint implements AtomicConstraint {
         }
         return FieldSpecFactory.fromRestriction(timeRestriction);
     }
+
+    @Override
+    public boolean equals(Object o){
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BeforeConstantTimeConstraint constraint = (BeforeConstantTimeConstraint) o;
+        return Objects.equals(field, constraint.field) && Objects.equals(referenceValue, constraint.referenceValue);
+    }
+
+    @Override
+    public int hashCode(){
+        return Objects.hash(field, referenceValue);
+    }
+
+    @Override
+    public String toString(){
+        return String.format("`%s` < %s", field.getName(), referenceValue);
+    }
 }
@@ -24,6 +24,7 @@ import com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestric
 import com.scottlogic.datahelix.generator.core.utils.GeneratorDefaults;
 
 import java.time.LocalTime;
+import java.util.Objects;
 
 public class BeforeOrEqualToConstantTimeConstraint implements AtomicConstraint {
     public final Field field;
@@ -51,4 +52,22 @@ public class BeforeOrEqualToConstantTimeConstraint implements AtomicConstraint {
             LinearRestrictionsFactory.createTimeRestrictions(GeneratorDefaults.TIME_MIN_LIMIT, max);
         return FieldSpecFactory.fromRestriction(timeRestriction);
     }
+
+    @Override
+    public boolean equals(Object o){
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BeforeOrEqualToConstantTimeConstraint constraint = (BeforeOrEqualToConstantTimeConstraint) o;
+        return Objects.equals(field, constraint.field) && Objects.equals(referenceValue, constraint.referenceValue);
+    }
+
+    @Override
+    public int hashCode(){
+        return Objects.hash(field, referenceValue);
+    }
+
+    @Override
+    public String toString(){
+        return String.format("`%s` <= %s", field.getName(), referenceValue);
+    }
 }
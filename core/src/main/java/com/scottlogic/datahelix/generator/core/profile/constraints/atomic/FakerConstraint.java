@@ -21,6 +21,8 @@ import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpec;
 import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecFactory;
 import com.scottlogic.datahelix.generator.core.restrictions.string.StringRestrictionsFactory;
 
+import java.util.Objects;
+
 public class FakerConstraint implements AtomicConstraint {
 
     private final Field field;
@@ -46,4 +48,22 @@ public class FakerConstraint implements AtomicConstraint {
     public FieldSpec toFieldSpec() {
         return FieldSpecFactory.fromRestriction(StringRestrictionsFactory.forFaker(fakerSpec));
     }
+
+    @Override
+    public boolean equals(Object o){
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FakerConstraint constraint = (FakerConstraint) o;
+        return Objects.equals(field, constraint.field) && Objects.equals(fakerSpec, constraint.fakerSpec);
+    }
+
+    @Override
+    public int hashCode(){
+        return Objects.hash(field, fakerSpec);
+    }
+
+    @Override
+    public String toString(){
+        return String.format("`%s` is faker %s", field.getName(), fakerSpec);
+    }
 }
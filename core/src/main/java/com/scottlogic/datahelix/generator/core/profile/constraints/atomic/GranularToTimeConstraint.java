@@ -23,6 +23,8 @@ import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecFactory;
 import com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictionsFactory;
 import com.scottlogic.datahelix.generator.core.utils.GeneratorDefaults;
 
+import java.util.Objects;
+
 public class GranularToTimeConstraint implements AtomicConstraint {
     public final TimeGranularity timeGranularity;
     public final Field field;
@@ -55,4 +57,22 @@ public class GranularToTimeConstraint implements AtomicConstraint {
                 GeneratorDefaults.TIME_MAX_LIMIT,
                 timeGranularity));
     }
+
+    @Override
+    public boolean equals(Object o){
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GranularToTimeConstraint constraint = (GranularToTimeConstraint) o;
+        return Objects.equals(field, constraint.field) && Objects.equals(timeGranularity, constraint.timeGranularity);
+    }
+
+    @Override
+    public int hashCode(){
+        return Objects.hash(field, timeGranularity);
+    }
+
+    @Override
+    public String toString(){
+        return String.format("%s granular to %s", field.getName(), timeGranularity);
+    }
 }
@@ -62,7 +62,7 @@ public class NotMatchesStandardConstraint implements AtomicConstraint {
 
     @Override
     public int hashCode(){
-        return Objects.hash(field, standard);
+        return Objects.hash(field, standard.name());
     }
 }
 
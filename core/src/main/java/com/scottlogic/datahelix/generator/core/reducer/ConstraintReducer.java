@@ -23,6 +23,7 @@ import com.scottlogic.datahelix.generator.core.profile.constraints.atomic.Atomic
 import com.scottlogic.datahelix.generator.core.decisiontree.ConstraintNode;
 import com.scottlogic.datahelix.generator.core.fieldspecs.*;
 import com.scottlogic.datahelix.generator.core.fieldspecs.relations.FieldSpecRelation;
+import com.scottlogic.datahelix.generator.core.utils.BoundedCache;
 
 import java.util.*;
 import java.util.function.Function;
@@ -31,7 +32,11 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public class ConstraintReducer {
+    private static final int REDUCTION_CACHE_SIZE = 10_000;
+
     private final FieldSpecMerger fieldSpecMerger;
+    private final BoundedCache<ReductionKey, Optional<FieldSpec>> reductionCache =
+        new BoundedCache<>("Constraint reductions", REDUCTION_CACHE_SIZE);
 
     @Inject
     public ConstraintReducer(
@@ -74,10 +79,24 @@ public class ConstraintReducer {
                 new ArrayList<>(relations)));
     }
 
+    /**
+     * Results are memoised by field and constraints, in iteration order, as the same constraints are reduced
+     * repeatedly while pruning and walking the tree.
+     */
     public Optional<FieldSpec> reduceConstraintsToFieldSpec(Field field, Iterable<AtomicConstraint> constraints) {
-        return constraints == null
-            ? Optional.of(FieldSpecFactory.fromType(field.getType()))
-            : getRootFieldSpec(field, constraints);
+        if (constraints == null) {
+            return Optional.of(FieldSpecFactory.fromType(field.getType()));
+        }
+
+        List<AtomicConstraint> constraintList = new ArrayList<>();
+        constraints.forEach(constraintList::add);
+        return reductionCache.get(
+            new ReductionKey(field, constraintList),
+            key -> getRootFieldSpec(field, constraintList));
+    }
+
+    public BoundedCache<?, ?> getReductionCache() {
+        return reductionCache;
     }
 
     private Optional<FieldSpec> getRootFieldSpec(Field field, Iterable<AtomicConstraint> rootConstraints) {
@@ -94,4 +113,30 @@ public class ConstraintReducer {
                     spec1 -> optSpec2.flatMap(
                         spec2 -> fieldSpecMerger.merge(spec1, spec2, false))));
     }
+
+    private static final class ReductionKey {
+        private final Field field;
+        private final List<AtomicConstraint> constraints;
+        private final int hashCode;
+
+        private ReductionKey(Field field, List<AtomicConstraint> constraints) {
+            this.field = field;
+            this.constraints = constraints;
+            this.hashCode = Objects.hash(field, constraints);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ReductionKey that = (ReductionKey) o;
+            return Objects.equals(field, that.field) &&
+                Objects.equals(constraints, that.constraints);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.scottlogic.datahelix.generator.core.reducer;
+
+import com.google.inject.Inject;
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.FieldType;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.common.profile.NumericBounds;
+import com.scottlogic.datahelix.generator.common.profile.NumericGranularity;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpec;
+import com.scottlogic.datahelix.generator.core.fieldspecs.RestrictionsFieldSpec;
+import com.scottlogic.datahelix.generator.core.fieldspecs.WhitelistFieldSpec;
+import com.scottlogic.datahelix.generator.core.profile.Profile;
+import com.scottlogic.datahelix.generator.core.profile.constraints.Constraint;
+import com.scottlogic.datahelix.generator.core.profile.constraints.atomic.AtomicConstraint;
+import com.scottlogic.datahelix.generator.core.profile.constraints.grammatical.AndConstraint;
+import com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictions;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Finds the bounds of each numeric field's values from the constraints that apply to every row of a profile.
+ * Constraints under conditions or alternatives can only narrow what those allow, so the bounds hold for every value
+ * generated. Fields whose values aren't bounded by their restrictions, such as fields with a custom generator, are
+ * given no bounds.
+ */
+public class NumericBoundsReducer {
+    private final ConstraintReducer constraintReducer;
+
+    @Inject
+    public NumericBoundsReducer(ConstraintReducer constraintReducer) {
+        this.constraintReducer = constraintReducer;
+    }
+
+    /**
+     * @return the profile's fields, with the bounds of the numeric fields that have them
+     */
+    public Fields withNumericBounds(Profile profile) {
+        Map<Field, List<AtomicConstraint>> fieldToConstraints = rootConstraints(profile.getConstraints().stream())
+            .collect(Collectors.groupingBy(AtomicConstraint::getField));
+
+        Map<Field, NumericBounds> numericBounds = new HashMap<>();
+        for (Field field : profile.getFields()) {
+            if (field.getType() != FieldType.NUMERIC) {
+                continue;
+            }
+            constraintReducer.reduceConstraintsToFieldSpec(field, fieldToConstraints.get(field))
+                .flatMap(NumericBoundsReducer::boundsOf)
+                .ifPresent(bounds -> numericBounds.put(field, bounds));
+        }
+        return profile.getFields().withNumericBounds(numericBounds);
+    }
+
+    private static Stream<AtomicConstraint> rootConstraints(Stream<Constraint> constraints) {
+        return constraints.flatMap(constraint -> {
+            if (constraint instanceof AtomicConstraint) {
+                return Stream.of((AtomicConstraint) constraint);
+            }
+            if (constraint instanceof AndConstraint) {
+                return rootConstraints(((AndConstraint) constraint).getSubConstraints().stream());
+            }
+            return Stream.empty();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<NumericBounds> boundsOf(FieldSpec fieldSpec) {
+        if (fieldSpec instanceof WhitelistFieldSpec) {
+            return boundsOf(((WhitelistFieldSpec) fieldSpec).getWhitelist().list());
+        }
+        if (fieldSpec instanceof RestrictionsFieldSpec
+            && ((RestrictionsFieldSpec) fieldSpec).getRestrictions() instanceof LinearRestrictions) {
+            LinearRestrictions<?> restrictions = (LinearRestrictions<?>) ((RestrictionsFieldSpec) fieldSpec).getRestrictions();
+            if (restrictions.isContradictory() || !(restrictions.getGranularity() instanceof NumericGranularity)) {
+                return Optional.empty();
+            }
+            LinearRestrictions<BigDecimal> numericRestrictions = (LinearRestrictions<BigDecimal>) restrictions;
+            return Optional.of(new NumericBounds(
+                numericRestrictions.getMin(),
+                numericRestrictions.getMax(),
+                (NumericGranularity) numericRestrictions.getGranularity()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The bounds of a set of values are those of its least and greatest values, with as many decimal places as the
+     * value with the most
+     */
+    private static Optional<NumericBounds> boundsOf(List<Object> values) {
+        List<BigDecimal> numbers = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (!(value instanceof Number)) {
+                return Optional.empty();
+            }
+            numbers.add(value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString()));
+        }
+
+        BigDecimal min = numbers.get(0);
+        BigDecimal max = numbers.get(0);
+        int decimalPlaces = 0;
+        for (BigDecimal number : numbers) {
+            min = min.min(number);
+            max = max.max(number);
+            decimalPlaces = Math.max(decimalPlaces, number.stripTrailingZeros().scale());
+        }
+        return Optional.of(new NumericBounds(min, max, new NumericGranularity(decimalPlaces)));
+    }
+}
@@ -16,12 +16,18 @@
 
 package com.scottlogic.datahelix.generator.core.restrictions.linear;
 
+import com.scottlogic.datahelix.generator.common.profile.DateTimeGranularity;
 import com.scottlogic.datahelix.generator.common.profile.Granularity;
+import com.scottlogic.datahelix.generator.common.profile.NumericGranularity;
+import com.scottlogic.datahelix.generator.core.generation.fieldvaluesources.EpochMilliLinearFieldValueSource;
 import com.scottlogic.datahelix.generator.core.generation.fieldvaluesources.FieldValueSource;
 import com.scottlogic.datahelix.generator.core.generation.fieldvaluesources.LinearFieldValueSource;
+import com.scottlogic.datahelix.generator.core.generation.fieldvaluesources.LongLinearFieldValueSource;
 import com.scottlogic.datahelix.generator.core.generation.fieldvaluesources.NullOnlySource;
 import com.scottlogic.datahelix.generator.core.restrictions.TypedRestrictions;
 
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.Objects;
 import java.util.Set;
 
@@ -55,10 +61,23 @@ public class LinearRestrictions<T extends Comparable<T>> implements TypedRestric
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public FieldValueSource<T> createFieldValueSource(Set<T> blacklist) {
         if (isContradictory) {
             return new NullOnlySource();
         }
+        if (granularity instanceof NumericGranularity) {
+            LinearRestrictions<BigDecimal> numericRestrictions = (LinearRestrictions<BigDecimal>) this;
+            if (LongLinearFieldValueSource.canGenerate(numericRestrictions)) {
+                return (FieldValueSource<T>) new LongLinearFieldValueSource(numericRestrictions, (Set<BigDecimal>) blacklist);
+            }
+        }
+        if (granularity instanceof DateTimeGranularity) {
+            LinearRestrictions<OffsetDateTime> dateTimeRestrictions = (LinearRestrictions<OffsetDateTime>) this;
+            if (EpochMilliLinearFieldValueSource.canGenerate(dateTimeRestrictions)) {
+                return (FieldValueSource<T>) new EpochMilliLinearFieldValueSource(dateTimeRestrictions, (Set<OffsetDateTime>) blacklist);
+            }
+        }
         return new LinearFieldValueSource<>(this, blacklist);
     }
 
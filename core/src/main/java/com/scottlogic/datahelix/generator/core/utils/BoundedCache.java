@@ -0,0 +1,184 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.utils;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A thread-safe memo cache holding at most a fixed number of entries, evicting entries that haven't been used
+ * recently. Counts of hits, misses and evictions are kept to show how effective the cache is.
+ * <p>
+ * Lookups take no locks, so generation threads sharing the cache don't wait for each other. Instead of keeping entries
+ * in order of use, a hit marks its entry as used, and eviction sweeps round the entries like a clock hand, giving used
+ * entries a second chance by clearing their mark and evicting the first entry it finds unmarked. Only one thread sweeps
+ * at a time, so the cache may briefly hold a few more entries than its maximum while another thread is adding them.
+ * </p>
+ */
+public class BoundedCache<K, V> {
+    private final String name;
+    private final int maximumSize;
+    private final Map<K, Entry<V>> values = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Where the last sweep stopped, only used while holding the eviction lock
+     */
+    private Iterator<Map.Entry<K, Entry<V>>> clockHand = Collections.emptyIterator();
+
+    public BoundedCache(String name, int maximumSize) {
+        this.name = name;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Get the value for the key, creating and caching it if it isn't cached.
+     * The value is created without holding any lock so threads creating different values don't wait for each other;
+     * if two threads create the same value at once, the one cached first is returned to both.
+     */
+    public V get(K key, Function<K, V> createValue) {
+        Entry<V> cached = values.get(key);
+        if (cached != null) {
+            cached.markUsed();
+            hits.increment();
+            return cached.value;
+        }
+
+        misses.increment();
+        Entry<V> created = new Entry<>(createValue.apply(key));
+        cached = values.putIfAbsent(key, created);
+        if (cached != null) {
+            return cached.value;
+        }
+
+        if (values.size() > maximumSize) {
+            evict(created);
+        }
+        return created.value;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Sweeps until the cache is back to its maximum size. A thread that finds another already sweeping leaves it to
+     * that thread, which checks the size again once it has let go of the lock.
+     */
+    private void evict(Entry<V> added) {
+        while (values.size() > maximumSize && evictionLock.tryLock()) {
+            try {
+                sweep(added);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Passes over the entry just added, and over used entries for up to two turns of the hand. Entries used by other
+     * threads as fast as the hand clears them are evicted after that all the same, so that the sweep always ends.
+     */
+    private void sweep(Entry<V> added) {
+        int secondChancesRemaining = 2 * values.size();
+        while (values.size() > maximumSize) {
+            if (!clockHand.hasNext()) {
+                clockHand = values.entrySet().iterator();
+                if (!clockHand.hasNext()) {
+                    return;
+                }
+            }
+
+            Map.Entry<K, Entry<V>> candidate = clockHand.next();
+            Entry<V> entry = candidate.getValue();
+            if (secondChancesRemaining > 0) {
+                secondChancesRemaining--;
+                if (entry == added || entry.clearUsed()) {
+                    continue;
+                }
+            }
+            if (values.remove(candidate.getKey(), entry)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the proportion of lookups that were served from the cache, or 0 if there have been none
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s: %d hits, %d misses (%.1f%% hit rate), %d evictions, %d/%d cached",
+            name, getHits(), getMisses(), getHitRate() * 100, getEvictions(), size(), maximumSize);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private volatile boolean used;
+
+        private Entry(V value) {
+            this.value = value;
+        }
+
+        /**
+         * Only writes the mark when it isn't already set, so entries hit by many threads aren't written to each time
+         */
+        private void markUsed() {
+            if (!used) {
+                used = true;
+            }
+        }
+
+        /**
+         * @return whether the entry had been used since the last sweep
+         */
+        private boolean clearUsed() {
+            if (!used) {
+                return false;
+            }
+            used = false;
+            return true;
+        }
+    }
+}
@@ -44,10 +44,33 @@ public class JavaUtilRandomNumberGenerator implements RandomNumberGenerator
         return random.nextInt(bound);
     }
 
+    /**
+     * Picks uniformly from the range by rejecting draws from the incomplete final block of the range,
+     * which keeps every value reachable however wide the range is
+     */
     @Override
     public long nextLong(long lowerInclusive, long upperExclusive) {
-        long multiplier = (long) (random.nextDouble() * (double) (upperExclusive - lowerInclusive));
-        return multiplier + lowerInclusive;
+        if (upperExclusive <= lowerInclusive) {
+            return lowerInclusive;
+        }
+
+        long range = upperExclusive - lowerInclusive;
+        if (range < 0) {
+            // the range is wider than Long.MAX_VALUE, so at least half of all longs are in it
+            long value = random.nextLong();
+            while (value < lowerInclusive || value >= upperExclusive) {
+                value = random.nextLong();
+            }
+            return value;
+        }
+
+        long bits;
+        long value;
+        do {
+            bits = random.nextLong() >>> 1;
+            value = bits % range;
+        } while (bits - value + (range - 1) < 0);
+        return value + lowerInclusive;
     }
 
     @Override
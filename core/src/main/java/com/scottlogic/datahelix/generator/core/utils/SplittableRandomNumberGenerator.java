@@ -0,0 +1,282 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.utils;
+
+import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A SplitMix64 random number generator that can be split into independent, reproducible substreams.
+ * <p>
+ * Every substream is derived from the seed and a key, so the draws a partition makes from its own substream are the
+ * same however the partitions' draws are interleaved, or whichever threads they are made on. Draws are made from the
+ * substream selected on the calling thread, or from the main stream if there isn't one.
+ * </p>
+ * <p>
+ * A substream's state is a single long that isn't shared between threads, so a draw from one doesn't contend on
+ * anything. The main stream may be drawn from by any thread, so its state is advanced atomically; draws from it on
+ * several threads at once are safe, though which thread gets which draw is down to timing.
+ * </p>
+ */
+public class SplittableRandomNumberGenerator implements RandomNumberGenerator {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final int MAX_LONG_PRECISION = 18;
+
+    private final ThreadLocal<Selection> selections = ThreadLocal.withInitial(Selection::new);
+    private final AtomicLong mainState = new AtomicLong();
+    private volatile long seed;
+
+    public SplittableRandomNumberGenerator(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * Restarts the main stream from a seed, substreams split off afterwards are derived from the new seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.mainState.set(mix(seed));
+    }
+
+    /**
+     * @return an independent generator whose draws depend only on this generator's seed and the key, such as the
+     * index of a field or a row
+     */
+    public SplittableRandomNumberGenerator split(long key) {
+        return new SplittableRandomNumberGenerator(deriveSeed(key));
+    }
+
+    /**
+     * Creates the stream with the substream for the key selected, and selects it again whenever the stream is read
+     * from, so everything the stream draws comes from that substream
+     */
+    public <T> Stream<T> inSubstream(long key, Supplier<Stream<T>> streamSupplier) {
+        SplitMixStream substream = new SplitMixStream(mix(deriveSeed(key)));
+        Stream<T> stream = inStream(selections.get(), substream, streamSupplier);
+        Iterator<T> iterator = stream.iterator();
+
+        Iterator<T> selectingIterator = new Iterator<T>() {
+            private Thread thread;
+            private Selection selection;
+
+            @Override
+            public boolean hasNext() {
+                Selection selection = getSelection();
+                SplitMixStream previous = selection.stream;
+                selection.stream = substream;
+                try {
+                    return iterator.hasNext();
+                } finally {
+                    selection.stream = previous;
+                }
+            }
+
+            @Override
+            public T next() {
+                Selection selection = getSelection();
+                SplitMixStream previous = selection.stream;
+                selection.stream = substream;
+                try {
+                    return iterator.next();
+                } finally {
+                    selection.stream = previous;
+                }
+            }
+
+            /**
+             * The stream is normally read on one thread, so its selection is looked up again only if that changes
+             */
+            private Selection getSelection() {
+                Thread current = Thread.currentThread();
+                if (current != thread) {
+                    thread = current;
+                    selection = selections.get();
+                }
+                return selection;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(selectingIterator, Spliterator.ORDERED), false)
+            .onClose(stream::close);
+    }
+
+    /**
+     * @return a task that draws from the substream selected on the calling thread, whichever thread it runs on
+     */
+    public Runnable inCurrentSubstream(Runnable task) {
+        SplitMixStream substream = selections.get().stream;
+        if (substream == null) {
+            return task;
+        }
+
+        return () -> inStream(selections.get(), substream, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextRawLong() >>> 32);
+    }
+
+    /**
+     * Lemire's nearly divisionless method, which only divides when the draw falls in the biased part of the range
+     */
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+
+        long product = (nextRawLong() >>> 32) * bound;
+        long low = product & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                product = (nextRawLong() >>> 32) * bound;
+                low = product & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    @Override
+    public long nextLong(long lowerInclusive, long upperExclusive) {
+        if (upperExclusive <= lowerInclusive) {
+            return lowerInclusive;
+        }
+
+        long range = upperExclusive - lowerInclusive;
+        if (range < 0) {
+            // the range is wider than Long.MAX_VALUE, so at least half of all longs are in it
+            long value = nextRawLong();
+            while (value < lowerInclusive || value >= upperExclusive) {
+                value = nextRawLong();
+            }
+            return value;
+        }
+
+        long bits;
+        long value;
+        do {
+            bits = nextRawLong() >>> 1;
+            value = bits % range;
+        } while (bits - value + (range - 1) < 0);
+        return value + lowerInclusive;
+    }
+
+    @Override
+    public double nextDouble(double lowerInclusive, double upperExclusive) {
+        return (nextRawLong() >>> 11) * DOUBLE_UNIT * (upperExclusive - lowerInclusive) + lowerInclusive;
+    }
+
+    /**
+     * Bounds whose unscaled values fit in a long are drawn with nextLong, only wider bounds draw a BigInteger
+     */
+    @Override
+    public BigDecimal nextBigDecimal(BigDecimal lowerInclusive, BigDecimal upperExclusive) {
+        int scale = Math.max(lowerInclusive.scale(), upperExclusive.scale());
+        BigDecimal lowerUnscaled = lowerInclusive.movePointRight(scale);
+        BigDecimal upperUnscaled = upperExclusive.movePointRight(scale);
+
+        if (lowerUnscaled.precision() <= MAX_LONG_PRECISION && upperUnscaled.precision() <= MAX_LONG_PRECISION) {
+            return BigDecimal.valueOf(nextLong(lowerUnscaled.longValue(), upperUnscaled.longValue()), scale);
+        }
+
+        BigInteger lower = lowerUnscaled.toBigInteger();
+        BigInteger range = upperUnscaled.toBigInteger().subtract(lower);
+        BigInteger value;
+        do {
+            value = nextBigInteger(range.bitLength());
+        } while (value.compareTo(range) >= 0);
+        return new BigDecimal(lower.add(value), scale);
+    }
+
+    private BigInteger nextBigInteger(int bitLength) {
+        byte[] bytes = new byte[(bitLength + 7) / 8];
+        for (int index = 0; index < bytes.length; index += 8) {
+            long bits = nextRawLong();
+            for (int offset = 0; offset < 8 && index + offset < bytes.length; offset++) {
+                bytes[index + offset] = (byte) (bits >>> (offset * 8));
+            }
+        }
+        if (bytes.length > 0) {
+            bytes[0] &= (byte) (0xFF >>> (bytes.length * 8 - bitLength));
+        }
+        return new BigInteger(1, bytes);
+    }
+
+    private long nextRawLong() {
+        SplitMixStream stream = selections.get().stream;
+        return stream == null
+            ? mix(mainState.addAndGet(GOLDEN_GAMMA))
+            : stream.next();
+    }
+
+    private long deriveSeed(long key) {
+        return mix(seed + mix(key + GOLDEN_GAMMA));
+    }
+
+    private static <T> T inStream(Selection selection, SplitMixStream stream, Supplier<T> action) {
+        SplitMixStream previous = selection.stream;
+        selection.stream = stream;
+        try {
+            return action.get();
+        } finally {
+            selection.stream = previous;
+        }
+    }
+
+    /**
+     * The SplitMix64 finaliser, which turns consecutive states into well-distributed output
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * The substream selected on a thread, null for the main stream
+     */
+    private static final class Selection {
+        private SplitMixStream stream;
+    }
+
+    private static final class SplitMixStream {
+        private long state;
+
+        SplitMixStream(long state) {
+            this.state = state;
+        }
+
+        long next() {
+            state += GOLDEN_GAMMA;
+            return mix(state);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.scottlogic.datahelix.generator.core.walker;
+
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+import com.scottlogic.datahelix.generator.core.utils.SplittableRandomNumberGenerator;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks each tree on its own worker thread, handing the produced data bags back to the caller through a bounded
+ * queue. Partitions of a profile are independent of each other so this allows all partitions to be generated at the
+ * same time while the combination strategy consumes them in the same order as it would otherwise.
+ * A worker draws from the random number generator's substream that was selected when its tree was walked, so the
+ * partitions' values are the same as walking them on one thread.
+ * <p>
+ * Workers come from one pool of daemon threads shared by every walker, and a tree is walked on the calling thread
+ * when the pool is already at its limit. A worker stops once the returned stream is closed, or once the consumer has
+ * let go of the stream without closing it, as happens when only the first rows of an infinite walk are taken.
+ * </p>
+ */
+public class ConcurrentDecisionTreeWalker implements DecisionTreeWalker {
+    private static final int BATCH_SIZE = 256;
+    private static final int QUEUE_CAPACITY = 16;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final int MAX_WORKERS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final ExecutorService EXECUTOR = new ThreadPoolExecutor(
+        0,
+        MAX_WORKERS,
+        60,
+        TimeUnit.SECONDS,
+        new SynchronousQueue<>(),
+        runnable -> {
+            Thread thread = new Thread(runnable, "partition-walker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private final DecisionTreeWalker underlyingWalker;
+    private final SplittableRandomNumberGenerator random;
+
+    public ConcurrentDecisionTreeWalker(DecisionTreeWalker underlyingWalker, SplittableRandomNumberGenerator random) {
+        this.underlyingWalker = underlyingWalker;
+        this.random = random;
+    }
+
+    @Override
+    public Stream<DataBag> walk(DecisionTree tree) {
+        Handoff handoff = new Handoff();
+        QueueIterator iterator = new QueueIterator(handoff);
+        Producer producer = new Producer(handoff, iterator);
+
+        Future<?> future;
+        try {
+            future = EXECUTOR.submit(random.inCurrentSubstream(() -> producer.fill(underlyingWalker.walk(tree))));
+        } catch (RejectedExecutionException e) {
+            return underlyingWalker.walk(tree);
+        }
+
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+            .onClose(() -> {
+                handoff.cancelled = true;
+                future.cancel(true);
+            });
+    }
+
+    /**
+     * The state shared by a worker and its consumer. The worker doesn't hold on to the consumer's iterator, so that it
+     * can tell when the consumer has gone.
+     */
+    private static class Handoff {
+        private final BlockingQueue<List<DataBag>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private volatile Throwable failure;
+        private volatile boolean cancelled;
+    }
+
+    /**
+     * Batches are handed over rather than individual data bags to keep contention on the queue low, an empty batch
+     * marks the end of the underlying stream. Waiting for room in the queue is broken up so the worker can check
+     * whether its batches are still wanted.
+     */
+    private static class Producer {
+        private static final List<DataBag> END_OF_STREAM = Collections.emptyList();
+
+        private final Handoff handoff;
+        private final WeakReference<QueueIterator> consumer;
+
+        Producer(Handoff handoff, QueueIterator consumer) {
+            this.handoff = handoff;
+            this.consumer = new WeakReference<>(consumer);
+        }
+
+        void fill(Stream<DataBag> dataBags) {
+            try (Stream<DataBag> closedAfterwards = dataBags) {
+                try {
+                    putInBatches(closedAfterwards.iterator());
+                } catch (RuntimeException | Error e) {
+                    handoff.failure = e;
+                }
+                put(END_OF_STREAM);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void putInBatches(Iterator<DataBag> source) throws InterruptedException {
+            List<DataBag> batch = new ArrayList<>(BATCH_SIZE);
+            while (source.hasNext()) {
+                batch.add(source.next());
+                if (batch.size() == BATCH_SIZE) {
+                    if (!put(batch)) {
+                        return;
+                    }
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                put(batch);
+            }
+        }
+
+        /**
+         * @return false if the batch was dropped because nothing will read it
+         */
+        private boolean put(List<DataBag> batch) throws InterruptedException {
+            while (!handoff.queue.offer(batch, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (isAbandoned()) {
+                    return false;
+                }
+            }
+            return !isAbandoned();
+        }
+
+        private boolean isAbandoned() {
+            return handoff.cancelled || consumer.get() == null;
+        }
+    }
+
+    private static class QueueIterator implements Iterator<DataBag> {
+        private final Handoff handoff;
+        private Iterator<DataBag> currentBatch = Collections.emptyIterator();
+        private boolean finished;
+
+        QueueIterator(Handoff handoff) {
+            this.handoff = handoff;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!currentBatch.hasNext() && !finished) {
+                List<DataBag> batch = take();
+                if (batch == Producer.END_OF_STREAM) {
+                    finished = true;
+                    rethrowFailure();
+                }
+                currentBatch = batch.iterator();
+            }
+            return currentBatch.hasNext();
+        }
+
+        @Override
+        public DataBag next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return currentBatch.next();
+        }
+
+        private List<DataBag> take() {
+            try {
+                return handoff.queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for partition data", e);
+            }
+        }
+
+        private void rethrowFailure() {
+            Throwable failure = handoff.failure;
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+        }
+    }
+}
@@ -15,20 +15,21 @@
  */
 package com.scottlogic.datahelix.generator.core.walker.decisionbased;
 
+import com.google.inject.Inject;
+import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
 import com.scottlogic.datahelix.generator.core.decisiontree.ConstraintNode;
 import com.scottlogic.datahelix.generator.core.decisiontree.DecisionNode;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Random;
 import java.util.stream.Stream;
 
 public class RandomOptionPicker implements OptionPicker {
-    private final Random random;
+    private final RandomNumberGenerator random;
 
-    public RandomOptionPicker() {
-        this.random = new Random();
+    @Inject
+    public RandomOptionPicker(RandomNumberGenerator random) {
+        this.random = random;
     }
 
     @Override
@@ -41,7 +42,12 @@ public class RandomOptionPicker implements OptionPicker {
     @Override
     public Stream<ConstraintNode> streamOptions(DecisionNode decisionNode) {
         List<ConstraintNode> options = new ArrayList<>(decisionNode.getOptions());
-        Collections.shuffle(options);
+        for (int index = options.size() - 1; index > 0; index--) {
+            int swapWith = random.nextInt(index + 1);
+            ConstraintNode option = options.get(index);
+            options.set(index, options.get(swapWith));
+            options.set(swapWith, option);
+        }
         return options.stream();
     }
 }
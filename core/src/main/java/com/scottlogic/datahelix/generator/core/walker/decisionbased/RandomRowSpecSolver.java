@@ -0,0 +1,243 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.walker.decisionbased;
+
+import com.google.inject.Inject;
+import com.scottlogic.datahelix.generator.common.RandomNumberGenerator;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.core.decisiontree.ConstraintNode;
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionNode;
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
+import com.scottlogic.datahelix.generator.core.fieldspecs.RowSpec;
+import com.scottlogic.datahelix.generator.core.reducer.ConstraintReducer;
+import com.scottlogic.datahelix.generator.core.walker.pruner.Merged;
+import com.scottlogic.datahelix.generator.core.walker.rowspec.PotentialRowSpecCount;
+import com.scottlogic.datahelix.generator.core.walker.rowspec.RowSpecCacheBudget;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Samples row specs at random from a decision tree without solving the whole tree.
+ * <p>
+ * The tree is solved lazily into a graph of partially solved nodes: each node resolves one decision, and its children
+ * are the pruned results of taking each option. Children are created the first time a sample reaches them and kept,
+ * as are the options found to lead to no row spec, so later samples reuse the pruning done by earlier ones and the
+ * cost of a sample settles to a walk down the cached graph. Nodes are cached until the memory budget is spent;
+ * beyond that they are solved afresh for each sample, though dead options are still remembered by their parents.
+ * <p>
+ * Options are picked with probability proportional to the number of row specs they could lead to, as counted by
+ * {@link PotentialRowSpecCount}, so each row spec of a tree is equally likely to be sampled rather than those behind
+ * sparsely populated options being favoured. The counts start as structural upper bounds and are refined as the
+ * pruned children are solved; options found to be dead are weighted zero.
+ */
+public class RandomRowSpecSolver {
+    private final RowSpecTreeSolver rowSpecTreeSolver;
+    private final ConstraintReducer constraintReducer;
+    private final RandomNumberGenerator random;
+    private final RowSpecCacheBudget budget;
+    private final PotentialRowSpecCount potentialRowSpecCount;
+
+    @Inject
+    public RandomRowSpecSolver(RowSpecTreeSolver rowSpecTreeSolver,
+                               ConstraintReducer constraintReducer,
+                               RandomNumberGenerator random,
+                               RowSpecCacheBudget budget,
+                               PotentialRowSpecCount potentialRowSpecCount) {
+        this.rowSpecTreeSolver = rowSpecTreeSolver;
+        this.constraintReducer = constraintReducer;
+        this.random = random;
+        this.budget = budget;
+        this.potentialRowSpecCount = potentialRowSpecCount;
+    }
+
+    /**
+     * @return an infinite stream of row specs picked at random from the tree, or an empty stream if it has none
+     */
+    public Stream<RowSpec> sampleRowSpecs(DecisionTree tree) {
+        return sampleRowSpecs(createSolutionGraph(tree));
+    }
+
+    /**
+     * @return a graph for the tree that can be sampled repeatedly, keeping the solving done by each sample for the
+     * next. It is not thread safe, so each thread sampling a tree needs a graph of its own
+     */
+    public SolutionGraph createSolutionGraph(DecisionTree tree) {
+        return new SolutionGraph(tree.fields, tree.rootNode);
+    }
+
+    /**
+     * @return an infinite stream of row specs picked at random from the graph's tree, or an empty stream if it has none
+     */
+    public Stream<RowSpec> sampleRowSpecs(SolutionGraph graph) {
+        Optional<RowSpec> first = graph.sample();
+        if (!first.isPresent()) {
+            return Stream.empty();
+        }
+
+        return Stream.concat(
+            Stream.of(first.get()),
+            Stream.generate(() -> graph.sample().get()));
+    }
+
+    public final class SolutionGraph {
+        private final Fields fields;
+        private final SolutionNode root;
+        private final long bytesPerNode;
+        private long remainingBytes;
+
+        private SolutionGraph(Fields fields, ConstraintNode rootNode) {
+            this.fields = fields;
+            this.bytesPerNode = budget.estimateBytes(fields);
+            this.remainingBytes = budget.getBytes();
+            this.root = new SolutionNode(rootNode);
+        }
+
+        private Optional<RowSpec> sample() {
+            return sample(root);
+        }
+
+        private Optional<RowSpec> sample(SolutionNode node) {
+            if (node.isLeaf()) {
+                return node.getRowSpec();
+            }
+
+            int option;
+            while ((option = node.pickOption()) >= 0) {
+                Optional<RowSpec> rowSpec = node.getChild(option)
+                    .flatMap(this::sample);
+                if (rowSpec.isPresent()) {
+                    return rowSpec;
+                }
+                node.markDead(option);
+            }
+            return Optional.empty();
+        }
+
+        private boolean reserveNode() {
+            if (remainingBytes < bytesPerNode) {
+                return false;
+            }
+            remainingBytes -= bytesPerNode;
+            return true;
+        }
+
+        private final class SolutionNode {
+            private final ConstraintNode constraintNode;
+            private Optional<RowSpec> rowSpec;
+            private ConstraintNode rootWithoutDecision;
+            private List<ConstraintNode> options;
+            private List<Optional<SolutionNode>> children;
+            private BigInteger[] weights;
+
+            private SolutionNode(ConstraintNode constraintNode) {
+                this.constraintNode = constraintNode;
+            }
+
+            private boolean isLeaf() {
+                return constraintNode.getDecisions().isEmpty();
+            }
+
+            private Optional<RowSpec> getRowSpec() {
+                if (rowSpec == null) {
+                    rowSpec = constraintReducer.reduceConstraintsToRowSpec(fields, constraintNode);
+                }
+                return rowSpec;
+            }
+
+            /**
+             * @return the index of an option picked in proportion to its weight, or -1 if every option is dead
+             */
+            private int pickOption() {
+                expand();
+                BigInteger total = Arrays.stream(weights).reduce(BigInteger.ZERO, BigInteger::add);
+                if (total.signum() == 0) {
+                    return -1;
+                }
+
+                BigDecimal target = new BigDecimal(total).multiply(BigDecimal.valueOf(random.nextDouble(0, 1)));
+                BigDecimal cumulative = BigDecimal.ZERO;
+                int lastLive = -1;
+                for (int option = 0; option < weights.length; option++) {
+                    if (weights[option].signum() == 0) {
+                        continue;
+                    }
+                    cumulative = cumulative.add(new BigDecimal(weights[option]));
+                    if (target.compareTo(cumulative) < 0) {
+                        return option;
+                    }
+                    lastLive = option;
+                }
+                return lastLive;
+            }
+
+            private void markDead(int option) {
+                weights[option] = BigInteger.ZERO;
+                children.set(option, null);
+            }
+
+            /**
+             * @return the node for taking the option, or empty if taking it contradicts the rest of this node
+             */
+            private Optional<SolutionNode> getChild(int option) {
+                Optional<SolutionNode> child = children.get(option);
+                if (child != null) {
+                    return child;
+                }
+
+                Merged<ConstraintNode> merged = rowSpecTreeSolver.combineWithRootNode(
+                    rootWithoutDecision,
+                    options.get(option));
+                child = merged.isContradictory()
+                    ? Optional.empty()
+                    : Optional.of(new SolutionNode(merged.get()));
+                weights[option] = child
+                    .map(node -> potentialRowSpecCount.count(node.constraintNode))
+                    .orElse(BigInteger.ZERO);
+
+                if (reserveNode()) {
+                    children.set(option, child);
+                }
+                return child;
+            }
+
+            private void expand() {
+                if (options != null) {
+                    return;
+                }
+
+                DecisionNode decision = constraintNode.getDecisions().iterator().next();
+                rootWithoutDecision = constraintNode.builder().removeDecision(decision).build();
+                options = new ArrayList<>(decision.getOptions());
+                children = new ArrayList<>(options.size());
+                for (int i = 0; i < options.size(); i++) {
+                    children.add(null);
+                }
+                BigInteger rowSpecsWithoutDecision = potentialRowSpecCount.count(rootWithoutDecision);
+                weights = new BigInteger[options.size()];
+                for (int i = 0; i < options.size(); i++) {
+                    weights[i] = rowSpecsWithoutDecision.multiply(potentialRowSpecCount.count(options.get(i)));
+                }
+            }
+        }
+    }
+}
@@ -82,7 +82,7 @@ public class RowSpecTreeSolver {
             this::reduceToRowNodes);
     }
 
-    private Merged<ConstraintNode> combineWithRootNode(ConstraintNode rootNode, ConstraintNode option) {
+    Merged<ConstraintNode> combineWithRootNode(ConstraintNode rootNode, ConstraintNode option) {
         ConstraintNode constraintNode = rootNode.builder()
             .addDecisions(option.getDecisions())
             .addAtomicConstraints(option.getAtomicConstraints())
@@ -17,51 +17,76 @@
 package com.scottlogic.datahelix.generator.core.walker.rowspec;
 
 import com.google.inject.Inject;
-import com.google.inject.name.Named;
 import com.scottlogic.datahelix.generator.core.decisiontree.ConstraintNode;
 import com.scottlogic.datahelix.generator.core.decisiontree.DecisionNode;
 import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
 
+import java.math.BigInteger;
+
 public class PotentialRowSpecCount {
-    private final int max;
+    private final RowSpecCacheBudget budget;
 
     @Inject
-    public PotentialRowSpecCount(@Named("config:internalRandomRowSpecStorage") int max) {
-        this.max = max;
+    public PotentialRowSpecCount(RowSpecCacheBudget budget) {
+        this.budget = budget;
     }
 
     /**
      *  recursively traverses the tree counting the maximum potential number of
-     *  decisions that could result. Breaks early if count goes over given max value
+     *  decisions that could result. Breaks early if count goes over the number of row specs that fit in the budget
      * @param decisionTree tree to count
      * @return whether the tree has less than the max number of decisions
      */
     boolean lessThanMax(DecisionTree decisionTree){
-        Integer total = countConstraintNode(decisionTree.rootNode);
+        Integer total = countConstraintNode(decisionTree.rootNode, budget.maxRowSpecs(decisionTree.fields));
         return total != null;
     }
 
-    private Integer countConstraintNode(ConstraintNode constraintNode){
-        int total = 1;
+    /**
+     * @return the number of row specs the tree could produce if no combination of options contradicted another:
+     * an upper bound on the row specs it produces once pruned
+     */
+    public BigInteger count(DecisionTree decisionTree) {
+        return count(decisionTree.rootNode);
+    }
+
+    /**
+     * @return the number of row specs the node could produce if no combination of options contradicted another:
+     * the product, over its decisions, of the sum of the counts of their options
+     */
+    public BigInteger count(ConstraintNode constraintNode) {
+        BigInteger total = BigInteger.ONE;
+        for (DecisionNode decision : constraintNode.getDecisions()) {
+            BigInteger options = BigInteger.ZERO;
+            for (ConstraintNode option : decision.getOptions()) {
+                options = options.add(count(option));
+            }
+            total = total.multiply(options);
+        }
+        return total;
+    }
+
+    private Integer countConstraintNode(ConstraintNode constraintNode, int max){
+        long total = 1;
         for (DecisionNode decision : constraintNode.getDecisions()) {
-            Integer count = countDecisionNode(decision);
+            Integer count = countDecisionNode(decision, max);
             if (count == null) return null;
 
             total *= count;
             if (total > max) return null;
         }
-        return total;
+        return (int) total;
     }
 
-    private Integer countDecisionNode(DecisionNode decision) {
-        int total = 0;
+    private Integer countDecisionNode(DecisionNode decision, int max) {
+        long total = 0;
         for (ConstraintNode option : decision.getOptions()) {
-            Integer count = countConstraintNode(option);
+            Integer count = countConstraintNode(option, max);
             if (count == null) return null;
 
             total += count;
             if (total > max) return null;
         }
-        return total;
+        return (int) total;
     }
 }
\ No newline at end of file
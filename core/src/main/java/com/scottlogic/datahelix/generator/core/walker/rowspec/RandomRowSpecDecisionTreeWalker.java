@@ -17,34 +17,66 @@
 package com.scottlogic.datahelix.generator.core.walker.rowspec;
 
 import com.google.inject.Inject;
+import com.google.inject.name.Named;
 import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
 import com.scottlogic.datahelix.generator.core.fieldspecs.RowSpec;
+import com.scottlogic.datahelix.generator.core.generation.DataGeneratorMonitor;
 import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
 import com.scottlogic.datahelix.generator.core.generation.databags.RowSpecDataBagGenerator;
-import com.scottlogic.datahelix.generator.core.utils.JavaUtilRandomNumberGenerator;
+import com.scottlogic.datahelix.generator.core.utils.SplittableRandomNumberGenerator;
 import com.scottlogic.datahelix.generator.core.walker.DecisionTreeWalker;
+import com.scottlogic.datahelix.generator.core.walker.decisionbased.RandomRowSpecSolver;
 import com.scottlogic.datahelix.generator.core.walker.decisionbased.RowSpecTreeSolver;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * Walks a tree at random. As random generation walks a tree once per block of rows, the row specs of each tree, or
+ * the graph they are sampled from, are kept from one walk to the next: the row specs are shared, while each thread
+ * keeps a graph of its own, as graphs are not thread safe.
+ * <p>
+ * The weights of a graph are refined by every sample taken from it, so what a walk draws from a kept graph depends on
+ * the walks made on that thread before it. When a seed is given, each walk samples from a graph of its own instead, so
+ * the rows of a block are the same whichever thread, shard or order the blocks are generated in.
+ */
 public class RandomRowSpecDecisionTreeWalker implements DecisionTreeWalker {
+    /**
+     * The key of the substream that cached row specs are solved in. Solving them draws to order the options, and
+     * the first walk of a tree could be in any block, so they mustn't draw from that block's substream.
+     */
+    private static final long ROW_SPEC_CACHE_KEY = Long.MIN_VALUE;
+
     private final RowSpecTreeSolver rowSpecTreeSolver;
+    private final RandomRowSpecSolver randomRowSpecSolver;
     private final RowSpecDataBagGenerator rowSpecDataBagGenerator;
-    private PotentialRowSpecCount potentialRowSpecCount;
-    private final JavaUtilRandomNumberGenerator random;
+    private final PotentialRowSpecCount potentialRowSpecCount;
+    private final SplittableRandomNumberGenerator random;
+    private final DataGeneratorMonitor monitor;
+    private final OptionalLong seed;
+    private final Map<DecisionTree, Supplier<Stream<RowSpec>>> rowSpecSources = new ConcurrentHashMap<>();
 
     @Inject
     public RandomRowSpecDecisionTreeWalker(RowSpecTreeSolver rowSpecTreeSolver,
+                                           RandomRowSpecSolver randomRowSpecSolver,
                                            RowSpecDataBagGenerator rowSpecDataBagGenerator,
                                            PotentialRowSpecCount potentialRowSpecCount,
-                                           JavaUtilRandomNumberGenerator random) {
+                                           SplittableRandomNumberGenerator random,
+                                           DataGeneratorMonitor monitor,
+                                           @Named("config:seed") OptionalLong seed) {
         this.rowSpecTreeSolver = rowSpecTreeSolver;
+        this.randomRowSpecSolver = randomRowSpecSolver;
         this.rowSpecDataBagGenerator = rowSpecDataBagGenerator;
         this.potentialRowSpecCount = potentialRowSpecCount;
         this.random = random;
+        this.monitor = monitor;
+        this.seed = seed;
     }
 
     @Override
@@ -52,15 +84,30 @@ public class RandomRowSpecDecisionTreeWalker implements DecisionTreeWalker {
         if (tree.rootNode.getDecisions().isEmpty()) {
             return generateWithoutRestarting(tree);
         }
+        return rowSpecSources.computeIfAbsent(tree, this::createRowSpecSource).get()
+            .map(this::createDataBag);
+    }
+
+    private Supplier<Stream<RowSpec>> createRowSpecSource(DecisionTree tree) {
+        monitor.diagnostic("Sampling from a tree of up to " + potentialRowSpecCount.count(tree) + " row specs");
         boolean useCache = potentialRowSpecCount.lessThanMax(tree);
-        Stream<RowSpec> rowSpecStream = useCache  ? getFromCachedRowSpecs(tree): getRowSpecAndRestart(tree);
+        return useCache ? getFromCachedRowSpecs(tree) : getFromSolutionGraphs(tree);
+    }
 
-        return rowSpecStream.map(this::createDataBag);
+    private Supplier<Stream<RowSpec>> getFromCachedRowSpecs(DecisionTree tree) {
+        List<RowSpec> rowSpecCache = random.inSubstream(ROW_SPEC_CACHE_KEY, () -> rowSpecTreeSolver.createRowSpecs(tree))
+            .collect(Collectors.toList());
+        return () -> Stream.generate(() -> getRandomRowSpec(rowSpecCache));
     }
 
-    private Stream<RowSpec> getFromCachedRowSpecs(DecisionTree tree) {
-        List<RowSpec> rowSpecCache = rowSpecTreeSolver.createRowSpecs(tree).collect(Collectors.toList());
-        return Stream.generate(() -> getRandomRowSpec(rowSpecCache));
+    private Supplier<Stream<RowSpec>> getFromSolutionGraphs(DecisionTree tree) {
+        if (seed.isPresent()) {
+            return () -> randomRowSpecSolver.sampleRowSpecs(tree);
+        }
+
+        ThreadLocal<RandomRowSpecSolver.SolutionGraph> graphs =
+            ThreadLocal.withInitial(() -> randomRowSpecSolver.createSolutionGraph(tree));
+        return () -> randomRowSpecSolver.sampleRowSpecs(graphs.get());
     }
 
     private Stream<DataBag> generateWithoutRestarting(DecisionTree tree) {
@@ -68,16 +115,6 @@ public class RandomRowSpecDecisionTreeWalker implements DecisionTreeWalker {
         return rowSpecDataBagGenerator.createDataBags(rowSpec);
     }
 
-    private Stream<RowSpec> getRowSpecAndRestart(DecisionTree tree) {
-        Optional<RowSpec> firstRowSpecOpt = getFirstRowSpec(tree);
-        if (!firstRowSpecOpt.isPresent()) {
-            return Stream.empty();
-        }
-
-        return Stream.generate(() -> getFirstRowSpec(tree))
-            .map(Optional::get);
-    }
-
     private Optional<RowSpec> getFirstRowSpec(DecisionTree tree) {
         return rowSpecTreeSolver.createRowSpecs(tree).findFirst();
     }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.walker.rowspec;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+
+/**
+ * The memory that random generation may use to hold row specs, or the partially solved tree they come from, for a
+ * single decision tree. Sizes are estimated from the number of fields, as each row spec holds a FieldSpec per field.
+ */
+public class RowSpecCacheBudget {
+    public static final long DEFAULT_BYTES = 4L * 1024 * 1024;
+
+    /**
+     * A rough size of a FieldSpec and its entry in a row spec, not counting values shared with the profile. Measured
+     * on a 64-bit JVM with compressed references, a numeric FieldSpec with bounds of its own takes about 250 bytes,
+     * one with the default bounds of its type about 100 and a null-only one about 50, so this errs on the high side
+     */
+    static final long ESTIMATED_BYTES_PER_FIELD = 256;
+
+    private final long bytes;
+
+    @Inject
+    public RowSpecCacheBudget(@Named("config:randomRowSpecCacheBytes") long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return the estimated size of a row spec, or of a node of a partially solved tree, for the given fields
+     */
+    public long estimateBytes(Fields fields) {
+        return ESTIMATED_BYTES_PER_FIELD * Math.max(1, fields.size());
+    }
+
+    /**
+     * @return how many row specs for the given fields fit in the budget
+     */
+    public int maxRowSpecs(Fields fields) {
+        return (int) Math.min(Integer.MAX_VALUE, bytes / estimateBytes(fields));
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.scottlogic.datahelix.generator.core.decisiontree.treepartitioning;
 
+import com.scottlogic.datahelix.generator.common.profile.Field;
 import com.scottlogic.datahelix.generator.common.profile.FieldBuilder;
 import com.scottlogic.datahelix.generator.common.profile.Fields;
 import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
@@ -255,6 +256,28 @@ class TreePartitionerTests {
                         constraint("I")))));
     }
 
+    @Test
+    void shouldGivePartitionsAndTheirFieldsInProfileOrder() {
+        givenTree(
+            tree(fields("A", "B", "C", "D", "E"),
+                constraint(new String[]{"E", "A"},
+                    decision(
+                        constraint("D"),
+                        constraint("B")))));
+
+        partitionTrees();
+
+        Assert.assertEquals(
+            Arrays.asList(
+                Collections.singletonList("A"),
+                Arrays.asList("B", "D"),
+                Collections.singletonList("C"),
+                Collections.singletonList("E")),
+            partitionedTrees.stream()
+                .map(tree -> tree.getFields().stream().map(Field::getName).collect(Collectors.toList()))
+                .collect(Collectors.toList()));
+    }
+
     private ConstraintNode constraint(String... fieldNames) {
         return constraint(fieldNames, new DecisionNode[0]);
     }
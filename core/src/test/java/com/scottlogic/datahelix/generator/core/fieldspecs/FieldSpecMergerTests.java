@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.fieldspecs;
+
+import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
+import com.scottlogic.datahelix.generator.common.whitelist.WeightedElement;
+import com.scottlogic.datahelix.generator.core.restrictions.linear.Limit;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictionsFactory.createNumericRestrictions;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldSpecMergerTests {
+    private final FieldSpecMerger merger = new FieldSpecMerger();
+
+    @Test
+    void merge_twoSets_keepsCommonElementsInLeftOrderWithSummedWeights() {
+        FieldSpec left = FieldSpecFactory.fromList(new DistributedList<>(Arrays.asList(
+            new WeightedElement<>("c", 1), new WeightedElement<>("a", 2), new WeightedElement<>("b", 3))));
+        FieldSpec right = FieldSpecFactory.fromList(new DistributedList<>(Arrays.asList(
+            new WeightedElement<>("a", 10), new WeightedElement<>("d", 20), new WeightedElement<>("c", 30))));
+
+        WhitelistFieldSpec merged = (WhitelistFieldSpec) merger.merge(left, right, false).get();
+
+        // each list is normalised, so c is 1/6 + 3/6 and a is 2/6 + 1/6 before the merged list is normalised again
+        List<WeightedElement<Object>> elements = merged.getWhitelist().distributedList();
+        assertEquals(Arrays.asList("c", "a"), merged.getWhitelist().list());
+        assertEquals(4.0 / 7, elements.get(0).weight(), 1e-9);
+        assertEquals(3.0 / 7, elements.get(1).weight(), 1e-9);
+    }
+
+    @Test
+    void merge_twoDisjointNotNullSets_isContradictory() {
+        FieldSpec left = FieldSpecFactory.fromList(DistributedList.uniform(Arrays.asList("a", "b"))).withNotNull();
+        FieldSpec right = FieldSpecFactory.fromList(DistributedList.uniform(Arrays.asList("c", "d")));
+
+        assertEquals(Optional.empty(), merger.merge(left, right, false));
+    }
+
+    @Test
+    void merge_twoDisjointNullableSets_isNullOnly() {
+        FieldSpec left = FieldSpecFactory.fromList(DistributedList.uniform(Arrays.asList("a", "b")));
+        FieldSpec right = FieldSpecFactory.fromList(DistributedList.uniform(Arrays.asList("c", "d")));
+
+        assertEquals(Optional.of(FieldSpecFactory.nullOnly()), merger.merge(left, right, false));
+    }
+
+    @Test
+    void merge_largeSetWithRestrictions_keepsPermittedElementsInOrder() {
+        FieldSpec set = FieldSpecFactory.fromList(DistributedList.uniform(numbers(0, 50_000)));
+        FieldSpec restrictions = FieldSpecFactory.fromRestriction(createNumericRestrictions(
+            new Limit<>(BigDecimal.valueOf(10_000), true),
+            new Limit<>(BigDecimal.valueOf(40_000), false)));
+
+        WhitelistFieldSpec merged = (WhitelistFieldSpec) merger.merge(set, restrictions, false).get();
+
+        assertEquals(numbers(10_000, 40_000), merged.getWhitelist().list());
+    }
+
+    @Test
+    void merge_sameSpecsTwice_isServedFromCache() {
+        FieldSpec left = FieldSpecFactory.fromRestriction(createNumericRestrictions(
+            new Limit<>(BigDecimal.ZERO, true), new Limit<>(BigDecimal.TEN, true)));
+        FieldSpec right = FieldSpecFactory.fromRestriction(createNumericRestrictions(
+            new Limit<>(BigDecimal.ONE, true), new Limit<>(BigDecimal.valueOf(20), true)));
+
+        Optional<FieldSpec> first = merger.merge(left, right, false);
+        Optional<FieldSpec> second = merger.merge(left, right, false);
+
+        assertSame(first, second);
+        assertEquals(1, merger.getMergeCache().getHits());
+        assertEquals(1, merger.getMergeCache().getMisses());
+    }
+
+    @Test
+    void merge_withDifferentGranularityFlag_isNotServedFromCache() {
+        FieldSpec left = FieldSpecFactory.fromList(DistributedList.uniform(Arrays.asList("a", "b")));
+        FieldSpec right = FieldSpecFactory.fromList(DistributedList.uniform(Arrays.asList("b", "c")));
+
+        merger.merge(left, right, false);
+        merger.merge(left, right, true);
+
+        assertEquals(0, merger.getMergeCache().getHits());
+        assertEquals(2, merger.getMergeCache().getMisses());
+    }
+
+    private static List<Object> numbers(int from, int to) {
+        return IntStream.range(from, to)
+            .mapToObj(BigDecimal::valueOf)
+            .collect(Collectors.toList());
+    }
+}
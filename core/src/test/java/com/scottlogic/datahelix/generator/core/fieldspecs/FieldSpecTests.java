@@ -29,6 +29,7 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Set;
 
 import static com.scottlogic.datahelix.generator.core.restrictions.string.StringRestrictionsFactory.forMaxLength;
@@ -167,6 +168,18 @@ class FieldSpecTests {
         Assert.assertThat(a, not(equalTo(b)));
     }
 
+    @Test
+    public void fieldSpecsWithSameFakerButUnequalStringRestrictionsShouldBeUnequal() {
+        FieldSpec a = FieldSpecFactory.fromRestriction(new StringRestrictions(
+            0, 5, Collections.emptySet(), Collections.emptySet(), Collections.emptySet(),
+            Collections.emptySet(), Collections.emptySet(), "name.firstName"));
+        FieldSpec b = FieldSpecFactory.fromRestriction(new StringRestrictions(
+            0, 10, Collections.emptySet(), Collections.emptySet(), Collections.emptySet(),
+            Collections.emptySet(), Collections.emptySet(), "name.firstName"));
+
+        Assert.assertThat(a, not(equalTo(b)));
+    }
+
     @Test
     public void fieldSpecsWithEqualTypeRestrictionsShouldBeEqual() {
         FieldSpec a = FieldSpecFactory.fromType(FieldType.STRING);
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.fieldspecs.relations;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InMapColumnTest {
+    @Test
+    void get_withIndexInColumn_returnsValueAtIndex() {
+        InMapColumn column = InMapColumn.of(Arrays.asList("foo", "bar"));
+
+        assertThat(column.get(1), equalTo("bar"));
+    }
+
+    @Test
+    void get_withIndexBeyondColumn_throws() {
+        InMapColumn column = InMapColumn.of(Arrays.asList("foo", "bar"));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> column.get(2));
+    }
+
+    @Test
+    void get_withNegativeIndex_throws() {
+        InMapColumn column = InMapColumn.of(Arrays.asList("foo", "bar"));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> column.get(-1));
+    }
+
+    @Test
+    void indexesWhere_returnsAcceptedIndexesInOrder() {
+        InMapColumn column = InMapColumn.of(Arrays.asList("foo", "bar", "far"));
+
+        List<Integer> indexes = column.indexesWhere(index -> ((String) column.get(index)).startsWith("f"))
+            .boxed()
+            .collect(Collectors.toList());
+
+        assertThat(indexes, contains(0, 2));
+    }
+
+    @Test
+    void indexesWhere_withLargeColumn_returnsAcceptedIndexesInOrder() {
+        InMapColumn column = InMapColumn.of(IntStream.range(0, 100_000).boxed().collect(Collectors.toList()));
+
+        List<Integer> indexes = column.indexesWhere(index -> (Integer) column.get(index) % 1000 == 0)
+            .boxed()
+            .collect(Collectors.toList());
+
+        assertThat(indexes, equalTo(IntStream.range(0, 100).map(i -> i * 1000).boxed().collect(Collectors.toList())));
+    }
+
+    @Test
+    void asList_whenModified_doesNotModifyColumn() {
+        InMapColumn column = InMapColumn.of(Arrays.asList("foo", "bar"));
+
+        column.asList().set(0, "baz");
+
+        assertThat(column.get(0), equalTo("foo"));
+    }
+}
@@ -17,6 +17,8 @@
 package com.scottlogic.datahelix.generator.core.generation;
 
 import com.scottlogic.datahelix.generator.common.output.GeneratedObject;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType;
 import com.scottlogic.datahelix.generator.core.profile.Profile;
 import com.scottlogic.datahelix.generator.core.decisiontree.ConstraintNode;
 import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
@@ -27,6 +29,7 @@ import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.
 import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
 import com.scottlogic.datahelix.generator.core.generation.visualiser.Visualiser;
 import com.scottlogic.datahelix.generator.core.generation.visualiser.VisualiserFactory;
+import com.scottlogic.datahelix.generator.core.utils.SplittableRandomNumberGenerator;
 import com.scottlogic.datahelix.generator.core.walker.DecisionTreeWalker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -34,6 +37,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.OptionalLong;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -53,6 +58,7 @@ class DecisionTreeDataGeneratorTests {
     private DecisionTreeWalker treeWalker;
     private UpfrontTreePruner upfrontTreePruner;
     private VisualiserFactory visualiserFactory;
+    private SingleFieldTreeGenerator singleFieldTreeGenerator;
     @BeforeEach
     void setup() {
         factory = Mockito.mock(DecisionTreeFactory.class);
@@ -63,15 +69,24 @@ class DecisionTreeDataGeneratorTests {
         combinationStrategy = Mockito.mock(CombinationStrategy.class);
         upfrontTreePruner = Mockito.mock(UpfrontTreePruner.class);
         visualiserFactory = Mockito.mock(VisualiserFactory.class);
+        singleFieldTreeGenerator = Mockito.mock(SingleFieldTreeGenerator.class);
         generator = new DecisionTreeDataGenerator(
             factory,
             treeWalker,
             treePartitioner,
             optimiser,
             monitor,
-            combinationStrategy,
+            new ShardedPartitionCombiner(
+                combinationStrategy,
+                GenerationShard.wholeRun(),
+                1000,
+                DataGenerationType.FULL_SEQUENTIAL,
+                OptionalLong.empty(),
+                new SplittableRandomNumberGenerator(0),
+                GenerationThreads.singleThread()),
             upfrontTreePruner,
-            visualiserFactory
+            visualiserFactory,
+            singleFieldTreeGenerator
         );
     }
 
@@ -90,6 +105,7 @@ class DecisionTreeDataGeneratorTests {
             DataBag value = Mockito.mock(DataBag.class);
 
             Mockito.when(tree.getRootNode()).thenReturn(rootNode);
+            Mockito.when(tree.getFields()).thenReturn(new Fields(Collections.emptyList()));
             Mockito.when(factory.analyse(profile)).thenReturn(tree);
             Mockito.when(combinationStrategy.permute(any())).thenReturn(Stream.of(value));
             Mockito.when(treePartitioner.splitTreeIntoPartitions(any())).thenReturn(Stream.of(tree));
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation;
+
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RandomBlockIteratorTests {
+    private static final long BLOCK_ROWS = 10;
+    private static final long BLOCKS = 200;
+    private static final int THREADS = 4;
+
+    @Test
+    void next_withOrderedBlocksOnSeveralThreads_keepsNoFinishedBlocksQueued() {
+        assertEquals(0, mostCompletedBlocksQueued(new GenerationThreads(THREADS, true)));
+    }
+
+    @Test
+    void next_withUnorderedBlocks_keepsNoMoreBlocksQueuedThanAreGeneratedAhead() {
+        int mostQueued = mostCompletedBlocksQueued(new GenerationThreads(THREADS, false));
+
+        assertTrue(mostQueued <= THREADS * 2, "queued " + mostQueued);
+    }
+
+    private static int mostCompletedBlocksQueued(GenerationThreads threads) {
+        RandomBlockIterator blocks = new RandomBlockIterator(
+            (block, rowsToSkip, rowsToKeep) -> Collections.nCopies((int) rowsToKeep, DataBag.empty),
+            BLOCK_ROWS,
+            0,
+            BLOCK_ROWS * BLOCKS,
+            threads);
+
+        int mostQueued = 0;
+        long rows = 0;
+        try {
+            while (blocks.hasNext()) {
+                List<DataBag> block = blocks.next();
+                rows += block.size();
+                mostQueued = Math.max(mostQueued, blocks.completedBlocksQueued());
+            }
+        } finally {
+            blocks.close();
+        }
+
+        assertEquals(BLOCK_ROWS * BLOCKS, rows);
+        return mostQueued;
+    }
+}
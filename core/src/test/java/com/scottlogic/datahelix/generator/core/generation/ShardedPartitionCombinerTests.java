@@ -0,0 +1,262 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.StandardSpecificFieldType;
+import com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType;
+import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.CombinationStrategy;
+import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.ExhaustiveCombinationStrategy;
+import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.IndexedDataBags;
+import com.scottlogic.datahelix.generator.core.generation.combinationstrategies.MinimalCombinationStrategy;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
+import com.scottlogic.datahelix.generator.core.utils.SplittableRandomNumberGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static com.scottlogic.datahelix.generator.common.profile.FieldBuilder.createField;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedPartitionCombinerTests {
+    private static final long MAX_ROWS = 25_000;
+    private static final int SHARDS = 3;
+
+    private final Field first = createField("first", StandardSpecificFieldType.INTEGER.toSpecificFieldType());
+    private final Field second = createField("second", StandardSpecificFieldType.INTEGER.toSpecificFieldType());
+    private final Field unique = new Field(
+        "unique", StandardSpecificFieldType.INTEGER.toSpecificFieldType(), true, null, false, false, null);
+
+    @Test
+    void combine_withSequentialShards_concatenatesToTheWholeRun() {
+        List<PartitionDataBags> partitions = Arrays.asList(
+            indexedPartition(first, 200),
+            indexedPartition(second, 300));
+
+        assertShardsConcatenateToTheWholeRun(
+            shard -> combiner(shard, new ExhaustiveCombinationStrategy(), DataGenerationType.FULL_SEQUENTIAL, new SplittableRandomNumberGenerator(0))
+                .combine(partitions));
+    }
+
+    @Test
+    void combine_withSeededRandomShards_concatenatesToTheWholeRun() {
+        assertShardsConcatenateToTheWholeRun(shard -> {
+            SplittableRandomNumberGenerator random = new SplittableRandomNumberGenerator(0);
+            List<PartitionDataBags> partitions = Arrays.asList(
+                randomPartition(first, random),
+                randomPartition(second, random));
+            return combiner(shard, new MinimalCombinationStrategy(), DataGenerationType.RANDOM, random)
+                .combine(partitions);
+        });
+    }
+
+    @Test
+    void combine_withSeededRandomShards_keepsUniqueFieldsUniqueAcrossShards() {
+        List<DataBag> rows = new ArrayList<>();
+        for (int index = 0; index < SHARDS; index++) {
+            SplittableRandomNumberGenerator random = new SplittableRandomNumberGenerator(0);
+            List<PartitionDataBags> partitions = Arrays.asList(
+                randomPartition(first, random),
+                new PartitionDataBags(
+                    () -> LongStream.iterate(0, value -> value + 1).mapToObj(value -> bag(unique, value)),
+                    Optional.empty(),
+                    true));
+            GenerationShard shard = new GenerationShard(index, SHARDS);
+            combiner(shard, new MinimalCombinationStrategy(), DataGenerationType.RANDOM, random)
+                .combine(partitions)
+                .limit(shard.getRowCount(MAX_ROWS))
+                .forEach(rows::add);
+        }
+
+        assertEquals(MAX_ROWS, rows.size());
+        assertEquals(MAX_ROWS, rows.stream().map(row -> row.getFormattedValue(unique)).collect(Collectors.toSet()).size());
+    }
+
+    @Test
+    void combine_withUniquePartitionThatCannotBeIndexed_readsItOnceAcrossTheBlocksOfTheRun() {
+        AtomicLong read = new AtomicLong();
+        SplittableRandomNumberGenerator random = new SplittableRandomNumberGenerator(0);
+        List<PartitionDataBags> partitions = Arrays.asList(
+            randomPartition(first, random),
+            new PartitionDataBags(
+                () -> LongStream.iterate(0, value -> value + 1)
+                    .peek(value -> read.incrementAndGet())
+                    .mapToObj(value -> bag(unique, value)),
+                Optional.empty(),
+                true));
+
+        List<Object> values = combiner(GenerationShard.wholeRun(), new MinimalCombinationStrategy(), DataGenerationType.RANDOM, random, new GenerationThreads(4, true))
+            .combine(partitions)
+            .limit(MAX_ROWS)
+            .map(row -> row.getFormattedValue(unique))
+            .collect(Collectors.toList());
+
+        assertEquals(LongStream.range(0, MAX_ROWS).boxed().collect(Collectors.toList()), values);
+        assertTrue(
+            read.get() <= MAX_ROWS + ShardedPartitionCombiner.RANDOM_BLOCK_ROWS,
+            "expected each value to be read once, with at most a block read ahead, but read " + read.get());
+    }
+
+    @Test
+    void combine_withRandomPartitions_drawsEachFromItsOwnSubstream() {
+        SplittableRandomNumberGenerator random = new SplittableRandomNumberGenerator(0);
+        List<Object> alone = combiner(GenerationShard.wholeRun(), new MinimalCombinationStrategy(), DataGenerationType.RANDOM, random)
+            .combine(Arrays.asList(randomPartition(first, random)))
+            .limit(100)
+            .map(row -> row.getFormattedValue(first))
+            .collect(Collectors.toList());
+        List<Object> withAnother = combiner(GenerationShard.wholeRun(), new MinimalCombinationStrategy(), DataGenerationType.RANDOM, random)
+            .combine(Arrays.asList(randomPartition(first, random), randomPartition(second, random)))
+            .limit(100)
+            .map(row -> row.getFormattedValue(first))
+            .collect(Collectors.toList());
+
+        assertEquals(alone, withAnother);
+    }
+
+    @Test
+    void combine_withOrderedThreads_givesTheRowsOfASingleThread() {
+        List<DataBag> singleThread = combineRandomPartitions(GenerationThreads.singleThread());
+        List<DataBag> threads = combineRandomPartitions(new GenerationThreads(4, true));
+
+        assertEquals(MAX_ROWS, threads.size());
+        assertEquals(singleThread, threads);
+    }
+
+    @Test
+    void combine_withUnorderedThreads_givesTheRowsOfASingleThreadInAnyOrder() {
+        List<DataBag> singleThread = combineRandomPartitions(GenerationThreads.singleThread());
+        List<DataBag> threads = combineRandomPartitions(new GenerationThreads(4, false));
+
+        assertEquals(MAX_ROWS, threads.size());
+        assertEquals(new HashSet<>(singleThread), new HashSet<>(threads));
+    }
+
+    @Test
+    void combine_withThreads_stopsAfterTheBlockWherePartitionsRunOut() {
+        long uniqueValues = ShardedPartitionCombiner.RANDOM_BLOCK_ROWS + 10;
+        SplittableRandomNumberGenerator random = new SplittableRandomNumberGenerator(0);
+        List<PartitionDataBags> partitions = Arrays.asList(
+            randomPartition(first, random),
+            new PartitionDataBags(
+                () -> LongStream.range(0, uniqueValues).mapToObj(value -> bag(unique, value)),
+                Optional.empty(),
+                true));
+
+        long rows = combiner(GenerationShard.wholeRun(), new MinimalCombinationStrategy(), DataGenerationType.RANDOM, random, new GenerationThreads(4, true))
+            .combine(partitions)
+            .count();
+
+        assertEquals(uniqueValues, rows);
+    }
+
+    @Test
+    void getFirstRow_coversEveryRowOnce() {
+        long expectedFirstRow = 0;
+        for (int index = 0; index < SHARDS; index++) {
+            GenerationShard shard = new GenerationShard(index, SHARDS);
+            assertEquals(expectedFirstRow, shard.getFirstRow(MAX_ROWS));
+            expectedFirstRow += shard.getRowCount(MAX_ROWS);
+        }
+        assertEquals(MAX_ROWS, expectedFirstRow);
+    }
+
+    private void assertShardsConcatenateToTheWholeRun(Function<GenerationShard, Stream<DataBag>> generate) {
+        List<DataBag> wholeRun = generate.apply(GenerationShard.wholeRun())
+            .limit(MAX_ROWS)
+            .collect(Collectors.toList());
+
+        List<DataBag> shardedRun = new ArrayList<>();
+        for (int index = 0; index < SHARDS; index++) {
+            GenerationShard shard = new GenerationShard(index, SHARDS);
+            generate.apply(shard).limit(shard.getRowCount(MAX_ROWS)).forEach(shardedRun::add);
+        }
+
+        assertEquals(MAX_ROWS, wholeRun.size());
+        assertEquals(wholeRun, shardedRun);
+        assertEquals(MAX_ROWS, new HashSet<>(wholeRun).size());
+    }
+
+    private List<DataBag> combineRandomPartitions(GenerationThreads threads) {
+        SplittableRandomNumberGenerator random = new SplittableRandomNumberGenerator(0);
+        List<PartitionDataBags> partitions = Arrays.asList(
+            randomPartition(first, random),
+            randomPartition(second, random));
+        return combiner(GenerationShard.wholeRun(), new MinimalCombinationStrategy(), DataGenerationType.RANDOM, random, threads)
+            .combine(partitions)
+            .limit(MAX_ROWS)
+            .collect(Collectors.toList());
+    }
+
+    private static ShardedPartitionCombiner combiner(
+        GenerationShard shard,
+        CombinationStrategy strategy,
+        DataGenerationType dataGenerationType,
+        SplittableRandomNumberGenerator random) {
+        return combiner(shard, strategy, dataGenerationType, random, GenerationThreads.singleThread());
+    }
+
+    private static ShardedPartitionCombiner combiner(
+        GenerationShard shard,
+        CombinationStrategy strategy,
+        DataGenerationType dataGenerationType,
+        SplittableRandomNumberGenerator random,
+        GenerationThreads threads) {
+        return new ShardedPartitionCombiner(strategy, shard, MAX_ROWS, dataGenerationType, OptionalLong.of(42), random, threads);
+    }
+
+    private static PartitionDataBags indexedPartition(Field field, long size) {
+        IndexedDataBags indexed = new IndexedDataBags() {
+            @Override
+            public long size() {
+                return size;
+            }
+
+            @Override
+            public DataBag get(long index) {
+                return bag(field, index);
+            }
+        };
+        return new PartitionDataBags(
+            () -> LongStream.range(0, size).mapToObj(indexed::get),
+            Optional.of(indexed),
+            false);
+    }
+
+    private static PartitionDataBags randomPartition(Field field, SplittableRandomNumberGenerator random) {
+        return new PartitionDataBags(
+            () -> Stream.generate(() -> bag(field, random.nextLong(0, Long.MAX_VALUE))),
+            Optional.empty(),
+            false);
+    }
+
+    private static DataBag bag(Field field, long value) {
+        return DataBag.of(field, new DataBagValue(value));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.common.profile.StandardSpecificFieldType;
+import com.scottlogic.datahelix.generator.core.builders.TestConstraintNodeBuilder;
+import com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType;
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecMerger;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
+import com.scottlogic.datahelix.generator.core.reducer.ConstraintReducer;
+import com.scottlogic.datahelix.generator.core.utils.JavaUtilRandomNumberGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.scottlogic.datahelix.generator.common.profile.FieldBuilder.createField;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFieldTreeGeneratorTests {
+    private Field field = createField("field", StandardSpecificFieldType.INTEGER.toSpecificFieldType());
+    private Field other = createField("other", StandardSpecificFieldType.INTEGER.toSpecificFieldType());
+    private ConstraintReducer constraintReducer = new ConstraintReducer(new FieldSpecMerger());
+
+    @Test
+    void canGenerate_withSingleFieldAndNoDecisions_isTrue() {
+        DecisionTree tree = new DecisionTree(
+            TestConstraintNodeBuilder.constraintNode().build(),
+            new Fields(Collections.singletonList(field)));
+
+        assertTrue(generator(DataGenerationType.FULL_SEQUENTIAL).canGenerate(tree));
+    }
+
+    @Test
+    void canGenerate_withDecisions_isFalse() {
+        DecisionTree tree = new DecisionTree(
+            TestConstraintNodeBuilder.constraintNode()
+                .withDecision(
+                    TestConstraintNodeBuilder.constraintNode().where(field).isNull(),
+                    TestConstraintNodeBuilder.constraintNode().where(field).isNotNull())
+                .build(),
+            new Fields(Collections.singletonList(field)));
+
+        assertFalse(generator(DataGenerationType.FULL_SEQUENTIAL).canGenerate(tree));
+    }
+
+    @Test
+    void canGenerate_withMoreThanOneField_isFalse() {
+        DecisionTree tree = new DecisionTree(
+            TestConstraintNodeBuilder.constraintNode().build(),
+            new Fields(Arrays.asList(field, other)));
+
+        assertFalse(generator(DataGenerationType.FULL_SEQUENTIAL).canGenerate(tree));
+    }
+
+    @Test
+    void generate_withWhitelist_streamsEachValueOfTheField() {
+        DecisionTree tree = new DecisionTree(
+            TestConstraintNodeBuilder.constraintNode()
+                .where(field).isInSet(BigDecimal.ONE, BigDecimal.TEN)
+                .where(field).isNotNull()
+                .build(),
+            new Fields(Collections.singletonList(field)));
+
+        Set<Object> values = generator(DataGenerationType.FULL_SEQUENTIAL).generate(tree)
+            .map(dataBag -> dataBag.getFormattedValue(field))
+            .collect(Collectors.toSet());
+
+        assertEquals(new HashSet<>(Arrays.asList(BigDecimal.ONE, BigDecimal.TEN)), values);
+    }
+
+    @Test
+    void generate_withSingleValue_emitsItOnceWhenSequential() {
+        DecisionTree tree = singleValueTree();
+
+        List<DataBag> dataBags = generator(DataGenerationType.FULL_SEQUENTIAL).generate(tree)
+            .collect(Collectors.toList());
+
+        assertEquals(Collections.singletonList(DataBag.of(field, new DataBagValue(BigDecimal.ONE))), dataBags);
+    }
+
+    @Test
+    void generate_withSingleValue_repeatsItWhenRandom() {
+        DecisionTree tree = singleValueTree();
+
+        List<DataBag> dataBags = generator(DataGenerationType.RANDOM).generate(tree)
+            .limit(3)
+            .collect(Collectors.toList());
+
+        assertEquals(Collections.nCopies(3, DataBag.of(field, new DataBagValue(BigDecimal.ONE))), dataBags);
+    }
+
+    private DecisionTree singleValueTree() {
+        return new DecisionTree(
+            TestConstraintNodeBuilder.constraintNode()
+                .where(field).isInSet(BigDecimal.ONE)
+                .where(field).isNotNull()
+                .build(),
+            new Fields(Collections.singletonList(field)));
+    }
+
+    private SingleFieldTreeGenerator generator(DataGenerationType generationType) {
+        return new SingleFieldTreeGenerator(
+            constraintReducer,
+            new FieldSpecValueGenerator(generationType, new JavaUtilRandomNumberGenerator(0)));
+    }
+}
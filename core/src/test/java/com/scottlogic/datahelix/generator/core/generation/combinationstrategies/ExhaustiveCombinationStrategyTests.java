@@ -16,12 +16,17 @@
 
 package com.scottlogic.datahelix.generator.core.generation.combinationstrategies;
 
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.scottlogic.datahelix.generator.core.generation.combinationstrategies.CombinationStrategyTester.bag;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class ExhaustiveCombinationStrategyTests {
     private CombinationStrategyTester tester;
@@ -76,6 +81,27 @@ class ExhaustiveCombinationStrategyTests {
                 bag("X", "C", "5")));
     }
 
+    @Test
+    void shouldIndexCombinationsInTheOrderTheyArePermuted() {
+        ExhaustiveCombinationStrategy strategy = new ExhaustiveCombinationStrategy();
+        List<List<DataBag>> sequences = Arrays.asList(
+            Arrays.asList(bag("X")),
+            Arrays.asList(bag("A"), bag("B"), bag("C")),
+            Arrays.asList(bag("1"), bag("2")));
+        List<IndexedDataBags> indexedSequences = sequences.stream()
+            .map(ExhaustiveCombinationStrategyTests::indexed)
+            .collect(Collectors.toList());
+
+        List<DataBag> permuted = strategy.permute(sequences.stream().map(sequence -> sequence::stream))
+            .collect(Collectors.toList());
+
+        assertEquals(permuted.size(), strategy.countCombinations(indexedSequences));
+        for (int index = 0; index < permuted.size(); index++) {
+            assertEquals(permuted.get(index), strategy.nth(indexedSequences, index));
+        }
+        assertEquals(permuted.subList(4, permuted.size()), strategy.permuteFrom(indexedSequences, 4).get().collect(Collectors.toList()));
+    }
+
     @Test
     void shouldGiveInputForSingleSequence() {
         tester.given(Stream.of(bag("A"), bag("B"), bag("C")));
@@ -91,4 +117,18 @@ class ExhaustiveCombinationStrategyTests {
 
         tester.expectEmpty();
     }
+
+    private static IndexedDataBags indexed(List<DataBag> sequence) {
+        return new IndexedDataBags() {
+            @Override
+            public long size() {
+                return sequence.size();
+            }
+
+            @Override
+            public DataBag get(long index) {
+                return sequence.get((int) index);
+            }
+        };
+    }
 }
@@ -17,11 +17,14 @@
 package com.scottlogic.datahelix.generator.core.generation.databags;
 
 import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
 import com.scottlogic.datahelix.generator.core.builders.DataBagBuilder;
 import org.junit.Assert;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+
 import static org.hamcrest.Matchers.equalTo;
 import static com.scottlogic.datahelix.generator.common.profile.FieldBuilder.createField;
 
@@ -109,4 +112,78 @@ class DataBagTests {
             IllegalArgumentException.class,
             () -> DataBag.merge(dataBag1, dataBag2));
     }
+
+    @Test
+    void mergedDataBagsOfProfileFieldsShouldContainTheSameValuesAsInputs() {
+        // ARRANGE
+        Fields fields = Fields.withOrdinals(Arrays.asList(createField("id"), createField("name"), createField("price")));
+        Field idField = fields.getByName("id");
+        Field nameField = fields.getByName("name");
+        Field priceField = fields.getByName("price");
+
+        DataBag dataBag1 = new DataBagBuilder().set(priceField, 4).build();
+        DataBag dataBag2 = new DataBagBuilder().set(idField, 3).build();
+        DataBag dataBag3 = new DataBagBuilder().set(nameField, "foo").build();
+
+        // ACT
+        DataBag mergedDataBag = DataBag.merge(dataBag1, dataBag2, dataBag3);
+
+        // ASSERT
+        Assert.assertThat(mergedDataBag.getFormattedValue(idField), equalTo(3));
+        Assert.assertThat(mergedDataBag.getFormattedValue(nameField), equalTo("foo"));
+        Assert.assertThat(mergedDataBag.getFormattedValue(priceField), equalTo(4));
+    }
+
+    @Test
+    void mergedDataBagsOfSomeProfileFieldsShouldNotContainOtherFields() {
+        // ARRANGE
+        Fields fields = Fields.withOrdinals(Arrays.asList(createField("id"), createField("name"), createField("price")));
+        Field nameField = fields.getByName("name");
+
+        DataBag dataBag1 = new DataBagBuilder().set(fields.getByName("price"), 4).build();
+        DataBag dataBag2 = new DataBagBuilder().set(fields.getByName("id"), 3).build();
+
+        // ACT
+        DataBag mergedDataBag = DataBag.merge(dataBag1, dataBag2);
+
+        // ASSERT
+        Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> mergedDataBag.getFormattedValue(nameField));
+    }
+
+    @Test
+    void mergeShouldThrowIfDataBagsOfProfileFieldsOverlap() {
+        // ARRANGE
+        Fields fields = Fields.withOrdinals(Arrays.asList(createField("id"), createField("price")));
+
+        DataBag dataBag1 = new DataBagBuilder().set(fields.getByName("id"), "foo").build();
+        DataBag dataBag2 = new DataBagBuilder()
+            .set(fields.getByName("id"), "foo")
+            .set(fields.getByName("price"), 4)
+            .build();
+
+        // ACT / ASSERT
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> DataBag.merge(dataBag1, dataBag2));
+    }
+
+    @Test
+    void dataBagOfProfileFieldsShouldEqualDataBagOfEqualFields() {
+        // ARRANGE
+        Fields fields = Fields.withOrdinals(Arrays.asList(createField("id"), createField("price")));
+
+        DataBag profileDataBag = DataBag.merge(
+            new DataBagBuilder().set(fields.getByName("price"), 4).build(),
+            new DataBagBuilder().set(fields.getByName("id"), 3).build());
+        DataBag dataBag = new DataBagBuilder()
+            .set(createField("id"), 3)
+            .set(createField("price"), 4)
+            .build();
+
+        // ACT / ASSERT
+        Assert.assertThat(profileDataBag, equalTo(dataBag));
+        Assert.assertThat(profileDataBag.hashCode(), equalTo(dataBag.hashCode()));
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.fieldvaluesources;
+
+import com.scottlogic.datahelix.generator.common.profile.DateTimeGranularity;
+import com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictions;
+import com.scottlogic.datahelix.generator.core.utils.JavaUtilRandomNumberGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EpochMilliLinearFieldValueSourceTest {
+    private static final OffsetDateTime FRIDAY = OffsetDateTime.of(2019, 11, 1, 9, 30, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    public void testGenerateAllValues() {
+        EpochMilliLinearFieldValueSource source = new EpochMilliLinearFieldValueSource(
+            restrictions(FRIDAY, FRIDAY.plusHours(2), new DateTimeGranularity(ChronoUnit.HOURS)),
+            Collections.emptySet());
+
+        List<OffsetDateTime> results = source.generateAllValues().collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(FRIDAY, FRIDAY.plusHours(1), FRIDAY.plusHours(2)), results);
+    }
+
+    @Test
+    public void testGenerateAllValuesSkipsWeekendsForWorkingDays() {
+        EpochMilliLinearFieldValueSource source = new EpochMilliLinearFieldValueSource(
+            restrictions(FRIDAY, FRIDAY.plusDays(4), new DateTimeGranularity(ChronoUnit.DAYS, true)),
+            Collections.emptySet());
+
+        List<OffsetDateTime> results = source.generateAllValues().collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(FRIDAY, FRIDAY.plusDays(3), FRIDAY.plusDays(4)), results);
+    }
+
+    @Test
+    public void testGenerateAllValuesExcludesBlacklist() {
+        EpochMilliLinearFieldValueSource source = new EpochMilliLinearFieldValueSource(
+            restrictions(FRIDAY, FRIDAY.plusMinutes(2), new DateTimeGranularity(ChronoUnit.MINUTES)),
+            Collections.singleton(FRIDAY.plusMinutes(1).plusSeconds(20)));
+
+        List<OffsetDateTime> results = source.generateAllValues().collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(FRIDAY, FRIDAY.plusMinutes(2)), results);
+    }
+
+    @Test
+    public void testGenerateRandomValuesMatchesOffsetDateTimeSource() {
+        LinearRestrictions<OffsetDateTime> restrictions =
+            restrictions(FRIDAY.truncatedTo(ChronoUnit.DAYS), FRIDAY.plusDays(30), new DateTimeGranularity(ChronoUnit.DAYS, true));
+
+        List<OffsetDateTime> expected = new LinearFieldValueSource<>(restrictions, Collections.emptySet())
+            .generateRandomValues(new JavaUtilRandomNumberGenerator(0))
+            .limit(100)
+            .collect(Collectors.toList());
+        List<OffsetDateTime> actual = new EpochMilliLinearFieldValueSource(restrictions, Collections.emptySet())
+            .generateRandomValues(new JavaUtilRandomNumberGenerator(0))
+            .limit(100)
+            .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testGenerateRandomValuesWithMostValuesBlacklisted() {
+        OffsetDateTime min = FRIDAY.truncatedTo(ChronoUnit.HOURS);
+        EpochMilliLinearFieldValueSource source = new EpochMilliLinearFieldValueSource(
+            restrictions(min, min.plusHours(999), new DateTimeGranularity(ChronoUnit.HOURS)),
+            IntStream.range(1, 1000).mapToObj(min::plusHours).collect(Collectors.toSet()));
+
+        Set<OffsetDateTime> results = source.generateRandomValues(new JavaUtilRandomNumberGenerator(0))
+            .limit(10)
+            .collect(Collectors.toSet());
+
+        assertEquals(Collections.singleton(min), results);
+    }
+
+    @Test
+    public void testCannotGenerateCalendarGranularities() {
+        assertFalse(EpochMilliLinearFieldValueSource.canGenerate(
+            restrictions(FRIDAY, FRIDAY.plusYears(1), new DateTimeGranularity(ChronoUnit.MONTHS))));
+    }
+
+    @Test
+    public void testCannotGenerateBoundsWithOtherOffsets() {
+        OffsetDateTime min = FRIDAY.withOffsetSameInstant(ZoneOffset.ofHours(1));
+
+        assertFalse(EpochMilliLinearFieldValueSource.canGenerate(
+            restrictions(min, min.plusDays(1), new DateTimeGranularity(ChronoUnit.HOURS))));
+    }
+
+    @Test
+    public void testRestrictionsCreateEpochMilliSourceWhenPossible() {
+        FieldValueSource<OffsetDateTime> source = restrictions(FRIDAY, FRIDAY.plusDays(1), DateTimeGranularity.DEFAULT)
+            .createFieldValueSource(Collections.emptySet());
+
+        assertTrue(source instanceof EpochMilliLinearFieldValueSource);
+    }
+
+    @Test
+    public void testNthAndSkipMatchGenerateAllValues() {
+        EpochMilliLinearFieldValueSource source = new EpochMilliLinearFieldValueSource(
+            restrictions(FRIDAY, FRIDAY.plusHours(10), new DateTimeGranularity(ChronoUnit.HOURS)),
+            new HashSet<>(Arrays.asList(FRIDAY.plusHours(1), FRIDAY.plusHours(2), FRIDAY.plusHours(10))));
+        List<OffsetDateTime> allValues = source.generateAllValues().collect(Collectors.toList());
+
+        assertEquals(allValues.size(), source.countAllValues().getAsLong());
+        for (int index = 0; index < allValues.size(); index++) {
+            assertEquals(allValues.get(index), source.nth(index));
+            assertEquals(
+                allValues.subList(index, allValues.size()),
+                source.skip(index).collect(Collectors.toList()));
+        }
+        assertEquals(0, source.skip(allValues.size()).count());
+    }
+
+    @Test
+    public void testSkipForWorkingDaysMatchesGenerateAllValues() {
+        EpochMilliLinearFieldValueSource source = new EpochMilliLinearFieldValueSource(
+            restrictions(FRIDAY, FRIDAY.plusDays(4), new DateTimeGranularity(ChronoUnit.DAYS, true)),
+            Collections.emptySet());
+
+        assertFalse(source.countAllValues().isPresent());
+        assertEquals(FRIDAY.plusDays(3), source.nth(1));
+        assertEquals(Arrays.asList(FRIDAY.plusDays(3), FRIDAY.plusDays(4)), source.skip(1).collect(Collectors.toList()));
+    }
+
+    private static LinearRestrictions<OffsetDateTime> restrictions(OffsetDateTime min, OffsetDateTime max, DateTimeGranularity granularity) {
+        return new LinearRestrictions<>(min, max, granularity);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.fieldvaluesources;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongBlacklistTest {
+    @Test
+    public void testContains() {
+        LongBlacklist blacklist = new LongBlacklist(LongStream.of(5, -3, 5, 12));
+
+        assertTrue(blacklist.contains(-3));
+        assertTrue(blacklist.contains(12));
+        assertFalse(blacklist.contains(6));
+        assertEquals(3, blacklist.size());
+    }
+
+    @Test
+    public void testToStepsKeepsValuesOnStepsWithinRange() {
+        LongBlacklist blacklist = new LongBlacklist(LongStream.of(0, 10, 15, 20, 40, 50));
+
+        assertEquals(new LongBlacklist(LongStream.of(0, 1, 2, 6)), blacklist.toSteps(10, 45, 5));
+    }
+
+    @Test
+    public void testNthNotBlacklistedSkipsBlacklistedValues() {
+        LongBlacklist blacklist = new LongBlacklist(LongStream.of(0, 1, 3, 4, 5, 8));
+
+        long[] results = LongStream.range(0, 4).map(blacklist::nthNotBlacklisted).toArray();
+
+        assertArrayEquals(new long[]{2, 6, 7, 9}, results);
+    }
+
+    @Test
+    public void testNthNotBlacklistedWithEmptyBlacklist() {
+        LongBlacklist blacklist = new LongBlacklist(LongStream.empty());
+
+        assertEquals(42, blacklist.nthNotBlacklisted(42));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.fieldvaluesources;
+
+import com.scottlogic.datahelix.generator.common.profile.NumericGranularity;
+import com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictions;
+import com.scottlogic.datahelix.generator.core.utils.JavaUtilRandomNumberGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLinearFieldValueSourceTest {
+    @Test
+    public void testGenerateAllValues() {
+        LongLinearFieldValueSource source = new LongLinearFieldValueSource(
+            restrictions("1", "1.3", 1),
+            Collections.emptySet());
+
+        List<String> results = source.generateAllValues().map(BigDecimal::toString).collect(Collectors.toList());
+
+        assertEquals(Arrays.asList("1", "1.1", "1.2", "1.3"), results);
+    }
+
+    @Test
+    public void testGenerateAllValuesMatchesBigDecimalSource() {
+        LinearRestrictions<BigDecimal> restrictions = restrictions("-2.50", "3", 1);
+
+        List<BigDecimal> expected = new LinearFieldValueSource<>(restrictions, Collections.emptySet())
+            .generateAllValues().collect(Collectors.toList());
+        List<BigDecimal> actual = new LongLinearFieldValueSource(restrictions, Collections.emptySet())
+            .generateAllValues().collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testGenerateAllValuesExcludesBlacklist() {
+        LongLinearFieldValueSource source = new LongLinearFieldValueSource(
+            restrictions("0", "5", 0),
+            new HashSet<>(Arrays.asList(new BigDecimal("2.0"), new BigDecimal("4.5"), new BigDecimal("10"))));
+
+        List<Integer> results = source.generateAllValues().map(BigDecimal::intValueExact).collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(0, 1, 3, 5), results);
+    }
+
+    @Test
+    public void testGenerateRandomValues() {
+        LongLinearFieldValueSource source = new LongLinearFieldValueSource(
+            restrictions("-1", "1", 2),
+            Collections.singleton(BigDecimal.ZERO));
+
+        List<BigDecimal> results = source.generateRandomValues(new JavaUtilRandomNumberGenerator(0))
+            .limit(1000)
+            .collect(Collectors.toList());
+
+        assertTrue(results.stream().allMatch(x -> x.compareTo(BigDecimal.ONE.negate()) >= 0 && x.compareTo(BigDecimal.ONE) <= 0));
+        assertTrue(results.stream().allMatch(x -> x.scale() == 2));
+        assertTrue(results.stream().noneMatch(x -> x.signum() == 0));
+    }
+
+    @Test
+    public void testGenerateRandomValuesWithMostValuesBlacklisted() {
+        LongLinearFieldValueSource source = new LongLinearFieldValueSource(
+            restrictions("0", "9999", 0),
+            IntStream.rangeClosed(0, 9999).filter(i -> i != 17 && i != 9999).mapToObj(BigDecimal::valueOf).collect(Collectors.toSet()));
+
+        Set<BigDecimal> results = source.generateRandomValues(new JavaUtilRandomNumberGenerator(0))
+            .limit(100)
+            .collect(Collectors.toSet());
+
+        assertEquals(new HashSet<>(Arrays.asList(BigDecimal.valueOf(17), BigDecimal.valueOf(9999))), results);
+    }
+
+    @Test
+    public void testGenerateRandomValuesWithEveryValueBlacklisted() {
+        LongLinearFieldValueSource source = new LongLinearFieldValueSource(
+            restrictions("0", "2", 0),
+            new HashSet<>(Arrays.asList(BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.valueOf(2))));
+
+        assertEquals(0, source.generateRandomValues(new JavaUtilRandomNumberGenerator(0)).count());
+    }
+
+    @Test
+    public void testCanGenerateBoundsWithinLongRange() {
+        assertTrue(LongLinearFieldValueSource.canGenerate(restrictions("-9223372036854775808", "9223372036854775806", 0)));
+    }
+
+    @Test
+    public void testCannotGenerateBoundsOutsideLongRange() {
+        assertFalse(LongLinearFieldValueSource.canGenerate(restrictions("-1e20", "1e20", 0)));
+    }
+
+    @Test
+    public void testCannotGenerateBoundsFinerThanGranularity() {
+        assertFalse(LongLinearFieldValueSource.canGenerate(restrictions("0.5", "10", 0)));
+    }
+
+    @Test
+    public void testRestrictionsCreateLongSourceWhenPossible() {
+        FieldValueSource<BigDecimal> source = restrictions("0", "100", 0).createFieldValueSource(Collections.emptySet());
+
+        assertTrue(source instanceof LongLinearFieldValueSource);
+    }
+
+    @Test
+    public void testNthAndSkipMatchGenerateAllValues() {
+        LongLinearFieldValueSource source = new LongLinearFieldValueSource(
+            restrictions("-1", "2", 1),
+            new HashSet<>(Arrays.asList(new BigDecimal("-1"), new BigDecimal("0.3"), new BigDecimal("0.4"), new BigDecimal("2"))));
+        List<BigDecimal> allValues = source.generateAllValues().collect(Collectors.toList());
+
+        assertEquals(allValues.size(), source.countAllValues().getAsLong());
+        for (int index = 0; index < allValues.size(); index++) {
+            assertEquals(allValues.get(index), source.nth(index));
+            assertEquals(
+                allValues.subList(index, allValues.size()),
+                source.skip(index).collect(Collectors.toList()));
+        }
+        assertEquals(0, source.skip(allValues.size()).count());
+        assertThrows(IndexOutOfBoundsException.class, () -> source.nth(allValues.size()));
+    }
+
+    private static LinearRestrictions<BigDecimal> restrictions(String min, String max, int decimalPlaces) {
+        return new LinearRestrictions<>(new BigDecimal(min), new BigDecimal(max), new NumericGranularity(decimalPlaces));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.grouped;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.NumericGranularity;
+import com.scottlogic.datahelix.generator.common.profile.StandardSpecificFieldType;
+import com.scottlogic.datahelix.generator.common.util.defaults.NumericDefaults;
+import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpec;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecFactory;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecGroup;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecMerger;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.AfterRelation;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.FieldSpecRelation;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.NotEqualToRelation;
+import com.scottlogic.datahelix.generator.core.restrictions.linear.Limit;
+import com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.scottlogic.datahelix.generator.common.profile.FieldBuilder.createField;
+import static com.scottlogic.datahelix.generator.core.restrictions.linear.LinearRestrictionsFactory.createNumericRestrictions;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class BoundsPropagatorTest {
+    private Field a = createField("a", StandardSpecificFieldType.INTEGER.toSpecificFieldType());
+    private Field b = createField("b", StandardSpecificFieldType.INTEGER.toSpecificFieldType());
+    private Field c = createField("c", StandardSpecificFieldType.INTEGER.toSpecificFieldType());
+    private BoundsPropagator propagator = new BoundsPropagator(new FieldSpecMerger());
+
+    @Test
+    public void propagate_withChainOfRelations_narrowsEveryFieldToValuesThatCanBeExtended() {
+        Map<Field, FieldSpec> specs = new HashMap<>();
+        specs.put(a, between(1, 100));
+        specs.put(b, between(-100, 100));
+        specs.put(c, between(-100, 3));
+        GenerationPlan plan = GenerationPlan.compile(new FieldSpecGroup(specs, Arrays.asList(greaterThan(b, a), greaterThan(c, b))));
+
+        Map<Field, FieldSpec> propagated = propagate(plan);
+
+        assertEquals(between(1, 1), propagated.get(a));
+        assertEquals(between(2, 2), propagated.get(b));
+        assertEquals(between(3, 3), propagated.get(c));
+    }
+
+    @Test
+    public void propagate_whenRelationsCannotBeMet_returnsEmpty() {
+        Map<Field, FieldSpec> specs = new HashMap<>();
+        specs.put(a, between(1, 1));
+        specs.put(b, between(5, 10));
+        GenerationPlan plan = GenerationPlan.compile(new FieldSpecGroup(specs, Collections.singletonList(greaterThan(a, b))));
+
+        Optional<FieldSpec[]> propagated = propagator.propagate(plan.getSteps().get(0).getArcs(), plan.getInitialSpecs());
+
+        assertFalse(propagated.isPresent());
+    }
+
+    @Test
+    public void propagate_whenAlreadyConsistent_returnsTheSameSpecs() {
+        Map<Field, FieldSpec> specs = new HashMap<>();
+        specs.put(a, between(1, 5));
+        specs.put(b, between(2, 6));
+        GenerationPlan plan = GenerationPlan.compile(new FieldSpecGroup(specs, Collections.singletonList(greaterThan(b, a))));
+        FieldSpec[] initialSpecs = plan.getInitialSpecs();
+
+        Optional<FieldSpec[]> propagated = propagator.propagate(plan.getSteps().get(0).getArcs(), initialSpecs);
+
+        assertSame(initialSpecs, propagated.get());
+    }
+
+    @Test
+    public void propagate_withNotEqualToSingleValue_removesTheValueFromTheOtherField() {
+        Map<Field, FieldSpec> specs = new HashMap<>();
+        specs.put(a, whitelist(1).withNotNull());
+        specs.put(b, whitelist(1, 2).withNotNull());
+        GenerationPlan plan = GenerationPlan.compile(new FieldSpecGroup(specs, Collections.singletonList(new NotEqualToRelation(b, a))));
+
+        Map<Field, FieldSpec> propagated = propagate(plan);
+
+        assertEquals(whitelist(2).withNotNull(), propagated.get(b));
+    }
+
+    private Map<Field, FieldSpec> propagate(GenerationPlan plan) {
+        FieldSpec[] propagated = propagator.propagate(plan.getSteps().get(0).getArcs(), plan.getInitialSpecs()).get();
+        Map<Field, FieldSpec> byField = new HashMap<>();
+        for (int i = 0; i < propagated.length; i++) {
+            byField.put(plan.getSteps().get(i).getField(), propagated[i]);
+        }
+        return byField;
+    }
+
+    private FieldSpecRelation greaterThan(Field main, Field other) {
+        return new AfterRelation<>(main, other, false, NumericDefaults.get(), NumericGranularity.DECIMAL_DEFAULT, 0);
+    }
+
+    private FieldSpec between(int min, int max) {
+        LinearRestrictions<BigDecimal> restrictions = createNumericRestrictions(
+            new Limit<>(BigDecimal.valueOf(min), true),
+            new Limit<>(BigDecimal.valueOf(max), true),
+            NumericGranularity.INTEGER_DEFAULT);
+        return FieldSpecFactory.fromRestriction(restrictions).withNotNull();
+    }
+
+    private FieldSpec whitelist(int... values) {
+        List<Object> numbers = new ArrayList<>();
+        for (int value : values) {
+            numbers.add(BigDecimal.valueOf(value));
+        }
+        return FieldSpecFactory.fromList(DistributedList.uniform(numbers));
+    }
+}
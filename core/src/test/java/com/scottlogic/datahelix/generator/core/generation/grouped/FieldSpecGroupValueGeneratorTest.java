@@ -20,6 +20,7 @@ import com.scottlogic.datahelix.generator.core.config.detail.CombinationStrategy
 import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpec;
 import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecFactory;
 import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecGroup;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecMerger;
 import com.scottlogic.datahelix.generator.core.generation.FieldSpecValueGenerator;
 import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
 import com.scottlogic.datahelix.generator.core.generation.databags.DataBagValue;
@@ -51,7 +52,7 @@ class FieldSpecGroupValueGeneratorTest {
         DataBagValue firstValue = new DataBagValue(result);
         when(underlyingGenerator.generate(any(Field.class), eq(firstSpec))).thenReturn(Stream.of(firstValue));
 
-        FieldSpecGroupValueGenerator generator = new FieldSpecGroupValueGenerator(underlyingGenerator, CombinationStrategyType.MINIMAL);
+        FieldSpecGroupValueGenerator generator = new FieldSpecGroupValueGenerator(underlyingGenerator, CombinationStrategyType.MINIMAL, new FieldSpecMerger());
 
         FieldSpecGroup group = new FieldSpecGroup(specMap, Collections.emptyList());
 
@@ -62,4 +63,27 @@ class FieldSpecGroupValueGeneratorTest {
         assertEquals(Collections.singleton(new DataBag(dataBag)), stream.collect(Collectors.toSet()));
     }
 
+    @Test
+    public void generate_withGroupOfTheSameFieldsAsAnEarlierGroup_generatesFromItsOwnSpecs() {
+        Field field = createField("first");
+        FieldSpec firstSpec = FieldSpecFactory.fromType(field.getType());
+        FieldSpec secondSpec = FieldSpecFactory.nullOnly();
+
+        FieldSpecValueGenerator underlyingGenerator = mock(FieldSpecValueGenerator.class);
+        DataBagValue firstValue = new DataBagValue("first result");
+        DataBagValue secondValue = new DataBagValue("second result");
+        when(underlyingGenerator.generate(any(Field.class), eq(firstSpec))).thenReturn(Stream.of(firstValue));
+        when(underlyingGenerator.generate(any(Field.class), eq(secondSpec))).thenReturn(Stream.of(secondValue));
+
+        FieldSpecGroupValueGenerator generator = new FieldSpecGroupValueGenerator(underlyingGenerator, CombinationStrategyType.MINIMAL, new FieldSpecMerger());
+        generator.generate(new FieldSpecGroup(Collections.singletonMap(field, firstSpec), Collections.emptyList()))
+            .forEach(dataBag -> {});
+
+        Stream<DataBag> stream = generator.generate(
+            new FieldSpecGroup(Collections.singletonMap(field, secondSpec), Collections.emptyList()));
+
+        assertEquals(
+            Collections.singleton(new DataBag(Collections.singletonMap(field, secondValue))),
+            stream.collect(Collectors.toSet()));
+    }
 }
\ No newline at end of file
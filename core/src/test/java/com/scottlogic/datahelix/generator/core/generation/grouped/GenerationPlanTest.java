@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.grouped;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpec;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecFactory;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecGroup;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.EqualToRelation;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.FieldSpecRelation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.scottlogic.datahelix.generator.common.profile.FieldBuilder.createField;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GenerationPlanTest {
+    private Field first = createField("first");
+    private Field second = createField("second");
+    private Field third = createField("third");
+
+    @Test
+    public void compile_withSingleField_hasOneStepWithNothingToApply() {
+        GenerationPlan plan = GenerationPlan.compile(group(Collections.emptyList(), first));
+
+        assertEquals(1, plan.getSteps().size());
+        assertEquals(first, plan.getSteps().get(0).getField());
+        assertTrue(plan.getSteps().get(0).getModifiers().isEmpty());
+        assertTrue(plan.getSteps().get(0).getUpdates().isEmpty());
+    }
+
+    @Test
+    public void compile_withChainOfRelations_generatesTheMostRelatedFieldFirst() {
+        GenerationPlan plan = GenerationPlan.compile(group(
+            Arrays.asList(new EqualToRelation(first, second), new EqualToRelation(third, second)),
+            first, second, third));
+
+        assertEquals(second, plan.getSteps().get(0).getField());
+    }
+
+    @Test
+    public void compile_orientsModifiersTowardsTheStepsField() {
+        GenerationPlan plan = GenerationPlan.compile(group(
+            Arrays.asList(new EqualToRelation(first, second), new EqualToRelation(third, second)),
+            first, second, third));
+
+        List<GenerationPlan.Modifier> modifiers = plan.getSteps().get(0).getModifiers();
+        assertEquals(2, modifiers.size());
+        for (GenerationPlan.Modifier modifier : modifiers) {
+            assertEquals(second, modifier.getRelation().main());
+            assertEquals(modifier.getRelation().other(), plan.getSteps().get(modifier.getOther()).getField());
+        }
+    }
+
+    @Test
+    public void compile_updatesOnlyFieldsStillToBeGenerated() {
+        GenerationPlan plan = GenerationPlan.compile(group(
+            Arrays.asList(new EqualToRelation(first, second), new EqualToRelation(third, second)),
+            first, second, third));
+
+        List<Integer> firstStepTargets = plan.getSteps().get(0).getUpdates().stream()
+            .map(GenerationPlan.Update::getTarget)
+            .sorted()
+            .collect(Collectors.toList());
+        assertEquals(Arrays.asList(1, 2), firstStepTargets);
+        for (GenerationPlan.Update update : plan.getSteps().get(0).getUpdates()) {
+            FieldSpecRelation relation = update.getRelations().get(0);
+            assertEquals(second, relation.other());
+            assertEquals(plan.getSteps().get(update.getTarget()).getField(), relation.main());
+        }
+        assertTrue(plan.getSteps().get(1).getUpdates().isEmpty());
+        assertTrue(plan.getSteps().get(1).getModifiers().isEmpty());
+    }
+
+    @Test
+    public void getInitialSpecs_returnsTheGroupsSpecsInStepOrder() {
+        Map<Field, FieldSpec> specs = new HashMap<>();
+        specs.put(first, FieldSpecFactory.fromType(first.getType()));
+        specs.put(second, FieldSpecFactory.nullOnly());
+        GenerationPlan plan = GenerationPlan.compile(new FieldSpecGroup(
+            specs,
+            Collections.singletonList(new EqualToRelation(first, second))));
+
+        FieldSpec[] initialSpecs = plan.getInitialSpecs();
+
+        for (int i = 0; i < initialSpecs.length; i++) {
+            assertSame(specs.get(plan.getSteps().get(i).getField()), initialSpecs[i]);
+        }
+    }
+
+    private FieldSpecGroup group(List<FieldSpecRelation> relations, Field... fields) {
+        Map<Field, FieldSpec> specs = new HashMap<>();
+        for (Field field : fields) {
+            specs.put(field, FieldSpecFactory.fromType(field.getType()));
+        }
+        return new FieldSpecGroup(specs, relations);
+    }
+}
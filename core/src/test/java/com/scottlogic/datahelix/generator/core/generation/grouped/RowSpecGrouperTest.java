@@ -174,6 +174,33 @@ class RowSpecGrouperTest {
         assertEquals(1, groups.size());
     }
 
+    @Test
+    void createGroups_withSeveralGroups_givesThemInTheOrderOfTheirFirstFields() {
+        Field first = createField("first");
+        Field second = createField("second");
+        Field third = createField("third");
+        Field fourth = createField("fourth");
+
+        Fields fields = new Fields(Arrays.asList(first, second, third, fourth));
+
+        Map<Field, FieldSpec> fieldSpecMap = fieldSpecMapOf(first, second, third, fourth);
+
+        List<FieldSpecRelation> relations = Collections.singletonList(link(fourth, second));
+
+        RowSpec spec = new RowSpec(fields, fieldSpecMap, relations);
+
+        List<Set<Field>> groups = RowSpecGrouper.createGroups(spec).stream()
+            .map(group -> group.fieldSpecs().keySet())
+            .collect(Collectors.toList());
+
+        assertEquals(
+            Arrays.asList(
+                Collections.singleton(first),
+                new HashSet<>(Arrays.asList(second, fourth)),
+                Collections.singleton(third)),
+            groups);
+    }
+
     private static FieldSpecRelation link(Field main, Field other) {
         FieldSpecRelation relation = mock(FieldSpecRelation.class);
         when(relation.main()).thenReturn(main);
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.string;
+
+import dk.brics.automaton.Automaton;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutomatonCacheTests {
+    @Test
+    public void get_withUncachedKey_createsAutomatonAndCountsMiss() {
+        AutomatonCache<String> cache = new AutomatonCache<>("test", 10);
+
+        Automaton automaton = cache.get("a", Automaton::makeString);
+
+        assertTrue(automaton.run("a"));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void get_withCachedKey_returnsSameAutomatonAndCountsHit() {
+        AutomatonCache<String> cache = new AutomatonCache<>("test", 10);
+        Automaton first = cache.get("a", Automaton::makeString);
+
+        Automaton second = cache.get("a", key -> { throw new AssertionError("should have been cached"); });
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void get_beyondMaximumSize_evictsLeastRecentlyUsed() {
+        AutomatonCache<String> cache = new AutomatonCache<>("test", 2);
+        cache.get("a", Automaton::makeString);
+        cache.get("b", Automaton::makeString);
+        cache.get("a", Automaton::makeString);
+
+        cache.get("c", Automaton::makeString);
+
+        AtomicInteger created = new AtomicInteger();
+        cache.get("a", key -> { created.incrementAndGet(); return Automaton.makeString(key); });
+        cache.get("b", key -> { created.incrementAndGet(); return Automaton.makeString(key); });
+        assertEquals(1, created.get());
+        assertEquals(2, cache.getEvictions());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void get_fromManyThreads_returnsOneAutomatonPerKey() throws Exception {
+        AutomatonCache<Integer> cache = new AutomatonCache<>("test", 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Automaton>> results = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            results.add(executor.submit(() -> cache.get(7, key -> Automaton.makeString(key.toString()))));
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        Automaton cached = cache.get(7, key -> { throw new AssertionError("should have been cached"); });
+        for (Future<Automaton> result : results) {
+            assertSame(cached, result.get());
+        }
+        assertEquals(1001, cache.getHits() + cache.getMisses());
+    }
+}
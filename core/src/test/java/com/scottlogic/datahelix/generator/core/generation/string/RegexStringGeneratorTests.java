@@ -23,6 +23,8 @@ import com.scottlogic.datahelix.generator.core.utils.JavaUtilRandomNumberGenerat
 import org.hamcrest.core.Is;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.util.*;
 import java.util.regex.Pattern;
@@ -119,6 +121,69 @@ class RegexStringGeneratorTests {
         assertThat(sampleValues, not(contains(null, "")));
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "^(ab|cd)e?$",
+        "^[a-c][0-2]{1,2}$",
+        "^(red|gre{2}n|blue)[0-9]?$",
+        "^x?(y|[0-3a-b])?z?$",
+        "^\\d{2}[A-C]?$"
+    })
+    void nth_withAFiniteRegex_givesTheValueAtThatPositionOfAllValues(String regex) {
+        StringGenerator generator = new RegexStringGenerator(regex, true);
+        List<String> allValues = generator.generateAllValues().collect(Collectors.toList());
+
+        for (int index = 0; index < allValues.size(); index++) {
+            assertEquals(allValues.get(index), generator.nth(index), "index " + index);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "^(ab|cd)e?$",
+        "^[a-c][0-2]{1,2}$",
+        "^(red|gre{2}n|blue)[0-9]?$",
+        "^x?(y|[0-3a-b])?z?$",
+        "^\\d{2}[A-C]?$"
+    })
+    void countAllValues_withAFiniteRegex_givesTheNumberOfAllValues(String regex) {
+        StringGenerator generator = new RegexStringGenerator(regex, true);
+
+        assertEquals(
+            OptionalLong.of(generator.generateAllValues().count()),
+            generator.countAllValues());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 7, 19, 20, 25 })
+    void skip_withAFiniteRegex_givesTheRestOfAllValues(int count) {
+        StringGenerator generator = new RegexStringGenerator("^(red|gre{2}n|blue)[0-9]?[a-b]?$", true);
+        List<String> allValues = generator.generateAllValues().collect(Collectors.toList());
+
+        assertEquals(
+            allValues.subList(Math.min(count, allValues.size()), allValues.size()),
+            generator.skip(count).collect(Collectors.toList()));
+    }
+
+    @Test
+    void nth_withAnIntersectionOfFiniteRegexes_givesTheValueAtThatPositionOfAllValues() {
+        StringGenerator generator = new RegexStringGenerator("^[a-c]{1,3}$", true)
+            .intersect(new RegexStringGenerator("^(a|b[b-c])[a-z]?$", true));
+        List<String> allValues = generator.generateAllValues().collect(Collectors.toList());
+
+        assertEquals(OptionalLong.of(allValues.size()), generator.countAllValues());
+        for (int index = 0; index < allValues.size(); index++) {
+            assertEquals(allValues.get(index), generator.nth(index), "index " + index);
+        }
+    }
+
+    @Test
+    void countAllValues_withAnInfiniteRegex_isEmpty() {
+        StringGenerator generator = new RegexStringGenerator("^a+$", true);
+
+        assertFalse(generator.countAllValues().isPresent());
+    }
+
     @Test
     void shouldProduceIntersection() {
         StringGenerator infiniteGenerator = new RegexStringGenerator("[a-z]+", false);
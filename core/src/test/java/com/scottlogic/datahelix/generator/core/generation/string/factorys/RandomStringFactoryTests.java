@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.generation.string.factorys;
+
+import com.scottlogic.datahelix.generator.common.ValidationException;
+import com.scottlogic.datahelix.generator.core.generation.string.AutomatonUtils;
+import com.scottlogic.datahelix.generator.core.utils.JavaUtilRandomNumberGenerator;
+import dk.brics.automaton.Automaton;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RandomStringFactoryTests {
+    @Test
+    void createRandomString_withFiniteRegex_createsMatchingStrings() {
+        RandomStringFactory factory = new RandomStringFactory(AutomatonUtils.createAutomaton("[a-c]{1,3}", true));
+        JavaUtilRandomNumberGenerator random = new JavaUtilRandomNumberGenerator(0);
+        Pattern pattern = Pattern.compile("[a-c]{1,3}");
+
+        for (int i = 0; i < 100; i++) {
+            String randomString = factory.createRandomString(random);
+            assertTrue(pattern.matcher(randomString).matches(), randomString);
+        }
+    }
+
+    @Test
+    void createRandomString_withOptionalSuffix_createsStringsOfEachAcceptedLength() {
+        RandomStringFactory factory = new RandomStringFactory(AutomatonUtils.createAutomaton("ab?", true));
+        JavaUtilRandomNumberGenerator random = new JavaUtilRandomNumberGenerator(0);
+
+        Set<String> randomStrings = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            randomStrings.add(factory.createRandomString(random));
+        }
+
+        assertThat(randomStrings, containsInAnyOrder("a", "ab"));
+    }
+
+    @Test
+    void createRandomString_withRangeSpanningSurrogates_neverCreatesSurrogates() {
+        RandomStringFactory factory = new RandomStringFactory(Automaton.makeCharRange('\uD7FF', '\uE000'));
+        JavaUtilRandomNumberGenerator random = new JavaUtilRandomNumberGenerator(0);
+
+        Set<String> randomStrings = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            randomStrings.add(factory.createRandomString(random));
+        }
+
+        assertThat(randomStrings, containsInAnyOrder("\uD7FF", "\uE000"));
+    }
+
+    @Test
+    void createRandomString_withNoAcceptStates_throwsValidationException() {
+        RandomStringFactory factory = new RandomStringFactory(Automaton.makeEmpty());
+
+        assertThrows(
+            ValidationException.class,
+            () -> factory.createRandomString(new JavaUtilRandomNumberGenerator(0)));
+    }
+}
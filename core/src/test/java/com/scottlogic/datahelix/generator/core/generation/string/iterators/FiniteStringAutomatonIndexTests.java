@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.scottlogic.datahelix.generator.core.generation.string.iterators;
+
+import dk.brics.automaton.Automaton;
+import dk.brics.automaton.RegExp;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FiniteStringAutomatonIndexTests {
+    @ParameterizedTest
+    @MethodSource("finiteRegexes")
+    void nth_withAFiniteRegex_givesTheStringAtThatPositionOfTheIterator(String regex) {
+        Automaton automaton = new RegExp(regex).toAutomaton();
+        List<String> strings = allStrings(automaton);
+        FiniteStringAutomatonIndex index = new FiniteStringAutomatonIndex(automaton);
+
+        for (int position = 0; position < strings.size(); position++) {
+            assertEquals(strings.get(position), index.nth(position), "position " + position);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("finiteRegexes")
+    void count_withAFiniteRegex_givesTheNumberOfStringsOfTheIterator(String regex) {
+        Automaton automaton = new RegExp(regex).toAutomaton();
+
+        assertEquals(
+            OptionalLong.of(allStrings(automaton).size()),
+            new FiniteStringAutomatonIndex(automaton).count());
+    }
+
+    @Test
+    void nth_pastTheLastString_throws() {
+        FiniteStringAutomatonIndex index = new FiniteStringAutomatonIndex(new RegExp("(ab|cd)e?").toAutomaton());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> index.nth(4));
+    }
+
+    @Test
+    void count_withMoreStringsThanALongCanCount_isEmpty() {
+        FiniteStringAutomatonIndex index = new FiniteStringAutomatonIndex(new RegExp("[a-z]{20}").toAutomaton());
+
+        assertFalse(index.count().isPresent());
+        assertEquals("aaaaaaaaaaaaaaaaaaab", index.nth(1));
+    }
+
+    @Test
+    void constructor_withAnInfiniteRegex_throws() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new FiniteStringAutomatonIndex(new RegExp("a+").toAutomaton()));
+    }
+
+    /**
+     * Regexes with alternations, character classes and optional and repeated parts, including one that accepts the
+     * empty string
+     */
+    private static Stream<String> finiteRegexes() {
+        return Stream.of(
+            "abc",
+            "(ab|cd)e?",
+            "[a-c][0-2]{1,2}",
+            "(red|gre{2}n|blue)[0-9]?",
+            "x?(y|[0-3a-b])?z?",
+            "[a-f]{0,3}",
+            "");
+    }
+
+    private static List<String> allStrings(Automaton automaton) {
+        List<String> strings = new ArrayList<>();
+        new FiniteStringAutomatonIterator(automaton).forEachRemaining(strings::add);
+        return strings;
+    }
+}
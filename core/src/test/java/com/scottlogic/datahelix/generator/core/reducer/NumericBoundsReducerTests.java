@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.scottlogic.datahelix.generator.core.reducer;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.common.profile.NumericBounds;
+import com.scottlogic.datahelix.generator.common.profile.NumericGranularity;
+import com.scottlogic.datahelix.generator.common.profile.StandardSpecificFieldType;
+import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecMerger;
+import com.scottlogic.datahelix.generator.core.profile.Profile;
+import com.scottlogic.datahelix.generator.core.profile.constraints.Constraint;
+import com.scottlogic.datahelix.generator.core.profile.constraints.atomic.GranularToNumericConstraint;
+import com.scottlogic.datahelix.generator.core.profile.constraints.atomic.GreaterThanOrEqualToConstraint;
+import com.scottlogic.datahelix.generator.core.profile.constraints.atomic.InSetConstraint;
+import com.scottlogic.datahelix.generator.core.profile.constraints.atomic.LessThanOrEqualToConstraint;
+import com.scottlogic.datahelix.generator.core.profile.constraints.grammatical.AndConstraint;
+import com.scottlogic.datahelix.generator.core.profile.constraints.grammatical.OrConstraint;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static com.scottlogic.datahelix.generator.common.profile.FieldBuilder.createField;
+import static com.scottlogic.datahelix.generator.common.util.Defaults.NUMERIC_MAX;
+import static com.scottlogic.datahelix.generator.common.util.Defaults.NUMERIC_MIN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NumericBoundsReducerTests {
+    private final Field price = createField("price", StandardSpecificFieldType.DECIMAL.toSpecificFieldType());
+    private final NumericBoundsReducer reducer = new NumericBoundsReducer(new ConstraintReducer(new FieldSpecMerger()));
+
+    @Test
+    void withNumericBounds_withRootConstraints_givesTheirRangeAndGranularity() {
+        Fields fields = reducer.withNumericBounds(profile(
+            new GreaterThanOrEqualToConstraint(price, new BigDecimal("-10")),
+            new AndConstraint(
+                new LessThanOrEqualToConstraint(price, new BigDecimal("100")),
+                new GranularToNumericConstraint(price, new NumericGranularity(2)))));
+
+        assertEquals(
+            Optional.of(new NumericBounds(new BigDecimal("-10"), new BigDecimal("100"), new NumericGranularity(2))),
+            fields.getNumericBounds(price));
+    }
+
+    @Test
+    void withNumericBounds_withASetOfValues_givesTheRangeAndDecimalPlacesOfTheValues() {
+        Fields fields = reducer.withNumericBounds(profile(
+            new InSetConstraint(price, DistributedList.uniform(Arrays.<Object>asList(
+                new BigDecimal("1.5"),
+                new BigDecimal("20"),
+                new BigDecimal("-3.25"))))));
+
+        assertEquals(
+            Optional.of(new NumericBounds(new BigDecimal("-3.25"), new BigDecimal("20"), new NumericGranularity(2))),
+            fields.getNumericBounds(price));
+    }
+
+    @Test
+    void withNumericBounds_withConstraintsOnlyInAlternatives_givesTheBoundsOfTheFieldsType() {
+        Fields fields = reducer.withNumericBounds(profile(
+            new OrConstraint(
+                new LessThanOrEqualToConstraint(price, new BigDecimal("100")),
+                new GreaterThanOrEqualToConstraint(price, new BigDecimal("200")))));
+
+        assertEquals(
+            Optional.of(new NumericBounds(NUMERIC_MIN, NUMERIC_MAX, NumericGranularity.DECIMAL_DEFAULT)),
+            fields.getNumericBounds(price));
+    }
+
+    @Test
+    void withNumericBounds_withANonNumericField_givesItNoBounds() {
+        Field name = createField("name");
+
+        Fields fields = reducer.withNumericBounds(new Profile(Collections.singletonList(name), Collections.emptyList()));
+
+        assertEquals(Optional.empty(), fields.getNumericBounds(name));
+    }
+
+    private Profile profile(Constraint... constraints) {
+        return new Profile(Collections.singletonList(price), Arrays.asList(constraints));
+    }
+}
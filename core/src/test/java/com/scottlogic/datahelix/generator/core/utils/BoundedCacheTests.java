@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedCacheTests {
+    @Test
+    void getHitRate_withNoLookups_isZero() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10);
+
+        assertEquals(0, cache.getHitRate(), 0);
+    }
+
+    @Test
+    void getHitRate_isProportionOfLookupsServedFromCache() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10);
+
+        cache.get(1, String::valueOf);
+        cache.get(1, String::valueOf);
+        cache.get(1, String::valueOf);
+        cache.get(2, String::valueOf);
+
+        assertEquals(0.5, cache.getHitRate(), 0);
+    }
+
+    @Test
+    void toString_reportsStatistics() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("Values", 1);
+
+        cache.get(1, String::valueOf);
+        cache.get(1, String::valueOf);
+        cache.get(2, String::valueOf);
+        cache.get(3, String::valueOf);
+
+        assertEquals("Values: 1 hits, 3 misses (25.0% hit rate), 2 evictions, 1/1 cached", cache.toString());
+    }
+
+    @Test
+    void get_whenFull_evictsAnEntryNotUsedSinceItWasAdded() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 2);
+        cache.get(1, String::valueOf);
+        cache.get(2, String::valueOf);
+        cache.get(1, String::valueOf);
+
+        cache.get(3, String::valueOf);
+        cache.get(1, String::valueOf);
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void get_fromSeveralThreads_keepsToTheMaximumSize() throws Exception {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 100);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> lookups = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                lookups.add(executor.submit(() -> IntStream.range(0, 10_000)
+                    .map(index -> index % 500)
+                    .forEach(key -> assertEquals(String.valueOf(key), cache.get(key, String::valueOf)))));
+            }
+            for (Future<?> lookup : lookups) {
+                lookup.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(cache.size() <= 100);
+        assertEquals(40_000, cache.getHits() + cache.getMisses());
+    }
+}
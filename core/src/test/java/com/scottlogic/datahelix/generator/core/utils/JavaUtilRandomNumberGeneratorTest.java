@@ -21,6 +21,7 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -103,6 +104,25 @@ class JavaUtilRandomNumberGeneratorTest {
         assertTrue(result.limit(10).noneMatch("0000"::equals));
     }
 
+    @Test
+    void nextLong_withSmallRange_givesEveryValueInRange() {
+        Set<Long> expected = SetUtils.setOf(-1L, 0L, 1L);
+
+        assertEquals(expected, Stream.generate(() -> random.nextLong(-1, 2))
+            .limit(1000)
+            .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void nextLong_withRangeWiderThanLongMaxValue_staysInRange() {
+        long lower = Long.MIN_VALUE + 1;
+        long upper = Long.MAX_VALUE - 1;
+
+        assertTrue(Stream.generate(() -> random.nextLong(lower, upper))
+            .limit(1000)
+            .allMatch(x -> x >= lower && x < upper));
+    }
+
     private String lastFourLetters(String input) {
         return input.substring(input.length() - 4);
     }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.utils;
+
+import com.scottlogic.datahelix.generator.common.SetUtils;
+import com.scottlogic.datahelix.generator.common.util.Defaults;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SplittableRandomNumberGeneratorTests {
+    private final SplittableRandomNumberGenerator random = new SplittableRandomNumberGenerator(0);
+
+    @Test
+    void nextInt_withBound_givesEveryValueInRange() {
+        Set<Integer> expected = SetUtils.setOf(0, 1, 2);
+
+        assertEquals(expected, Stream.generate(() -> random.nextInt(3))
+            .limit(1000)
+            .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void nextLong_withRangeWiderThanLongMaxValue_staysInRange() {
+        long lower = Long.MIN_VALUE + 1;
+        long upper = Long.MAX_VALUE - 1;
+
+        assertTrue(Stream.generate(() -> random.nextLong(lower, upper))
+            .limit(1000)
+            .allMatch(x -> x >= lower && x < upper));
+    }
+
+    @Test
+    void nextBigDecimal_withDifferentScales_givesValuesAtTheFinestScale() {
+        BigDecimal lower = new BigDecimal("0.08");
+        BigDecimal upper = new BigDecimal("0.1");
+
+        Set<BigDecimal> expected = SetUtils.setOf(lower, new BigDecimal("0.09"));
+
+        assertEquals(expected, Stream.generate(() -> random.nextBigDecimal(lower, upper))
+            .limit(100)
+            .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void nextBigDecimal_withLargeNumbers_staysInRange() {
+        BigDecimal lower = Defaults.NUMERIC_MIN.setScale(20);
+        BigDecimal upper = Defaults.NUMERIC_MAX.setScale(20);
+
+        assertTrue(Stream.generate(() -> random.nextBigDecimal(lower, upper))
+            .limit(1000)
+            .allMatch(x -> x.compareTo(lower) >= 0 && x.compareTo(upper) < 0 && x.scale() == 20));
+    }
+
+    @Test
+    void setSeed_repeatsTheDrawsOfTheSeed() {
+        List<Integer> first = draw(random, 10);
+        random.setSeed(0);
+
+        assertEquals(first, draw(random, 10));
+    }
+
+    @Test
+    void split_withTheSameKey_givesTheSameDraws() {
+        assertEquals(draw(random.split(1), 10), draw(random.split(1), 10));
+        assertNotEquals(draw(random.split(1), 10), draw(random.split(2), 10));
+    }
+
+    @Test
+    void inSubstream_isUnaffectedByDrawsFromOtherStreams() {
+        List<Integer> alone = random.inSubstream(1, () -> Stream.generate(random::nextInt))
+            .limit(10)
+            .collect(Collectors.toList());
+
+        List<Integer> interleaved = random.inSubstream(1, () -> Stream.generate(random::nextInt)
+            .peek(value -> random.nextInt()))
+            .limit(10)
+            .collect(Collectors.toList());
+        assertNotEquals(alone, interleaved);
+
+        List<Integer> drawingElsewhere = random.inSubstream(1, () -> Stream.generate(() -> {
+            random.inSubstream(2, () -> Stream.generate(random::nextInt)).findFirst();
+            return random.nextInt();
+        }))
+            .limit(10)
+            .collect(Collectors.toList());
+        assertEquals(alone, drawingElsewhere);
+    }
+
+    @Test
+    void mainStream_drawnFromOnSeveralThreads_makesEachDrawOnce() throws InterruptedException {
+        int threads = 4;
+        int drawsPerThread = 10_000;
+        Set<Double> expected = IntStream.range(0, threads * drawsPerThread)
+            .mapToObj(i -> random.nextDouble(0, 1))
+            .collect(Collectors.toSet());
+        random.setSeed(0);
+
+        Set<Double> drawn = ConcurrentHashMap.newKeySet();
+        List<Thread> drawingThreads = IntStream.range(0, threads)
+            .mapToObj(i -> new Thread(() -> {
+                for (int draw = 0; draw < drawsPerThread; draw++) {
+                    drawn.add(random.nextDouble(0, 1));
+                }
+            }))
+            .collect(Collectors.toList());
+        drawingThreads.forEach(Thread::start);
+        for (Thread thread : drawingThreads) {
+            thread.join();
+        }
+
+        assertEquals(expected, drawn);
+    }
+
+    private static List<Integer> draw(SplittableRandomNumberGenerator random, int count) {
+        return IntStream.range(0, count).mapToObj(i -> random.nextInt()).collect(Collectors.toList());
+    }
+}
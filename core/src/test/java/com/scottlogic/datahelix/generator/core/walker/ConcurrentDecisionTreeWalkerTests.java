@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.scottlogic.datahelix.generator.core.walker;
+
+import com.scottlogic.datahelix.generator.common.ValidationException;
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.core.builders.DataBagBuilder;
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+import com.scottlogic.datahelix.generator.core.utils.SplittableRandomNumberGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.scottlogic.datahelix.generator.common.profile.FieldBuilder.createField;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrentDecisionTreeWalkerTests {
+    private final Field field = createField("A");
+    private final DecisionTree tree = mock(DecisionTree.class);
+    private final DecisionTreeWalker underlyingWalker = mock(DecisionTreeWalker.class);
+    private final ConcurrentDecisionTreeWalker walker = new ConcurrentDecisionTreeWalker(
+        underlyingWalker,
+        new SplittableRandomNumberGenerator(0));
+
+    @Test
+    void walk_withMoreDataBagsThanOneBatch_returnsDataBagsInOriginalOrder() {
+        List<DataBag> expected = IntStream.range(0, 1000)
+            .mapToObj(i -> DataBagBuilder.of(field, i))
+            .collect(Collectors.toList());
+        when(underlyingWalker.walk(tree)).thenReturn(expected.stream());
+
+        List<DataBag> actual = walker.walk(tree).collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void walk_withNoDataBags_returnsEmptyStream() {
+        when(underlyingWalker.walk(tree)).thenReturn(Stream.empty());
+
+        List<DataBag> actual = walker.walk(tree).collect(Collectors.toList());
+
+        assertThat(actual, empty());
+    }
+
+    @Test
+    void walk_withInfiniteDataBags_canBeLimited() {
+        DataBag dataBag = DataBagBuilder.of(field, 1);
+        when(underlyingWalker.walk(tree)).thenReturn(Stream.generate(() -> dataBag));
+
+        List<DataBag> actual;
+        try (Stream<DataBag> dataBags = walker.walk(tree)) {
+            actual = dataBags.limit(3).collect(Collectors.toList());
+        }
+
+        assertThat(actual, contains(dataBag, dataBag, dataBag));
+    }
+
+    @Test
+    void walk_withInfiniteDataBagsLimitedAndClosed_leavesNoWorkerWalking() throws InterruptedException {
+        CountDownLatch walkClosed = new CountDownLatch(1);
+        DataBag dataBag = DataBagBuilder.of(field, 1);
+        when(underlyingWalker.walk(tree)).thenReturn(Stream.generate(() -> dataBag).onClose(walkClosed::countDown));
+
+        try (Stream<DataBag> dataBags = walker.walk(tree)) {
+            dataBags.limit(3).collect(Collectors.toList());
+        }
+
+        assertTrue(walkClosed.await(10, TimeUnit.SECONDS));
+        assertNoWorkerWalking();
+    }
+
+    @Test
+    void walk_withInfiniteDataBagsLimitedAndNeverClosed_leavesNoWorkerWalkingOnceDiscarded() throws InterruptedException {
+        CountDownLatch walkClosed = new CountDownLatch(1);
+        DataBag dataBag = DataBagBuilder.of(field, 1);
+        when(underlyingWalker.walk(tree)).thenReturn(Stream.generate(() -> dataBag).onClose(walkClosed::countDown));
+
+        List<DataBag> actual = walker.walk(tree).limit(3).collect(Collectors.toList());
+
+        for (int attempt = 0; attempt < 100 && walkClosed.getCount() > 0; attempt++) {
+            System.gc();
+            walkClosed.await(100, TimeUnit.MILLISECONDS);
+        }
+        assertThat(actual, contains(dataBag, dataBag, dataBag));
+        assertEquals(0, walkClosed.getCount());
+        assertNoWorkerWalking();
+    }
+
+    @Test
+    void walk_whenUnderlyingWalkerFails_rethrowsExceptionToConsumer() {
+        when(underlyingWalker.walk(tree)).thenReturn(Stream.generate(() -> {
+            throw new ValidationException("failed");
+        }));
+
+        assertThrows(ValidationException.class, () -> walker.walk(tree).collect(Collectors.toList()));
+    }
+
+    private static void assertNoWorkerWalking() throws InterruptedException {
+        for (int attempt = 0; attempt < 100 && isAnyWorkerWalking(); attempt++) {
+            Thread.sleep(100);
+        }
+        assertFalse(isAnyWorkerWalking());
+    }
+
+    private static boolean isAnyWorkerWalking() {
+        return Thread.getAllStackTraces().entrySet().stream()
+            .filter(thread -> thread.getKey().getName().equals("partition-walker"))
+            .flatMap(thread -> Stream.of(thread.getValue()))
+            .anyMatch(frame -> frame.getClassName().startsWith(ConcurrentDecisionTreeWalker.class.getName()));
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.walker.decisionbased;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
+import com.scottlogic.datahelix.generator.core.builders.TestConstraintNodeBuilder;
+import com.scottlogic.datahelix.generator.core.decisiontree.ConstraintNode;
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
+import com.scottlogic.datahelix.generator.core.fieldspecs.*;
+import com.scottlogic.datahelix.generator.core.reducer.ConstraintReducer;
+import com.scottlogic.datahelix.generator.core.utils.JavaUtilRandomNumberGenerator;
+import com.scottlogic.datahelix.generator.core.walker.pruner.TreePruner;
+import com.scottlogic.datahelix.generator.core.walker.rowspec.PotentialRowSpecCount;
+import com.scottlogic.datahelix.generator.core.walker.rowspec.RowSpecCacheBudget;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.scottlogic.datahelix.generator.common.profile.FieldBuilder.createField;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RandomRowSpecSolverTests {
+    private Field fieldA = createField("A");
+    private Field fieldB = createField("B");
+    private Fields fields = new Fields(Arrays.asList(fieldA, fieldB));
+    private FieldSpecMerger fieldSpecMerger = new FieldSpecMerger();
+    private ConstraintReducer constraintReducer = new ConstraintReducer(fieldSpecMerger);
+    private TreePruner pruner = new TreePruner(fieldSpecMerger, constraintReducer, new FieldSpecHelper());
+    private RowSpecTreeSolver rowSpecTreeSolver =
+        new RowSpecTreeSolver(constraintReducer, pruner, new SequentialOptionPicker());
+
+    private FieldSpec anyValue = FieldSpecFactory.fromType(fieldA.getType());
+    private FieldSpec nullOnly = FieldSpecFactory.nullOnly();
+    private FieldSpec inSet = FieldSpecFactory.fromList(DistributedList.uniform(Collections.singletonList("x")));
+
+    @Test
+    void sampleRowSpecs_samplesEveryRowSpecOfTheTree() {
+        DecisionTree tree = new DecisionTree(twoDecisions(), fields);
+
+        Set<List<FieldSpec>> sampled = sample(solver(1024 * 1024), tree, 200);
+
+        Set<List<FieldSpec>> expected = new HashSet<>(Arrays.asList(
+            Arrays.asList(nullOnly, nullOnly),
+            Arrays.asList(nullOnly, inSet),
+            Arrays.asList(inSet, nullOnly),
+            Arrays.asList(inSet, inSet)));
+        assertEquals(expected, sampled);
+    }
+
+    @Test
+    void sampleRowSpecs_withNoMemoryBudget_stillSamplesEveryRowSpecOfTheTree() {
+        DecisionTree tree = new DecisionTree(twoDecisions(), fields);
+
+        Set<List<FieldSpec>> sampled = sample(solver(0), tree, 200);
+
+        assertEquals(4, sampled.size());
+    }
+
+    @Test
+    void sampleRowSpecs_neverSamplesContradictoryOptions() {
+        ConstraintNode root = TestConstraintNodeBuilder.constraintNode()
+            .where(fieldA).isNotNull()
+            .withDecision(
+                TestConstraintNodeBuilder.constraintNode().where(fieldA).isNull(),
+                TestConstraintNodeBuilder.constraintNode().where(fieldA).isInSet("x"))
+            .build();
+        DecisionTree tree = new DecisionTree(root, fields);
+
+        Set<List<FieldSpec>> sampled = sample(solver(1024 * 1024), tree, 50);
+
+        assertEquals(Collections.singleton(Arrays.asList(inSet.withNotNull(), anyValue)), sampled);
+    }
+
+    @Test
+    void sampleRowSpecs_whenEveryOptionIsContradictory_returnsEmptyStream() {
+        ConstraintNode root = TestConstraintNodeBuilder.constraintNode()
+            .where(fieldA).isNotNull()
+            .withDecision(
+                TestConstraintNodeBuilder.constraintNode().where(fieldA).isNull())
+            .build();
+        DecisionTree tree = new DecisionTree(root, fields);
+
+        assertEquals(0, solver(1024 * 1024).sampleRowSpecs(tree).count());
+    }
+
+    @Test
+    void sampleRowSpecs_picksOptionsInProportionToTheirRowSpecs() {
+        ConstraintNode root = TestConstraintNodeBuilder.constraintNode()
+            .withDecision(
+                TestConstraintNodeBuilder.constraintNode().where(fieldA).isNull()
+                    .withDecision(
+                        TestConstraintNodeBuilder.constraintNode().where(fieldB).isNull(),
+                        TestConstraintNodeBuilder.constraintNode().where(fieldB).isInSet("x"),
+                        TestConstraintNodeBuilder.constraintNode().where(fieldB).isInSet("y")),
+                TestConstraintNodeBuilder.constraintNode().where(fieldA).isInSet("x"))
+            .build();
+        DecisionTree tree = new DecisionTree(root, fields);
+
+        long withNullA = solver(1024 * 1024).sampleRowSpecs(tree)
+            .limit(4000)
+            .filter(rowSpec -> rowSpec.getSpecForField(fieldA).equals(nullOnly))
+            .count();
+
+        assertTrue(withNullA > 2800 && withNullA < 3200, "expected about 3000 of 4000, was " + withNullA);
+    }
+
+    @Test
+    void sampleRowSpecs_fromTheSameGraphAgain_reusesTheRowSpecsItHasSolved() {
+        AtomicInteger reductions = new AtomicInteger();
+        ConstraintReducer countingReducer = new ConstraintReducer(fieldSpecMerger) {
+            @Override
+            public Optional<RowSpec> reduceConstraintsToRowSpec(Fields fields, ConstraintNode node) {
+                reductions.incrementAndGet();
+                return super.reduceConstraintsToRowSpec(fields, node);
+            }
+        };
+        RandomRowSpecSolver solver = new RandomRowSpecSolver(
+            rowSpecTreeSolver,
+            countingReducer,
+            new JavaUtilRandomNumberGenerator(0),
+            new RowSpecCacheBudget(1024 * 1024),
+            new PotentialRowSpecCount(new RowSpecCacheBudget(1024 * 1024)));
+        RandomRowSpecSolver.SolutionGraph graph = solver.createSolutionGraph(new DecisionTree(twoDecisions(), fields));
+
+        assertEquals(200, solver.sampleRowSpecs(graph).limit(200).count());
+        assertEquals(200, solver.sampleRowSpecs(graph).limit(200).count());
+
+        assertEquals(4, reductions.get());
+    }
+
+    private ConstraintNode twoDecisions() {
+        return TestConstraintNodeBuilder.constraintNode()
+            .withDecision(
+                TestConstraintNodeBuilder.constraintNode().where(fieldA).isNull(),
+                TestConstraintNodeBuilder.constraintNode().where(fieldA).isInSet("x"))
+            .withDecision(
+                TestConstraintNodeBuilder.constraintNode().where(fieldB).isNull(),
+                TestConstraintNodeBuilder.constraintNode().where(fieldB).isInSet("x"))
+            .build();
+    }
+
+    private RandomRowSpecSolver solver(long budgetBytes) {
+        return new RandomRowSpecSolver(
+            rowSpecTreeSolver,
+            constraintReducer,
+            new JavaUtilRandomNumberGenerator(0),
+            new RowSpecCacheBudget(budgetBytes),
+            new PotentialRowSpecCount(new RowSpecCacheBudget(budgetBytes)));
+    }
+
+    private Set<List<FieldSpec>> sample(RandomRowSpecSolver solver, DecisionTree tree, int count) {
+        return solver.sampleRowSpecs(tree)
+            .limit(count)
+            .map(rowSpec -> Arrays.asList(rowSpec.getSpecForField(fieldA), rowSpec.getSpecForField(fieldB)))
+            .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.walker.rowspec;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.core.builders.TestConstraintNodeBuilder;
+import com.scottlogic.datahelix.generator.core.decisiontree.ConstraintNode;
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static com.scottlogic.datahelix.generator.common.profile.FieldBuilder.createField;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PotentialRowSpecCountTests {
+    private Field fieldA = createField("A");
+    private Field fieldB = createField("B");
+    private Fields fields = new Fields(Arrays.asList(fieldA, fieldB));
+    private PotentialRowSpecCount potentialRowSpecCount = new PotentialRowSpecCount(new RowSpecCacheBudget(1024));
+
+    @Test
+    void count_withNoDecisions_isOne() {
+        ConstraintNode root = TestConstraintNodeBuilder.constraintNode().where(fieldA).isNull().build();
+
+        assertEquals(BigInteger.ONE, potentialRowSpecCount.count(new DecisionTree(root, fields)));
+    }
+
+    @Test
+    void count_multipliesDecisionsAndAddsOptions() {
+        ConstraintNode root = TestConstraintNodeBuilder.constraintNode()
+            .withDecision(
+                TestConstraintNodeBuilder.constraintNode().where(fieldA).isNull()
+                    .withDecision(
+                        TestConstraintNodeBuilder.constraintNode().where(fieldB).isNull(),
+                        TestConstraintNodeBuilder.constraintNode().where(fieldB).isInSet("x"),
+                        TestConstraintNodeBuilder.constraintNode().where(fieldB).isInSet("y")),
+                TestConstraintNodeBuilder.constraintNode().where(fieldA).isInSet("x"))
+            .withDecision(
+                TestConstraintNodeBuilder.constraintNode().where(fieldB).isNull(),
+                TestConstraintNodeBuilder.constraintNode().where(fieldB).isInSet("x"))
+            .build();
+
+        assertEquals(BigInteger.valueOf(8), potentialRowSpecCount.count(new DecisionTree(root, fields)));
+    }
+
+    @Test
+    void count_beyondTheRangeOfLong_isExact() {
+        TestConstraintNodeBuilder root = TestConstraintNodeBuilder.constraintNode();
+        for (int i = 0; i < 70; i++) {
+            root.withDecision(
+                TestConstraintNodeBuilder.constraintNode().where(fieldA).isNull(),
+                TestConstraintNodeBuilder.constraintNode().where(fieldA).isInSet("x" + i));
+        }
+
+        assertEquals(BigInteger.ONE.shiftLeft(70), potentialRowSpecCount.count(new DecisionTree(root.build(), fields)));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.core.walker.rowspec;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.core.builders.TestConstraintNodeBuilder;
+import com.scottlogic.datahelix.generator.core.decisiontree.ConstraintNode;
+import com.scottlogic.datahelix.generator.core.decisiontree.DecisionTree;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpec;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecHelper;
+import com.scottlogic.datahelix.generator.core.fieldspecs.FieldSpecMerger;
+import com.scottlogic.datahelix.generator.core.fieldspecs.RowSpec;
+import com.scottlogic.datahelix.generator.core.generation.DataGeneratorMonitor;
+import com.scottlogic.datahelix.generator.core.generation.databags.DataBag;
+import com.scottlogic.datahelix.generator.core.generation.databags.RowSpecDataBagGenerator;
+import com.scottlogic.datahelix.generator.core.reducer.ConstraintReducer;
+import com.scottlogic.datahelix.generator.core.utils.SplittableRandomNumberGenerator;
+import com.scottlogic.datahelix.generator.core.walker.decisionbased.RandomRowSpecSolver;
+import com.scottlogic.datahelix.generator.core.walker.decisionbased.RowSpecTreeSolver;
+import com.scottlogic.datahelix.generator.core.walker.decisionbased.SequentialOptionPicker;
+import com.scottlogic.datahelix.generator.core.walker.pruner.TreePruner;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.scottlogic.datahelix.generator.common.profile.FieldBuilder.createField;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class RandomRowSpecDecisionTreeWalkerTests {
+    private static final int ROWS = 200;
+
+    private Field fieldA = createField("A");
+    private Field fieldB = createField("B");
+    private Fields fields = new Fields(Arrays.asList(fieldA, fieldB));
+    private FieldSpecMerger fieldSpecMerger = new FieldSpecMerger();
+    private ConstraintReducer constraintReducer = new ConstraintReducer(fieldSpecMerger);
+    private RowSpecTreeSolver rowSpecTreeSolver = new RowSpecTreeSolver(
+        constraintReducer,
+        new TreePruner(fieldSpecMerger, constraintReducer, new FieldSpecHelper()),
+        new SequentialOptionPicker());
+    private SplittableRandomNumberGenerator random = new SplittableRandomNumberGenerator(7);
+
+    @Test
+    void walk_withASeed_samplesTheSameRowSpecsWhateverWasWalkedBefore() {
+        DecisionTree tree = new DecisionTree(nestedDecisions(), fields);
+
+        List<List<FieldSpec>> afterAnotherWalk = new ArrayList<>();
+        RandomRowSpecDecisionTreeWalker walker = walker(afterAnotherWalk);
+        walk(walker, tree, 0);
+        afterAnotherWalk.clear();
+        walk(walker, tree, 1);
+
+        List<List<FieldSpec>> firstWalk = new ArrayList<>();
+        walk(walker(firstWalk), tree, 1);
+
+        assertEquals(firstWalk, afterAnotherWalk);
+    }
+
+    private ConstraintNode nestedDecisions() {
+        return TestConstraintNodeBuilder.constraintNode()
+            .where(fieldB).isNotNull()
+            .withDecision(
+                TestConstraintNodeBuilder.constraintNode().where(fieldA).isNull()
+                    .withDecision(
+                        TestConstraintNodeBuilder.constraintNode().where(fieldB).isNull(),
+                        TestConstraintNodeBuilder.constraintNode().where(fieldB).isInSet("x"),
+                        TestConstraintNodeBuilder.constraintNode().where(fieldB).isInSet("y")),
+                TestConstraintNodeBuilder.constraintNode().where(fieldA).isInSet("x")
+                    .withDecision(
+                        TestConstraintNodeBuilder.constraintNode().where(fieldB).isNull(),
+                        TestConstraintNodeBuilder.constraintNode().where(fieldB).isInSet("x")))
+            .build();
+    }
+
+    private void walk(RandomRowSpecDecisionTreeWalker walker, DecisionTree tree, long block) {
+        random.inSubstream(block, () -> walker.walk(tree))
+            .limit(ROWS)
+            .forEach(dataBag -> { });
+    }
+
+    /**
+     * @return a walker with no budget for caching row specs, so it samples them from solution graphs, that adds the
+     * specs of each row spec it samples to the list
+     */
+    private RandomRowSpecDecisionTreeWalker walker(List<List<FieldSpec>> sampled) {
+        RowSpecDataBagGenerator dataBagGenerator = new RowSpecDataBagGenerator(null, null) {
+            @Override
+            public Stream<DataBag> createDataBags(RowSpec rowSpec) {
+                sampled.add(fields.stream().map(rowSpec::getSpecForField).collect(Collectors.toList()));
+                return Stream.of(DataBag.empty);
+            }
+        };
+        return new RandomRowSpecDecisionTreeWalker(
+            rowSpecTreeSolver,
+            new RandomRowSpecSolver(
+                rowSpecTreeSolver,
+                constraintReducer,
+                random,
+                new RowSpecCacheBudget(1024 * 1024),
+                new PotentialRowSpecCount(new RowSpecCacheBudget(1024 * 1024))),
+            dataBagGenerator,
+            new PotentialRowSpecCount(new RowSpecCacheBudget(0)),
+            random,
+            mock(DataGeneratorMonitor.class),
+            OptionalLong.of(7));
+    }
+}
@@ -19,6 +19,7 @@ package com.scottlogic.datahelix.generator.orchestrator.generate;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.Module;
+import com.scottlogic.datahelix.generator.common.ValidationException;
 import com.scottlogic.datahelix.generator.core.config.detail.CombinationStrategyType;
 import com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType;
 import com.scottlogic.datahelix.generator.core.config.detail.MonitorType;
@@ -27,17 +28,20 @@ import com.scottlogic.datahelix.generator.orchestrator.CommonOptionInfo;
 import com.scottlogic.datahelix.generator.orchestrator.guice.AllConfigSource;
 import com.scottlogic.datahelix.generator.orchestrator.guice.AllModule;
 import com.scottlogic.datahelix.generator.output.guice.OutputFormat;
+import com.scottlogic.datahelix.generator.output.writer.parquet.ParquetCompression;
 import com.scottlogic.datahelix.generator.profile.ProfileConfiguration;
 import picocli.CommandLine;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.OptionalLong;
 import java.util.concurrent.Callable;
 
 import static com.scottlogic.datahelix.generator.common.util.Defaults.DEFAULT_MAX_ROWS;
 import static com.scottlogic.datahelix.generator.core.config.detail.CombinationStrategyType.MINIMAL;
 import static com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType.RANDOM;
 import static com.scottlogic.datahelix.generator.output.guice.OutputFormat.CSV;
+import static com.scottlogic.datahelix.generator.output.guice.OutputFormat.PARQUET;
 
 /**
  * This class holds the generate specific command line options.
@@ -53,6 +57,11 @@ import static com.scottlogic.datahelix.generator.output.guice.OutputFormat.CSV;
 public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
     @Override
     public Integer call() throws Exception {
+        validateShardOptions();
+        validateThreadOptions();
+        validateRowSpecCacheOptions();
+        validateOutputPipelineOptions();
+        validateParquetOptions();
         Module container = new AllModule(this);
         Injector injector = Guice.createInjector(container);
 
@@ -118,6 +127,50 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         description = "Defines the maximum number of rows that should be generated")
     private long maxRows = DEFAULT_MAX_ROWS;
 
+    @SuppressWarnings("FieldCanBeLocal")
+    @CommandLine.Option(
+        names = {"--parallel-partitions"},
+        description = "Generates each independent partition of the profile on its own thread")
+    private boolean parallelPartitions = false;
+
+    @CommandLine.Option(
+        names = {"--seed"},
+        description = "Seeds random generation, so a run with the same seed and options produces the same data")
+    private Long seed;
+
+    @SuppressWarnings("FieldCanBeLocal")
+    @CommandLine.Option(
+        names = {"--shard-index"},
+        description = "The zero-based shard of the rows to generate, when splitting a run across processes")
+    private int shardIndex = 0;
+
+    @SuppressWarnings("FieldCanBeLocal")
+    @CommandLine.Option(
+        names = {"--shard-count"},
+        description = "The number of shards a run is split into. Concatenating the output of every shard in order "
+            + "gives the rows of the whole run")
+    private int shardCount = 1;
+
+    @SuppressWarnings("FieldCanBeLocal")
+    @CommandLine.Option(
+        names = {"--threads"},
+        description = "The number of threads to generate random rows on")
+    private int threads = 1;
+
+    @SuppressWarnings("FieldCanBeLocal")
+    @CommandLine.Option(
+        names = {"--unordered"},
+        description = "Writes rows generated on several threads as soon as each thread produces them, rather than in "
+            + "the order a single thread would have generated them")
+    private boolean unordered = false;
+
+    @SuppressWarnings("FieldCanBeLocal")
+    @CommandLine.Option(
+        names = {"--row-spec-cache-size"},
+        description = "The megabytes random generation may use to hold the row specs of each decision tree, "
+            + "or the partially solved tree they are sampled from")
+    private long rowSpecCacheMegabytes = 4;
+
     @SuppressWarnings("FieldCanBeLocal")
     @CommandLine.Option(
         names = {"--quiet"},
@@ -135,6 +188,32 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         description = "Output format (${COMPLETION-CANDIDATES})")
     private OutputFormat outputFormat = CSV;
 
+    @SuppressWarnings("FieldCanBeLocal")
+    @CommandLine.Option(
+        names = {"--formatting-threads"},
+        description = "The number of threads to format rows on, while another thread writes them out. "
+            + "0 formats and writes rows on the thread generating them")
+    private int formattingThreads = 0;
+
+    @SuppressWarnings("FieldCanBeLocal")
+    @CommandLine.Option(
+        names = {"--output-buffer-batches"},
+        description = "With --formatting-threads, the number of batches of rows that can wait to be written before "
+            + "generation pauses for the writer to catch up")
+    private int outputBufferBatches = 16;
+
+    @SuppressWarnings("FieldCanBeLocal")
+    @CommandLine.Option(
+        names = {"--parquet-row-group-size"},
+        description = "The number of rows in each row group of Parquet output")
+    private int parquetRowGroupSize = 100_000;
+
+    @SuppressWarnings("FieldCanBeLocal")
+    @CommandLine.Option(
+        names = {"--parquet-compression"},
+        description = "The compression of Parquet output (${COMPLETION-CANDIDATES})")
+    private ParquetCompression parquetCompression = ParquetCompression.UNCOMPRESSED;
+
     @SuppressWarnings("FieldCanBeLocal")
     @CommandLine.Option(
         names = {"--set-from-file-directory"},
@@ -198,10 +277,65 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         return maxRows;
     }
 
+    @Override
+    public boolean useParallelPartitions() {
+        return parallelPartitions;
+    }
+
+    @Override
+    public OptionalLong getSeed() {
+        return seed == null ? OptionalLong.empty() : OptionalLong.of(seed);
+    }
+
+    @Override
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    @Override
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public boolean useUnorderedRows() {
+        return unordered;
+    }
+
+    @Override
+    public long getRandomRowSpecCacheBytes() {
+        return rowSpecCacheMegabytes * 1024 * 1024;
+    }
+
     public OutputFormat getOutputFormat() {
         return outputFormat;
     }
 
+    @Override
+    public int getFormattingThreads() {
+        return formattingThreads;
+    }
+
+    @Override
+    public int getOutputBufferBatches() {
+        return outputBufferBatches;
+    }
+
+    @Override
+    public int getParquetRowGroupSize() {
+        return parquetRowGroupSize;
+    }
+
+    @Override
+    public ParquetCompression getParquetCompression() {
+        return parquetCompression;
+    }
+
     @Override
     public String fromFilePath() {
         return fromFilePath;
@@ -217,6 +351,58 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         return visualiserOutputFolder;
     }
 
+    private void validateShardOptions() {
+        if (shardCount < 1) {
+            throw new ValidationException("--shard-count must be at least 1");
+        }
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new ValidationException("--shard-index must be at least 0 and less than --shard-count");
+        }
+        if (shardCount > 1 && generationType == RANDOM && seed == null) {
+            throw new ValidationException("--seed must be given when generating random data across shards, "
+                + "so every shard draws from the same random streams");
+        }
+    }
+
+    private void validateThreadOptions() {
+        if (threads < 1) {
+            throw new ValidationException("--threads must be at least 1");
+        }
+        if (threads > 1 && generationType != RANDOM) {
+            throw new ValidationException("--threads is only supported for random generation");
+        }
+    }
+
+    private void validateRowSpecCacheOptions() {
+        if (rowSpecCacheMegabytes < 0) {
+            throw new ValidationException("--row-spec-cache-size must be at least 0");
+        }
+        if (rowSpecCacheMegabytes > Long.MAX_VALUE / (1024 * 1024)) {
+            throw new ValidationException("--row-spec-cache-size is too large");
+        }
+    }
+
+    private void validateOutputPipelineOptions() {
+        if (formattingThreads < 0) {
+            throw new ValidationException("--formatting-threads must be at least 0");
+        }
+        if (outputBufferBatches < 1) {
+            throw new ValidationException("--output-buffer-batches must be at least 1");
+        }
+    }
+
+    private void validateParquetOptions() {
+        if (outputFormat != PARQUET) {
+            return;
+        }
+        if (outputPath == null) {
+            throw new ValidationException("Parquet output must be written to a file, please give an --output-path");
+        }
+        if (parquetRowGroupSize < 1) {
+            throw new ValidationException("--parquet-row-group-size must be at least 1");
+        }
+    }
+
     protected static void printAlphaFeatureWarning(String feature) {
         System.err.println(feature + " is an ALPHA FEATURE. Please do not rely on it. If you find any issues with it, please report them at https://github.com/finos/datahelix/issues.");
     }
@@ -22,6 +22,7 @@ import com.scottlogic.datahelix.generator.common.output.GeneratedObject;
 import com.scottlogic.datahelix.generator.core.generation.DataGenerator;
 import com.scottlogic.datahelix.generator.core.generation.DataGeneratorMonitor;
 import com.scottlogic.datahelix.generator.core.profile.Profile;
+import com.scottlogic.datahelix.generator.core.reducer.NumericBoundsReducer;
 import com.scottlogic.datahelix.generator.output.outputtarget.SingleDatasetOutputTarget;
 import com.scottlogic.datahelix.generator.output.writer.DataSetWriter;
 import com.scottlogic.datahelix.generator.profile.reader.ProfileReader;
@@ -35,6 +36,7 @@ public class GenerateExecute {
     private final ProfileReader profileReader;
     private final DataGenerator dataGenerator;
     private final DataGeneratorMonitor monitor;
+    private final NumericBoundsReducer numericBoundsReducer;
     private final File profileFile;
 
     @Inject
@@ -43,11 +45,13 @@ public class GenerateExecute {
         SingleDatasetOutputTarget singleDatasetOutputTarget,
         ProfileReader profileReader,
         DataGeneratorMonitor monitor,
+        NumericBoundsReducer numericBoundsReducer,
         @Named("config:profileFile") File profileFile) {
         this.dataGenerator = dataGenerator;
         this.singleDatasetOutputTarget = singleDatasetOutputTarget;
         this.profileReader = profileReader;
         this.monitor = monitor;
+        this.numericBoundsReducer = numericBoundsReducer;
         this.profileFile = profileFile;
     }
 
@@ -61,7 +65,7 @@ public class GenerateExecute {
     private void outputData(Profile profile, Stream<GeneratedObject> generatedDataItems) throws IOException {
         singleDatasetOutputTarget.validate();
 
-        try (DataSetWriter writer = singleDatasetOutputTarget.openWriter(profile.getFields())) {
+        try (DataSetWriter writer = singleDatasetOutputTarget.openWriter(numericBoundsReducer.withNumericBounds(profile))) {
             generatedDataItems.forEach(row -> {
                 try {
                     writer.writeRow(row);
@@ -21,11 +21,14 @@ import com.scottlogic.datahelix.generator.core.config.detail.CombinationStrategy
 import com.scottlogic.datahelix.generator.core.config.detail.DataGenerationType;
 import com.scottlogic.datahelix.generator.core.config.detail.MonitorType;
 import com.scottlogic.datahelix.generator.core.config.detail.VisualiserLevel;
+import com.scottlogic.datahelix.generator.core.walker.rowspec.RowSpecCacheBudget;
 import com.scottlogic.datahelix.generator.orchestrator.guice.AllConfigSource;
 import com.scottlogic.datahelix.generator.output.guice.OutputFormat;
+import com.scottlogic.datahelix.generator.output.writer.parquet.ParquetCompression;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.OptionalLong;
 
 public class CucumberGenerationConfigSource implements AllConfigSource {
     private final CucumberTestState state;
@@ -55,6 +58,61 @@ public class CucumberGenerationConfigSource implements AllConfigSource {
         return state.maxRows;
     }
 
+    @Override
+    public boolean useParallelPartitions() {
+        return false;
+    }
+
+    @Override
+    public OptionalLong getSeed() {
+        return OptionalLong.empty();
+    }
+
+    @Override
+    public int getShardIndex() {
+        return 0;
+    }
+
+    @Override
+    public int getShardCount() {
+        return 1;
+    }
+
+    @Override
+    public int getThreads() {
+        return 1;
+    }
+
+    @Override
+    public int getFormattingThreads() {
+        return 0;
+    }
+
+    @Override
+    public int getOutputBufferBatches() {
+        return 16;
+    }
+
+    @Override
+    public int getParquetRowGroupSize() {
+        return 100_000;
+    }
+
+    @Override
+    public ParquetCompression getParquetCompression() {
+        return ParquetCompression.UNCOMPRESSED;
+    }
+
+    @Override
+    public boolean useUnorderedRows() {
+        return false;
+    }
+
+    @Override
+    public long getRandomRowSpecCacheBytes() {
+        return RowSpecCacheBudget.DEFAULT_BYTES;
+    }
+
     @Override
     public Path getOutputPath() {
         return new File("mockFilePath").toPath();
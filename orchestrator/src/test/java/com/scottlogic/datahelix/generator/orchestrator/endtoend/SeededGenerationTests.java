@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.orchestrator.endtoend;
+
+import com.scottlogic.datahelix.generator.orchestrator.generate.GenerateCommandLine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SeededGenerationTests {
+    private static final String PROFILE =
+        "src/test/java/com/scottlogic/datahelix/generator/orchestrator/endtoend/seededpartitions.profile.json";
+    private static final int ROWS = 2000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void generate_withASeedAndParallelPartitions_givesTheSameRowsAsOnePartitionAtATime() throws IOException {
+        List<String> serialRows = generate("serial.csv");
+        List<String> parallelRows = generate("parallel.csv", "--parallel-partitions");
+
+        assertEquals(ROWS + 1, serialRows.size());
+        assertEquals(serialRows, parallelRows);
+    }
+
+    private List<String> generate(String outputFile, String... options) throws IOException {
+        Path output = directory.resolve(outputFile);
+        List<String> args = new ArrayList<>(Arrays.asList(
+            "--profile-file=" + PROFILE,
+            "--output-path=" + output,
+            "--generation-type=RANDOM",
+            "--seed=7",
+            "--max-rows=" + ROWS,
+            "--quiet"));
+        args.addAll(Arrays.asList(options));
+
+        int exitCode = new CommandLine(new GenerateCommandLine())
+            .setCaseInsensitiveEnumValuesAllowed(true)
+            .execute(args.toArray(new String[0]));
+
+        assertEquals(0, exitCode);
+        return Files.readAllLines(output);
+    }
+}
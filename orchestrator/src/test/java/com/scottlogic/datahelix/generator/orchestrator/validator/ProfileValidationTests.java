@@ -21,6 +21,7 @@ import com.scottlogic.datahelix.generator.common.util.FileUtils;
 import com.scottlogic.datahelix.generator.core.profile.Profile;
 import com.scottlogic.datahelix.generator.custom.CustomGeneratorList;
 import com.scottlogic.datahelix.generator.profile.custom.CustomConstraintFactory;
+import com.scottlogic.datahelix.generator.profile.reader.CsvFileCache;
 import com.scottlogic.datahelix.generator.profile.reader.CsvInputStreamReaderFactory;
 import com.scottlogic.datahelix.generator.profile.reader.FileReader;
 import com.scottlogic.datahelix.generator.profile.reader.JsonProfileReader;
@@ -64,7 +65,7 @@ public class ProfileValidationTests {
             new NameRetrievalService(csvReaderFactory));
         ProfileDeserialiser profileDeserialiser = new ProfileDeserialiser(
             new ConfigValidator(new FileUtils()),
-            new ConstraintDeserializerFactory(new FileReader(csvReaderFactory)));
+            new ConstraintDeserializerFactory(new FileReader(new CsvFileCache())));
         CommandBus commandBus = new ProfileCommandBus(
             new FieldService(),
             constraintService,
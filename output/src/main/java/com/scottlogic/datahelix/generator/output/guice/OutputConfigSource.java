@@ -16,6 +16,8 @@
 
 package com.scottlogic.datahelix.generator.output.guice;
 
+import com.scottlogic.datahelix.generator.output.writer.parquet.ParquetCompression;
+
 import java.nio.file.Path;
 
 public interface OutputConfigSource {
@@ -23,4 +25,8 @@ public interface OutputConfigSource {
     Path getOutputPath();
     boolean overwriteOutputFiles();
     boolean useStdOut();
+    int getFormattingThreads();
+    int getOutputBufferBatches();
+    int getParquetRowGroupSize();
+    ParquetCompression getParquetCompression();
 }
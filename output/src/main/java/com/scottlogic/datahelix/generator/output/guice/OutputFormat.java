@@ -18,5 +18,6 @@ package com.scottlogic.datahelix.generator.output.guice;
 
 public enum OutputFormat {
     CSV,
-    JSON
+    JSON,
+    PARQUET
 }
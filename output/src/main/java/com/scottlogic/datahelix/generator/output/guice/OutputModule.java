@@ -21,6 +21,7 @@ import com.google.inject.name.Names;
 import com.scottlogic.datahelix.generator.output.OutputPath;
 import com.scottlogic.datahelix.generator.output.outputtarget.SingleDatasetOutputTarget;
 import com.scottlogic.datahelix.generator.output.writer.OutputWriterFactory;
+import com.scottlogic.datahelix.generator.output.writer.parquet.ParquetCompression;
 
 public class OutputModule extends AbstractModule {
     private final OutputConfigSource outputConfigSource;
@@ -45,5 +46,10 @@ public class OutputModule extends AbstractModule {
         bind(boolean.class)
             .annotatedWith(Names.named("config:streamOutput"))
             .toInstance(outputConfigSource.useStdOut());
+
+        bind(int.class)
+            .annotatedWith(Names.named("config:parquetRowGroupSize"))
+            .toInstance(outputConfigSource.getParquetRowGroupSize());
+        bind(ParquetCompression.class).toInstance(outputConfigSource.getParquetCompression());
     }
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.output.writer;
+
+import com.scottlogic.datahelix.generator.common.output.GeneratedObject;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A writer that can encode rows into the bytes it writes apart from writing them, so that rows can be encoded on other
+ * threads than the one writing.
+ */
+public interface EncodingDataSetWriter extends DataSetWriter {
+    /**
+     * @return the bytes the rows are written as. Safe to call on several threads at once, including while rows are
+     * being written
+     */
+    byte[] encodeRows(List<GeneratedObject> rows) throws IOException;
+
+    /**
+     * Writes rows encoded by encodeRows, in the same way as writing each of them with writeRow would
+     */
+    void writeEncodedRows(byte[] encodedRows) throws IOException;
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.scottlogic.datahelix.generator.output.writer.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes CSV values as UTF-8 straight into a reusable byte buffer, which is only written to the underlying stream
+ * when it fills up or the buffer is closed.
+ *
+ * Values are quoted following the RFC4180 format with minimal quoting, as applied by commons-csv, so that the bytes
+ * written are identical to those produced by a commons-csv printer.
+ */
+class CsvBuffer implements Closeable {
+    private static final int MAX_BYTES_PER_CHAR = 4;
+    private static final byte DELIMITER = ',';
+    private static final char QUOTE = '"';
+    private static final char COMMENT = '#';
+    private static final char SPACE = ' ';
+    private static final byte[] RECORD_SEPARATOR = { '\r', '\n' };
+    private static final byte MALFORMED_REPLACEMENT = '?';
+
+    private final OutputStream stream;
+    private final byte[] buffer;
+    private int position;
+    private boolean newRecord = true;
+
+    CsvBuffer(OutputStream stream, int bufferSize) {
+        this.stream = stream;
+        this.buffer = new byte[bufferSize];
+    }
+
+    void writeNull() throws IOException {
+        startValue();
+    }
+
+    /**
+     * Write a value that is known to never require quoting, e.g. a number or an ISO formatted date
+     */
+    void writeUnquoted(CharSequence value) throws IOException {
+        startValue();
+        writeChars(value, 0, value.length());
+    }
+
+    void writeString(CharSequence value) throws IOException {
+        boolean quoteRequired = requiresQuotes(value, newRecord);
+        startValue();
+
+        if (!quoteRequired) {
+            writeChars(value, 0, value.length());
+            return;
+        }
+
+        writeByte((byte) QUOTE);
+        int start = 0;
+        for (int index = 0; index < value.length(); index++) {
+            if (value.charAt(index) == QUOTE) {
+                writeChars(value, start, index + 1);
+                start = index;
+            }
+        }
+        writeChars(value, start, value.length());
+        writeByte((byte) QUOTE);
+    }
+
+    /**
+     * Write whole records encoded by another buffer, between the records of this one
+     */
+    void writeEncodedRecords(byte[] records) throws IOException {
+        ensureCapacity(records.length);
+        if (records.length > buffer.length) {
+            stream.write(records);
+            return;
+        }
+
+        System.arraycopy(records, 0, buffer, position, records.length);
+        position += records.length;
+    }
+
+    void endRecord() throws IOException {
+        ensureCapacity(RECORD_SEPARATOR.length);
+        System.arraycopy(RECORD_SEPARATOR, 0, buffer, position, RECORD_SEPARATOR.length);
+        position += RECORD_SEPARATOR.length;
+        newRecord = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            stream.close();
+        }
+    }
+
+    private static boolean requiresQuotes(CharSequence value, boolean newRecord) {
+        int length = value.length();
+        if (length == 0) {
+            // an empty first value is quoted so that a record with a single empty value isn't an empty line
+            return newRecord;
+        }
+
+        if (value.charAt(0) <= COMMENT) {
+            return true;
+        }
+
+        for (int index = 0; index < length; index++) {
+            char c = value.charAt(index);
+            if (c == '\n' || c == '\r' || c == QUOTE || c == DELIMITER) {
+                return true;
+            }
+        }
+
+        return value.charAt(length - 1) <= SPACE;
+    }
+
+    private void startValue() throws IOException {
+        if (!newRecord) {
+            writeByte(DELIMITER);
+        }
+        newRecord = false;
+    }
+
+    private void writeByte(byte value) throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = value;
+    }
+
+    private void writeChars(CharSequence value, int start, int end) throws IOException {
+        for (int index = start; index < end; index++) {
+            ensureCapacity(MAX_BYTES_PER_CHAR);
+            char c = value.charAt(index);
+
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && index + 1 < end && Character.isLowSurrogate(value.charAt(index + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++index));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                // unpaired surrogates are replaced in the same way as an OutputStreamWriter would
+                buffer[position++] = MALFORMED_REPLACEMENT;
+            }
+        }
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        stream.write(buffer, 0, position);
+        position = 0;
+    }
+}
@@ -14,77 +14,92 @@
  * limitations under the License.
  */
 
+
 package com.scottlogic.datahelix.generator.output.writer.csv;
 
 import com.scottlogic.datahelix.generator.common.output.GeneratedObject;
+import com.scottlogic.datahelix.generator.common.profile.Field;
 import com.scottlogic.datahelix.generator.common.profile.Fields;
-import com.scottlogic.datahelix.generator.output.writer.DataSetWriter;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.csv.QuoteMode;
+import com.scottlogic.datahelix.generator.output.writer.EncodingDataSetWriter;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
-import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.stream.Collectors;
-
-class CsvDataSetWriter implements DataSetWriter {
-    private static final DateTimeFormatter standardDateFormat = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
-    private static final CSVFormat writerFormat = CSVFormat.RFC4180;
-
-    private final CSVPrinter csvPrinter;
-    private final Fields fieldOrder;
-
-    private CsvDataSetWriter(CSVPrinter csvPrinter, Fields fieldOrder) {
-        this.csvPrinter = csvPrinter;
+import java.util.List;
+
+class CsvDataSetWriter implements EncodingDataSetWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int ENCODING_BUFFER_SIZE = 1 << 13;
+
+    private final CsvBuffer buffer;
+    private final Field[] fieldOrder;
+    private final CsvValueEncoder[] encoders;
+
+    private CsvDataSetWriter(CsvBuffer buffer, Field[] fieldOrder) {
+        this.buffer = buffer;
         this.fieldOrder = fieldOrder;
+        this.encoders = createEncoders(fieldOrder);
     }
 
-    static DataSetWriter open(OutputStream stream, Fields fields) throws IOException {
-        final Appendable outputStreamAsAppendable = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+    static EncodingDataSetWriter open(OutputStream stream, Fields fields) throws IOException {
+        CsvBuffer buffer = new CsvBuffer(stream, BUFFER_SIZE);
+        Field[] fieldOrder = fields.getExternalStream().toArray(Field[]::new);
 
-        CSVPrinter csvPrinter = writerFormat
-            .withQuoteMode(QuoteMode.MINIMAL)
-            .withHeader(fields.getExternalStream()
-                .map(f -> f.getName())
-                .toArray(String[]::new))
-            .print(outputStreamAsAppendable);
+        for (Field field : fieldOrder) {
+            buffer.writeString(field.getName());
+        }
+        buffer.endRecord();
 
-        return new CsvDataSetWriter(csvPrinter, fields);
+        return new CsvDataSetWriter(buffer, fieldOrder);
     }
 
     @Override
     public void writeRow(GeneratedObject row) throws IOException {
-        csvPrinter.printRecord(fieldOrder.getExternalStream()
-                .map(row::getFormattedValue)
-                .map(CsvDataSetWriter::applyTypeSpecificFormatting)
-                .collect(Collectors.toList()));
+        writeRow(row, fieldOrder, encoders, buffer);
+    }
 
-        csvPrinter.flush();
+    /**
+     * Encodes into a buffer of its own, with encoders of its own, as encoders reuse their state from one value to
+     * the next
+     */
+    @Override
+    public byte[] encodeRows(List<GeneratedObject> rows) throws IOException {
+        ByteArrayOutputStream encodedRows = new ByteArrayOutputStream(ENCODING_BUFFER_SIZE);
+        try (CsvBuffer rowBuffer = new CsvBuffer(encodedRows, ENCODING_BUFFER_SIZE)) {
+            CsvValueEncoder[] rowEncoders = createEncoders(fieldOrder);
+            for (GeneratedObject row : rows) {
+                writeRow(row, fieldOrder, rowEncoders, rowBuffer);
+            }
+        }
+        return encodedRows.toByteArray();
     }
 
     @Override
-    public void close() throws IOException {
-        csvPrinter.close();
+    public void writeEncodedRows(byte[] encodedRows) throws IOException {
+        buffer.writeEncodedRecords(encodedRows);
     }
 
-    private static Object applyTypeSpecificFormatting(Object value) {
-        if (value == null) {
-            return null;
-        }
+    @Override
+    public void close() throws IOException {
+        buffer.close();
+    }
 
-        if (value instanceof BigDecimal) {
-            return ((BigDecimal) value).toPlainString();
+    private static void writeRow(
+        GeneratedObject row,
+        Field[] fieldOrder,
+        CsvValueEncoder[] encoders,
+        CsvBuffer buffer) throws IOException {
+        for (int index = 0; index < fieldOrder.length; index++) {
+            encoders[index].encode(row.getFormattedValue(fieldOrder[index]), buffer);
         }
+        buffer.endRecord();
+    }
 
-        if (value instanceof OffsetDateTime) {
-            return standardDateFormat.format((OffsetDateTime) value);
+    private static CsvValueEncoder[] createEncoders(Field[] fieldOrder) {
+        CsvValueEncoder[] encoders = new CsvValueEncoder[fieldOrder.length];
+        for (int index = 0; index < fieldOrder.length; index++) {
+            encoders[index] = CsvValueEncoder.forField(fieldOrder[index]);
         }
-
-        return value;
+        return encoders;
     }
 }
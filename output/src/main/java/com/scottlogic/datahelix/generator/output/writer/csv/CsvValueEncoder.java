@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.scottlogic.datahelix.generator.output.writer.csv;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes the values of a single field into a CsvBuffer. An encoder is chosen for each field when the writer is opened
+ * so that the common value types can be written without any intermediate collections.
+ */
+abstract class CsvValueEncoder {
+    private static final DateTimeFormatter standardDateFormat = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+    static CsvValueEncoder forField(Field field) {
+        switch (field.getType()) {
+            case NUMERIC:
+                return new NumericEncoder();
+            case DATETIME:
+                return new DateTimeEncoder();
+            default:
+                return new GeneralEncoder();
+        }
+    }
+
+    void encode(Object value, CsvBuffer buffer) throws IOException {
+        if (value == null) {
+            buffer.writeNull();
+        } else if (!encodeTyped(value, buffer)) {
+            encodeGeneral(value, buffer);
+        }
+    }
+
+    /**
+     * @return whether the value was of the type this encoder is specialised for, and has been written
+     */
+    abstract boolean encodeTyped(Object value, CsvBuffer buffer) throws IOException;
+
+    private static void encodeGeneral(Object value, CsvBuffer buffer) throws IOException {
+        if (value instanceof CharSequence) {
+            buffer.writeString((CharSequence) value);
+        } else if (value instanceof BigDecimal) {
+            buffer.writeUnquoted(((BigDecimal) value).toPlainString());
+        } else if (value instanceof OffsetDateTime) {
+            buffer.writeUnquoted(standardDateFormat.format((OffsetDateTime) value));
+        } else {
+            buffer.writeString(value.toString());
+        }
+    }
+
+    private static class GeneralEncoder extends CsvValueEncoder {
+        @Override
+        boolean encodeTyped(Object value, CsvBuffer buffer) {
+            return false;
+        }
+    }
+
+    private static class NumericEncoder extends CsvValueEncoder {
+        @Override
+        boolean encodeTyped(Object value, CsvBuffer buffer) throws IOException {
+            if (!(value instanceof BigDecimal)) {
+                return false;
+            }
+
+            buffer.writeUnquoted(((BigDecimal) value).toPlainString());
+            return true;
+        }
+    }
+
+    /**
+     * Formats dates in the same way as DateTimeFormatter.ISO_OFFSET_DATE_TIME, reusing a single builder. Years outside
+     * of 0000-9999 are rare and need sign handling, so they are left to the formatter.
+     */
+    private static class DateTimeEncoder extends CsvValueEncoder {
+        private static final int MAX_YEAR_WITHOUT_SIGN = 9999;
+        private static final int NANO_DIGITS = 9;
+
+        private final StringBuilder builder = new StringBuilder(35);
+
+        @Override
+        boolean encodeTyped(Object value, CsvBuffer buffer) throws IOException {
+            if (!(value instanceof OffsetDateTime)) {
+                return false;
+            }
+
+            OffsetDateTime dateTime = (OffsetDateTime) value;
+            if (dateTime.getYear() < 0 || dateTime.getYear() > MAX_YEAR_WITHOUT_SIGN) {
+                buffer.writeUnquoted(standardDateFormat.format(dateTime));
+                return true;
+            }
+
+            builder.setLength(0);
+            appendPadded(dateTime.getYear(), 4);
+            builder.append('-');
+            appendPadded(dateTime.getMonthValue(), 2);
+            builder.append('-');
+            appendPadded(dateTime.getDayOfMonth(), 2);
+            builder.append('T');
+            appendPadded(dateTime.getHour(), 2);
+            builder.append(':');
+            appendPadded(dateTime.getMinute(), 2);
+            builder.append(':');
+            appendPadded(dateTime.getSecond(), 2);
+            appendFraction(dateTime.getNano());
+            builder.append(dateTime.getOffset().getId());
+
+            buffer.writeUnquoted(builder);
+            return true;
+        }
+
+        private void appendFraction(int nano) {
+            if (nano == 0) {
+                return;
+            }
+
+            int digits = NANO_DIGITS;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+
+            builder.append('.');
+            appendPadded(nano, digits);
+        }
+
+        private void appendPadded(int value, int width) {
+            for (int divisor = pow10(width - 1); divisor > 0; divisor /= 10) {
+                builder.append((char) ('0' + (value / divisor) % 10));
+            }
+        }
+
+        private static int pow10(int exponent) {
+            int result = 1;
+            for (int i = 0; i < exponent; i++) {
+                result *= 10;
+            }
+            return result;
+        }
+    }
+}
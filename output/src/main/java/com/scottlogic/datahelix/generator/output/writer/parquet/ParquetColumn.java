@@ -0,0 +1,707 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.output.writer.parquet;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.FieldType;
+import com.scottlogic.datahelix.generator.common.profile.NumericBounds;
+import com.scottlogic.datahelix.generator.common.profile.NumericGranularity;
+import com.scottlogic.datahelix.generator.common.profile.StandardSpecificFieldType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.scottlogic.datahelix.generator.common.util.Defaults.DEFAULT_DATE_FORMATTING;
+import static com.scottlogic.datahelix.generator.common.util.Defaults.DEFAULT_TIME_FORMATTING;
+import static com.scottlogic.datahelix.generator.common.util.Defaults.NUMERIC_MAX;
+import static com.scottlogic.datahelix.generator.common.util.Defaults.NUMERIC_MIN;
+
+/**
+ * Buffers the values of a single field for the current row group, and writes them out as a column chunk.
+ * A column is chosen for each field when the writer is opened, from the field's type and formatting. Fields with any
+ * formatting other than the default date and time formats are written as strings, as that is what formatting makes
+ * of their values.
+ * <p>
+ * A numeric field's decimal places and digits are fixed when its column is chosen, from the granularity and bounds the
+ * profile gives its values, or those of its type when the profile doesn't bound them, so a value can't be found not
+ * to fit part way through a file. A field whose bounds need more digits than a Parquet decimal can hold is written as
+ * strings instead.
+ * </p>
+ */
+abstract class ParquetColumn {
+    private static final int PAGE_ROWS = 20_000;
+
+    private static final int TYPE_BOOLEAN = 0;
+    private static final int TYPE_INT32 = 1;
+    private static final int TYPE_INT64 = 2;
+    private static final int TYPE_BYTE_ARRAY = 6;
+    private static final int TYPE_FIXED_LEN_BYTE_ARRAY = 7;
+
+    private static final int REPETITION_OPTIONAL = 1;
+
+    private static final int CONVERTED_UTF8 = 0;
+    private static final int CONVERTED_DECIMAL = 5;
+    private static final int CONVERTED_DATE = 6;
+    private static final int CONVERTED_TIME_MILLIS = 7;
+    private static final int CONVERTED_TIMESTAMP_MICROS = 10;
+
+    private static final int LOGICAL_STRING = 1;
+    private static final int LOGICAL_DECIMAL = 5;
+    private static final int LOGICAL_DATE = 6;
+    private static final int LOGICAL_TIME = 7;
+    private static final int LOGICAL_TIMESTAMP = 8;
+    private static final int TIME_UNIT_MILLIS = 1;
+    private static final int TIME_UNIT_MICROS = 2;
+
+    private static final int ENCODING_PLAIN = 0;
+    private static final int ENCODING_PLAIN_DICTIONARY = 2;
+    private static final int ENCODING_RLE = 3;
+
+    private static final int PAGE_DATA = 0;
+    private static final int PAGE_DICTIONARY = 2;
+
+    private final Field field;
+    private final int physicalType;
+    private boolean[] present = new boolean[1024];
+    private int rows;
+
+    private ParquetColumn(Field field, int physicalType) {
+        this.field = field;
+        this.physicalType = physicalType;
+    }
+
+    static ParquetColumn forField(Field field, Optional<NumericBounds> numericBounds) {
+        String formatting = field.getFormatting();
+        if (formatting == null) {
+            switch (field.getType()) {
+                case NUMERIC:
+                    return numericColumn(field, numericBounds.orElseGet(() -> defaultBounds(field)));
+                case DATETIME:
+                    return new TimestampColumn(field);
+                case BOOLEAN:
+                    return new BooleanColumn(field);
+                default:
+                    return new StringColumn(field);
+            }
+        }
+
+        if (field.getType() == FieldType.DATETIME && formatting.equals(DEFAULT_DATE_FORMATTING)) {
+            return new DateColumn(field);
+        }
+        if (field.getType() == FieldType.TIME && formatting.equals(DEFAULT_TIME_FORMATTING)) {
+            return new TimeColumn(field);
+        }
+        return new StringColumn(field);
+    }
+
+    void add(Object value) throws IOException {
+        if (rows == present.length) {
+            present = Arrays.copyOf(present, rows * 2);
+        }
+        present[rows++] = value != null;
+        if (value != null) {
+            addValue(value);
+        }
+    }
+
+    /**
+     * Writes the buffered values as a column chunk of a dictionary page if the column has one, followed by data
+     * pages of up to a fixed number of rows, and starts buffering the next row group
+     */
+    ColumnChunk writeChunk(PositionOutputStream out, ParquetCompression compression) throws IOException {
+        ColumnChunk chunk = new ColumnChunk(field.getName(), physicalType, compression, rows, out.getPosition());
+
+        DictionaryPage dictionary = beginChunk();
+        if (dictionary != null) {
+            chunk.dictionaryPageOffset = out.getPosition();
+            writePage(out, compression, dictionary.values, chunk, thrift -> {
+                thrift.beginStructField(7);
+                thrift.i32Field(1, dictionary.count);
+                thrift.i32Field(2, ENCODING_PLAIN_DICTIONARY);
+                thrift.endStruct();
+            }, PAGE_DICTIONARY);
+        }
+
+        int valueEncoding = dictionary != null ? ENCODING_PLAIN_DICTIONARY : ENCODING_PLAIN;
+        chunk.encodings = new int[] { valueEncoding, ENCODING_RLE };
+        chunk.dataPageOffset = out.getPosition();
+        int firstValue = 0;
+        for (int firstRow = 0; firstRow < rows; firstRow += PAGE_ROWS) {
+            int endRow = Math.min(rows, firstRow + PAGE_ROWS);
+            int endValue = firstValue;
+            for (int row = firstRow; row < endRow; row++) {
+                endValue += present[row] ? 1 : 0;
+            }
+
+            ByteArrayOutputStream page = new ByteArrayOutputStream();
+            ParquetEncoding.writeDefinitionLevels(present, firstRow, endRow, page);
+            writeValues(firstValue, endValue, page);
+            int pageRows = endRow - firstRow;
+            writePage(out, compression, page.toByteArray(), chunk, thrift -> {
+                thrift.beginStructField(5);
+                thrift.i32Field(1, pageRows);
+                thrift.i32Field(2, valueEncoding);
+                thrift.i32Field(3, ENCODING_RLE);
+                thrift.i32Field(4, ENCODING_RLE);
+                thrift.endStruct();
+            }, PAGE_DATA);
+            firstValue = endValue;
+        }
+
+        rows = 0;
+        clearValues();
+        return chunk;
+    }
+
+    /**
+     * Writes the column's SchemaElement, with both the converted type older readers expect and the logical type
+     */
+    void writeSchemaElement(ThriftCompactWriter thrift) {
+        thrift.beginStructElement();
+        thrift.i32Field(1, physicalType);
+        if (physicalType == TYPE_FIXED_LEN_BYTE_ARRAY) {
+            thrift.i32Field(2, DecimalColumn.BYTES);
+        }
+        thrift.i32Field(3, REPETITION_OPTIONAL);
+        thrift.stringField(4, field.getName());
+        writeTypeAnnotations(thrift);
+        thrift.endStruct();
+    }
+
+    abstract void addValue(Object value) throws IOException;
+
+    /**
+     * Called before the buffered values are written, returning the column chunk's dictionary if it has one
+     */
+    DictionaryPage beginChunk() throws IOException {
+        return null;
+    }
+
+    /**
+     * Writes the values with an index between the first and end, counting only rows that have a value
+     */
+    abstract void writeValues(int firstValue, int endValue, ByteArrayOutputStream out) throws IOException;
+
+    abstract void clearValues();
+
+    /**
+     * Writes the converted type, scale, precision and logical type fields of the column's SchemaElement
+     */
+    abstract void writeTypeAnnotations(ThriftCompactWriter thrift);
+
+    IOException unexpectedValue(Object value, String columnType) {
+        return new IOException(String.format(
+            "Field %s has the value %s, which can't be written to a Parquet %s column",
+            field.getName(),
+            value,
+            columnType));
+    }
+
+    Field getField() {
+        return field;
+    }
+
+    private static ParquetColumn numericColumn(Field field, NumericBounds bounds) {
+        int scale = bounds.getGranularity().getDecimalPlaces();
+        int integerDigits = Math.max(integerDigits(bounds.getMin()), integerDigits(bounds.getMax()));
+        int precision = Math.max(1, integerDigits + scale);
+        return precision <= DecimalColumn.MAX_PRECISION
+            ? new DecimalColumn(field, precision, scale)
+            : new StringColumn(field);
+    }
+
+    /**
+     * The bounds of a numeric field's values when the profile doesn't give them, those of any value of its type
+     */
+    private static NumericBounds defaultBounds(Field field) {
+        boolean isInteger = field.getSpecificType().getType().equals(StandardSpecificFieldType.INTEGER.getType());
+        return new NumericBounds(
+            NUMERIC_MIN,
+            NUMERIC_MAX,
+            isInteger ? NumericGranularity.INTEGER_DEFAULT : NumericGranularity.DECIMAL_DEFAULT);
+    }
+
+    private static int integerDigits(BigDecimal value) {
+        BigInteger integerPart = value.abs().setScale(0, RoundingMode.DOWN).unscaledValue();
+        return integerPart.signum() == 0 ? 0 : integerPart.toString().length();
+    }
+
+    private static void writePage(
+        PositionOutputStream out,
+        ParquetCompression compression,
+        byte[] page,
+        ColumnChunk chunk,
+        PageHeaderWriter pageTypeHeader,
+        int pageType) throws IOException {
+        byte[] compressed = compression.compress(page);
+
+        ThriftCompactWriter thrift = new ThriftCompactWriter();
+        thrift.i32Field(1, pageType);
+        thrift.i32Field(2, page.length);
+        thrift.i32Field(3, compressed.length);
+        pageTypeHeader.write(thrift);
+        thrift.endStruct();
+        byte[] header = thrift.toByteArray();
+
+        out.write(header);
+        out.write(compressed);
+        chunk.uncompressedSize += header.length + page.length;
+        chunk.compressedSize += header.length + compressed.length;
+    }
+
+    private interface PageHeaderWriter {
+        void write(ThriftCompactWriter thrift);
+    }
+
+    static final class DictionaryPage {
+        private final byte[] values;
+        private final int count;
+
+        private DictionaryPage(byte[] values, int count) {
+            this.values = values;
+            this.count = count;
+        }
+    }
+
+    /**
+     * The ColumnChunk metadata of a column chunk that has been written, for the file's footer
+     */
+    static final class ColumnChunk {
+        private final String name;
+        private final int physicalType;
+        private final ParquetCompression compression;
+        private final int rows;
+        private final long offset;
+        private int[] encodings;
+        private long dataPageOffset;
+        private long dictionaryPageOffset = -1;
+        private long uncompressedSize;
+        private long compressedSize;
+
+        private ColumnChunk(String name, int physicalType, ParquetCompression compression, int rows, long offset) {
+            this.name = name;
+            this.physicalType = physicalType;
+            this.compression = compression;
+            this.rows = rows;
+            this.offset = offset;
+        }
+
+        long getUncompressedSize() {
+            return uncompressedSize;
+        }
+
+        void write(ThriftCompactWriter thrift) {
+            thrift.beginStructElement();
+            thrift.i64Field(2, offset);
+            thrift.beginStructField(3);
+            thrift.i32Field(1, physicalType);
+            thrift.beginListField(2, ThriftCompactWriter.TYPE_I32, encodings.length);
+            for (int encoding : encodings) {
+                thrift.i32Element(encoding);
+            }
+            thrift.beginListField(3, ThriftCompactWriter.TYPE_BINARY, 1);
+            thrift.stringElement(name);
+            thrift.i32Field(4, compression.getCodec());
+            thrift.i64Field(5, rows);
+            thrift.i64Field(6, uncompressedSize);
+            thrift.i64Field(7, compressedSize);
+            thrift.i64Field(9, dataPageOffset);
+            if (dictionaryPageOffset >= 0) {
+                thrift.i64Field(11, dictionaryPageOffset);
+            }
+            thrift.endStruct();
+            thrift.endStruct();
+        }
+    }
+
+    /**
+     * Decimals are written as 16 byte two's complement unscaled values, enough for 38 digits, the most many readers
+     * accept. The schema gives one precision and scale for the whole file, so they are fixed when the column is made.
+     */
+    private static class DecimalColumn extends ParquetColumn {
+        private static final int BYTES = 16;
+        private static final int MAX_PRECISION = 38;
+
+        private final List<BigDecimal> values = new ArrayList<>();
+        private final int precision;
+        private final int scale;
+        private final BigInteger maxUnscaled;
+
+        DecimalColumn(Field field, int precision, int scale) {
+            super(field, TYPE_FIXED_LEN_BYTE_ARRAY);
+            this.precision = precision;
+            this.scale = scale;
+            this.maxUnscaled = BigInteger.TEN.pow(precision).subtract(BigInteger.ONE);
+        }
+
+        @Override
+        void addValue(Object value) throws IOException {
+            if (value instanceof BigDecimal) {
+                values.add((BigDecimal) value);
+            } else if (value instanceof Number) {
+                values.add(new BigDecimal(value.toString()));
+            } else {
+                throw unexpectedValue(value, "decimal");
+            }
+        }
+
+        @Override
+        void writeValues(int firstValue, int endValue, ByteArrayOutputStream out) throws IOException {
+            for (int index = firstValue; index < endValue; index++) {
+                BigInteger unscaled = unscaled(values.get(index));
+                byte[] bytes = unscaled.toByteArray();
+                byte padding = (byte) (unscaled.signum() < 0 ? 0xFF : 0);
+                for (int pad = bytes.length; pad < BYTES; pad++) {
+                    out.write(padding);
+                }
+                out.write(bytes);
+            }
+        }
+
+        @Override
+        void clearValues() {
+            values.clear();
+        }
+
+        @Override
+        void writeTypeAnnotations(ThriftCompactWriter thrift) {
+            thrift.i32Field(6, CONVERTED_DECIMAL);
+            thrift.i32Field(7, scale);
+            thrift.i32Field(8, precision);
+            thrift.beginStructField(10);
+            thrift.beginStructField(LOGICAL_DECIMAL);
+            thrift.i32Field(1, scale);
+            thrift.i32Field(2, precision);
+            thrift.endStruct();
+            thrift.endStruct();
+        }
+
+        private BigInteger unscaled(BigDecimal value) throws IOException {
+            BigInteger unscaled;
+            try {
+                unscaled = value.setScale(scale).unscaledValue();
+            } catch (ArithmeticException e) {
+                throw new IOException(String.format(
+                    "Field %s has the value %s, which has more than the %d decimal places of its Parquet column",
+                    getField().getName(),
+                    value.toPlainString(),
+                    scale));
+            }
+            if (unscaled.abs().compareTo(maxUnscaled) > 0) {
+                throw new IOException(String.format(
+                    "Field %s has the value %s, which has more than the %d digits of its Parquet column",
+                    getField().getName(),
+                    value.toPlainString(),
+                    precision));
+            }
+            return unscaled;
+        }
+    }
+
+    /**
+     * Date times are written as microseconds since the epoch in UTC
+     */
+    private static class TimestampColumn extends ParquetColumn {
+        private long[] values = new long[1024];
+        private int count;
+
+        TimestampColumn(Field field) {
+            super(field, TYPE_INT64);
+        }
+
+        @Override
+        void addValue(Object value) throws IOException {
+            if (!(value instanceof OffsetDateTime)) {
+                throw unexpectedValue(value, "timestamp");
+            }
+
+            Instant instant = ((OffsetDateTime) value).toInstant();
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1000);
+        }
+
+        @Override
+        void writeValues(int firstValue, int endValue, ByteArrayOutputStream out) {
+            for (int index = firstValue; index < endValue; index++) {
+                ParquetEncoding.writeLongLittleEndian(values[index], out);
+            }
+        }
+
+        @Override
+        void clearValues() {
+            count = 0;
+        }
+
+        @Override
+        void writeTypeAnnotations(ThriftCompactWriter thrift) {
+            thrift.i32Field(6, CONVERTED_TIMESTAMP_MICROS);
+            thrift.beginStructField(10);
+            thrift.beginStructField(LOGICAL_TIMESTAMP);
+            thrift.booleanField(1, true);
+            thrift.beginStructField(2);
+            thrift.beginStructField(TIME_UNIT_MICROS);
+            thrift.endStruct();
+            thrift.endStruct();
+            thrift.endStruct();
+            thrift.endStruct();
+        }
+    }
+
+    /**
+     * Values formatted with the default date format are written as days since the epoch
+     */
+    private static class DateColumn extends ParquetColumn {
+        private int[] values = new int[1024];
+        private int count;
+
+        DateColumn(Field field) {
+            super(field, TYPE_INT32);
+        }
+
+        @Override
+        void addValue(Object value) throws IOException {
+            LocalDate date;
+            try {
+                date = LocalDate.parse(value.toString());
+            } catch (DateTimeParseException e) {
+                throw unexpectedValue(value, "date");
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = Math.toIntExact(date.toEpochDay());
+        }
+
+        @Override
+        void writeValues(int firstValue, int endValue, ByteArrayOutputStream out) {
+            for (int index = firstValue; index < endValue; index++) {
+                ParquetEncoding.writeIntLittleEndian(values[index], out);
+            }
+        }
+
+        @Override
+        void clearValues() {
+            count = 0;
+        }
+
+        @Override
+        void writeTypeAnnotations(ThriftCompactWriter thrift) {
+            thrift.i32Field(6, CONVERTED_DATE);
+            thrift.beginStructField(10);
+            thrift.beginStructField(LOGICAL_DATE);
+            thrift.endStruct();
+            thrift.endStruct();
+        }
+    }
+
+    /**
+     * Values formatted with the default time format are written as milliseconds since midnight
+     */
+    private static class TimeColumn extends ParquetColumn {
+        private int[] values = new int[1024];
+        private int count;
+
+        TimeColumn(Field field) {
+            super(field, TYPE_INT32);
+        }
+
+        @Override
+        void addValue(Object value) throws IOException {
+            LocalTime time;
+            try {
+                time = LocalTime.parse(value.toString());
+            } catch (DateTimeParseException e) {
+                throw unexpectedValue(value, "time");
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = (int) (time.toNanoOfDay() / 1_000_000);
+        }
+
+        @Override
+        void writeValues(int firstValue, int endValue, ByteArrayOutputStream out) {
+            for (int index = firstValue; index < endValue; index++) {
+                ParquetEncoding.writeIntLittleEndian(values[index], out);
+            }
+        }
+
+        @Override
+        void clearValues() {
+            count = 0;
+        }
+
+        @Override
+        void writeTypeAnnotations(ThriftCompactWriter thrift) {
+            thrift.i32Field(6, CONVERTED_TIME_MILLIS);
+            thrift.beginStructField(10);
+            thrift.beginStructField(LOGICAL_TIME);
+            thrift.booleanField(1, false);
+            thrift.beginStructField(2);
+            thrift.beginStructField(TIME_UNIT_MILLIS);
+            thrift.endStruct();
+            thrift.endStruct();
+            thrift.endStruct();
+            thrift.endStruct();
+        }
+    }
+
+    private static class BooleanColumn extends ParquetColumn {
+        private int[] values = new int[1024];
+        private int count;
+
+        BooleanColumn(Field field) {
+            super(field, TYPE_BOOLEAN);
+        }
+
+        @Override
+        void addValue(Object value) throws IOException {
+            if (!(value instanceof Boolean)) {
+                throw unexpectedValue(value, "boolean");
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = (Boolean) value ? 1 : 0;
+        }
+
+        @Override
+        void writeValues(int firstValue, int endValue, ByteArrayOutputStream out) {
+            ParquetEncoding.writeBitPacked(values, firstValue, endValue, endValue - firstValue, 1, out);
+        }
+
+        @Override
+        void clearValues() {
+            count = 0;
+        }
+
+        @Override
+        void writeTypeAnnotations(ThriftCompactWriter thrift) {
+        }
+    }
+
+    /**
+     * Strings are dictionary encoded when some of them repeat, unless the distinct strings of the row group grow too
+     * large to hold in a single dictionary page
+     */
+    private static class StringColumn extends ParquetColumn {
+        private static final int MAX_DICTIONARY_BYTES = 1 << 20;
+
+        private final List<byte[]> values = new ArrayList<>();
+        private final Map<String, Integer> dictionaryIndices = new HashMap<>();
+        private final List<byte[]> dictionary = new ArrayList<>();
+        private int[] indices = new int[1024];
+        private long dictionaryBytes;
+        private boolean dictionaryEncoded;
+
+        StringColumn(Field field) {
+            super(field, TYPE_BYTE_ARRAY);
+        }
+
+        @Override
+        void addValue(Object value) {
+            String string = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+            Integer index = dictionaryIndices.get(string);
+            byte[] bytes;
+            if (index != null) {
+                bytes = dictionary.get(index);
+            } else {
+                bytes = string.getBytes(StandardCharsets.UTF_8);
+                if (dictionaryBytes <= MAX_DICTIONARY_BYTES) {
+                    index = dictionary.size();
+                    dictionaryIndices.put(string, index);
+                    dictionary.add(bytes);
+                    dictionaryBytes += Integer.BYTES + bytes.length;
+                }
+            }
+
+            int count = values.size();
+            if (count == indices.length) {
+                indices = Arrays.copyOf(indices, count * 2);
+            }
+            indices[count] = index == null ? -1 : index;
+            values.add(bytes);
+        }
+
+        @Override
+        DictionaryPage beginChunk() {
+            dictionaryEncoded = dictionaryBytes <= MAX_DICTIONARY_BYTES && dictionary.size() < values.size();
+            if (!dictionaryEncoded) {
+                return null;
+            }
+
+            ByteArrayOutputStream page = new ByteArrayOutputStream((int) dictionaryBytes);
+            for (byte[] bytes : dictionary) {
+                writePlain(bytes, page);
+            }
+            return new DictionaryPage(page.toByteArray(), dictionary.size());
+        }
+
+        @Override
+        void writeValues(int firstValue, int endValue, ByteArrayOutputStream out) {
+            if (!dictionaryEncoded) {
+                for (int index = firstValue; index < endValue; index++) {
+                    writePlain(values.get(index), out);
+                }
+                return;
+            }
+
+            int bitWidth = ParquetEncoding.bitWidth(dictionary.size() - 1);
+            out.write(bitWidth);
+            ParquetEncoding.writeRunLengthBitPackedHybrid(indices, firstValue, endValue, bitWidth, out);
+        }
+
+        @Override
+        void clearValues() {
+            values.clear();
+            dictionaryIndices.clear();
+            dictionary.clear();
+            dictionaryBytes = 0;
+        }
+
+        @Override
+        void writeTypeAnnotations(ThriftCompactWriter thrift) {
+            thrift.i32Field(6, CONVERTED_UTF8);
+            thrift.beginStructField(10);
+            thrift.beginStructField(LOGICAL_STRING);
+            thrift.endStruct();
+            thrift.endStruct();
+        }
+
+        private static void writePlain(byte[] bytes, ByteArrayOutputStream out) {
+            ParquetEncoding.writeIntLittleEndian(bytes.length, out);
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+}
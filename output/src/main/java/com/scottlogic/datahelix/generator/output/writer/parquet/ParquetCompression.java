@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.output.writer.parquet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The compression codecs Parquet pages can be written with
+ */
+public enum ParquetCompression {
+    UNCOMPRESSED(0) {
+        @Override
+        byte[] compress(byte[] page) {
+            return page;
+        }
+    },
+    GZIP(2) {
+        @Override
+        byte[] compress(byte[] page) throws IOException {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(page.length / 2);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(page);
+            }
+            return compressed.toByteArray();
+        }
+    };
+
+    private final int codec;
+
+    ParquetCompression(int codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * @return the codec's value in Parquet's CompressionCodec enum
+     */
+    int getCodec() {
+        return codec;
+    }
+
+    abstract byte[] compress(byte[] page) throws IOException;
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.output.writer.parquet;
+
+import com.scottlogic.datahelix.generator.common.output.GeneratedObject;
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.output.writer.DataSetWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes rows as a Parquet file, buffering each row group's values by column and writing them out once the row group
+ * is full. The file's metadata is written as its footer when the writer is closed.
+ */
+class ParquetDataSetWriter implements DataSetWriter {
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int FORMAT_VERSION = 1;
+    private static final String CREATED_BY = "DataHelix";
+
+    private final PositionOutputStream out;
+    private final Field[] fieldOrder;
+    private final ParquetColumn[] columns;
+    private final int rowGroupSize;
+    private final ParquetCompression compression;
+    private final List<RowGroup> rowGroups = new ArrayList<>();
+    private int bufferedRows;
+    private long rowsWritten;
+
+    private ParquetDataSetWriter(
+        PositionOutputStream out,
+        Fields fields,
+        Field[] fieldOrder,
+        int rowGroupSize,
+        ParquetCompression compression) {
+        this.out = out;
+        this.fieldOrder = fieldOrder;
+        this.rowGroupSize = rowGroupSize;
+        this.compression = compression;
+        this.columns = new ParquetColumn[fieldOrder.length];
+        for (int index = 0; index < fieldOrder.length; index++) {
+            columns[index] = ParquetColumn.forField(fieldOrder[index], fields.getNumericBounds(fieldOrder[index]));
+        }
+    }
+
+    static DataSetWriter open(OutputStream stream, Fields fields, int rowGroupSize, ParquetCompression compression)
+        throws IOException {
+        PositionOutputStream out = new PositionOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE));
+        out.write(MAGIC);
+
+        return new ParquetDataSetWriter(
+            out,
+            fields,
+            fields.getExternalStream().toArray(Field[]::new),
+            rowGroupSize,
+            compression);
+    }
+
+    @Override
+    public void writeRow(GeneratedObject row) throws IOException {
+        for (int index = 0; index < fieldOrder.length; index++) {
+            columns[index].add(row.getFormattedValue(fieldOrder[index]));
+        }
+
+        bufferedRows++;
+        if (bufferedRows == rowGroupSize) {
+            writeRowGroup();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (bufferedRows > 0) {
+                writeRowGroup();
+            }
+            writeFooter();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeRowGroup() throws IOException {
+        RowGroup rowGroup = new RowGroup(bufferedRows);
+        for (ParquetColumn column : columns) {
+            rowGroup.chunks.add(column.writeChunk(out, compression));
+        }
+        rowGroups.add(rowGroup);
+        rowsWritten += bufferedRows;
+        bufferedRows = 0;
+    }
+
+    /**
+     * Writes the FileMetaData, followed by its length and the magic bytes that end every Parquet file
+     */
+    private void writeFooter() throws IOException {
+        ThriftCompactWriter thrift = new ThriftCompactWriter();
+        thrift.i32Field(1, FORMAT_VERSION);
+
+        thrift.beginListField(2, ThriftCompactWriter.TYPE_STRUCT, columns.length + 1);
+        thrift.beginStructElement();
+        thrift.stringField(4, "schema");
+        thrift.i32Field(5, columns.length);
+        thrift.endStruct();
+        for (ParquetColumn column : columns) {
+            column.writeSchemaElement(thrift);
+        }
+
+        thrift.i64Field(3, rowsWritten);
+
+        thrift.beginListField(4, ThriftCompactWriter.TYPE_STRUCT, rowGroups.size());
+        for (RowGroup rowGroup : rowGroups) {
+            rowGroup.write(thrift);
+        }
+
+        thrift.stringField(6, CREATED_BY);
+        thrift.endStruct();
+
+        byte[] footer = thrift.toByteArray();
+        out.write(footer);
+        ByteArrayOutputStream length = new ByteArrayOutputStream(Integer.BYTES);
+        ParquetEncoding.writeIntLittleEndian(footer.length, length);
+        length.writeTo(out);
+        out.write(MAGIC);
+    }
+
+    private static final class RowGroup {
+        private final int rows;
+        private final List<ParquetColumn.ColumnChunk> chunks = new ArrayList<>();
+
+        private RowGroup(int rows) {
+            this.rows = rows;
+        }
+
+        private void write(ThriftCompactWriter thrift) {
+            thrift.beginStructElement();
+            thrift.beginListField(1, ThriftCompactWriter.TYPE_STRUCT, chunks.size());
+            long totalBytes = 0;
+            for (ParquetColumn.ColumnChunk chunk : chunks) {
+                chunk.write(thrift);
+                totalBytes += chunk.getUncompressedSize();
+            }
+            thrift.i64Field(2, totalBytes);
+            thrift.i64Field(3, rows);
+            thrift.endStruct();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.output.writer.parquet;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * The low level encodings of Parquet pages
+ */
+final class ParquetEncoding {
+    private static final int MIN_REPEATED_RUN = 8;
+    private static final int MAX_BIT_PACKED_GROUPS = 63;
+    private static final int DEFINITION_LEVEL_BIT_WIDTH = 1;
+
+    private ParquetEncoding() {
+    }
+
+    /**
+     * @return the number of bits needed to hold every value from 0 to the maximum, at least one
+     */
+    static int bitWidth(int maxValue) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(maxValue));
+    }
+
+    /**
+     * Writes whether each row has a value as the definition levels of a data page, length prefixed as version 1 data
+     * pages need them
+     */
+    static void writeDefinitionLevels(boolean[] present, int from, int to, ByteArrayOutputStream out) {
+        int[] levels = new int[to - from];
+        for (int index = from; index < to; index++) {
+            levels[index - from] = present[index] ? 1 : 0;
+        }
+
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        writeRunLengthBitPackedHybrid(levels, 0, levels.length, DEFINITION_LEVEL_BIT_WIDTH, encoded);
+        writeIntLittleEndian(encoded.size(), out);
+        out.write(encoded.toByteArray(), 0, encoded.size());
+    }
+
+    /**
+     * Writes runs of at least eight repeated values as a count and the value, and everything else bit-packed in
+     * groups of eight values, the last group padded out with zeros
+     */
+    static void writeRunLengthBitPackedHybrid(int[] values, int from, int to, int bitWidth, ByteArrayOutputStream out) {
+        int byteWidth = (bitWidth + 7) / 8;
+        int index = from;
+        while (index < to) {
+            int run = runLength(values, index, to);
+            if (run >= MIN_REPEATED_RUN) {
+                writeUnsignedVarint(run << 1, out);
+                for (int shift = 0; shift < byteWidth * 8; shift += 8) {
+                    out.write(values[index] >>> shift);
+                }
+                index += run;
+                continue;
+            }
+
+            int start = index;
+            int groups = 0;
+            do {
+                index += 8;
+                groups++;
+            } while (index < to && groups < MAX_BIT_PACKED_GROUPS && runLength(values, index, to) < MIN_REPEATED_RUN);
+
+            writeUnsignedVarint((groups << 1) | 1, out);
+            writeBitPacked(values, start, Math.min(index, to), groups * 8, bitWidth, out);
+        }
+    }
+
+    /**
+     * Packs values from the least significant bit of each byte up, padding with zeros up to the count
+     */
+    static void writeBitPacked(int[] values, int from, int to, int count, int bitWidth, ByteArrayOutputStream out) {
+        long buffer = 0;
+        int bits = 0;
+        for (int index = from; index < from + count; index++) {
+            long value = index < to ? values[index] : 0;
+            buffer |= value << bits;
+            bits += bitWidth;
+            while (bits >= 8) {
+                out.write((int) buffer);
+                buffer >>>= 8;
+                bits -= 8;
+            }
+        }
+        if (bits > 0) {
+            out.write((int) buffer);
+        }
+    }
+
+    static void writeIntLittleEndian(int value, ByteArrayOutputStream out) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    static void writeLongLittleEndian(long value, ByteArrayOutputStream out) {
+        writeIntLittleEndian((int) value, out);
+        writeIntLittleEndian((int) (value >>> 32), out);
+    }
+
+    private static void writeUnsignedVarint(int value, ByteArrayOutputStream out) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int runLength(int[] values, int from, int to) {
+        int index = from + 1;
+        while (index < to && values[index] == values[from]) {
+            index++;
+        }
+        return index - from;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.output.writer.parquet;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the Thrift structures of Parquet page headers and file metadata in Thrift's compact protocol.
+ * Only the parts of the protocol Parquet's metadata needs are supported. Fields are written as deltas from the
+ * previous field of the same struct, so each struct's fields have to be written in increasing id order.
+ */
+final class ThriftCompactWriter {
+    static final byte TYPE_I32 = 5;
+    static final byte TYPE_BINARY = 8;
+    static final byte TYPE_STRUCT = 12;
+
+    private static final byte TYPE_BOOLEAN_TRUE = 1;
+    private static final byte TYPE_BOOLEAN_FALSE = 2;
+    private static final byte TYPE_I64 = 6;
+    private static final byte TYPE_LIST = 9;
+    private static final int MAX_SHORT_LIST_SIZE = 14;
+    private static final int MAX_FIELD_DELTA = 15;
+    private static final int MAX_STRUCT_DEPTH = 16;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final short[] lastFieldIds = new short[MAX_STRUCT_DEPTH];
+    private int depth;
+
+    void i32Field(int id, int value) {
+        fieldHeader(id, TYPE_I32);
+        writeVarint(zigzag(value));
+    }
+
+    void i64Field(int id, long value) {
+        fieldHeader(id, TYPE_I64);
+        writeVarint(zigzag(value));
+    }
+
+    void booleanField(int id, boolean value) {
+        fieldHeader(id, value ? TYPE_BOOLEAN_TRUE : TYPE_BOOLEAN_FALSE);
+    }
+
+    void stringField(int id, String value) {
+        fieldHeader(id, TYPE_BINARY);
+        stringElement(value);
+    }
+
+    void beginStructField(int id) {
+        fieldHeader(id, TYPE_STRUCT);
+        beginStructElement();
+    }
+
+    /**
+     * Starts a list field, whose elements are then written with the element methods matching the element type
+     */
+    void beginListField(int id, byte elementType, int size) {
+        fieldHeader(id, TYPE_LIST);
+        if (size <= MAX_SHORT_LIST_SIZE) {
+            out.write((size << 4) | elementType);
+        } else {
+            out.write(0xF0 | elementType);
+            writeVarint(size);
+        }
+    }
+
+    void i32Element(int value) {
+        writeVarint(zigzag(value));
+    }
+
+    void stringElement(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    void beginStructElement() {
+        lastFieldIds[++depth] = 0;
+    }
+
+    /**
+     * Ends the innermost struct, or the top level struct being written once every nested struct has been ended
+     */
+    void endStruct() {
+        out.write(0);
+        if (depth > 0) {
+            depth--;
+        }
+    }
+
+    byte[] toByteArray() {
+        return out.toByteArray();
+    }
+
+    private void fieldHeader(int id, byte type) {
+        int delta = id - lastFieldIds[depth];
+        if (delta > 0 && delta <= MAX_FIELD_DELTA) {
+            out.write((delta << 4) | type);
+        } else {
+            out.write(type);
+            writeVarint(zigzag(id));
+        }
+        lastFieldIds[depth] = (short) id;
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.output.writer.pipeline;
+
+import com.scottlogic.datahelix.generator.common.output.GeneratedObject;
+import com.scottlogic.datahelix.generator.common.profile.Field;
+
+import java.util.Map;
+
+/**
+ * A row whose values have already been formatted, so writing it only looks them up
+ */
+class FormattedRow implements GeneratedObject {
+    private final Map<Field, Integer> fieldIndices;
+    private final Object[] values;
+
+    private FormattedRow(Map<Field, Integer> fieldIndices, Object[] values) {
+        this.fieldIndices = fieldIndices;
+        this.values = values;
+    }
+
+    static FormattedRow format(GeneratedObject row, Field[] fields, Map<Field, Integer> fieldIndices) {
+        Object[] values = new Object[fields.length];
+        for (int index = 0; index < fields.length; index++) {
+            values[index] = row.getFormattedValue(fields[index]);
+        }
+        return new FormattedRow(fieldIndices, values);
+    }
+
+    @Override
+    public Object getFormattedValue(Field field) {
+        Integer index = fieldIndices.get(field);
+        if (index == null) {
+            throw new IllegalArgumentException("Field " + field.getName() + " is not written to the output");
+        }
+        return values[index];
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.output.writer.pipeline;
+
+import com.scottlogic.datahelix.generator.common.output.GeneratedObject;
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.output.writer.DataSetWriter;
+import com.scottlogic.datahelix.generator.output.writer.EncodingDataSetWriter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Formats and writes rows on other threads than the one generating them, so generation overlaps with formatting
+ * values and writing them out.
+ * <p>
+ * Rows are handed over in batches. Each batch is formatted on a pool of formatting threads, and a single writer
+ * thread writes the formatted batches to the underlying writer in the order they were generated. Once the given
+ * number of batches are waiting to be written, writing a row blocks until the writer catches up.
+ * </p>
+ * <p>
+ * If the underlying writer is an {@link EncodingDataSetWriter}, batches are also encoded on the formatting threads,
+ * leaving the writer thread only to copy their bytes out. Other writers encode each row as the writer thread writes it.
+ * </p>
+ * <p>
+ * Once writing has failed, every later call throws the failure.
+ * </p>
+ */
+class PipelinedDataSetWriter implements DataSetWriter {
+    static final int BATCH_SIZE = 256;
+    private static final Future<PreparedBatch> END_OF_ROWS = CompletableFuture.completedFuture(() -> { });
+
+    private final DataSetWriter underlyingWriter;
+    private final EncodingDataSetWriter encodingWriter;
+    private final Field[] fields;
+    private final Map<Field, Integer> fieldIndices = new HashMap<>();
+    private final ExecutorService formatters;
+    private final BlockingQueue<Future<PreparedBatch>> batches;
+    private final Thread writerThread;
+    private volatile Throwable failure;
+    private volatile boolean stopped;
+    private boolean failureThrown;
+    private List<GeneratedObject> batch = new ArrayList<>(BATCH_SIZE);
+
+    PipelinedDataSetWriter(DataSetWriter underlyingWriter, Fields fields, int formattingThreads, int bufferedBatches) {
+        this.underlyingWriter = underlyingWriter;
+        this.encodingWriter = underlyingWriter instanceof EncodingDataSetWriter
+            ? (EncodingDataSetWriter) underlyingWriter
+            : null;
+        this.fields = fields.getExternalStream().toArray(Field[]::new);
+        for (int index = 0; index < this.fields.length; index++) {
+            fieldIndices.put(this.fields[index], index);
+        }
+        this.formatters = Executors.newFixedThreadPool(formattingThreads, runnable -> {
+            Thread thread = new Thread(runnable, "output-formatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batches = new ArrayBlockingQueue<>(bufferedBatches);
+        this.writerThread = new Thread(this::writeBatches, "output-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void writeRow(GeneratedObject row) throws IOException {
+        rethrowFailure();
+        batch.add(row);
+        if (batch.size() == BATCH_SIZE) {
+            List<GeneratedObject> rows = batch;
+            batch = new ArrayList<>(BATCH_SIZE);
+            put(formatters.submit(() -> prepare(rows)));
+        }
+    }
+
+    /**
+     * Writes the rows still batched up and waits for the writer to finish before closing the underlying writer. If
+     * closing is interrupted, the writer is stopped and waited for instead, so the underlying writer is never closed
+     * while a row is being written to it.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!batch.isEmpty()) {
+                List<GeneratedObject> rows = batch;
+                batch = new ArrayList<>(0);
+                put(formatters.submit(() -> prepare(rows)));
+            }
+            put(END_OF_ROWS);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for rows to be written");
+        } finally {
+            if (writerThread.isAlive()) {
+                stopWriter();
+            }
+            formatters.shutdownNow();
+            underlyingWriter.close();
+        }
+        rethrowFailure();
+    }
+
+    /**
+     * Runs on a formatting thread, and formats the rows, encoding them too if the underlying writer can
+     */
+    private PreparedBatch prepare(List<GeneratedObject> rows) throws IOException {
+        if (encodingWriter != null) {
+            byte[] encodedRows = encodingWriter.encodeRows(rows);
+            return () -> encodingWriter.writeEncodedRows(encodedRows);
+        }
+
+        List<GeneratedObject> formattedRows = new ArrayList<>(rows.size());
+        for (GeneratedObject row : rows) {
+            formattedRows.add(FormattedRow.format(row, fields, fieldIndices));
+        }
+        return () -> {
+            for (GeneratedObject row : formattedRows) {
+                underlyingWriter.writeRow(row);
+            }
+        };
+    }
+
+    private void put(Future<PreparedBatch> formattedBatch) throws InterruptedIOException {
+        try {
+            batches.put(formattedBatch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the writer to catch up");
+        }
+    }
+
+    /**
+     * Interrupts the writer and waits for it to stop, however often the waiting thread is interrupted meanwhile
+     */
+    private void stopWriter() {
+        stopped = true;
+        writerThread.interrupt();
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                writerThread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs on the writer thread until the end of the rows, or until it is stopped. After a failure, including the
+     * writer being interrupted, the remaining batches are still taken, but not written, so the generating thread is
+     * never left waiting for room.
+     */
+    private void writeBatches() {
+        while (!stopped) {
+            Future<PreparedBatch> formattedBatch;
+            try {
+                formattedBatch = batches.take();
+            } catch (InterruptedException e) {
+                fail(e);
+                continue;
+            }
+
+            if (formattedBatch == END_OF_ROWS) {
+                return;
+            }
+            if (failure == null) {
+                writeAll(formattedBatch);
+            }
+        }
+    }
+
+    private void writeAll(Future<PreparedBatch> formattedBatch) {
+        try {
+            formattedBatch.get().write();
+        } catch (ExecutionException e) {
+            fail(e.getCause());
+        } catch (InterruptedException | IOException | RuntimeException | Error e) {
+            fail(e);
+        }
+    }
+
+    private void fail(Throwable cause) {
+        if (failure == null) {
+            failure = cause;
+        }
+    }
+
+    /**
+     * Throws the writer's failure the first time it is seen, and a new exception caused by it after that, as an
+     * exception can't be suppressed by itself when both writing a row and closing throw
+     */
+    private void rethrowFailure() throws IOException {
+        Throwable failure = this.failure;
+        if (failure == null) {
+            return;
+        }
+        if (failureThrown) {
+            throw new IOException("Failed to write rows", failure);
+        }
+        failureThrown = true;
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        throw new IOException("Failed to write rows", failure);
+    }
+
+    /**
+     * A batch of rows made ready on a formatting thread, that the writer thread only has to write
+     */
+    private interface PreparedBatch {
+        void write() throws IOException;
+    }
+}
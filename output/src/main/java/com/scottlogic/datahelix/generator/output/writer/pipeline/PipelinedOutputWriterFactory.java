@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.output.writer.pipeline;
+
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.output.writer.DataSetWriter;
+import com.scottlogic.datahelix.generator.output.writer.OutputWriterFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Creates writers of another format that format and write rows on their own threads, see PipelinedDataSetWriter
+ */
+public class PipelinedOutputWriterFactory implements OutputWriterFactory {
+    private final OutputWriterFactory underlyingFactory;
+    private final int formattingThreads;
+    private final int bufferedBatches;
+
+    public PipelinedOutputWriterFactory(OutputWriterFactory underlyingFactory, int formattingThreads, int bufferedBatches) {
+        this.underlyingFactory = underlyingFactory;
+        this.formattingThreads = formattingThreads;
+        this.bufferedBatches = bufferedBatches;
+    }
+
+    @Override
+    public DataSetWriter createWriter(OutputStream stream, Fields fields) throws IOException {
+        return new PipelinedDataSetWriter(
+            underlyingFactory.createWriter(stream, fields),
+            fields,
+            formattingThreads,
+            bufferedBatches);
+    }
+
+    @Override
+    public Optional<String> getFileExtensionWithoutDot() {
+        return underlyingFactory.getFileExtensionWithoutDot();
+    }
+}
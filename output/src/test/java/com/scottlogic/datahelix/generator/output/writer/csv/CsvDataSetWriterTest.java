@@ -23,6 +23,7 @@ import com.scottlogic.datahelix.generator.common.profile.Fields;
 import com.scottlogic.datahelix.generator.common.profile.SpecificFieldType;
 import com.scottlogic.datahelix.generator.common.profile.StandardSpecificFieldType;
 import com.scottlogic.datahelix.generator.output.writer.DataSetWriter;
+import com.scottlogic.datahelix.generator.output.writer.EncodingDataSetWriter;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -32,9 +33,14 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static junit.framework.TestCase.fail;
 
@@ -60,6 +66,7 @@ public class CsvDataSetWriterTest {
         try {
             dataSetWriter = CsvDataSetWriter.open(outputStream, fields);
             dataSetWriter.writeRow(row);
+            dataSetWriter.close();
             String output = outputStream.toString(StandardCharsets.UTF_8.toString());
             Assert.assertEquals(
                 "If the actual and expected appear to be identical, check for null characters",
@@ -69,4 +76,83 @@ public class CsvDataSetWriterTest {
             fail(e.toString());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void writeRow_withEmptyAndNullValues_quotesOnlyAnEmptyFirstValue() throws IOException {
+        Mockito.when(row.getFormattedValue(fieldOne)).thenReturn("");
+        Mockito.when(row.getFormattedValue(fieldTwo)).thenReturn(null);
+
+        DataSetWriter dataSetWriter = CsvDataSetWriter.open(outputStream, fields);
+        dataSetWriter.writeRow(row);
+        dataSetWriter.close();
+
+        Assert.assertEquals("one,two\r\n\"\",\r\n", outputStream.toString(StandardCharsets.UTF_8.toString()));
+    }
+
+    @Test
+    public void writeRow_withLeadingOrTrailingSpecialCharacters_quotesValue() throws IOException {
+        Mockito.when(row.getFormattedValue(fieldOne)).thenReturn("#comment");
+        Mockito.when(row.getFormattedValue(fieldTwo)).thenReturn("trailing ");
+
+        DataSetWriter dataSetWriter = CsvDataSetWriter.open(outputStream, fields);
+        dataSetWriter.writeRow(row);
+        dataSetWriter.close();
+
+        Assert.assertEquals(
+            "one,two\r\n\"#comment\",\"trailing \"\r\n",
+            outputStream.toString(StandardCharsets.UTF_8.toString()));
+    }
+
+    @Test
+    public void writeRow_withNumericAndDateTimeValues_writesPlainNumbersAndIsoDates() throws IOException {
+        Field numeric = new Field("numeric", StandardSpecificFieldType.DECIMAL.toSpecificFieldType(),false,null,false, false, null);
+        Field dateTime = new Field("datetime", StandardSpecificFieldType.DATETIME.toSpecificFieldType(),false,null,false, false, null);
+        Mockito.when(row.getFormattedValue(numeric)).thenReturn(new BigDecimal("-1E+3"));
+        Mockito.when(row.getFormattedValue(dateTime)).thenReturn(OffsetDateTime.of(2019, 1, 2, 3, 4, 5, 600000000, ZoneOffset.UTC));
+
+        DataSetWriter dataSetWriter = CsvDataSetWriter.open(outputStream, new Fields(Arrays.asList(numeric, dateTime)));
+        dataSetWriter.writeRow(row);
+        dataSetWriter.close();
+
+        Assert.assertEquals(
+            "numeric,datetime\r\n-1000,2019-01-02T03:04:05.6Z\r\n",
+            outputStream.toString(StandardCharsets.UTF_8.toString()));
+    }
+
+    @Test
+    public void writeEncodedRows_givesTheSameOutputAsWritingEachRow() throws IOException {
+        List<GeneratedObject> rows = new ArrayList<>();
+        for (int index = 0; index < 500; index++) {
+            String value = String.join("", Collections.nCopies(index, "x"));
+            rows.add(field -> field == fieldOne ? "\"" + value + "," : value + " ");
+        }
+
+        EncodingDataSetWriter rowByRow = CsvDataSetWriter.open(outputStream, fields);
+        for (GeneratedObject generatedObject : rows) {
+            rowByRow.writeRow(generatedObject);
+        }
+        rowByRow.close();
+
+        ByteArrayOutputStream encodedStream = new ByteArrayOutputStream();
+        EncodingDataSetWriter encoded = CsvDataSetWriter.open(encodedStream, fields);
+        encoded.writeEncodedRows(encoded.encodeRows(rows.subList(0, 1)));
+        encoded.writeEncodedRows(encoded.encodeRows(rows.subList(1, rows.size())));
+        encoded.close();
+
+        Assert.assertArrayEquals(outputStream.toByteArray(), encodedStream.toByteArray());
+    }
+
+    @Test
+    public void writeRow_beforeClose_doesNotFlushEachRow() throws IOException {
+        Mockito.when(row.getFormattedValue(fieldOne)).thenReturn("a");
+        Mockito.when(row.getFormattedValue(fieldTwo)).thenReturn("b");
+
+        DataSetWriter dataSetWriter = CsvDataSetWriter.open(outputStream, fields);
+        dataSetWriter.writeRow(row);
+
+        Assert.assertEquals(0, outputStream.size());
+
+        dataSetWriter.close();
+        Assert.assertEquals("one,two\r\na,b\r\n", outputStream.toString(StandardCharsets.UTF_8.toString()));
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.scottlogic.datahelix.generator.output.writer.parquet;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.common.profile.NumericBounds;
+import com.scottlogic.datahelix.generator.common.profile.NumericGranularity;
+import com.scottlogic.datahelix.generator.common.profile.StandardSpecificFieldType;
+import com.scottlogic.datahelix.generator.output.writer.DataSetWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.scottlogic.datahelix.generator.common.profile.FieldBuilder.createField;
+import static com.scottlogic.datahelix.generator.common.util.Defaults.NUMERIC_MAX;
+import static com.scottlogic.datahelix.generator.common.util.Defaults.NUMERIC_MIN;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParquetDataSetWriterTests {
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    void close_withNoRows_writesTheFooterBetweenMagicBytes() throws IOException {
+        byte[] file = write(new Fields(Collections.singletonList(createField("name"))), 10, ParquetCompression.UNCOMPRESSED);
+
+        assertArrayEquals(MAGIC, Arrays.copyOfRange(file, 0, 4));
+        assertArrayEquals(MAGIC, Arrays.copyOfRange(file, file.length - 4, file.length));
+        assertEquals(file.length - 12, footerLength(file));
+    }
+
+    @Test
+    void close_afterSeveralRowGroups_writesAFooterThatEndsAtItsLength() throws IOException {
+        Fields fields = new Fields(Arrays.asList(
+            createField("name"),
+            createField("count", StandardSpecificFieldType.INTEGER.toSpecificFieldType())));
+
+        byte[] file = write(fields, 3, ParquetCompression.GZIP, "a", 1, "b", 2, "a", 3, "c", null, null, 5);
+
+        int footerLength = footerLength(file);
+        assertTrue(footerLength > 0 && footerLength < file.length - 12);
+        assertArrayEquals(MAGIC, Arrays.copyOfRange(file, 0, 4));
+        assertArrayEquals(MAGIC, Arrays.copyOfRange(file, file.length - 4, file.length));
+    }
+
+    @Test
+    void writeRow_withADecimalFieldOfTheDefaultRange_writesItsValuesExactly() throws IOException {
+        Fields fields = new Fields(Collections.singletonList(
+            createField("price", StandardSpecificFieldType.DECIMAL.toSpecificFieldType())));
+        BigDecimal[] values = {
+            new BigDecimal("1.5"),
+            new BigDecimal("-99999999999999999999.99999999999999999999"),
+            new BigDecimal("0.00000000000000000001"),
+            NUMERIC_MAX
+        };
+
+        byte[] file = write(fields, 1, ParquetCompression.UNCOMPRESSED, (Object[]) values);
+
+        for (BigDecimal value : values) {
+            assertTrue(contains(file, value.toPlainString()), value.toPlainString());
+        }
+    }
+
+    @Test
+    void writeRow_withABoundedDecimalField_writesUnscaledValuesOfItsGranularity() throws IOException {
+        Fields fields = boundedField("price", "-999.99", "999.99", 2);
+
+        byte[] file = write(fields, 10, ParquetCompression.UNCOMPRESSED, new BigDecimal("123.45"), new BigDecimal("-0.5"));
+
+        assertTrue(contains(file, unscaledBytes(12345)));
+        assertTrue(contains(file, unscaledBytes(-50)));
+        assertFalse(contains(file, "123.45"));
+    }
+
+    @Test
+    void writeRow_withAValueOutsideTheDigitsOfTheFieldsBounds_throws() {
+        Fields fields = boundedField("price", "-999.99", "999.99", 2);
+
+        assertThrows(
+            IOException.class,
+            () -> write(fields, 10, ParquetCompression.UNCOMPRESSED, new BigDecimal("1000.00")));
+    }
+
+    @Test
+    void writeRow_withMoreDecimalPlacesThanTheFieldsGranularity_throws() {
+        Fields fields = boundedField("price", "-999.99", "999.99", 2);
+
+        assertThrows(
+            IOException.class,
+            () -> write(fields, 10, ParquetCompression.UNCOMPRESSED, new BigDecimal("1.125")));
+    }
+
+    @Test
+    void writeRow_withBoundsOfMoreThan38Digits_writesValuesAsStrings() throws IOException {
+        Fields fields = boundedField("price", "0", "1e20", 18);
+
+        byte[] file = write(fields, 10, ParquetCompression.UNCOMPRESSED, new BigDecimal("123.45"));
+
+        assertTrue(contains(file, "123.45"));
+    }
+
+    @Test
+    void writeRow_withIntegersAtTheNumericLimits_writesThem() throws IOException {
+        Fields fields = new Fields(Collections.singletonList(
+            createField("count", StandardSpecificFieldType.INTEGER.toSpecificFieldType())));
+
+        byte[] file = write(fields, 10, ParquetCompression.UNCOMPRESSED, NUMERIC_MIN, NUMERIC_MAX);
+
+        assertArrayEquals(MAGIC, Arrays.copyOfRange(file, file.length - 4, file.length));
+    }
+
+    @Test
+    void writeRow_withAnIntegerOfMoreThan38Digits_throws() {
+        Fields fields = new Fields(Collections.singletonList(
+            createField("count", StandardSpecificFieldType.INTEGER.toSpecificFieldType())));
+
+        assertThrows(
+            IOException.class,
+            () -> write(fields, 10, ParquetCompression.UNCOMPRESSED, BigDecimal.TEN.pow(38)));
+    }
+
+    @Test
+    void writeRow_withAValueOfTheWrongType_throws() {
+        Fields fields = new Fields(Collections.singletonList(
+            createField("flag", StandardSpecificFieldType.BOOLEAN.toSpecificFieldType())));
+
+        assertThrows(IOException.class, () -> write(fields, 10, ParquetCompression.UNCOMPRESSED, "yes"));
+    }
+
+    private static byte[] write(Fields fields, int rowGroupSize, ParquetCompression compression, Object... values)
+        throws IOException {
+        Field[] fieldOrder = fields.getExternalStream().toArray(Field[]::new);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (DataSetWriter writer = new ParquetOutputWriterFactory(rowGroupSize, compression).createWriter(stream, fields)) {
+            for (int row = 0; row < values.length / fieldOrder.length; row++) {
+                int first = row * fieldOrder.length;
+                writer.writeRow(field -> values[first + Arrays.asList(fieldOrder).indexOf(field)]);
+            }
+        }
+        return stream.toByteArray();
+    }
+
+    private static Fields boundedField(String name, String min, String max, int decimalPlaces) {
+        Field field = createField(name, StandardSpecificFieldType.DECIMAL.toSpecificFieldType());
+        return new Fields(Collections.singletonList(field)).withNumericBounds(Collections.singletonMap(
+            field,
+            new NumericBounds(new BigDecimal(min), new BigDecimal(max), new NumericGranularity(decimalPlaces))));
+    }
+
+    private static boolean contains(byte[] file, String text) {
+        return new String(file, StandardCharsets.ISO_8859_1).contains(text);
+    }
+
+    /**
+     * @return the 16 byte two's complement form a decimal column writes the unscaled value in
+     */
+    private static String unscaledBytes(long unscaled) {
+        byte[] bytes = BigInteger.valueOf(unscaled).toByteArray();
+        byte[] padded = new byte[16];
+        Arrays.fill(padded, (byte) (unscaled < 0 ? 0xFF : 0));
+        System.arraycopy(bytes, 0, padded, padded.length - bytes.length, bytes.length);
+        return new String(padded, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int footerLength(byte[] file) {
+        return ByteBuffer.wrap(file, file.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.scottlogic.datahelix.generator.output.writer.parquet;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParquetEncodingTests {
+    @Test
+    void bitWidth_ofZero_isOneBit() {
+        assertEquals(1, ParquetEncoding.bitWidth(0));
+    }
+
+    @Test
+    void bitWidth_ofDictionaryIndices_fitsTheLargestIndex() {
+        assertEquals(3, ParquetEncoding.bitWidth(4));
+        assertEquals(3, ParquetEncoding.bitWidth(7));
+        assertEquals(4, ParquetEncoding.bitWidth(8));
+    }
+
+    @Test
+    void writeRunLengthBitPackedHybrid_withRepeatedValues_writesARun() {
+        int[] values = { 5, 5, 5, 5, 5, 5, 5, 5, 5, 5 };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ParquetEncoding.writeRunLengthBitPackedHybrid(values, 0, values.length, 3, out);
+
+        assertArrayEquals(new byte[] { 10 << 1, 5 }, out.toByteArray());
+    }
+
+    @Test
+    void writeRunLengthBitPackedHybrid_withShortRuns_bitPacksAPaddedGroup() {
+        int[] values = { 1, 0, 1, 1, 0 };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ParquetEncoding.writeRunLengthBitPackedHybrid(values, 0, values.length, 1, out);
+
+        assertArrayEquals(new byte[] { (1 << 1) | 1, 0b01101 }, out.toByteArray());
+    }
+
+    @Test
+    void writeRunLengthBitPackedHybrid_withShortRunsThenARepeatedRun_writesBoth() {
+        int[] values = { 1, 2, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ParquetEncoding.writeRunLengthBitPackedHybrid(values, 0, values.length, 2, out);
+
+        assertArrayEquals(
+            new byte[] { (1 << 1) | 1, 0b00111001, 0, 9 << 1, 0 },
+            out.toByteArray());
+    }
+
+    @Test
+    void writeDefinitionLevels_prefixesTheLevelsWithTheirLength() {
+        boolean[] present = { true, true, true, true, true, true, true, true, true };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ParquetEncoding.writeDefinitionLevels(present, 0, present.length, out);
+
+        assertArrayEquals(new byte[] { 2, 0, 0, 0, 9 << 1, 1 }, out.toByteArray());
+    }
+}
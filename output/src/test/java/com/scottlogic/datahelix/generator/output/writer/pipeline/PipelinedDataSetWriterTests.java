@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.output.writer.pipeline;
+
+import com.scottlogic.datahelix.generator.common.output.GeneratedObject;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.output.writer.DataSetWriter;
+import com.scottlogic.datahelix.generator.output.writer.OutputWriterFactory;
+import com.scottlogic.datahelix.generator.output.writer.csv.CsvOutputWriterFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.scottlogic.datahelix.generator.common.profile.FieldBuilder.createField;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelinedDataSetWriterTests {
+    private static final int ROWS = PipelinedDataSetWriter.BATCH_SIZE * 10 + 7;
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final Fields fields = new Fields(Arrays.asList(createField("id"), createField("name")));
+
+    @Test
+    void writeRow_onSeveralFormattingThreads_writesRowsInTheOrderGenerated() throws IOException {
+        String direct = writeRows(new CsvOutputWriterFactory());
+        String pipelined = writeRows(new PipelinedOutputWriterFactory(new CsvOutputWriterFactory(), 4, 2));
+
+        assertEquals(direct, pipelined);
+    }
+
+    @Test
+    void close_afterTheUnderlyingWriterFails_throwsItsFailure() {
+        OutputWriterFactory failingFactory = new OutputWriterFactory() {
+            @Override
+            public DataSetWriter createWriter(OutputStream stream, Fields fields) {
+                return new DataSetWriter() {
+                    @Override
+                    public void writeRow(GeneratedObject row) throws IOException {
+                        throw new IOException("disk full");
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                };
+            }
+
+            @Override
+            public Optional<String> getFileExtensionWithoutDot() {
+                return Optional.empty();
+            }
+        };
+
+        IOException failure = assertThrows(
+            IOException.class,
+            () -> writeRows(new PipelinedOutputWriterFactory(failingFactory, 2, 1)));
+        assertEquals("disk full", failure.getMessage());
+    }
+
+    @Test
+    void writeRow_afterTheUnderlyingWriterFails_throwsOnEveryCall() {
+        DataSetWriter writer = new PipelinedDataSetWriter(new DataSetWriter() {
+            @Override
+            public void writeRow(GeneratedObject row) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void close() {
+            }
+        }, fields, 2, 1);
+
+        IOException failure = assertTimeoutPreemptively(TIMEOUT, () -> writeUntilFailure(writer));
+        assertEquals("disk full", failure.getMessage());
+        assertThrows(IOException.class, () -> writer.writeRow(row(0)));
+        assertThrows(IOException.class, () -> writer.writeRow(row(1)));
+        assertThrows(IOException.class, writer::close);
+    }
+
+    @Test
+    void writeRow_afterTheWriterThreadIsInterrupted_throwsRatherThanWaitingForRoom() {
+        DataSetWriter writer = new PipelinedDataSetWriter(new DataSetWriter() {
+            @Override
+            public void writeRow(GeneratedObject row) {
+                Thread.currentThread().interrupt();
+            }
+
+            @Override
+            public void close() {
+            }
+        }, fields, 2, 1);
+
+        assertTimeoutPreemptively(TIMEOUT, () -> writeUntilFailure(writer));
+        assertThrows(IOException.class, () -> writer.writeRow(row(0)));
+        assertTimeoutPreemptively(TIMEOUT, () -> assertThrows(IOException.class, writer::close));
+    }
+
+    @Test
+    void close_whenInterrupted_waitsForTheRowBeingWrittenBeforeClosingTheUnderlyingWriter() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch finishWriting = new CountDownLatch(1);
+        AtomicBoolean rowBeingWritten = new AtomicBoolean();
+        AtomicBoolean closedWhileWriting = new AtomicBoolean();
+        DataSetWriter underlyingWriter = new DataSetWriter() {
+            @Override
+            public void writeRow(GeneratedObject row) {
+                rowBeingWritten.set(true);
+                writing.countDown();
+                awaitUninterruptibly(finishWriting);
+                rowBeingWritten.set(false);
+            }
+
+            @Override
+            public void close() {
+                closedWhileWriting.set(rowBeingWritten.get());
+            }
+        };
+
+        AtomicReference<IOException> failure = new AtomicReference<>();
+        Thread generator = new Thread(() -> {
+            try (DataSetWriter writer = new PipelinedDataSetWriter(underlyingWriter, fields, 2, 1)) {
+                for (int index = 0; index < ROWS; index++) {
+                    writer.writeRow(row(index));
+                }
+            } catch (IOException e) {
+                failure.set(e);
+            }
+        });
+        generator.start();
+        writing.await();
+        generator.interrupt();
+        Thread.sleep(100);
+        finishWriting.countDown();
+        generator.join(TIMEOUT.toMillis());
+
+        assertFalse(generator.isAlive());
+        assertFalse(closedWhileWriting.get());
+        assertTrue(failure.get() instanceof InterruptedIOException, "failed with " + failure.get());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException e) {
+                // the row is written whatever happens
+            }
+        }
+    }
+
+    private static IOException writeUntilFailure(DataSetWriter writer) {
+        for (int index = 0; ; index++) {
+            try {
+                writer.writeRow(row(index));
+            } catch (IOException e) {
+                return e;
+            }
+        }
+    }
+
+    private static GeneratedObject row(int id) {
+        return field -> field.getName().equals("id") ? id : "name " + id;
+    }
+
+    private String writeRows(OutputWriterFactory factory) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (DataSetWriter writer = factory.createWriter(stream, fields)) {
+            for (int index = 0; index < ROWS; index++) {
+                writer.writeRow(row(index));
+            }
+        }
+        return new String(stream.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -26,7 +26,7 @@ public class InMapConstraintDTO extends RelationalConstraintDTO
 
     public String otherField;
     @JsonProperty(NAME)
-    public List<Object> values;
+    public List<?> values;
 
     @Override
     public String getOtherField()
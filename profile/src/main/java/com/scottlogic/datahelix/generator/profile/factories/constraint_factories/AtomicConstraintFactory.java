@@ -19,6 +19,7 @@ package com.scottlogic.datahelix.generator.profile.factories.constraint_factorie
 import com.scottlogic.datahelix.generator.common.ValidationException;
 import com.scottlogic.datahelix.generator.common.profile.Field;
 import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.InMapColumn;
 import com.scottlogic.datahelix.generator.core.fieldspecs.relations.InMapRelation;
 import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
 import com.scottlogic.datahelix.generator.core.profile.constraints.atomic.*;
@@ -34,8 +35,10 @@ import com.scottlogic.datahelix.generator.profile.dtos.constraints.atomic.tempor
 import com.scottlogic.datahelix.generator.profile.dtos.constraints.atomic.textual.ContainsRegexConstraintDTO;
 import com.scottlogic.datahelix.generator.profile.dtos.constraints.atomic.textual.MatchesRegexConstraintDTO;
 import com.scottlogic.datahelix.generator.profile.dtos.constraints.relations.InMapConstraintDTO;
+import com.scottlogic.datahelix.generator.profile.reader.CsvValues;
 
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public abstract class AtomicConstraintFactory {
@@ -85,8 +88,10 @@ public abstract class AtomicConstraintFactory {
     {
         Field main = fields.getByName(dto.field);
         Field other = fields.getByName(dto.otherField);
-        List<Object> values = dto.values.stream().map(this::parseValue).collect(Collectors.toList());
-        return new InMapRelation(main, other, DistributedList.uniform(values));
+        InMapColumn column = decode(dto.values, values -> InMapColumn.of(values.stream()
+            .map(this::parseValue)
+            .collect(Collectors.toList())));
+        return new InMapRelation(main, other, column);
     }
 
     abstract Object parseValue(Object value);
@@ -107,13 +112,24 @@ public abstract class AtomicConstraintFactory {
 
     private InSetConstraint createInSetConstraint(InSetConstraintDTO dto, Field field)
     {
-        DistributedList<Object> values = DistributedList.uniform(dto.values.stream()
+        DistributedList<Object> values = decode(dto.values, list -> DistributedList.uniform(list.stream()
             .distinct()
             .map(this::parseValue)
-            .collect(Collectors.toList()));
+            .collect(Collectors.toList())));
         return new InSetConstraint(field, values);
     }
 
+    /**
+     * Values read from a file are decoded once for each type of field and shared by every constraint on them, as a
+     * file can hold many more values than a profile
+     */
+    private <T, D> D decode(List<T> values, Function<List<T>, D> decoder)
+    {
+        return values instanceof CsvValues
+            ? ((CsvValues<T>) values).decode(getClass(), decoder)
+            : decoder.apply(values);
+    }
+
     private AtomicConstraint createIsNullConstraint(IsNullConstraintDTO dto, Fields fields)
     {
         IsNullConstraint isNullConstraint = new IsNullConstraint(fields.getByName(dto.field));
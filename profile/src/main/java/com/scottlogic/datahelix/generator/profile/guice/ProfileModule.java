@@ -18,6 +18,7 @@ package com.scottlogic.datahelix.generator.profile.guice;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Key;
+import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
 import com.google.inject.name.Names;
 import com.scottlogic.datahelix.generator.common.commands.CommandBus;
@@ -43,6 +44,7 @@ public class ProfileModule extends AbstractModule {
         // Bind command line to correct implementation
         bind(ProfileConfigSource.class).toInstance(profileConfigSource);
         bind(ProfileReader.class).to(JsonProfileReader.class);
+        bind(CsvFileCache.class).in(Singleton.class);
 
         bind(File.class)
             .annotatedWith(Names.named("config:profileFile"))
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.profile.reader;
+
+import com.scottlogic.datahelix.generator.common.ValidationException;
+
+import java.io.*;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Holds each CSV file read while loading a profile, so that a file referenced by several inSet or inMap constraints
+ * is parsed once and its values shared between them. Entries are keyed by canonical path and modification time;
+ * a file changed since it was parsed is read again, along with everything derived from it. Bound as a singleton, so
+ * it lives as long as the profile's injector.
+ */
+public class CsvFileCache {
+    private final Map<String, Entry> tables = new ConcurrentHashMap<>();
+
+    public CsvTable get(File file) {
+        return getEntry(file).table;
+    }
+
+    /**
+     * @return the value derived from the file by the function, such as the values of one of its columns, which is
+     * only called the first time the key is asked for since the file was read
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getDerived(File file, Object key, Function<CsvTable, T> derive) {
+        Entry entry = getEntry(file);
+        // not computeIfAbsent, as deriving one value can derive another from the same file
+        Object derived = entry.derived.get(key);
+        if (derived == null) {
+            derived = derive.apply(entry.table);
+            Object existing = entry.derived.putIfAbsent(key, derived);
+            if (existing != null) {
+                derived = existing;
+            }
+        }
+        return (T) derived;
+    }
+
+    private Entry getEntry(File file) {
+        String path = canonicalPath(file);
+        long lastModified = file.lastModified();
+
+        return tables.compute(path, (key, existing) ->
+            existing != null && existing.lastModified == lastModified
+                ? existing
+                : new Entry(lastModified, read(file)));
+    }
+
+    private static CsvTable read(File file) {
+        try (InputStream stream = new BufferedInputStream(createStream(file))) {
+            return CsvTable.parse(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream createStream(File file) {
+        try {
+            return new FileInputStream(file);
+        } catch (FileNotFoundException e) {
+            throw new ValidationException(e.getMessage());
+        }
+    }
+
+    private static String canonicalPath(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return file.getAbsolutePath();
+        }
+    }
+
+    private static final class Entry {
+        private final long lastModified;
+        private final CsvTable table;
+        private final Map<Object, Object> derived = new ConcurrentHashMap<>();
+
+        private Entry(long lastModified, CsvTable table) {
+            this.lastModified = lastModified;
+            this.table = Objects.requireNonNull(table);
+        }
+    }
+}
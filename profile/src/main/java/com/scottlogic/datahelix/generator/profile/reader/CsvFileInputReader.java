@@ -20,6 +20,7 @@ import com.scottlogic.datahelix.generator.common.ValidationException;
 import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
 
 import java.io.*;
+import java.util.List;
 
 public class CsvFileInputReader implements CsvInputReader {
     private final File path;
@@ -36,7 +37,7 @@ public class CsvFileInputReader implements CsvInputReader {
         }
     }
 
-    public DistributedList<String> retrieveLines(String key) {
+    public List<String> retrieveLines(String key) {
         try (InputStream stream = createStream()) {
             return new CsvStreamInputReader(stream, path.getName()).retrieveLines(key);
         } catch (IOException exc){
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.profile.reader;
+
+import com.scottlogic.datahelix.generator.common.ValidationException;
+import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
+import com.scottlogic.datahelix.generator.common.whitelist.WeightedElement;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The parsed contents of a CSV file, held column by column in {@link PackedStringColumn}s.
+ * Records are read from the stream one at a time, so the file is never held as a list of CSVRecords.
+ */
+public final class CsvTable {
+    private final List<PackedStringColumn> columns;
+    private final int recordCount;
+
+    private CsvTable(List<PackedStringColumn> columns, int recordCount) {
+        this.columns = columns;
+        this.recordCount = recordCount;
+    }
+
+    public static CsvTable parse(InputStream stream) {
+        List<PackedStringColumn.Builder> builders = new ArrayList<>();
+        int recordCount = 0;
+
+        try (CSVParser parser = CSVParser.parse(stream, Charset.defaultCharset(), CSVFormat.DEFAULT)) {
+            for (CSVRecord record : parser) {
+                while (builders.size() < record.size()) {
+                    PackedStringColumn.Builder builder = new PackedStringColumn.Builder();
+                    for (int i = 0; i < recordCount; i++) {
+                        builder.add(null);
+                    }
+                    builders.add(builder);
+                }
+                for (int column = 0; column < builders.size(); column++) {
+                    builders.get(column).add(column < record.size() ? record.get(column) : null);
+                }
+                recordCount++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<PackedStringColumn> columns = new ArrayList<>(builders.size());
+        builders.forEach(builder -> columns.add(builder.build()));
+        return new CsvTable(Collections.unmodifiableList(columns), recordCount);
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return the values beneath the header named key, in file order, as an immutable random-access list
+     */
+    public List<String> column(String key) {
+        if (recordCount > 0) {
+            for (PackedStringColumn column : columns) {
+                if (key.equals(column.get(0))) {
+                    return column.subList(1, recordCount);
+                }
+            }
+        }
+        throw new ValidationException("unable to find data for key " + key);
+    }
+
+    /**
+     * @return the values of the first column, weighted by the second column where the record has one
+     */
+    public DistributedList<String> weightedLines(String fileName) {
+        List<WeightedElement<String>> elements = new ArrayList<>(recordCount);
+        for (int row = 0; row < recordCount; row++) {
+            elements.add(createWeightedElement(row, fileName));
+        }
+        return new DistributedList<>(elements);
+    }
+
+    private WeightedElement<String> createWeightedElement(int row, String fileName) {
+        String element = columns.get(0).get(row);
+        String weighting = columns.size() > 1 ? columns.get(1).get(row) : null;
+        if (weighting == null) {
+            return WeightedElement.withDefaultWeight(element);
+        }
+
+        try {
+            return new WeightedElement<>(element, Double.parseDouble(weighting));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException(
+                "Weighting '" + weighting + "' is not a valid number\n" +
+                "CSV lines containing 2 columns must hold a weighting (double) in the second column, e.g. <value>,0.5\n" +
+                "Value: '" + element + "', File: '" + fileName + "', Line " + (row + 1), e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.profile.reader;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Values read from a file, as held by {@link CsvFileCache} while the file is unchanged. Every constraint on the same
+ * values is given the same instance, so the values it decodes them into are kept here and shared by the rest rather
+ * than decoded into a copy of their own. Immutable and indexed.
+ */
+public final class CsvValues<T> extends AbstractList<T> implements RandomAccess {
+    private final List<T> values;
+    private final Map<Object, Object> decoded = new ConcurrentHashMap<>();
+
+    CsvValues(List<T> values) {
+        this.values = values;
+    }
+
+    @Override
+    public T get(int index) {
+        return values.get(index);
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * @return the values as decoded by the decoder, which is only called the first time a decoding with the key is
+     * asked for
+     */
+    @SuppressWarnings("unchecked")
+    public <D> D decode(Object key, Function<List<T>, D> decoder) {
+        return (D) decoded.computeIfAbsent(key, k -> decoder.apply(this));
+    }
+}
@@ -20,34 +20,48 @@ import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
 import com.scottlogic.datahelix.generator.common.whitelist.WeightedElement;
 
 import java.io.File;
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class FileReader {
-    private final CsvInputStreamReaderFactory csvReaderFactory;
+    private static final String SET_FROM_FILE = "set";
+    private static final String VALUES_FROM_SET_FILE = "set values";
+    private static final String VALUES_FROM_MAP_FILE = "map values: ";
+
+    private final CsvFileCache fileCache;
 
     @Inject
-    public FileReader(CsvInputStreamReaderFactory csvReaderFactory) {
-        this.csvReaderFactory = csvReaderFactory;
+    public FileReader(CsvFileCache fileCache) {
+        this.fileCache = fileCache;
     }
 
+    /**
+     * @return the values of the set file with their weightings, shared by every constraint on the file
+     */
     public DistributedList<Object> setFromFile(File file) {
-        CsvInputReader reader = csvReaderFactory.getReaderForFile(file);
-        DistributedList<String> names = reader.retrieveLines();
-
-        return new DistributedList<>(
-            names.distributedList().stream()
-                .map(holder -> new WeightedElement<>((Object) holder.element(), holder.weight()))
-                .distinct()
-                .collect(Collectors.toList()));
+        return fileCache.getDerived(file, SET_FROM_FILE, table -> {
+            DistributedList<String> names = table.weightedLines(file.getName());
+
+            return new DistributedList<>(
+                names.distributedList().stream()
+                    .map(holder -> new WeightedElement<>((Object) holder.element(), holder.weight()))
+                    .distinct()
+                    .collect(Collectors.toList()));
+        });
     }
 
-    public DistributedList<String> listFromMapFile(File file, String key) {
-        CsvInputReader reader = csvReaderFactory.getReaderForFile(file);
-        DistributedList<String> names = reader.retrieveLines(key);
+    /**
+     * @return the values of the set file, in file order, as an immutable random-access list shared by every constraint on the file
+     */
+    public List<Object> listFromSetFile(File file) {
+        return fileCache.getDerived(file, VALUES_FROM_SET_FILE, table -> new CsvValues<>(setFromFile(file).list()));
+    }
 
-        return new DistributedList<>(
-            names.distributedList().stream()
-                .map(holder -> new WeightedElement<>(holder.element(), holder.weight()))
-                .collect(Collectors.toList()));
+    /**
+     * @return the values of the key column of the map file, in file order, as an immutable random-access list shared
+     * by every constraint on the column
+     */
+    public List<String> listFromMapFile(File file, String key) {
+        return fileCache.getDerived(file, VALUES_FROM_MAP_FILE + key, table -> new CsvValues<>(table.column(key)));
     }
 }
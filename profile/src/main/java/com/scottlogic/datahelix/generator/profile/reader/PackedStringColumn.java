@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.profile.reader;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.RandomAccess;
+
+/**
+ * An immutable column of strings packed end to end as UTF-8 bytes, with the offset of each value. Much smaller
+ * than a list of String objects for large files; each value is decoded when it is read.
+ * Missing values, for records without a value in the column, are read as null.
+ */
+public final class PackedStringColumn extends AbstractList<String> implements RandomAccess {
+    private final byte[] bytes;
+    private final int[] offsets;
+    private final BitSet missing;
+    private final int size;
+
+    private PackedStringColumn(byte[] bytes, int[] offsets, BitSet missing, int size) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.missing = missing;
+        this.size = size;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (missing.get(index)) {
+            return null;
+        }
+        return new String(bytes, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    static final class Builder {
+        private static final int INITIAL_VALUES = 64;
+
+        private byte[] bytes = new byte[INITIAL_VALUES * 8];
+        private int[] offsets = new int[INITIAL_VALUES + 1];
+        private final BitSet missing = new BitSet();
+        private int size;
+
+        void add(String value) {
+            int byteCount = offsets[size];
+            if (value == null) {
+                missing.set(size);
+            } else {
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                if (byteCount + encoded.length > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, byteCount + encoded.length));
+                }
+                System.arraycopy(encoded, 0, bytes, byteCount, encoded.length);
+                byteCount += encoded.length;
+            }
+
+            if (size + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[size + 1] = byteCount;
+            size++;
+        }
+
+        PackedStringColumn build() {
+            return new PackedStringColumn(
+                Arrays.copyOf(bytes, offsets[size]),
+                Arrays.copyOf(offsets, size + 1),
+                missing,
+                size);
+        }
+    }
+}
@@ -36,8 +36,6 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
 
 public class ConstraintDeserializer extends JsonDeserializer<ConstraintDTO> {
     private final FileReader fileReader;
@@ -74,20 +72,18 @@ public class ConstraintDeserializer extends JsonDeserializer<ConstraintDTO> {
 
     private InMapConstraintDTO map(InMapFromFileConstraintDTO dto)
     {
-        List<Object> values = fileReader.listFromMapFile(getFile(dto.file), dto.key).stream().collect(Collectors.toList());
         InMapConstraintDTO inMapConstraintDTO = new InMapConstraintDTO();
         inMapConstraintDTO.field = dto.field;
         inMapConstraintDTO.otherField = dto.file;
-        inMapConstraintDTO.values = values;
+        inMapConstraintDTO.values = fileReader.listFromMapFile(getFile(dto.file), dto.key);
         return inMapConstraintDTO;
     }
 
     private InSetConstraintDTO map(InSetFromFileConstraintDTO dto)
     {
-        List<Object> values = fileReader.setFromFile(getFile(dto.file)).stream().collect(Collectors.toList());
         InSetConstraintDTO inSetConstraintDTO = new InSetConstraintDTO();
         inSetConstraintDTO.field = dto.field;
-        inSetConstraintDTO.values = values;
+        inSetConstraintDTO.values = fileReader.listFromSetFile(getFile(dto.file));
         return inSetConstraintDTO;
     }
 
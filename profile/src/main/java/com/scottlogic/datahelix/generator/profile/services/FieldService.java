@@ -39,7 +39,7 @@ public class FieldService {
     public Fields createFields(ProfileDTO dto) {
         List<Field> fields = dto.fields.stream().map(this::createRegularField).collect(Collectors.toList());
         getInMapFieldNames(dto.constraints).stream().map(this::createInMapField).forEach(fields::add);
-        return new Fields(fields);
+        return Fields.withOrdinals(fields);
     }
 
     public SpecificFieldType specificFieldTypeFromString(String type, String formatting) {
@@ -30,7 +30,7 @@ import com.scottlogic.datahelix.generator.profile.dtos.constraints.grammatical.A
 import com.scottlogic.datahelix.generator.profile.dtos.constraints.grammatical.AnyOfConstraintDTO;
 import com.scottlogic.datahelix.generator.profile.dtos.constraints.grammatical.ConditionalConstraintDTO;
 import com.scottlogic.datahelix.generator.profile.dtos.constraints.grammatical.NotConstraintDTO;
-import com.scottlogic.datahelix.generator.profile.reader.CsvInputStreamReaderFactory;
+import com.scottlogic.datahelix.generator.profile.reader.CsvFileCache;
 import com.scottlogic.datahelix.generator.profile.reader.FileReader;
 import com.scottlogic.datahelix.generator.profile.serialisation.ConstraintDeserializer;
 import org.junit.Assert;
@@ -201,7 +201,7 @@ public class GrammaticalConstraintDeserialiserTests {
         module.addDeserializer(
             ConstraintDTO.class,
             new ConstraintDeserializer(
-                new FileReader(new CsvInputStreamReaderFactory()),
+                new FileReader(new CsvFileCache()),
                 Paths.get("test")));
         mapper.registerModule(module);
 
@@ -20,6 +20,7 @@ import com.scottlogic.datahelix.generator.profile.reader.FileReader;
 
 import java.io.File;
 import java.util.Collections;
+import java.util.List;
 
 public class TestFileReader extends FileReader {
     public TestFileReader() {
@@ -31,8 +32,12 @@ public class TestFileReader extends FileReader {
         return DistributedList.uniform(Collections.singleton("test"));
     }
     @Override
-    public DistributedList<String> listFromMapFile(File file, String key) {
-        return DistributedList.uniform(Collections.singleton("test"));
+    public List<Object> listFromSetFile(File file) {
+        return Collections.singletonList("test");
+    }
+    @Override
+    public List<String> listFromMapFile(File file, String key) {
+        return Collections.singletonList("test");
     }
 
 }
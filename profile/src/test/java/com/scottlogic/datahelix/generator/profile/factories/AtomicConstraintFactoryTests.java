@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.profile.factories;
+
+import com.scottlogic.datahelix.generator.common.profile.Field;
+import com.scottlogic.datahelix.generator.common.profile.Fields;
+import com.scottlogic.datahelix.generator.common.profile.StandardSpecificFieldType;
+import com.scottlogic.datahelix.generator.core.fieldspecs.relations.InMapRelation;
+import com.scottlogic.datahelix.generator.core.profile.constraints.atomic.InSetConstraint;
+import com.scottlogic.datahelix.generator.profile.dtos.constraints.atomic.InSetConstraintDTO;
+import com.scottlogic.datahelix.generator.profile.dtos.constraints.relations.InMapConstraintDTO;
+import com.scottlogic.datahelix.generator.profile.factories.constraint_factories.AtomicConstraintFactory;
+import com.scottlogic.datahelix.generator.profile.factories.constraint_factories.NumericConstraintFactory;
+import com.scottlogic.datahelix.generator.profile.factories.constraint_factories.StringConstraintFactory;
+import com.scottlogic.datahelix.generator.profile.reader.CsvFileCache;
+import com.scottlogic.datahelix.generator.profile.reader.FileReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicConstraintFactoryTests {
+    @TempDir
+    Path directory;
+
+    private final FileReader fileReader = new FileReader(new CsvFileCache());
+    private final Field country = field("country", StandardSpecificFieldType.STRING);
+    private final Field capital = field("capital", StandardSpecificFieldType.STRING);
+    private final Field code = field("code", StandardSpecificFieldType.INTEGER);
+    private final Field countries = field("countries.csv", StandardSpecificFieldType.STRING);
+    private final Fields fields = new Fields(Arrays.asList(country, capital, code, countries));
+
+    @Test
+    void createInMapRelation_onTheSameColumnOfAFile_sharesOneDecodedColumn() throws IOException {
+        File file = write("countries.csv", "Country,Code\nEngland,44\nFrance,33\n");
+        StringConstraintFactory factory = new StringConstraintFactory();
+
+        InMapRelation first = factory.createInMapRelation(inMap(country, file, "Country"), fields);
+        InMapRelation second = factory.createInMapRelation(inMap(country, file, "Country"), fields);
+
+        assertSame(first.getColumn(), second.getColumn());
+        assertEquals(first, second);
+    }
+
+    @Test
+    void createInMapRelation_onTheSameColumnForAnotherFieldType_decodesItForThatType() throws IOException {
+        File file = write("countries.csv", "Country,Code\nEngland,44\nFrance,33\n");
+
+        InMapRelation asStrings = new StringConstraintFactory().createInMapRelation(inMap(country, file, "Code"), fields);
+        InMapRelation asNumbers = new NumericConstraintFactory().createInMapRelation(inMap(code, file, "Code"), fields);
+
+        assertEquals(Arrays.asList("44", "33"), asStrings.getColumn().asList());
+        assertEquals(Arrays.asList(new BigDecimal("44"), new BigDecimal("33")), asNumbers.getColumn().asList());
+    }
+
+    @Test
+    void createAtomicConstraint_inSetOfTheSameFile_sharesOneDecodedList() throws IOException {
+        File file = write("capitals.csv", "London\nParis\n");
+        AtomicConstraintFactory factory = new StringConstraintFactory();
+
+        InSetConstraint first = (InSetConstraint) factory.createAtomicConstraint(inSet(capital, file), fields);
+        InSetConstraint second = (InSetConstraint) factory.createAtomicConstraint(inSet(capital, file), fields);
+
+        assertSame(first.legalValues, second.legalValues);
+        assertEquals(Arrays.asList("London", "Paris"), first.legalValuesWithoutFrequency());
+    }
+
+    private InMapConstraintDTO inMap(Field field, File file, String key) {
+        InMapConstraintDTO dto = new InMapConstraintDTO();
+        dto.field = field.getName();
+        dto.otherField = file.getName();
+        dto.values = fileReader.listFromMapFile(file, key);
+        return dto;
+    }
+
+    private InSetConstraintDTO inSet(Field field, File file) {
+        InSetConstraintDTO dto = new InSetConstraintDTO();
+        dto.field = field.getName();
+        dto.values = fileReader.listFromSetFile(file);
+        return dto;
+    }
+
+    private File write(String name, String contents) throws IOException {
+        return Files.write(directory.resolve(name), contents.getBytes()).toFile();
+    }
+
+    private static Field field(String name, StandardSpecificFieldType type) {
+        return new Field(name, type.toSpecificFieldType(), false, null, false, false, null);
+    }
+}
@@ -50,7 +50,9 @@ import java.nio.file.Paths;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.function.Consumer;
 
 import static com.scottlogic.datahelix.generator.common.util.Defaults.DEFAULT_DATE_FORMATTING;
@@ -61,7 +63,7 @@ import static org.hamcrest.core.IsNull.nullValue;
 
 public class JsonProfileReaderTests {
     private DistributedList<Object> inSetReaderReturnValue = DistributedList.singleton("test");
-    private DistributedList<String> fromFileReaderReturnValue = DistributedList.singleton("test");
+    private List<String> fromFileReaderReturnValue = Collections.singletonList("test");
 
     private class MockFromFileReader extends FileReader {
         public MockFromFileReader() {
@@ -75,7 +77,13 @@ public class JsonProfileReaderTests {
         }
 
         @Override
-        public DistributedList<String> listFromMapFile(File file, String Key)
+        public List<Object> listFromSetFile(File file)
+        {
+            return inSetReaderReturnValue.list();
+        }
+
+        @Override
+        public List<String> listFromMapFile(File file, String Key)
         {
             return fromFileReaderReturnValue;
         }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.profile.reader.file;
+
+import com.scottlogic.datahelix.generator.common.ValidationException;
+import com.scottlogic.datahelix.generator.profile.reader.CsvFileCache;
+import com.scottlogic.datahelix.generator.profile.reader.CsvTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvFileCacheTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void get_sameFileTwice_parsesItOnce() throws IOException {
+        File file = write("values.csv", "Key\na\n");
+        CsvFileCache cache = new CsvFileCache();
+
+        CsvTable first = cache.get(file);
+        CsvTable second = cache.get(new File(directory.toFile(), "./values.csv"));
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void get_fileModifiedSinceParsed_parsesItAgain() throws IOException {
+        File file = write("values.csv", "Key\na\n");
+        CsvFileCache cache = new CsvFileCache();
+        CsvTable first = cache.get(file);
+
+        Files.write(file.toPath(), Collections.singletonList("Key\nb"));
+        assertTrue(file.setLastModified(file.lastModified() + 10_000));
+        CsvTable second = cache.get(file);
+
+        assertNotSame(first, second);
+        assertEquals(Collections.singletonList("b"), second.column("Key"));
+    }
+
+    @Test
+    void getDerived_sameKeyTwice_derivesItOnce() throws IOException {
+        File file = write("values.csv", "Key\na\n");
+        CsvFileCache cache = new CsvFileCache();
+
+        List<String> first = cache.getDerived(file, "Key", table -> new ArrayList<>(table.column("Key")));
+        List<String> second = cache.getDerived(file, "Key", table -> new ArrayList<>(table.column("Key")));
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void getDerived_fileModifiedSinceDerived_derivesItAgain() throws IOException {
+        File file = write("values.csv", "Key\na\n");
+        CsvFileCache cache = new CsvFileCache();
+        List<String> first = cache.getDerived(file, "Key", table -> table.column("Key"));
+
+        Files.write(file.toPath(), Collections.singletonList("Key\nb"));
+        assertTrue(file.setLastModified(file.lastModified() + 10_000));
+        List<String> second = cache.getDerived(file, "Key", table -> table.column("Key"));
+
+        assertEquals(Collections.singletonList("a"), first);
+        assertEquals(Collections.singletonList("b"), second);
+    }
+
+    @Test
+    void get_missingFile_throwsValidationException() {
+        CsvFileCache cache = new CsvFileCache();
+
+        assertThrows(ValidationException.class, () -> cache.get(new File(directory.toFile(), "missing.csv")));
+    }
+
+    private File write(String name, String contents) throws IOException {
+        return Files.write(directory.resolve(name), contents.getBytes()).toFile();
+    }
+}
@@ -15,17 +15,23 @@
  */
 package com.scottlogic.datahelix.generator.profile.reader.file;
 
+import com.scottlogic.datahelix.generator.common.ValidationException;
 import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
 import com.scottlogic.datahelix.generator.common.whitelist.WeightedElement;
 import com.scottlogic.datahelix.generator.profile.reader.CsvInputReader;
 import com.scottlogic.datahelix.generator.profile.reader.CsvStreamInputReader;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CsvStreamInputReaderTest {
@@ -53,6 +59,24 @@ class CsvStreamInputReaderTest {
         assertTrue(checkAllWeightsAreEquals(set));
     }
 
+    @Test
+    public void testReadingKeyColumnFromMapFile() {
+        final InputStream is = new ByteArrayInputStream("Country,Capital\nEngland,London\nFrance,Paris\n".getBytes());
+        final CsvInputReader reader = new CsvStreamInputReader(is, "map.csv");
+
+        final List<String> capitals = reader.retrieveLines("Capital");
+
+        assertEquals(Arrays.asList("London", "Paris"), capitals);
+    }
+
+    @Test
+    public void testReadingMissingKeyFromMapFile() {
+        final InputStream is = new ByteArrayInputStream("Country,Capital\nEngland,London\n".getBytes());
+        final CsvInputReader reader = new CsvStreamInputReader(is, "map.csv");
+
+        assertThrows(ValidationException.class, () -> reader.retrieveLines("Currency"));
+    }
+
     private <T> boolean checkAllWeightsAreEquals(DistributedList<T> set) {
         return set.distributedList().stream()
             .map(WeightedElement::weight)
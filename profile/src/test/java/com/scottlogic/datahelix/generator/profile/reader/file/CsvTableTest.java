@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.datahelix.generator.profile.reader.file;
+
+import com.scottlogic.datahelix.generator.common.whitelist.DistributedList;
+import com.scottlogic.datahelix.generator.common.whitelist.WeightedElement;
+import com.scottlogic.datahelix.generator.profile.reader.CsvTable;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvTableTest {
+    @Test
+    void column_returnsValuesBelowHeaderInFileOrder() {
+        CsvTable table = parse("Country,Capital\nEngland,London\nJapan,\u6771\u4EAC\nFrance,Paris\n");
+
+        List<String> capitals = table.column("Capital");
+
+        assertEquals(Arrays.asList("London", "\u6771\u4EAC", "Paris"), capitals);
+        assertEquals("\u6771\u4EAC", capitals.get(1));
+    }
+
+    @Test
+    void column_isImmutable() {
+        CsvTable table = parse("Country\nEngland\n");
+
+        assertThrows(UnsupportedOperationException.class, () -> table.column("Country").set(0, "France"));
+    }
+
+    @Test
+    void weightedLines_usesDefaultWeightForRecordsWithoutOne() {
+        CsvTable table = parse("a\nb,0.5\nc\n");
+
+        DistributedList<String> lines = table.weightedLines("weights.csv");
+
+        assertEquals(
+            Arrays.asList(
+                new WeightedElement<>("a", 0.4),
+                new WeightedElement<>("b", 0.2),
+                new WeightedElement<>("c", 0.4)),
+            lines.distributedList());
+    }
+
+    @Test
+    void weightedLines_withInvalidWeight_throws() {
+        CsvTable table = parse("a,1\nb,heavy\n");
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> table.weightedLines("weights.csv"));
+        assertEquals(
+            "Weighting 'heavy' is not a valid number\n" +
+                "CSV lines containing 2 columns must hold a weighting (double) in the second column, e.g. <value>,0.5\n" +
+                "Value: 'b', File: 'weights.csv', Line 2",
+            exception.getMessage());
+    }
+
+    @Test
+    void parse_withManyValues_keepsEveryValue() {
+        StringBuilder csv = new StringBuilder("Key\n");
+        for (int i = 0; i < 10_000; i++) {
+            csv.append("value").append(i).append('\n');
+        }
+
+        CsvTable table = parse(csv.toString());
+
+        assertEquals(10_001, table.getRecordCount());
+        assertEquals("value0", table.column("Key").get(0));
+        assertEquals("value9999", table.column("Key").get(9_999));
+    }
+
+    private static CsvTable parse(String csv) {
+        return CsvTable.parse(new ByteArrayInputStream(csv.getBytes(Charset.defaultCharset())));
+    }
+}